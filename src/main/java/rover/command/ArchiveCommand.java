@@ -0,0 +1,54 @@
+package rover.command;
+
+import rover.parser.Parser;
+import rover.storage.Storage;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Represents a command to move every task that is done out of the task list and into the archive,
+ * where it can still be found with "find --all".
+ */
+public final class ArchiveCommand extends Command {
+
+    /**
+     * Constructs an ArchiveCommand.
+     *
+     * @param args The user input arguments.
+     */
+    public ArchiveCommand(String args) {
+        super(args);
+    }
+
+    @Override
+    public void execute(TaskList taskList, Parser parser, Ui ui) {}
+
+    /**
+     * Archives the tasks that are done through the storage.
+     *
+     * @param taskList The task list.
+     * @param storage The storage.
+     * @param ui The user interface.
+     */
+    @Override
+    public void execute(TaskList taskList, Storage storage, Ui ui) {
+        int archivedCount = storage.archiveTasks(taskList, Task::isDone, ui);
+        if (archivedCount == 0) {
+            ui.showMessage("There are no done tasks to archive.");
+        } else if (archivedCount > 0) {
+            int taskCount = taskList.getNumberOfTasks();
+            ui.showMessage(String.format("Done%s! I've archived %d done task%s. Use 'find --all' to find them.",
+                ui.getUsername(), archivedCount, archivedCount > 1 ? "s" : "") + System.lineSeparator()
+                + "Now you have " + taskCount + " task" + (taskCount > 1 ? "s" : "") + " in the list.");
+        }
+    }
+
+    /**
+     * Returns true as the command is executed on the storage.
+     */
+    @Override
+    public boolean isStorageCommand() {
+        return true;
+    }
+}
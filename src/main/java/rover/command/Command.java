@@ -46,6 +46,13 @@ public abstract class Command {
         return false;
     }
 
+    /**
+     * Returns true if the command is executed on the storage rather than the parser, and is false by default.
+     */
+    public boolean isStorageCommand() {
+        return false;
+    }
+
     /**
      * Checks equality of commands based on their arguments.
      * Returns true if the argument of the command is equal to the argument of the other command.
@@ -26,7 +26,7 @@ public final class DeleteCommand extends Command {
     @Override
     public void execute(TaskList taskList, Parser parser, Ui ui) {
         try {
-            int index = parser.parseTaskNumber(args, taskList.getNumberOfTasks(), TaskAction.DELETE);
+            int index = parser.parseTaskReference(args, taskList, TaskAction.DELETE);
             taskList.deleteTask(index, ui);
         } catch (RoverException e) {
             ui.displayError(e.getMessage());
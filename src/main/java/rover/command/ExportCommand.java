@@ -0,0 +1,44 @@
+package rover.command;
+
+import rover.parser.Parser;
+import rover.storage.Storage;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Represents a command to export the tasks to the tasks file in the text format.
+ */
+public final class ExportCommand extends Command {
+
+    /**
+     * Constructs an ExportCommand.
+     *
+     * @param args The user input arguments.
+     */
+    public ExportCommand(String args) {
+        super(args);
+    }
+
+    @Override
+    public void execute(TaskList taskList, Parser parser, Ui ui) {}
+
+    /**
+     * Exports the tasks through the storage.
+     *
+     * @param taskList The task list.
+     * @param storage The storage.
+     * @param ui The user interface.
+     */
+    @Override
+    public void execute(TaskList taskList, Storage storage, Ui ui) {
+        storage.exportTasks(taskList, ui);
+    }
+
+    /**
+     * Returns true as the command is executed on the storage.
+     */
+    @Override
+    public boolean isStorageCommand() {
+        return true;
+    }
+}
@@ -1,13 +1,22 @@
 package rover.command;
 
+import rover.storage.Storage;
 import rover.task.TaskList;
 import rover.ui.Ui;
 
 /**
  * Represents a command to find tasks by keyword.
+ * The keyword can be preceded by "/i" to ignore the case of the keyword and the task descriptions,
+ * and by "--all" to also find archived tasks, which are only read for this.
  */
 public class FindCommand extends ShowCommand {
 
+    private static final String CASE_INSENSITIVE_FLAG = "/i";
+    private static final String ALL_FLAG = "--all";
+    private final String keyword;
+    private final boolean isCaseInsensitive;
+    private final boolean isArchiveSearched;
+
     /**
      * Constructor for a FindCommand.
      *
@@ -15,18 +24,67 @@ public class FindCommand extends ShowCommand {
      */
     public FindCommand(String args) {
         super(args.substring(4).trim());
+        String keyword = this.args;
+        boolean isCaseInsensitive = false;
+        boolean isArchiveSearched = false;
+        // The flags can be given in any order before the keyword
+        while (true) {
+            if (hasFlag(keyword, CASE_INSENSITIVE_FLAG)) {
+                isCaseInsensitive = true;
+                keyword = keyword.substring(CASE_INSENSITIVE_FLAG.length()).trim();
+            } else if (hasFlag(keyword, ALL_FLAG)) {
+                isArchiveSearched = true;
+                keyword = keyword.substring(ALL_FLAG.length()).trim();
+            } else {
+                break;
+            }
+        }
+        this.keyword = keyword;
+        this.isCaseInsensitive = isCaseInsensitive;
+        this.isArchiveSearched = isArchiveSearched;
+    }
+
+    private static boolean hasFlag(String args, String flag) {
+        return args.equals(flag) || args.startsWith(flag + " ");
     }
 
     /**
-     * Shows the tasks that contain the keyword.
+     * Shows the tasks whose description contains the keyword.
      */
     @Override
     protected void show(TaskList taskList, Ui ui) {
-        if (args.isEmpty()) {
+        if (keyword.isEmpty()) {
+            ui.displayError("The keyword to find cannot be empty.");
+            return;
+        }
+        taskList.showTasksContaining(ui, keyword, isCaseInsensitive, getFilterDescription());
+    }
+
+    /**
+     * Shows the tasks, and then the archived tasks, whose description contains the keyword.
+     *
+     * @param taskList The task list.
+     * @param storage The storage keeping the archived tasks.
+     * @param ui The user interface.
+     */
+    @Override
+    public void execute(TaskList taskList, Storage storage, Ui ui) {
+        if (keyword.isEmpty()) {
             ui.displayError("The keyword to find cannot be empty.");
             return;
         }
-        taskList.showTasks(ui, (task, ignore) -> task.toString().contains(args),
-            "with the keyword '" + args + "'");
+        storage.findTasks(taskList, keyword, isCaseInsensitive, getFilterDescription(), ui);
+    }
+
+    private String getFilterDescription() {
+        return "with the keyword '" + keyword + "'" + (isCaseInsensitive ? " (ignoring case)" : "");
+    }
+
+    /**
+     * Returns true if archived tasks are also found, as the archive is kept by the storage.
+     */
+    @Override
+    public boolean isStorageCommand() {
+        return isArchiveSearched;
     }
 }
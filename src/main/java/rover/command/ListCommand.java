@@ -1,10 +1,16 @@
 package rover.command;
 
+import java.util.Arrays;
+
+import rover.task.TaskFilter;
 import rover.task.TaskList;
+import rover.task.TaskType;
 import rover.ui.Ui;
 
 /**
  * Represents a command to list all tasks in the task list.
+ * The tasks can be filtered by status with "done" or "undone", and by type with "todos", "deadlines" or "events",
+ * e.g. "list undone deadlines".
  */
 public final class ListCommand extends ShowCommand {
 
@@ -18,11 +24,30 @@ public final class ListCommand extends ShowCommand {
     }
 
     /**
-     * Executes the command to list all tasks in the task list.
+     * Executes the command to list all tasks in the task list, or the tasks that match the filters given.
      */
     @Override
     protected void show(TaskList taskList, Ui ui) {
-        taskList.showTasks(ui, (task, ignore) -> true, "in your list");
+        String[] words = args.trim().toLowerCase().split("\\s+");
+        TaskType type = null;
+        Boolean isDone = null;
+        for (int i = 1; i < words.length; i++) {
+            switch (words[i]) {
+            case "done" -> isDone = true;
+            case "undone" -> isDone = false;
+            case "todo", "todos" -> type = TaskType.TODO;
+            case "deadline", "deadlines" -> type = TaskType.DEADLINE;
+            case "event", "events" -> type = TaskType.EVENT;
+            default -> {
+                ui.displayError("Tasks can only be listed by 'done', 'undone', 'todos', 'deadlines' or 'events'.");
+                return;
+            }
+            }
+        }
+        String filterDescription = words.length > 1
+            ? "in your list (" + String.join(" ", Arrays.copyOfRange(words, 1, words.length)) + ")"
+            : "in your list";
+        taskList.showTasks(ui, new TaskFilter(type, isDone), filterDescription);
     }
 
 }
@@ -26,7 +26,7 @@ public final class MarkCommand extends Command {
     @Override
     public void execute(TaskList taskList, Parser parser, Ui ui) {
         try {
-            int index = parser.parseTaskNumber(args, taskList.getNumberOfTasks(), TaskAction.MARK_DONE);
+            int index = parser.parseTaskReference(args, taskList, TaskAction.MARK_DONE);
             taskList.markTask(index, ui);
         } catch (RoverException e) {
             ui.displayError(e.getMessage());
@@ -1,6 +1,7 @@
 package rover.command;
 import java.time.format.DateTimeParseException;
 
+import rover.parser.DateTimeQuery;
 import rover.task.TaskList;
 import rover.ui.Ui;
 
@@ -23,17 +24,13 @@ public final class ShowAfterCommand extends ShowCommand {
      */
     @Override
     protected void show(TaskList taskList, Ui ui) {
-        taskList.showTasks(ui, (task, wasExceptionThrown) -> {
-            try {
-                if (wasExceptionThrown.get()) {
-                    return false;
-                }
-                return task.isAfter(args);
-            } catch (DateTimeParseException e) {
-                ui.displayError("The date format should be 'dd/mm/yy' and the time format should be 'hh:mm'.");
-                wasExceptionThrown.set(true);
-                return false;
-            }
-        }, "after " + args);
+        DateTimeQuery query;
+        try {
+            query = DateTimeQuery.parse(args);
+        } catch (DateTimeParseException e) {
+            ui.displayError("The date format should be 'dd/mm/yy' and the time format should be 'hh:mm'.");
+            return;
+        }
+        taskList.showTasksAfter(ui, query, "after " + args);
     }
 }
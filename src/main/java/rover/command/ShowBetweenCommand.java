@@ -0,0 +1,46 @@
+package rover.command;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import rover.parser.DateTimeQuery;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Represents a command to show tasks between two specified dates.
+ */
+public final class ShowBetweenCommand extends ShowCommand {
+
+    /**
+     * Constructs a ShowBetweenCommand.
+     *
+     * @param args The arguments to the command.
+     */
+    public ShowBetweenCommand(String args) {
+        super(args.substring(12).trim());
+    }
+
+    /**
+     * Shows the tasks between the specified dates and/or times, inclusive.
+     * Each of the two dates and/or times can be a date, a time, or a date and a time,
+     * so the arguments are split at the first point where both halves can be parsed.
+     */
+    @Override
+    protected void show(TaskList taskList, Ui ui) {
+        String[] words = args.split("\\s+");
+        for (int split = 1; split < words.length; split++) {
+            String from = String.join(" ", Arrays.copyOfRange(words, 0, split));
+            String to = String.join(" ", Arrays.copyOfRange(words, split, words.length));
+            try {
+                DateTimeQuery fromQuery = DateTimeQuery.parse(from);
+                DateTimeQuery toQuery = DateTimeQuery.parse(to);
+                taskList.showTasksBetween(ui, fromQuery, toQuery, "between " + from + " and " + to);
+                return;
+            } catch (DateTimeParseException e) {
+                // Try splitting the arguments at the next word
+            }
+        }
+        ui.displayError("Please specify two dates and/or times, e.g. 'show between 01/02/25 15/02/25'. "
+            + "The date format should be 'dd/mm/yy' and the time format should be 'hh:mm'.");
+    }
+}
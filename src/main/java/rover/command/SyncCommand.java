@@ -0,0 +1,57 @@
+package rover.command;
+
+import rover.parser.Parser;
+import rover.storage.Storage;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Represents a command to sync the tasks with those of other data directories, e.g. on other computers,
+ * through a shared folder, such as one kept in sync by a file sharing service.
+ */
+public final class SyncCommand extends Command {
+
+    /**
+     * Constructs a SyncCommand.
+     *
+     * @param args The user input arguments, which hold the path of the shared folder after "sync".
+     */
+    public SyncCommand(String args) {
+        super(args.trim().substring(4).trim());
+    }
+
+    @Override
+    public void execute(TaskList taskList, Parser parser, Ui ui) {}
+
+    /**
+     * Syncs the tasks through the storage.
+     *
+     * @param taskList The task list.
+     * @param storage The storage.
+     * @param ui The user interface.
+     */
+    @Override
+    public void execute(TaskList taskList, Storage storage, Ui ui) {
+        if (args.isEmpty()) {
+            ui.displayError("The folder to sync with cannot be empty.");
+            return;
+        }
+        int changeCount = storage.syncTasks(taskList, args, ui);
+        if (changeCount == 0) {
+            ui.showMessage("Your tasks are in sync. There were no new changes to apply.");
+        } else if (changeCount > 0) {
+            int taskCount = taskList.getNumberOfTasks();
+            ui.showMessage(String.format("Done%s! I've synced your tasks and applied %d change%s.",
+                ui.getUsername(), changeCount, changeCount > 1 ? "s" : "") + System.lineSeparator()
+                + "Now you have " + taskCount + " task" + (taskCount > 1 ? "s" : "") + " in the list.");
+        }
+    }
+
+    /**
+     * Returns true as the command is executed on the storage.
+     */
+    @Override
+    public boolean isStorageCommand() {
+        return true;
+    }
+}
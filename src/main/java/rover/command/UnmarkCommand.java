@@ -26,7 +26,7 @@ public final class UnmarkCommand extends Command {
     @Override
     public void execute(TaskList taskList, Parser parser, Ui ui) {
         try {
-            int index = parser.parseTaskNumber(args, taskList.getNumberOfTasks(), TaskAction.MARK_UNDONE);
+            int index = parser.parseTaskReference(args, taskList, TaskAction.MARK_UNDONE);
             taskList.unmarkTask(index, ui);
         } catch (RoverException e) {
             ui.displayError(e.getMessage());
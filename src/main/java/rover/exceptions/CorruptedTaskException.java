@@ -0,0 +1,22 @@
+package rover.exceptions;
+
+/**
+ * CorruptedTaskException is thrown when a saved task that was loaded without being parsed
+ * turns out to be corrupted once it is first used.
+ * It is unchecked, as any operation that reads a task from a lazily loaded task list may be the first to parse it.
+ */
+public final class CorruptedTaskException extends RuntimeException {
+    public CorruptedTaskException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Overridden toString method to include the class name in the exception message.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "CorruptedTaskException: " + this.getMessage();
+    }
+}
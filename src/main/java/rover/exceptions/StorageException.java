@@ -0,0 +1,22 @@
+package rover.exceptions;
+
+/**
+ * StorageException is thrown when a change to the tasks could not be read from or written to the storage
+ * that keeps them, such as an embedded database.
+ * It is unchecked, as any operation on a task list kept in storage may be the one that fails.
+ */
+public final class StorageException extends RuntimeException {
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Overridden toString method to include the class name in the exception message.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "StorageException: " + this.getMessage();
+    }
+}
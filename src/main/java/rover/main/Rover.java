@@ -1,11 +1,20 @@
 package rover.main;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 
 import rover.command.Command;
+import rover.exceptions.CorruptedTaskException;
 import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
 import rover.parser.Parser;
 import rover.preferences.UserPreferences;
+import rover.storage.DatabaseStorage;
+import rover.storage.DurabilityPolicy;
+import rover.storage.FileStorage;
+import rover.storage.PartitionedStorage;
 import rover.storage.Storage;
+import rover.storage.TaskFileFormat;
 import rover.task.TaskList;
 import rover.ui.TextUi;
 import rover.ui.Ui;
@@ -17,12 +26,23 @@ public final class Rover {
 
     private static final String DEFAULT_TASKS_FILE_PATH = "data/Tasks.txt";
     private static final String DEFAULT_PREFERENCES_FILE_PATH = "data/Preferences.json";
+    private static final Duration AUTOSAVE_QUIET_PERIOD = Duration.ofSeconds(2);
+    /** The system property that chooses how far saved data is forced to disk, e.g. -Drover.durability=never. */
+    private static final String DURABILITY_PROPERTY = "rover.durability";
+    /** The system property that chooses the format tasks are saved in, e.g. -Drover.format=binary. */
+    private static final String FORMAT_PROPERTY = "rover.format";
+    /** The system property that chooses where tasks are kept, e.g. -Drover.storage=database. */
+    private static final String STORAGE_PROPERTY = "rover.storage";
+    /** The system property that archives done tasks due more than this many days ago, e.g. -Drover.archive.after=30. */
+    private static final String ARCHIVE_AGE_PROPERTY = "rover.archive.after";
 
     private UserPreferences userPreferences;
     private final Storage storage;
     private TaskList taskList;
     private final Parser parser;
     private Ui ui;
+    /** Held while a command runs, so that saves in the background see the tasks and preferences between commands. */
+    private final Object sessionLock = new Object();
 
     /**
      * Creates a new Rover instance with the default file path.
@@ -40,7 +60,43 @@ public final class Rover {
     private Rover(String tasksFilePath, String preferencesFilePath) {
         parser = new Parser();
         ui = new TextUi();
-        storage = new Storage(tasksFilePath, preferencesFilePath);
+        storage = createStorage(tasksFilePath, preferencesFilePath);
+    }
+
+    /**
+     * Returns the storage chosen through the system property to keep the tasks, which is the embedded database,
+     * partitions by month, or the tasks file if none is chosen.
+     */
+    private static Storage createStorage(String tasksFilePath, String preferencesFilePath) {
+        return switch (System.getProperty(STORAGE_PROPERTY, "file").trim().toLowerCase()) {
+        case "database" -> new DatabaseStorage(tasksFilePath, preferencesFilePath, getDurabilityPolicy());
+        case "partitioned" -> new PartitionedStorage(tasksFilePath, preferencesFilePath, getDurabilityPolicy());
+        default -> new FileStorage(tasksFilePath, preferencesFilePath, getDurabilityPolicy(), getTaskFileFormat());
+        };
+    }
+
+    /**
+     * Returns the durability policy chosen through the system property, or the batched policy if none is chosen.
+     */
+    private static DurabilityPolicy getDurabilityPolicy() {
+        String policy = System.getProperty(DURABILITY_PROPERTY, DurabilityPolicy.BATCHED.name());
+        try {
+            return DurabilityPolicy.valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DurabilityPolicy.BATCHED;
+        }
+    }
+
+    /**
+     * Returns the format of the tasks file chosen through the system property, or the text format if none is chosen.
+     */
+    private static TaskFileFormat getTaskFileFormat() {
+        String format = System.getProperty(FORMAT_PROPERTY, TaskFileFormat.TEXT.name());
+        try {
+            return TaskFileFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return TaskFileFormat.TEXT;
+        }
     }
 
     /**
@@ -58,11 +114,39 @@ public final class Rover {
     public void startSession() {
         ui.showWelcome();
         try {
-            taskList = new TaskList(ui, storage.loadTasks(ui));
+            taskList = storage.loadTasks(ui);
         } catch (RoverException | DateTimeParseException e) {
             ui.displayError("Could not load saved tasks properly. Saved tasks could be corrupted.");
             taskList = new TaskList();
         }
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        storage.startAutoSave(taskList, userPreferences, sessionLock, AUTOSAVE_QUIET_PERIOD);
+        storage.watchTasksFile(taskList, sessionLock, ui);
+        archiveOldTasks();
+    }
+
+    /**
+     * Archives the tasks that are done and were due more than the number of days chosen through the system property,
+     * if any is chosen. Todos, which are not due at any time, are only archived by the archive command.
+     */
+    private void archiveOldTasks() {
+        int archiveAge;
+        try {
+            archiveAge = Integer.parseInt(System.getProperty(ARCHIVE_AGE_PROPERTY, "-1").trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (archiveAge < 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAge);
+        int archivedCount = storage.archiveTasks(taskList,
+            task -> task.isDone() && task.getDueDateTime() != null && task.getDueDateTime().isBefore(cutoff), ui);
+        if (archivedCount > 0) {
+            ui.showMessage("I've archived " + archivedCount + " done task" + (archivedCount > 1 ? "s" : "")
+                + " that were due more than " + archiveAge + " days ago. Use 'find --all' to find them.");
+        }
     }
 
     /**
@@ -70,7 +154,19 @@ public final class Rover {
      */
     public boolean handleResponse(String input) {
         Command command = parser.parseCommand(input);
-        command.execute(taskList, parser, ui);
+        try {
+            if (command.isStorageCommand()) {
+                // Storage takes the session lock itself once saves in the background have finished
+                command.execute(taskList, storage, ui);
+            } else {
+                synchronized (sessionLock) {
+                    command.execute(taskList, parser, ui);
+                }
+            }
+        } catch (CorruptedTaskException | StorageException e) {
+            ui.displayError(e.getMessage());
+            return false;
+        }
         return command.isExit();
     }
 
@@ -3,11 +3,16 @@ package rover.parser;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 /**
  * A utility class for parsing date and time strings.
+ * Instead of trying every supported format in turn, the shape of the input (its separators, the number of digits
+ * in each field and its am/pm suffix) is classified in a single pass, and the fields are then read directly.
+ * Only unusual inputs, such as signed years with more than four digits, are handed to one precompiled formatter.
+ * No exceptions are used for control flow, and the accepted inputs are exactly those of the supported formats.
  */
 public final class DateTimeParser {
 
@@ -29,6 +34,17 @@ public final class DateTimeParser {
         "ha"
     };
 
+    private static final DateTimeFormatter YEAR_FIRST_SLASH_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMATS[0]);
+    private static final DateTimeFormatter YEAR_FIRST_DASH_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMATS[1]);
+    private static final DateTimeFormatter YEAR_LAST_DASH_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMATS[2]);
+    private static final DateTimeFormatter YEAR_LAST_SLASH_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMATS[3]);
+    private static final String AM = DateTimeFormatter.ofPattern("a").format(LocalTime.of(1, 0));
+    private static final String PM = DateTimeFormatter.ofPattern("a").format(LocalTime.of(13, 0));
+    private static final int MAX_DIGITS_OF_VARIABLE_WIDTH_FIELD = 19;
+    private static final int BASE_YEAR_OF_TWO_DIGIT_YEARS = 2000;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int INVALID = -1;
+
     /**
      * Parses a date and time string using the supported formats.
      *
@@ -38,17 +54,11 @@ public final class DateTimeParser {
      */
     public static LocalDateTime parseDateTime(String dateTimeString) throws DateTimeParseException {
         assert dateTimeString != null : "Date and time string should not be null";
-        for (String dateFormat : DATE_FORMATS) {
-            for (String timeFormat : TIME_FORMATS) {
-                String format = dateFormat + " " + timeFormat;
-                try {
-                    return LocalDateTime.parse(dateTimeString, DateTimeFormatter.ofPattern(format));
-                } catch (DateTimeParseException e) {
-                    // Continue to the next formatter
-                }
-            }
+        LocalDateTime dateTime = tryParseDateTime(dateTimeString);
+        if (dateTime == null) {
+            throw new DateTimeParseException("Unable to parse date and time: " + dateTimeString, dateTimeString, 0);
         }
-        throw new DateTimeParseException("Unable to parse date and time: " + dateTimeString, dateTimeString, 0);
+        return dateTime;
     }
 
     /**
@@ -60,14 +70,11 @@ public final class DateTimeParser {
      */
     public static LocalDate parseDate(String dateString) throws DateTimeParseException {
         assert dateString != null : "Date string should not be null";
-        for (String format : DATE_FORMATS) {
-            try {
-                return LocalDate.parse(dateString, DateTimeFormatter.ofPattern(format));
-            } catch (DateTimeParseException e) {
-                // Continue to the next formatter
-            }
+        LocalDate date = tryParseDate(dateString);
+        if (date == null) {
+            throw new DateTimeParseException("Unable to parse date: " + dateString, dateString, 0);
         }
-        throw new DateTimeParseException("Unable to parse date: " + dateString, dateString, 0);
+        return date;
     }
 
     /**
@@ -79,13 +86,225 @@ public final class DateTimeParser {
      */
     public static LocalTime parseTime(String timeString) throws DateTimeParseException {
         assert timeString != null : "Time string should not be null";
-        for (String format : TIME_FORMATS) {
-            try {
-                return LocalTime.parse(timeString, DateTimeFormatter.ofPattern(format));
-            } catch (DateTimeParseException e) {
-                // Continue to the next formatter
+        LocalTime time = tryParseTime(timeString);
+        if (time == null) {
+            throw new DateTimeParseException("Unable to parse time: " + timeString, timeString, 0);
+        }
+        return time;
+    }
+
+    /**
+     * Parses a date and time string, separated by a single space, using the supported formats.
+     *
+     * @param dateTimeString the date and time string to parse
+     * @return LocalDateTime object representing the parsed date and time, or null if it cannot be parsed
+     */
+    public static LocalDateTime tryParseDateTime(String dateTimeString) {
+        assert dateTimeString != null : "Date and time string should not be null";
+        int separatorIndex = dateTimeString.indexOf(' ');
+        if (separatorIndex < 0) {
+            return null;
+        }
+        LocalDate date = tryParseDate(dateTimeString.substring(0, separatorIndex));
+        if (date == null) {
+            return null;
+        }
+        return tryParseTimeOn(date, dateTimeString.substring(separatorIndex + 1));
+    }
+
+    /**
+     * Parses a time string using the supported formats and combines it with the given date.
+     * The time 24:00 is taken to be the start of the following day.
+     *
+     * @param date the date the time is on
+     * @param timeString the time string to parse
+     * @return LocalDateTime object representing the time on the date, or null if the time cannot be parsed
+     */
+    public static LocalDateTime tryParseTimeOn(LocalDate date, String timeString) {
+        assert date != null : "Date should not be null";
+        assert timeString != null : "Time string should not be null";
+        int minuteOfDay = parseMinuteOfDay(timeString);
+        if (minuteOfDay == INVALID) {
+            return null;
+        }
+        return date.atStartOfDay().plusMinutes(minuteOfDay);
+    }
+
+    /**
+     * Parses a date string using the supported formats.
+     *
+     * @param dateString the date string to parse
+     * @return LocalDate object representing the parsed date, or null if it cannot be parsed
+     */
+    public static LocalDate tryParseDate(String dateString) {
+        assert dateString != null : "Date string should not be null";
+        int length = dateString.length();
+        boolean isFirstFieldSigned = isSign(dateString, 0);
+        int firstSeparator = indexOfFirstNonDigit(dateString, isFirstFieldSigned ? 1 : 0);
+        if (firstSeparator >= length || (dateString.charAt(firstSeparator) != '/'
+                && dateString.charAt(firstSeparator) != '-')) {
+            return null;
+        }
+        char separator = dateString.charAt(firstSeparator);
+        int secondSeparator = firstSeparator + 3;
+        if (secondSeparator >= length || dateString.charAt(secondSeparator) != separator
+                || !isDigits(dateString, firstSeparator + 1, secondSeparator)) {
+            return null;
+        }
+        boolean isLastFieldSigned = isSign(dateString, secondSeparator + 1);
+        int lastFieldStart = secondSeparator + (isLastFieldSigned ? 2 : 1);
+        if (lastFieldStart >= length || !isDigits(dateString, lastFieldStart, length)) {
+            return null;
+        }
+        int firstFieldDigits = firstSeparator - (isFirstFieldSigned ? 1 : 0);
+        int lastFieldDigits = length - lastFieldStart;
+        int month = parseDigits(dateString, firstSeparator + 1, secondSeparator);
+        boolean isSigned = isFirstFieldSigned || isLastFieldSigned;
+        if (!isSigned && firstFieldDigits == 4 && lastFieldDigits == 2) { // yyyy/MM/dd or yyyy-MM-dd
+            return toDate(parseDigits(dateString, 0, 4), month, parseDigits(dateString, 8, 10));
+        } else if (!isSigned && firstFieldDigits == 2 && lastFieldDigits == 4) { // dd/MM/yyyy or dd-MM-yyyy
+            return toDate(parseDigits(dateString, 6, 10), month, parseDigits(dateString, 0, 2));
+        } else if (!isSigned && firstFieldDigits == 2 && lastFieldDigits == 2) { // dd/MM/yy or dd-MM-yy
+            return toDate(BASE_YEAR_OF_TWO_DIGIT_YEARS + parseDigits(dateString, 6, 8), month,
+                parseDigits(dateString, 0, 2));
+        } else if (!isLastFieldSigned && firstFieldDigits >= 4 && lastFieldDigits == 2) {
+            return parseDateWithLongYear(dateString, separator == '/'
+                ? YEAR_FIRST_SLASH_FORMATTER : YEAR_FIRST_DASH_FORMATTER);
+        } else if (!isFirstFieldSigned && firstFieldDigits == 2 && lastFieldDigits >= 4) {
+            return parseDateWithLongYear(dateString, separator == '/'
+                ? YEAR_LAST_SLASH_FORMATTER : YEAR_LAST_DASH_FORMATTER);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the date with the given fields, or null if the fields are out of range.
+     * As with the default smart resolution of the formatters, a day that is past the end of the month
+     * is changed to the last day of the month.
+     */
+    private static LocalDate toDate(int year, int month, int day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        return LocalDate.of(year, month, Math.min(day, YearMonth.of(year, month).lengthOfMonth()));
+    }
+
+    /**
+     * Parses a date whose year has a sign or more than four digits, which the formatter only accepts
+     * in a few cases. Such dates are too rare for their parse failures to matter.
+     */
+    private static LocalDate parseDateWithLongYear(String dateString, DateTimeFormatter formatter) {
+        try {
+            return LocalDate.parse(dateString, formatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a time string using the supported formats.
+     *
+     * @param timeString the time string to parse
+     * @return LocalTime object representing the parsed time, or null if it cannot be parsed
+     */
+    public static LocalTime tryParseTime(String timeString) {
+        assert timeString != null : "Time string should not be null";
+        int minuteOfDay = parseMinuteOfDay(timeString);
+        if (minuteOfDay == INVALID) {
+            return null;
+        }
+        return LocalTime.of(minuteOfDay / MINUTES_PER_HOUR % 24, minuteOfDay % MINUTES_PER_HOUR);
+    }
+
+    /**
+     * Returns the minute of the day represented by the time string, or INVALID if it cannot be parsed.
+     * The time 24:00 is returned as the number of minutes in a day.
+     */
+    private static int parseMinuteOfDay(String timeString) {
+        if (timeString.endsWith(AM)) {
+            return parseTwelveHourTime(timeString, timeString.length() - AM.length(), 0);
+        } else if (timeString.endsWith(PM)) {
+            return parseTwelveHourTime(timeString, timeString.length() - PM.length(), 12);
+        }
+        int length = timeString.length();
+        if (length == 5 && timeString.charAt(2) == ':' && isDigits(timeString, 0, 2)
+                && isDigits(timeString, 3, 5)) { // HH:mm
+            return toMinuteOfDay(parseDigits(timeString, 0, 2), parseDigits(timeString, 3, 5));
+        } else if (length == 4 && isDigits(timeString, 0, 4)) { // HHmm
+            return toMinuteOfDay(parseDigits(timeString, 0, 2), parseDigits(timeString, 2, 4));
+        }
+        return INVALID;
+    }
+
+    private static int toMinuteOfDay(int hour, int minute) {
+        if (minute > 59 || hour > 24 || (hour == 24 && minute != 0)) {
+            return INVALID;
+        }
+        return hour * MINUTES_PER_HOUR + minute;
+    }
+
+    /**
+     * Parses h:mma, h.mma, hha or ha, where the hour can have any number of leading zeros.
+     * As with the default smart resolution of the formatters, an hour of 0 is accepted and read as 12.
+     */
+    private static int parseTwelveHourTime(String timeString, int end, int hourOffset) {
+        int hourEnd = indexOfFirstNonDigit(timeString, 0);
+        if (hourEnd == 0 || hourEnd > MAX_DIGITS_OF_VARIABLE_WIDTH_FIELD) {
+            return INVALID;
+        }
+        int minute = 0;
+        if (hourEnd != end) {
+            char separator = timeString.charAt(hourEnd);
+            if ((separator != ':' && separator != '.') || end - hourEnd != 3
+                    || !isDigits(timeString, hourEnd + 1, end)) {
+                return INVALID;
+            }
+            minute = parseDigits(timeString, hourEnd + 1, end);
+        }
+        int hourStart = 0;
+        while (hourStart < hourEnd && timeString.charAt(hourStart) == '0') {
+            hourStart++;
+        }
+        if (hourEnd - hourStart > 2) {
+            return INVALID;
+        }
+        int hour = parseDigits(timeString, hourStart, hourEnd);
+        if (hour > 12 || minute > 59) {
+            return INVALID;
+        }
+        return (hour % 12 + hourOffset) * MINUTES_PER_HOUR + minute;
+    }
+
+    private static boolean isSign(String string, int index) {
+        return index < string.length() && (string.charAt(index) == '+' || string.charAt(index) == '-');
+    }
+
+    private static int indexOfFirstNonDigit(String string, int start) {
+        int index = start;
+        while (index < string.length() && isDigit(string.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigits(String string, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(string.charAt(i))) {
+                return false;
             }
         }
-        throw new DateTimeParseException("Unable to parse time: " + timeString, timeString, 0);
+        return true;
+    }
+
+    private static int parseDigits(String string, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (string.charAt(i) - '0');
+        }
+        return value;
     }
 }
@@ -0,0 +1,96 @@
+package rover.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Represents a date and/or time that tasks are compared against, such as the one given to "show before".
+ * The query is parsed once, so that comparing it against every task in the list does not parse it again.
+ * A query that is only a date is compared by date, while a query with a time is compared by date and time.
+ */
+public final class DateTimeQuery {
+
+    private final LocalDate date;
+    private final LocalTime time;
+
+    private DateTimeQuery(LocalDate date, LocalTime time) {
+        this.date = date;
+        this.time = time;
+    }
+
+    /**
+     * Parses the given query.
+     * A single word is interpreted as a date if possible and as a time today otherwise.
+     * Anything else is interpreted as a date and time.
+     *
+     * @param query The query to parse.
+     * @return The parsed query.
+     * @throws DateTimeParseException If the query is in the wrong format.
+     */
+    public static DateTimeQuery parse(String query) throws DateTimeParseException {
+        assert query != null : "Query should not be null.";
+        if (query.split(" ").length == 1) {
+            LocalDate queryDate = DateTimeParser.tryParseDate(query);
+            if (queryDate != null) { // Interpret as a date only
+                return new DateTimeQuery(queryDate, null);
+            }
+            // Interpret as a time only
+            LocalDateTime queryDateTime = DateTimeParser.parseDateTime(LocalDate.now() + " " + query);
+            return new DateTimeQuery(queryDateTime.toLocalDate(), queryDateTime.toLocalTime());
+        }
+        LocalDateTime queryDateTime = DateTimeParser.parseDateTime(query);
+        return new DateTimeQuery(queryDateTime.toLocalDate(), queryDateTime.toLocalTime());
+    }
+
+    /**
+     * Checks if the given date and time comes before this query.
+     *
+     * @param otherDate The date to compare with.
+     * @param otherTime The time to compare with.
+     * @return True if the given date and time is before this query, false otherwise.
+     */
+    public boolean isPrecededBy(LocalDate otherDate, LocalTime otherTime) {
+        return compareTo(otherDate, otherTime) < 0;
+    }
+
+    /**
+     * Checks if the given date and time comes after this query.
+     *
+     * @param otherDate The date to compare with.
+     * @param otherTime The time to compare with.
+     * @return True if the given date and time is after this query, false otherwise.
+     */
+    public boolean isFollowedBy(LocalDate otherDate, LocalTime otherTime) {
+        return compareTo(otherDate, otherTime) > 0;
+    }
+
+    /**
+     * Returns the earliest date and time covered by this query.
+     * Any date and time before it comes before this query.
+     *
+     * @return The start of the day for a date only query, or the date and time of the query otherwise.
+     */
+    public LocalDateTime getStart() {
+        return time == null ? date.atStartOfDay() : date.atTime(time);
+    }
+
+    /**
+     * Returns the latest date and time covered by this query.
+     * Any date and time after it comes after this query.
+     *
+     * @return The end of the day for a date only query, or the date and time of the query otherwise.
+     */
+    public LocalDateTime getEnd() {
+        return time == null ? date.atTime(LocalTime.MAX) : date.atTime(time);
+    }
+
+    private int compareTo(LocalDate otherDate, LocalTime otherTime) {
+        int dateComparison = otherDate.compareTo(date);
+        if (dateComparison != 0 || time == null) {
+            return dateComparison;
+        }
+        return otherTime.compareTo(time);
+    }
+}
@@ -3,10 +3,12 @@ package rover.parser;
 import java.time.format.DateTimeParseException;
 
 import rover.command.AddCommand;
+import rover.command.ArchiveCommand;
 import rover.command.Command;
 import rover.command.DeleteCommand;
 import rover.command.EmptyCommand;
 import rover.command.ExitCommand;
+import rover.command.ExportCommand;
 import rover.command.FindCommand;
 import rover.command.InvalidCommand;
 import rover.command.ListCommand;
@@ -15,6 +17,8 @@ import rover.command.RetrySaveCommand;
 import rover.command.SetCommand;
 import rover.command.ShowAfterCommand;
 import rover.command.ShowBeforeCommand;
+import rover.command.ShowBetweenCommand;
+import rover.command.SyncCommand;
 import rover.command.UnmarkCommand;
 import rover.exceptions.RoverException;
 import rover.preferences.PreferenceOption;
@@ -22,6 +26,7 @@ import rover.task.Deadline;
 import rover.task.Event;
 import rover.task.Task;
 import rover.task.TaskAction;
+import rover.task.TaskList;
 import rover.task.Todo;
 
 /**
@@ -29,6 +34,7 @@ import rover.task.Todo;
  */
 public final class Parser {
 
+    private static final String TASK_ID_PREFIX = "id:";
     private boolean isPreviousCommandBye = false;
 
     /**
@@ -47,7 +53,13 @@ public final class Parser {
         } else if (isPreviousCommandBye && (stdInput.equals("y") || stdInput.equals("n")
             || stdInput.equals("yes") || stdInput.equals("no"))) {
             return new RetrySaveCommand(args);
-        } else if (stdInput.equals("list")) {
+        } else if (stdInput.equals("export")) {
+            return new ExportCommand(args);
+        } else if (stdInput.equals("archive")) {
+            return new ArchiveCommand(args);
+        } else if (stdInput.equals("sync") || stdInput.startsWith("sync ")) {
+            return new SyncCommand(args);
+        } else if (stdInput.equals("list") || stdInput.startsWith("list ")) {
             return new ListCommand(args);
         } else if (stdInput.startsWith("find")) {
             return new FindCommand(args);
@@ -63,6 +75,8 @@ public final class Parser {
             return new ShowBeforeCommand(args);
         } else if (stdInput.startsWith("show after")) {
             return new ShowAfterCommand(args);
+        } else if (stdInput.startsWith("show between")) {
+            return new ShowBetweenCommand(args);
         } else if (stdInput.startsWith("todo") || stdInput.startsWith("deadline") || stdInput.startsWith("event")) {
             return new AddCommand(args);
         } else {
@@ -125,6 +139,35 @@ public final class Parser {
         return index;
     }
 
+    /**
+     * Parses the task number, or the task ID if it is given as "id:(ID)", and returns the corresponding task index
+     *
+     * @param taskReference Task number or task ID
+     * @param taskList Task list containing the task
+     * @param taskAction Task action used to determine error message
+     * @return Task index
+     * @throws RoverException If the task number or task ID is invalid
+     */
+    public int parseTaskReference(String taskReference, TaskList taskList, TaskAction taskAction)
+            throws RoverException {
+        if (!taskReference.toLowerCase().startsWith(TASK_ID_PREFIX)) {
+            return parseTaskNumber(taskReference, taskList.getNumberOfTasks(), taskAction);
+        }
+        String action = getAction(taskAction);
+        String taskId = taskReference.substring(TASK_ID_PREFIX.length()).trim();
+        int id;
+        try {
+            id = Integer.parseInt(taskId);
+        } catch (NumberFormatException e) {
+            throw new RoverException("Please specify a valid task ID to be " + action + ".");
+        }
+        int index = taskList.getIndexOfTaskId(id);
+        if (index < 0) {
+            throw new RoverException("There is no task with the ID " + id + " to be " + action + ".");
+        }
+        return index;
+    }
+
     private String getAction(TaskAction taskAction) {
         return switch (taskAction) {
         case MARK_DONE -> "marked as done";
@@ -1,5 +1,8 @@
 package rover.preferences;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -10,6 +13,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 public class UserPreferences {
 
     private ObjectNode jsonNode;
+    private final List<Runnable> changeListeners = new ArrayList<>();
 
     /**
      * Creates a new UserPreferences object with default values.
@@ -41,7 +45,7 @@ public class UserPreferences {
      * @return True if the name is successfully set, false otherwise.
      */
     public boolean setName(String name) {
-        jsonNode.put("name", name);
+        setPreference("name", name);
         return jsonNode.get("name").asText().equals(name);
     }
 
@@ -52,7 +56,7 @@ public class UserPreferences {
      * @return True if the image is successfully set, false otherwise.
      */
     public boolean setUserImage(String userImagePath) {
-        jsonNode.put("userImage", userImagePath);
+        setPreference("userImage", userImagePath);
         return jsonNode.get("userImage").asText().equals(userImagePath);
     }
 
@@ -63,10 +67,28 @@ public class UserPreferences {
      * @return True if the image is successfully set, false otherwise.
      */
     public boolean setRoverImage(String roverImagePath) {
-        jsonNode.put("roverImage", roverImagePath);
+        setPreference("roverImage", roverImagePath);
         return jsonNode.get("roverImage").asText().equals(roverImagePath);
     }
 
+    /**
+     * Registers a listener to be run whenever a preference is set to a different value.
+     *
+     * @param listener The listener to be registered.
+     */
+    public void addChangeListener(Runnable listener) {
+        assert listener != null : "Listener should not be null.";
+        changeListeners.add(listener);
+    }
+
+    private void setPreference(String key, String value) {
+        JsonNode oldValue = jsonNode.get(key);
+        jsonNode.put(key, value);
+        if (oldValue == null || !oldValue.equals(jsonNode.get(key))) {
+            changeListeners.forEach(Runnable::run);
+        }
+    }
+
     /**
      * Returns the JSON node representing the user preferences.
      *
@@ -0,0 +1,65 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files atomically, by writing their new contents to a sibling temporary file and moving it into place,
+ * so that a file is never missing or half written, even if saving fails or the program is killed midway.
+ */
+final class AtomicFiles {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Returns the path of the temporary file that the new contents of the given file are written to.
+     *
+     * @param filePath The path of the file to be replaced.
+     * @return The path of the temporary file, next to the given file.
+     */
+    static Path getTempFilePath(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * Moves the temporary file of the given file into its place, replacing the file atomically where the file system
+     * supports it. If the move is forced, the directory is forced as well, so that the move itself is durable.
+     *
+     * @param filePath The path of the file to be replaced.
+     * @param isForced Whether the directory should be forced to the storage device after the move.
+     * @throws IOException If the temporary file could not be moved.
+     */
+    static void moveIntoPlace(Path filePath, boolean isForced) throws IOException {
+        Path tempFilePath = getTempFilePath(filePath);
+        try {
+            Files.move(tempFilePath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFilePath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (isForced) {
+            forceDirectory(filePath.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Forces the given directory to the storage device, so that files created, moved or deleted in it are durable.
+     * Platforms on which directories cannot be opened are left to the file system.
+     *
+     * @param directoryPath The path of the directory.
+     */
+    static void forceDirectory(Path directoryPath) {
+        try (FileChannel channel = FileChannel.open(directoryPath, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on every platform, e.g. Windows, so the move is left to the file system
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package rover.storage;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+
+/**
+ * Saves the tasks and preferences in the background once they have stopped changing for a quiet period,
+ * so that a burst of changes, e.g. from scripted input, is saved with one write instead of one write per command.
+ * What needs to be written is captured while holding the session lock, which is held while commands run,
+ * so every save is a consistent snapshot, and it is written on a background thread without blocking the user.
+ * Saves run one at a time on a single daemon thread, as virtual threads are not available on Java 17.
+ * What has changed is kept by a {@link ChangeTracker}, so only the files and records that changed are written.
+ */
+final class AutoSaver {
+
+    private final FileStorage storage;
+    private final ChangeTracker changeTracker;
+    private final TaskList taskList;
+    private final UserPreferences userPreferences;
+    private final Object sessionLock;
+    private final long quietPeriodMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rover-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduledSave;
+    private boolean isCompactionPending = false;
+    private boolean isClosed = false;
+
+    /**
+     * Returns a new AutoSaver that saves the given tasks and preferences through the given storage.
+     *
+     * @param storage The storage to save to.
+     * @param changeTracker The tracker of the changes to the given tasks and preferences.
+     * @param taskList The task list to be saved.
+     * @param userPreferences The preferences to be saved.
+     * @param sessionLock The lock that is held while commands change the task list or preferences.
+     * @param quietPeriod How long the tasks and preferences must go unchanged before they are saved.
+     */
+    AutoSaver(FileStorage storage, ChangeTracker changeTracker, TaskList taskList, UserPreferences userPreferences,
+            Object sessionLock, Duration quietPeriod) {
+        this.storage = storage;
+        this.changeTracker = changeTracker;
+        this.taskList = taskList;
+        this.userPreferences = userPreferences;
+        this.sessionLock = sessionLock;
+        this.quietPeriodMillis = quietPeriod.toMillis();
+    }
+
+    /**
+     * Requests a new snapshot of the tasks so that the task journal can be compacted, after the quiet period.
+     */
+    synchronized void requestCompaction() {
+        isCompactionPending = true;
+        scheduleSave();
+    }
+
+    /**
+     * Restarts the quiet period, after which whatever has changed is saved.
+     */
+    synchronized void scheduleSave() {
+        if (isClosed) {
+            return;
+        }
+        if (scheduledSave != null) {
+            scheduledSave.cancel(false);
+        }
+        scheduledSave = executor.schedule(this::save, quietPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Saves whatever has changed since the last save.
+     * The task journal is flushed, or compacted into a new snapshot, while the session lock is held, as it is
+     * appended to by every command. Without a journal, the changes to the tasks and the preferences are captured
+     * while the lock is held and written after it is released. Anything that fails to be written is marked as
+     * unwritten, to be saved by the next save.
+     */
+    private void save() {
+        PendingSnapshot snapshot = null;
+        JsonNode preferences = null;
+        synchronized (sessionLock) {
+            boolean isCompacting;
+            synchronized (this) {
+                isCompacting = isCompactionPending;
+                isCompactionPending = false;
+            }
+            boolean isTasksChanged = changeTracker.isTasksChanged();
+            if (storage.isJournalAttached()) {
+                // A journal that cannot be flushed is replaced by a new snapshot and a new journal
+                if (isCompacting || (isTasksChanged && !storage.flushJournal())) {
+                    storage.writeSnapshot(taskList);
+                }
+            } else if (isTasksChanged) {
+                snapshot = storage.captureSnapshot(taskList);
+            }
+            if (changeTracker.isPreferencesChanged()) {
+                preferences = userPreferences.getJsonNode().deepCopy();
+                changeTracker.markPreferencesWritten();
+            }
+        }
+        if (snapshot != null) {
+            storage.writeSnapshot(snapshot);
+        }
+        if (preferences != null && !storage.writePreferences(preferences)) {
+            changeTracker.markPreferencesUnwritten();
+        }
+    }
+
+    /**
+     * Runs the given write on the thread that saves in the background, while holding the session lock, and waits
+     * for it to finish. Writes that do not come from this AutoSaver run here, so they are never interleaved with a
+     * save whose changes were captured before them but that is still being written.
+     *
+     * @param write The write to be run, which returns whether it succeeded.
+     * @return Whether the write succeeded, or false if this AutoSaver has been closed.
+     */
+    boolean runExclusively(BooleanSupplier write) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                synchronized (sessionLock) {
+                    return write.getAsBoolean();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Stops saving in the background, waiting for a save that is already being written to finish.
+     * Changes that have not been saved yet stay marked as changed, to be saved by the caller.
+     */
+    void close() {
+        synchronized (this) {
+            isClosed = true;
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
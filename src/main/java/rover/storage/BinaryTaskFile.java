@@ -0,0 +1,254 @@
+package rover.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskBinaryCodec;
+
+/**
+ * Reads and writes the tasks file in a binary format, where tasks are encoded by {@link TaskBinaryCodec},
+ * so loading only copies bytes into tasks instead of parsing dates and times.
+ * The file starts with a header holding a magic number, the version of the format, the number of tasks and a CRC32
+ * of the header. Tasks are then kept in blocks that each start at a multiple of BLOCK_SIZE after the header, and
+ * that each hold their number of tasks, their length in units of BLOCK_SIZE, the length of their tasks and a CRC32
+ * of all of these. A corrupted block is skipped without affecting the blocks around it, so corruption only loses
+ * the tasks in that block.
+ */
+final class BinaryTaskFile {
+
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 1 << 16;
+    static final int HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 16;
+    private static final int MAGIC = 0x524F5642;
+    private static final byte[] PADDING = new byte[BLOCK_SIZE];
+
+    private final Path filePath;
+    private final DurabilityPolicy durabilityPolicy;
+    private long checksum = 0;
+    private boolean isCorrupted = false;
+    private int lostTaskCount = 0;
+
+    /**
+     * Returns a new BinaryTaskFile stored at the given file path.
+     *
+     * @param filePath The file path of the binary tasks file.
+     * @param durabilityPolicy How far each write is forced to the storage device.
+     */
+    BinaryTaskFile(Path filePath, DurabilityPolicy durabilityPolicy) {
+        this.filePath = filePath;
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Encodes the given tasks into blocks, ready to be written. Tasks are never split across blocks, so a block
+     * holding a task larger than BLOCK_SIZE spans several units.
+     *
+     * @param tasks The tasks to be encoded, in order.
+     * @return The encoded blocks, each starting with its block header.
+     */
+    static List<ByteBuffer> encode(List<Task> tasks) {
+        List<ByteBuffer> blocks = new ArrayList<>();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        ByteArrayOutputStream encodedTask = new ByteArrayOutputStream();
+        DataOutputStream taskOut = new DataOutputStream(encodedTask);
+        int blockTaskCount = 0;
+        try {
+            for (Task task : tasks) {
+                encodedTask.reset();
+                TaskBinaryCodec.encode(task, taskOut);
+                if (blockTaskCount > 0 && BLOCK_HEADER_SIZE + payload.size() + encodedTask.size() > BLOCK_SIZE) {
+                    blocks.add(toBlock(blockTaskCount, payload));
+                    payload.reset();
+                    blockTaskCount = 0;
+                }
+                encodedTask.writeTo(payload);
+                blockTaskCount++;
+            }
+        } catch (IOException e) {
+            // Only thrown by streams that write to a file rather than to memory
+            throw new UncheckedIOException(e);
+        }
+        if (blockTaskCount > 0) {
+            blocks.add(toBlock(blockTaskCount, payload));
+        }
+        return blocks;
+    }
+
+    private static ByteBuffer toBlock(int taskCount, ByteArrayOutputStream payload) {
+        int units = (BLOCK_HEADER_SIZE + payload.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + payload.size());
+        block.putInt(taskCount).putInt(units).putInt(payload.size());
+        block.position(BLOCK_HEADER_SIZE);
+        block.put(payload.toByteArray());
+        CRC32 crc = new CRC32();
+        crc.update(block.array(), 0, 12);
+        crc.update(block.array(), BLOCK_HEADER_SIZE, payload.size());
+        block.putInt(12, (int) crc.getValue());
+        return block.flip();
+    }
+
+    /**
+     * Writes the given blocks to a temporary file, which is moved into place as the binary tasks file.
+     *
+     * @param taskCount The number of tasks in the blocks.
+     * @param blocks The blocks encoded by {@link #encode(List)}.
+     * @return The CRC32 checksum of the whole file.
+     * @throws IOException If the file could not be written.
+     */
+    long write(int taskCount, List<ByteBuffer> blocks) throws IOException {
+        Files.createDirectories(filePath.toAbsolutePath().getParent());
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(AtomicFiles.getTempFilePath(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(taskCount);
+            CRC32 headerCrc = new CRC32();
+            headerCrc.update(header.array(), 0, 12);
+            header.putInt((int) headerCrc.getValue()).flip();
+            crc.update(header.array());
+            writeFully(channel, header);
+            for (int i = 0; i < blocks.size(); i++) {
+                ByteBuffer block = blocks.get(i).duplicate();
+                if (i > 0) {
+                    // Pad the previous block up to the start of this one
+                    int previousLength = blocks.get(i - 1).remaining();
+                    int padding = blocks.get(i - 1).getInt(4) * BLOCK_SIZE - previousLength;
+                    crc.update(PADDING, 0, padding);
+                    writeFully(channel, ByteBuffer.wrap(PADDING, 0, padding));
+                }
+                crc.update(block.duplicate());
+                writeFully(channel, block);
+            }
+            if (durabilityPolicy != DurabilityPolicy.NEVER) {
+                channel.force(false);
+            }
+        }
+        AtomicFiles.moveIntoPlace(filePath, durabilityPolicy != DurabilityPolicy.NEVER);
+        checksum = crc.getValue();
+        return checksum;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Loads the tasks in the binary tasks file, skipping any corrupted blocks.
+     *
+     * @return The tasks in the file, in the order they were saved.
+     * @throws IOException If the file could not be read.
+     * @throws RoverException If the file is not a binary tasks file, or was saved by a newer version.
+     */
+    List<Task> load() throws IOException, RoverException {
+        byte[] data = Files.readAllBytes(filePath);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        checksum = crc.getValue();
+        isCorrupted = false;
+        lostTaskCount = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        if (buffer.getInt(4) > VERSION) {
+            throw new RoverException("Your tasks were saved by a newer version of Rover.");
+        }
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(data, 0, 12);
+        boolean isHeaderValid = (int) headerCrc.getValue() == buffer.getInt(12);
+        List<Task> tasks = new ArrayList<>(isHeaderValid ? Math.max(0, buffer.getInt(8)) : 16);
+        int offset = HEADER_SIZE;
+        while (offset + BLOCK_HEADER_SIZE <= data.length) {
+            int units = readBlock(data, offset, tasks);
+            if (units == 0) {
+                isCorrupted = true;
+                units = 1;
+            }
+            offset += units * BLOCK_SIZE;
+        }
+        if (!isHeaderValid) {
+            isCorrupted = true;
+        } else if (isCorrupted) {
+            lostTaskCount = Math.max(0, buffer.getInt(8) - tasks.size());
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the tasks in the block at the given offset, if it is not corrupted.
+     *
+     * @return The length of the block in units of BLOCK_SIZE, or 0 if it is corrupted.
+     */
+    private static int readBlock(byte[] data, int offset, List<Task> tasks) {
+        ByteBuffer header = ByteBuffer.wrap(data, offset, BLOCK_HEADER_SIZE);
+        int taskCount = header.getInt();
+        int units = header.getInt();
+        int length = header.getInt();
+        int expectedCrc = header.getInt();
+        if (units < 1 || length < 0 || taskCount < 1 || length > (long) units * BLOCK_SIZE - BLOCK_HEADER_SIZE
+                || (long) offset + BLOCK_HEADER_SIZE + length > data.length) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, 12);
+        crc.update(data, offset + BLOCK_HEADER_SIZE, length);
+        if ((int) crc.getValue() != expectedCrc) {
+            return 0;
+        }
+        ByteBuffer payload = ByteBuffer.wrap(data, offset + BLOCK_HEADER_SIZE, length);
+        List<Task> blockTasks = new ArrayList<>(taskCount);
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                blockTasks.add(TaskBinaryCodec.decode(payload));
+            }
+        } catch (RoverException e) {
+            return 0;
+        }
+        if (payload.hasRemaining()) {
+            return 0;
+        }
+        tasks.addAll(blockTasks);
+        return units;
+    }
+
+    /**
+     * Returns the CRC32 checksum of the file that was last loaded or written.
+     */
+    long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Returns whether any part of the file that was last loaded was corrupted.
+     */
+    boolean isCorrupted() {
+        return isCorrupted;
+    }
+
+    /**
+     * Returns the number of tasks that were lost to corrupted blocks in the file that was last loaded,
+     * or 0 if it is not known, e.g. because the header was corrupted too.
+     */
+    int getLostTaskCount() {
+        return lostTaskCount;
+    }
+}
@@ -0,0 +1,164 @@
+package rover.storage;
+
+import java.util.BitSet;
+import java.util.List;
+
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskListListener;
+
+/**
+ * Keeps track of what has changed in the tasks and preferences since they were last written,
+ * so that a file that has not changed is never rewritten, and a session that only reads its tasks does no I/O.
+ * Within the tasks file, the records whose status changed and the first record that was added or deleted are
+ * tracked, so that {@link TaskFileWriter} only rewrites the regions of the file that have changed.
+ * Positions before the first added or deleted record are the same in the task list and in the tasks file.
+ */
+final class ChangeTracker implements TaskListListener {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private boolean isTasksChanged = false;
+    private boolean isPreferencesChanged = false;
+    /** Whether the tasks file must be rewritten as a whole, e.g. as it was not written in this session. */
+    private boolean isFullRewriteNeeded = true;
+    private int firstRewrittenIndex = NONE;
+    private final BitSet changedStatuses = new BitSet();
+    private int taskCount;
+    private Runnable changeHandler = () -> { };
+
+    /**
+     * Returns a new ChangeTracker for a task list that currently has the given number of tasks.
+     *
+     * @param taskCount The number of tasks in the task list.
+     */
+    ChangeTracker(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    /**
+     * Sets the handler that is run after every change.
+     *
+     * @param changeHandler The handler to be run.
+     */
+    void setChangeHandler(Runnable changeHandler) {
+        this.changeHandler = changeHandler;
+    }
+
+    synchronized boolean isTasksChanged() {
+        return isTasksChanged;
+    }
+
+    synchronized boolean isPreferencesChanged() {
+        return isPreferencesChanged;
+    }
+
+    /**
+     * Marks the preferences as changed.
+     */
+    void onPreferencesChanged() {
+        synchronized (this) {
+            isPreferencesChanged = true;
+        }
+        changeHandler.run();
+    }
+
+    /**
+     * Marks the preferences as written. If they fail to be written, they should be marked as unwritten again.
+     */
+    synchronized void markPreferencesWritten() {
+        isPreferencesChanged = false;
+    }
+
+    /**
+     * Marks the preferences as not written, without running the change handler.
+     */
+    synchronized void markPreferencesUnwritten() {
+        isPreferencesChanged = true;
+    }
+
+    /**
+     * Captures the changes to the tasks that need to be written to the tasks file, and marks them as written.
+     * This should be called while the task list cannot be changed. If the changes fail to be written,
+     * {@link #markTasksUnwritten()} should be called.
+     *
+     * @param taskList The task list being tracked.
+     * @return The changes to be written to the tasks file.
+     */
+    synchronized TaskFileWriter.Update captureTaskChanges(TaskList taskList) {
+        int first = isFullRewriteNeeded ? 0 : firstRewrittenIndex;
+        int[] patchedIndexes = changedStatuses.stream().filter(index -> index < first).toArray();
+        boolean[] patchedStatuses = new boolean[patchedIndexes.length];
+        for (int i = 0; i < patchedIndexes.length; i++) {
+            patchedStatuses[i] = taskList.isTaskDone(patchedIndexes[i]);
+        }
+        TaskFileWriter.Update update = new TaskFileWriter.Update(first,
+            first == NONE ? List.of() : taskList.getTaskStrings(first), patchedIndexes, patchedStatuses);
+        isTasksChanged = false;
+        isFullRewriteNeeded = false;
+        firstRewrittenIndex = NONE;
+        changedStatuses.clear();
+        return update;
+    }
+
+    /**
+     * Marks the tasks as captured as a whole, e.g. to be written in a format that is always rewritten as a whole.
+     * This should be called while the task list cannot be changed. If the tasks fail to be written,
+     * {@link #markTasksUnwritten()} should be called.
+     */
+    synchronized void markTasksCaptured() {
+        isTasksChanged = false;
+        isFullRewriteNeeded = false;
+        firstRewrittenIndex = NONE;
+        changedStatuses.clear();
+    }
+
+    /**
+     * Marks the tasks as not written, so that the whole tasks file is rewritten the next time,
+     * without running the change handler.
+     */
+    synchronized void markTasksUnwritten() {
+        isTasksChanged = true;
+        isFullRewriteNeeded = true;
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        synchronized (this) {
+            firstRewrittenIndex = Math.min(firstRewrittenIndex, taskCount);
+            taskCount++;
+            isTasksChanged = true;
+        }
+        changeHandler.run();
+    }
+
+    @Override
+    public void onTaskMarked(int index, Task task) {
+        onStatusChanged(index);
+    }
+
+    @Override
+    public void onTaskUnmarked(int index, Task task) {
+        onStatusChanged(index);
+    }
+
+    private void onStatusChanged(int index) {
+        synchronized (this) {
+            if (index < firstRewrittenIndex) {
+                changedStatuses.set(index);
+            }
+            isTasksChanged = true;
+        }
+        changeHandler.run();
+    }
+
+    @Override
+    public void onTaskDeleted(int index, Task task) {
+        synchronized (this) {
+            firstRewrittenIndex = Math.min(firstRewrittenIndex, index);
+            taskCount--;
+            isTasksChanged = true;
+        }
+        changeHandler.run();
+    }
+}
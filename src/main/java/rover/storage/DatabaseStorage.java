@@ -0,0 +1,318 @@
+package rover.storage;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Handles the storage of the tasks and preferences in an embedded H2 database, kept next to the tasks file with the
+ * extension {@code .mv.db}. Tasks are kept in a {@link DatabaseTaskTable}, so only their row IDs are loaded, queries
+ * are answered by the indexes of the database, and every change is written as it is made, as a single row.
+ * The first time the database is opened, the tasks and preferences are imported from the tasks and preferences files.
+ */
+public final class DatabaseStorage implements Storage {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final String PREFERENCES_SCHEMA =
+        "CREATE TABLE IF NOT EXISTS preferences (id INT PRIMARY KEY, json VARCHAR NOT NULL)";
+    /** The ID of the only row of the preferences table. */
+    private static final int PREFERENCES_ID = 1;
+    private final Path databaseFilePath;
+    private final FileStorage fileStorage;
+    private final DurabilityPolicy durabilityPolicy;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Connection connection;
+    // Whether the tables did not exist before the database was opened, so the saved files should be imported
+    private boolean isTasksImportPending = false;
+    private boolean isPreferencesImportPending = false;
+    private boolean isPreferencesChanged = false;
+    private boolean isTasksSaved = false;
+    private boolean isPreferencesSaved = false;
+
+    /**
+     * Returns a new DatabaseStorage object that keeps the database next to the given tasks file,
+     * and imports the given tasks and preferences files when the database is first created.
+     *
+     * @param tasksFilePath The file path of the tasks file to import and export tasks.
+     * @param preferencesFilePath The file path of the preferences file to import preferences.
+     * @param durabilityPolicy How far each change is forced to the storage device.
+     */
+    public DatabaseStorage(String tasksFilePath, String preferencesFilePath, DurabilityPolicy durabilityPolicy) {
+        assert durabilityPolicy != null : "Durability policy should not be null.";
+        // H2 adds the extension to the path of the database itself
+        this.databaseFilePath = FileStorage.getSiblingFilePath(FileStorage.resolveFilePath(tasksFilePath), "");
+        this.fileStorage = new FileStorage(tasksFilePath, preferencesFilePath, durabilityPolicy);
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Returns the connection to the database, opening it and creating its tables if they do not exist yet.
+     */
+    private Connection getConnection() throws SQLException {
+        if (connection != null) {
+            return connection;
+        }
+        Connection newConnection = DriverManager.getConnection("jdbc:h2:file:" + databaseFilePath);
+        try (Statement statement = newConnection.createStatement()) {
+            try (ResultSet tables = newConnection.getMetaData().getTables(null, null, "TASKS", null)) {
+                isTasksImportPending = !tables.next();
+                isPreferencesImportPending = isTasksImportPending;
+            }
+            for (String sql : DatabaseTaskTable.SCHEMA) {
+                statement.execute(sql);
+            }
+            statement.execute(PREFERENCES_SCHEMA);
+            if (durabilityPolicy == DurabilityPolicy.ALWAYS) {
+                // Each change is flushed to disk as it is committed, rather than within half a second
+                statement.execute("SET WRITE_DELAY 0");
+            }
+        } catch (SQLException e) {
+            newConnection.close();
+            throw e;
+        }
+        connection = newConnection;
+        return connection;
+    }
+
+    /**
+     * Loads the tasks from the database, which only reads their row IDs.
+     * When the database is first created, the tasks are imported from the tasks file, as loaded by
+     * {@link FileStorage}, in a single transaction.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The TaskList object keeping its tasks in the database.
+     * @throws RoverException If there is a possible corruption in the imported tasks.
+     * @throws DateTimeParseException If the date and time format of an imported task is incorrect.
+     */
+    @Override
+    public TaskList loadTasks(Ui ui) throws RoverException, DateTimeParseException {
+        try {
+            getConnection();
+            if (isTasksImportPending) {
+                importTasks(ui);
+            }
+            return TaskList.ofTable(new DatabaseTaskTable(connection));
+        } catch (SQLException | StorageException e) {
+            ui.displayError("Failed to load tasks.");
+            return new TaskList();
+        }
+    }
+
+    /**
+     * Imports the tasks from the tasks file. If they could not be inserted, the table of tasks is dropped,
+     * so that they are imported again the next time the database is opened.
+     */
+    private void importTasks(Ui ui) throws SQLException, RoverException, DateTimeParseException {
+        try {
+            DatabaseTaskTable.insertAll(connection, fileStorage.loadTasks(ui).getTasks());
+        } catch (SQLException e) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE tasks");
+            }
+            throw e;
+        }
+        isTasksImportPending = false;
+    }
+
+    /**
+     * Loads the preferences from the database, or from the preferences file when the database is first created.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The JSON node representing the preferences.
+     */
+    @Override
+    public ObjectNode loadPreferences(Ui ui) {
+        try {
+            getConnection();
+            if (isPreferencesImportPending) {
+                // The imported preferences are written to the database when the session ends
+                isPreferencesImportPending = false;
+                isPreferencesChanged = true;
+                return fileStorage.loadPreferences(ui);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT json FROM preferences WHERE id = ?")) {
+                statement.setInt(1, PREFERENCES_ID);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return (ObjectNode) objectMapper.readTree(resultSet.getString(1));
+                    }
+                }
+            }
+        } catch (SQLException | JsonProcessingException | ClassCastException e) {
+            ui.displayError("Failed to load preferences.");
+        }
+        return (ObjectNode) (new UserPreferences()).getJsonNode();
+    }
+
+    /**
+     * Starts keeping track of the changes made to the preferences, so that they are only saved if they have changed.
+     * Changes to the tasks are written to the database as they are made, so they are not tracked.
+     *
+     * @param taskList The TaskList object whose changes should be tracked.
+     * @param userPreferences The UserPreferences object whose changes should be tracked.
+     */
+    @Override
+    public void trackChanges(TaskList taskList, UserPreferences userPreferences) {
+        assert userPreferences != null : "UserPreferences should not be null.";
+        userPreferences.addChangeListener(() -> isPreferencesChanged = true);
+    }
+
+    /**
+     * Does nothing, as every change to the tasks is already written to the database as it is made.
+     */
+    @Override
+    public void attachJournal(TaskList taskList, Ui ui) {}
+
+    /**
+     * Does nothing, as every change to the tasks is already written to the database as it is made,
+     * and the preferences are saved when the session ends.
+     */
+    @Override
+    public void startAutoSave(TaskList taskList, UserPreferences userPreferences, Object sessionLock,
+            Duration quietPeriod) {}
+
+    /**
+     * Saves the preferences to the database if they have changed, and closes the database once everything is saved.
+     * The tasks have already been saved as they were changed, so nothing is saved if the database could not be
+     * opened.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void saveAll(TaskList taskList, UserPreferences userPreferences, Ui ui) {
+        assert userPreferences != null : "UserPreferences should not be null.";
+        assert ui != null : "Ui should not be null.";
+        String response = "Saving your tasks...";
+        isTasksSaved = connection != null;
+        response += NEW_LINE + (isTasksSaved ? "Tasks saved successfully!" : "Failed to save tasks.");
+
+        response += NEW_LINE + "Saving your preferences...";
+        isPreferencesSaved = connection != null
+            && (!isPreferencesChanged || writePreferences(userPreferences.getJsonNode()));
+        isPreferencesChanged = !isPreferencesSaved;
+        response += NEW_LINE + (isPreferencesSaved ? "Preferences saved successfully!" : "Failed to save preferences.");
+
+        if (isTasksSaved && isPreferencesSaved) {
+            close();
+            ui.showMessageWithoutLineSeparator(response);
+        } else {
+            ui.displayError(response);
+        }
+    }
+
+    /**
+     * Writes the given preferences to the only row of the preferences table.
+     *
+     * @param preferences The JSON node representing the preferences.
+     * @return True if the preferences were written successfully, false otherwise.
+     */
+    private boolean writePreferences(JsonNode preferences) {
+        try {
+            getConnection();
+            String json = objectMapper.writeValueAsString(preferences);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE preferences SET json = ? WHERE id = ?")) {
+                update.setString(1, json);
+                update.setInt(2, PREFERENCES_ID);
+                if (update.executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO preferences (id, json) VALUES (?, ?)")) {
+                insert.setInt(1, PREFERENCES_ID);
+                insert.setString(2, json);
+                insert.executeUpdate();
+                return true;
+            }
+        } catch (SQLException | JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Every change has already been committed, so there is nothing left to lose
+        }
+        connection = null;
+    }
+
+    /**
+     * Does nothing, as the tasks file is only imported when the tasks are first loaded, and written when they are
+     * exported.
+     */
+    @Override
+    public void watchTasksFile(TaskList taskList, Object sessionLock, Ui ui) {}
+
+    /**
+     * Exports the tasks to the tasks file in the text format, which reads every task from the database once.
+     *
+     * @param taskList The TaskList object containing the tasks to be exported.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void exportTasks(TaskList taskList, Ui ui) {
+        fileStorage.exportTasks(taskList, ui);
+    }
+
+    /**
+     * Archives the tasks in the archive next to the tasks file, and removes them from the task list as single rows.
+     *
+     * @param taskList The TaskList object containing the tasks to be archived.
+     * @param predicate The predicate that the tasks to be archived match.
+     * @param ui The Ui object to display messages.
+     * @return The number of tasks archived, or -1 if they could not be archived.
+     */
+    @Override
+    public int archiveTasks(TaskList taskList, Predicate<Task> predicate, Ui ui) {
+        return fileStorage.archiveTasks(taskList, predicate, ui);
+    }
+
+    @Override
+    public void findTasks(TaskList taskList, String keyword, boolean isCaseInsensitive, String filterDescription,
+            Ui ui) {
+        fileStorage.findTasks(taskList, keyword, isCaseInsensitive, filterDescription, ui);
+    }
+
+    /**
+     * Does not sync the tasks, as only tasks kept in a tasks file can be synced.
+     *
+     * @param taskList The TaskList object containing the tasks to be synced.
+     * @param folderPath The path of the shared folder, relative to the current directory.
+     * @param ui The Ui object to display messages.
+     * @return -1, as the tasks are not synced.
+     */
+    @Override
+    public int syncTasks(TaskList taskList, String folderPath, Ui ui) {
+        ui.displayError("Only tasks kept in a tasks file can be synced.");
+        return -1;
+    }
+
+    @Override
+    public boolean isSavedSuccessfully() {
+        return isTasksSaved && isPreferencesSaved;
+    }
+}
@@ -0,0 +1,289 @@
+package rover.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.task.Task;
+import rover.task.TaskBinaryCodec;
+import rover.task.TaskFilter;
+import rover.task.TaskTable;
+import rover.task.TaskType;
+
+/**
+ * Keeps tasks in a table of an embedded database, reached through JDBC.
+ * Each task is a row holding its type, status, description and due date and time in columns of their own,
+ * which are indexed so that listing, finding and showing tasks are answered by the database,
+ * and the task itself, encoded by {@link TaskBinaryCodec}, so reading a task does not parse any dates or times.
+ * The status column is the one that is updated when a task is marked, so it takes precedence over the status
+ * in the encoded task.
+ */
+final class DatabaseTaskTable implements TaskTable {
+
+    /** The statements that create the table and its indexes, if they do not exist yet. */
+    static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS tasks (id INT PRIMARY KEY, task_type CHAR(1) NOT NULL, is_done BOOLEAN NOT NULL, "
+            + "description VARCHAR NOT NULL, due_at TIMESTAMP(9), encoded VARBINARY NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS tasks_due_at ON tasks (due_at)",
+        "CREATE INDEX IF NOT EXISTS tasks_status ON tasks (is_done, task_type)",
+        "CREATE INDEX IF NOT EXISTS tasks_type ON tasks (task_type)",
+        "CREATE INDEX IF NOT EXISTS tasks_description ON tasks (description)"
+    };
+    private static final String SELECT_TASKS = "SELECT is_done, encoded FROM tasks ";
+    private static final String ORDER = " ORDER BY id";
+    private static final String INSERT = "INSERT INTO tasks (id, task_type, is_done, description, due_at, encoded) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final Connection connection;
+
+    /**
+     * Returns the table of tasks in the database of the given connection, which must have the schema in SCHEMA.
+     *
+     * @param connection The connection to the database.
+     */
+    DatabaseTaskTable(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Inserts the given tasks as the rows with IDs from 1 onwards, in a single transaction, e.g. to import them.
+     *
+     * @param connection The connection to the database, whose table of tasks should be empty.
+     * @param tasks The tasks to be inserted, in order.
+     * @throws SQLException If the tasks could not be inserted, in which case none of them are.
+     */
+    static void insertAll(Connection connection, List<Task> tasks) throws SQLException {
+        boolean isAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < tasks.size(); i++) {
+                bindTask(statement, i + 1, tasks.get(i));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(isAutoCommit);
+        }
+    }
+
+    private static void bindTask(PreparedStatement statement, int rowId, Task task) throws SQLException {
+        statement.setInt(1, rowId);
+        statement.setString(2, String.valueOf(TaskType.of(task).getCode()));
+        statement.setBoolean(3, task.isDone());
+        statement.setString(4, task.getDescription());
+        LocalDateTime dueDateTime = task.getDueDateTime();
+        if (dueDateTime == null) {
+            statement.setNull(5, Types.TIMESTAMP);
+        } else {
+            statement.setObject(5, dueDateTime);
+        }
+        statement.setBytes(6, encode(task));
+    }
+
+    private static byte[] encode(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            TaskBinaryCodec.encode(task, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // Only thrown by streams that write to a file rather than to memory
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Task decode(ResultSet resultSet) throws SQLException {
+        try {
+            Task task = TaskBinaryCodec.decode(ByteBuffer.wrap(resultSet.getBytes(2)));
+            if (resultSet.getBoolean(1)) {
+                task.setDone();
+            } else {
+                task.setUndone();
+            }
+            return task;
+        } catch (RoverException e) {
+            throw new StorageException("Possible corruption in saved tasks.", e);
+        }
+    }
+
+    /**
+     * Represents a statement whose parameters are bound before it is run.
+     */
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private List<Task> selectTasks(String condition, Binder binder) {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_TASKS + condition + ORDER)) {
+            binder.bind(statement);
+            List<Task> tasks = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(decode(resultSet));
+                }
+            }
+            return tasks;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to read your tasks.", e);
+        }
+    }
+
+    private void update(String sql, Binder binder, String failureMessage) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException(failureMessage, e);
+        }
+    }
+
+    @Override
+    public int[] selectRowIds() {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT id FROM tasks" + ORDER)) {
+            int[] rowIds = new int[16];
+            int size = 0;
+            while (resultSet.next()) {
+                if (size == rowIds.length) {
+                    rowIds = Arrays.copyOf(rowIds, size * 2);
+                }
+                rowIds[size++] = resultSet.getInt(1);
+            }
+            return Arrays.copyOf(rowIds, size);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to read your tasks.", e);
+        }
+    }
+
+    @Override
+    public void insert(int rowId, Task task) {
+        update(INSERT, statement -> bindTask(statement, rowId, task), "Failed to save the task.");
+    }
+
+    @Override
+    public Task select(int rowId) {
+        List<Task> tasks = selectTasks("WHERE id = ?", statement -> statement.setInt(1, rowId));
+        if (tasks.isEmpty()) {
+            throw new StorageException("Could not find a saved task.", null);
+        }
+        return tasks.get(0);
+    }
+
+    @Override
+    public String selectDescription(int rowId) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT description FROM tasks WHERE id = ?")) {
+            statement.setInt(1, rowId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new StorageException("Could not find a saved task.", null);
+                }
+                return resultSet.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to read your tasks.", e);
+        }
+    }
+
+    @Override
+    public void updateDone(int rowId, boolean isDone) {
+        update("UPDATE tasks SET is_done = ? WHERE id = ?", statement -> {
+            statement.setBoolean(1, isDone);
+            statement.setInt(2, rowId);
+        }, "Failed to save the change to the task.");
+    }
+
+    @Override
+    public void delete(int rowId) {
+        update("DELETE FROM tasks WHERE id = ?", statement -> statement.setInt(1, rowId),
+            "Failed to delete the task.");
+    }
+
+    @Override
+    public List<Task> selectAll() {
+        return selectTasks("", statement -> { });
+    }
+
+    @Override
+    public List<Task> selectMatching(TaskFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.isDone() != null) {
+            conditions.add("is_done = ?");
+        }
+        if (filter.type() != null) {
+            conditions.add("task_type = ?");
+        }
+        String condition = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+        return selectTasks(condition, statement -> {
+            int parameter = 1;
+            if (filter.isDone() != null) {
+                statement.setBoolean(parameter++, filter.isDone());
+            }
+            if (filter.type() != null) {
+                statement.setString(parameter, String.valueOf(filter.type().getCode()));
+            }
+        });
+    }
+
+    @Override
+    public List<Task> selectDueBefore(LocalDateTime dateTime) {
+        return selectTasks("WHERE due_at < ?", statement -> statement.setObject(1, dateTime));
+    }
+
+    @Override
+    public List<Task> selectDueAfter(LocalDateTime dateTime) {
+        return selectTasks("WHERE due_at > ?", statement -> statement.setObject(1, dateTime));
+    }
+
+    @Override
+    public List<Task> selectDueBetween(LocalDateTime from, LocalDateTime to) {
+        return selectTasks("WHERE due_at BETWEEN ? AND ?", statement -> {
+            statement.setObject(1, from);
+            statement.setObject(2, to);
+        });
+    }
+
+    @Override
+    public List<Task> selectContaining(String keyword, boolean isCaseInsensitive) {
+        String pattern = "%" + escapeLike(isCaseInsensitive ? keyword.toLowerCase(Locale.ROOT) : keyword) + "%";
+        String column = isCaseInsensitive ? "LOWER(description)" : "description";
+        return selectTasks("WHERE " + column + " LIKE ? ESCAPE '" + LIKE_ESCAPE + "'",
+            statement -> statement.setString(1, pattern));
+    }
+
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    @Override
+    public List<Task> selectByDescription(String description) {
+        return selectTasks("WHERE description = ?", statement -> statement.setString(1, description));
+    }
+}
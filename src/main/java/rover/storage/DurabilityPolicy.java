@@ -0,0 +1,15 @@
+package rover.storage;
+
+/**
+ * Represents how far saved tasks and preferences are forced to the storage device before they count as saved,
+ * trading the throughput of saving against how much survives a crash of the operating system or a power failure.
+ * Files are always replaced atomically, so a crash never leaves a file half written, whatever the policy.
+ */
+public enum DurabilityPolicy {
+    /** Every snapshot, and every record appended to the task journal, is forced to the storage device. */
+    ALWAYS,
+    /** Snapshots are forced, and records appended to the task journal are forced together whenever it is flushed. */
+    BATCHED,
+    /** Nothing is forced, and files are written back whenever the operating system chooses. */
+    NEVER
+}
@@ -0,0 +1,893 @@
+package rover.storage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskRecords;
+import rover.ui.Ui;
+
+/**
+ * Handles the storage of the tasks in the file system, as a snapshot in the tasks file and a journal of the changes
+ * made since. Processes that share the same tasks file coordinate through {@link VersionedTaskFile}: a process that
+ * finds that the tasks have been saved by another one since it last read or wrote them merges their changes into its
+ * task list record by record before writing a new snapshot, instead of overwriting them.
+ */
+public final class FileStorage implements Storage {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 1000;
+    /** The size of a tasks file from which its tasks are only parsed when they are first read. */
+    private static final long LAZY_LOADING_THRESHOLD = 1 << 20;
+    private final Path tasksFilePath;
+    private final Path preferencesFilePath;
+    private final DurabilityPolicy durabilityPolicy;
+    private final TaskFileFormat taskFileFormat;
+    private boolean isTasksSaved = false;
+    private boolean isPreferencesSaved = false;
+    private final JsonFileManager jsonFileManager = new JsonFileManager();
+    private final TaskJournal taskJournal;
+    private boolean isJournalAttached = false;
+    private int loadedTaskCount = 0;
+    private final TaskFileWriter taskFileWriter;
+    private final BinaryTaskFile binaryTaskFile;
+    private final JsonLinesTaskFile jsonLinesTaskFile;
+    private final TaskArchive taskArchive;
+    /** Whether the loaded snapshot has to be rewritten, e.g. because parts of it were corrupted. */
+    private boolean isSnapshotStale = false;
+    /** Whether the task journal could only be replayed up to a record that could not be read. */
+    private boolean isJournalPartlyReplayed = false;
+    private ChangeTracker changeTracker;
+    private AutoSaver autoSaver;
+    private final VersionedTaskFile versionedTaskFile;
+    /** The common ancestor of the saved tasks and the task list once changes are being tracked, or null. */
+    private TaskFileReconciler taskFileReconciler;
+    private TaskFileWatcher taskFileWatcher;
+    private final TaskSync taskSync;
+
+    /**
+     * Returns a new FileStorage object with the specified file path, which forces snapshots to the storage device and
+     * forces changes appended to the task journal in batches.
+     *
+     * @param tasksFilePath The file path to save and load tasks from.
+     * @param preferencesFilePath The file path to save and load preferences from.
+     */
+    public FileStorage(String tasksFilePath, String preferencesFilePath) {
+        this(tasksFilePath, preferencesFilePath, DurabilityPolicy.BATCHED);
+    }
+
+    /**
+     * Returns a new FileStorage object with the specified file path and durability policy.
+     *
+     * @param tasksFilePath The file path to save and load tasks from.
+     * @param preferencesFilePath The file path to save and load preferences from.
+     * @param durabilityPolicy How far saved tasks and preferences are forced to the storage device.
+     */
+    public FileStorage(String tasksFilePath, String preferencesFilePath, DurabilityPolicy durabilityPolicy) {
+        this(tasksFilePath, preferencesFilePath, durabilityPolicy, TaskFileFormat.TEXT);
+    }
+
+    /**
+     * Returns a new FileStorage object with the specified file path, durability policy and format of the tasks file.
+     * In the binary format, snapshots are saved next to the tasks file with the extension {@code .bin}, and the tasks
+     * file is only read if there is no binary snapshot yet, to import it, or written when the tasks are exported.
+     * The JSON Lines format is kept in the same way, with the extension {@code .jsonl}.
+     *
+     * @param tasksFilePath The file path to save and load tasks from.
+     * @param preferencesFilePath The file path to save and load preferences from.
+     * @param durabilityPolicy How far saved tasks and preferences are forced to the storage device.
+     * @param taskFileFormat The format that snapshots of the tasks are saved in.
+     */
+    public FileStorage(String tasksFilePath, String preferencesFilePath, DurabilityPolicy durabilityPolicy,
+            TaskFileFormat taskFileFormat) {
+        assert durabilityPolicy != null : "Durability policy should not be null.";
+        assert taskFileFormat != null : "Task file format should not be null.";
+        this.tasksFilePath = resolveFilePath(tasksFilePath);
+        this.preferencesFilePath = resolveFilePath(preferencesFilePath);
+        this.durabilityPolicy = durabilityPolicy;
+        this.taskFileFormat = taskFileFormat;
+        this.taskJournal = new TaskJournal(getSiblingFilePath(this.tasksFilePath, ".journal"),
+            JOURNAL_COMPACTION_THRESHOLD);
+        this.taskJournal.setDurabilityPolicy(durabilityPolicy);
+        this.taskFileWriter = new TaskFileWriter(this.tasksFilePath, durabilityPolicy);
+        this.binaryTaskFile = new BinaryTaskFile(getSiblingFilePath(this.tasksFilePath, ".bin"), durabilityPolicy);
+        this.jsonLinesTaskFile = new JsonLinesTaskFile(getSiblingFilePath(this.tasksFilePath, ".jsonl"),
+            durabilityPolicy);
+        this.taskArchive = new TaskArchive(getSiblingFilePath(this.tasksFilePath, ".archive"), durabilityPolicy);
+        this.taskSync = new TaskSync(getSiblingFilePath(this.tasksFilePath, ".sync"), durabilityPolicy);
+        this.versionedTaskFile = new VersionedTaskFile(this.tasksFilePath, taskFileFormat, binaryTaskFile,
+            jsonLinesTaskFile, taskJournal, taskSync);
+        this.versionedTaskFile.setMergeHandler(this::markSnapshotStale);
+        this.taskJournal.setWriteGuard(write -> this.versionedTaskFile.writeVersioned(() -> {
+            write.run();
+            if (taskFileReconciler != null) {
+                taskFileReconciler.onChangesSaved();
+            }
+            return null;
+        }, false));
+    }
+
+    /**
+     * Returns the given file path, resolved against the working directory if it is relative. A relative path is
+     * split on '/', so that it is read the same way on every platform, while an absolute path is kept as it is.
+     *
+     * @param filePath The file path, relative to the working directory or absolute.
+     * @return The absolute file path.
+     */
+    static Path resolveFilePath(String filePath) {
+        Path path = Paths.get(filePath);
+        if (path.isAbsolute()) {
+            return path;
+        }
+        return Paths.get(System.getProperty("user.dir"), filePath.split("/"));
+    }
+
+    static Path getSiblingFilePath(Path tasksFilePath, String extension) {
+        String fileName = tasksFilePath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        return tasksFilePath.resolveSibling(baseName + extension);
+    }
+
+    /**
+     * Loads the tasks from the file system.
+     * The tasks file is memory-mapped and decoded by {@link MappedTaskLoader}, after which the changes recorded
+     * in the task journal since the last snapshot are replayed on top of it.
+     * Tasks files of at least 1 MiB are read as records that are only parsed when their tasks are first read,
+     * so that the time taken to start does not grow with the number of tasks that have to be parsed.
+     * Tasks files saved by older versions, without dates and times in the canonical form, are parsed as a whole
+     * and saved again in the current format, once.
+     * In the binary format, the binary snapshot is loaded by {@link BinaryTaskFile} instead, if there is one,
+     * and the tasks file is imported otherwise. The same goes for the JSON Lines format and {@link JsonLinesTaskFile}.
+     * The tasks are loaded while holding a shared lock, so that no other process saves them meanwhile.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The TaskList object containing the loaded tasks.
+     * @throws RoverException If there is a possible corruption in the saved tasks.
+     * @throws DateTimeParseException If the date and time format of a saved task is incorrect.
+     */
+    @Override
+    public TaskList loadTasks(Ui ui) throws RoverException, DateTimeParseException {
+        try {
+            return versionedTaskFile.load(() -> loadSavedTasks(ui));
+        } catch (IOException e) {
+            ui.displayError("Failed to load tasks.");
+            return new TaskList();
+        }
+    }
+
+    private TaskList loadSavedTasks(Ui ui) throws IOException, RoverException {
+        if (taskFileFormat == TaskFileFormat.BINARY) {
+            if (Files.exists(binaryTaskFile.getFilePath())) {
+                return loadBinaryTasks(ui);
+            }
+            // The tasks are imported from the tasks file, and saved in the binary format from then on
+            isSnapshotStale = true;
+        } else if (taskFileFormat == TaskFileFormat.JSONL) {
+            if (Files.exists(jsonLinesTaskFile.getFilePath())) {
+                List<Task> tasks = jsonLinesTaskFile.load();
+                replayJournal(tasks, jsonLinesTaskFile.getChecksum(), ui);
+                loadedTaskCount = tasks.size();
+                return TaskList.of(tasks, ui);
+            }
+            isSnapshotStale = true;
+        }
+        boolean fileExists = Files.exists(tasksFilePath);
+        long fileSize = fileExists ? Files.size(tasksFilePath) : 0;
+        if (fileSize >= LAZY_LOADING_THRESHOLD && fileSize < Integer.MAX_VALUE) {
+            MappedTaskLoader loader = new MappedTaskLoader(tasksFilePath, ui);
+            TaskRecords records = loader.loadRecords();
+            // Records saved by older versions are migrated by parsing every task once, as loaded below
+            if (!records.hasLegacyRecords()) {
+                replayJournal(records, loader.getChecksum(), ui);
+                loadedTaskCount = records.size();
+                return TaskList.ofRecords(records, ui);
+            }
+        }
+        List<Task> tasks = new ArrayList<>();
+        long snapshotChecksum = 0;
+        if (fileExists) {
+            MappedTaskLoader loader = new MappedTaskLoader(tasksFilePath, ui);
+            tasks = loader.load();
+            snapshotChecksum = loader.getChecksum();
+            if (loader.hasLegacyRecords()) {
+                // The tasks are saved again with their dates and times in the canonical form
+                isSnapshotStale = true;
+            }
+        }
+        replayJournal(tasks, snapshotChecksum, ui);
+        // Duplicates skipped by the task list make it shorter than this, so the journal is not attached
+        // and the next snapshot, which rewrites the whole file, is written without them
+        loadedTaskCount = tasks.size();
+        return TaskList.of(tasks, ui);
+    }
+
+    /**
+     * Loads the tasks from the binary snapshot. If parts of it are corrupted, the tasks in the rest of it are still
+     * loaded, and the journal, which builds upon the snapshot as it was written, is not replayed or attached, so that
+     * a new snapshot is written when the session ends.
+     */
+    private TaskList loadBinaryTasks(Ui ui) throws IOException, RoverException {
+        List<Task> tasks = binaryTaskFile.load();
+        if (binaryTaskFile.isCorrupted()) {
+            int lostTaskCount = binaryTaskFile.getLostTaskCount();
+            ui.displayError(lostTaskCount > 0
+                ? "Some of your saved tasks were corrupted. " + lostTaskCount + " task"
+                    + (lostTaskCount > 1 ? "s" : "") + " could not be restored."
+                : "Some of your saved tasks were corrupted and could not be restored.");
+            isSnapshotStale = true;
+            loadedTaskCount = -1;
+            return TaskList.of(tasks, ui);
+        }
+        replayJournal(tasks, binaryTaskFile.getChecksum(), ui);
+        loadedTaskCount = tasks.size();
+        return TaskList.of(tasks, ui);
+    }
+
+    /**
+     * Replays the task journal on top of the given tasks. If a record cannot be replayed, e.g. a record torn by a
+     * crash, the records before it are kept, and the tasks are saved in a new snapshot before the journal is started
+     * afresh, as the snapshot that was loaded does not hold them.
+     */
+    private void replayJournal(List<Task> tasks, long snapshotChecksum, Ui ui) {
+        try {
+            taskJournal.replay(tasks, snapshotChecksum, ui);
+            int unmatchedRecordCount = taskJournal.getUnmatchedRecordCount();
+            if (unmatchedRecordCount > 0) {
+                ui.displayError("Your saved tasks do not match the " + unmatchedRecordCount + " most recent change"
+                    + (unmatchedRecordCount > 1 ? "s" : "") + " saved in the task journal, e.g. as they were edited"
+                    + " while Rover was not running, so they were not restored. They are kept in "
+                    + taskJournal.getBackupFilePath() + ".");
+            }
+        } catch (IOException | RoverException | DateTimeParseException | CorruptedTaskException e) {
+            ui.displayError("Could not restore the most recent changes to your tasks.");
+            isSnapshotStale = true;
+            isJournalPartlyReplayed = true;
+        }
+    }
+
+    /**
+     * Starts keeping track of the changes made to the given task list and preferences,
+     * so that saving only writes the files that have changed, and only the parts of the tasks file that have changed.
+     * Until this is called, saving writes both files as a whole, and the changes made to the saved tasks by other
+     * processes are overwritten rather than merged, as they cannot be told apart from the changes made in the session.
+     *
+     * @param taskList The TaskList object whose changes should be tracked.
+     * @param userPreferences The UserPreferences object whose changes should be tracked.
+     */
+    @Override
+    public void trackChanges(TaskList taskList, UserPreferences userPreferences) {
+        assert taskList != null : "TaskList should not be null.";
+        assert userPreferences != null : "UserPreferences should not be null.";
+        if (changeTracker != null) {
+            return;
+        }
+        changeTracker = new ChangeTracker(taskList.getNumberOfTasks());
+        if (isSnapshotStale) {
+            changeTracker.markTasksUnwritten();
+        }
+        taskList.addListener(changeTracker);
+        userPreferences.addChangeListener(changeTracker::onPreferencesChanged);
+        // The loaded tasks are the common ancestor, as nothing has been changed in the session yet
+        startReconciling(taskList);
+        taskSync.attach(taskList);
+    }
+
+    /**
+     * Starts appending every change made to the given task list to the task journal,
+     * so that changes are persisted as they happen instead of only when the session ends.
+     * The journal is compacted into a new snapshot whenever it grows too long.
+     * If the task list does not match the saved tasks, e.g. because they could not be loaded,
+     * the journal is not used and the tasks are only saved when the session ends. If the journal could only be
+     * replayed in part, a snapshot of the task list is written first, which the new journal builds upon.
+     *
+     * @param taskList The TaskList object whose changes should be journalled.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void attachJournal(TaskList taskList, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert ui != null : "Ui should not be null.";
+        if (isJournalAttached || taskList.getNumberOfTasks() != loadedTaskCount) {
+            return;
+        }
+        try {
+            // Starting the journal afresh writes it, so it is not started if another process has saved the tasks since
+            versionedTaskFile.write(() -> {
+                if (versionedTaskFile.isChanged()) {
+                    throw new IOException("The tasks have been saved by another process.");
+                }
+                if (!isJournalPartlyReplayed) {
+                    taskJournal.open();
+                    return null;
+                }
+                long checksum = captureSnapshot(taskList).write();
+                isSnapshotStale = false;
+                isJournalPartlyReplayed = false;
+                taskJournal.reset(checksum);
+                return null;
+            });
+        } catch (IOException e) {
+            ui.displayError("Failed to open the task journal. Your tasks will only be saved when you exit.");
+            return;
+        }
+        taskJournal.setCompactionHandler(() -> writeSnapshot(taskList));
+        taskList.addListener(taskJournal);
+        isJournalAttached = true;
+    }
+
+    /**
+     * Starts saving the tasks and preferences in the background whenever they have stopped changing for the given
+     * quiet period, instead of only when the session ends.
+     * Records appended to the task journal are then flushed together by these saves, unless every record has to be
+     * forced to the storage device as it is appended, and the journal is compacted by them rather than by the command
+     * that filled it up.
+     * Changes are tracked as by {@link #trackChanges(TaskList, UserPreferences)}, so ending the session only saves
+     * what has not been saved in the background yet.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param sessionLock The lock that is held while commands change the tasks or preferences.
+     * @param quietPeriod How long the tasks and preferences must go unchanged before they are saved.
+     */
+    @Override
+    public void startAutoSave(TaskList taskList, UserPreferences userPreferences, Object sessionLock,
+            Duration quietPeriod) {
+        assert taskList != null : "TaskList should not be null.";
+        assert userPreferences != null : "UserPreferences should not be null.";
+        assert autoSaver == null : "Auto save should only be started once.";
+        trackChanges(taskList, userPreferences);
+        autoSaver = new AutoSaver(this, changeTracker, taskList, userPreferences, sessionLock, quietPeriod);
+        changeTracker.setChangeHandler(autoSaver::scheduleSave);
+        if (isJournalAttached) {
+            taskJournal.setFlushedOnEveryRecord(durabilityPolicy == DurabilityPolicy.ALWAYS);
+            taskJournal.setCompactionHandler(autoSaver::requestCompaction);
+        }
+    }
+
+    boolean isJournalAttached() {
+        return isJournalAttached;
+    }
+
+    /**
+     * Flushes the records appended to the task journal.
+     *
+     * @return True if the journal is attached and every change has been written to it, false otherwise.
+     */
+    boolean flushJournal() {
+        if (!isJournalAttached) {
+            return false;
+        }
+        taskJournal.flush();
+        return taskJournal.isHealthy();
+    }
+
+    /**
+     * Loads the preferences from the file system.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The JSON node representing the preferences.
+     */
+    @Override
+    public ObjectNode loadPreferences(Ui ui) {
+        try {
+            boolean fileExists = Files.exists(preferencesFilePath);
+            if (!fileExists) {
+                return (ObjectNode) (new UserPreferences()).getJsonNode();
+            }
+            return (ObjectNode) jsonFileManager.load(preferencesFilePath.toString());
+        } catch (IOException e) {
+            ui.displayError("Failed to load preferences.");
+            return (ObjectNode) (new UserPreferences()).getJsonNode();
+        }
+    }
+
+    /**
+     * Saves tasks and preferences to the file system.
+     * Once changes are being tracked, only the files that have changed since they were last written are saved,
+     * so ending a session that only read its tasks does no I/O. If saving in the background has been started,
+     * it is stopped first, and so is watching the tasks file, once the changes made to it have been applied.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void saveAll(TaskList taskList, UserPreferences userPreferences, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert userPreferences != null : "UserPreferences should not be null.";
+        assert ui != null : "Ui should not be null.";
+        if (autoSaver != null) {
+            autoSaver.close();
+        }
+        stopWatchingTasksFile(taskList);
+        boolean isTasksPending = changeTracker == null || changeTracker.isTasksChanged();
+        boolean isPreferencesPending = changeTracker == null || changeTracker.isPreferencesChanged();
+        String response = "Saving your tasks...";
+        if (isTasksPending) {
+            saveTasks(taskList);
+        } else {
+            isTasksSaved = true;
+        }
+        response += NEW_LINE + (isTasksSaved ? "Tasks saved successfully!" : "Failed to save tasks.");
+
+        response += NEW_LINE + "Saving your preferences...";
+        if (isPreferencesPending) {
+            savePreferences(userPreferences);
+        } else {
+            isPreferencesSaved = true;
+        }
+        response += NEW_LINE + (isPreferencesSaved ? "Preferences saved successfully!" : "Failed to save preferences.");
+
+        if (isTasksSaved && isPreferencesSaved) {
+            ui.showMessageWithoutLineSeparator(response);
+        } else {
+            ui.displayError(response);
+        }
+    }
+
+    /**
+     * Saves the tasks to the file system and updates the isSaved field.
+     * The task journal is compacted into a new snapshot, so that the tasks file holds every change once the session
+     * ends, e.g. to be read or edited while Rover is not running. If the snapshot cannot be written, the tasks are
+     * still saved if every change has been appended to the task journal.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     */
+    private void saveTasks(TaskList taskList) {
+        assert taskList != null : "TaskList should not be null.";
+        isTasksSaved = writeSnapshot(taskList) || (!isSnapshotStale && flushJournal());
+    }
+
+    /**
+     * Writes the tasks that have changed to the tasks file and starts a new task journal that builds upon it.
+     * The changes made to the saved tasks by other processes are merged into the task list first, while holding the
+     * lock, so that none of them is overwritten.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @return True if the snapshot was written successfully, false otherwise.
+     */
+    boolean writeSnapshot(TaskList taskList) {
+        try {
+            return versionedTaskFile.write(() -> writeSnapshot(captureSnapshot(taskList)));
+        } catch (IOException e) {
+            if (changeTracker != null) {
+                changeTracker.markTasksUnwritten();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Captures what needs to be written to save a snapshot of the given tasks, which should not be changed meanwhile.
+     * In the text format, only the tasks that have changed are captured if changes are being tracked,
+     * and all of them otherwise. In the binary and JSON Lines formats, all the tasks are encoded.
+     * The changes made to the saved tasks by other processes are merged into the task list before it is captured,
+     * and the snapshot is not written if the saved tasks change again before it is.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @return The snapshot, ready to be written.
+     */
+    PendingSnapshot captureSnapshot(TaskList taskList) {
+        try {
+            versionedTaskFile.mergeSavedChanges(taskList);
+        } catch (IOException | RoverException | CorruptedTaskException e) {
+            // The snapshot is then refused when it is written, as the saved tasks are still seen as changed
+        }
+        if (taskFileFormat == TaskFileFormat.BINARY) {
+            List<ByteBuffer> blocks = BinaryTaskFile.encode(taskList.getTasks());
+            int taskCount = taskList.getNumberOfTasks();
+            return captureEncodedSnapshot(taskList, () -> binaryTaskFile.write(taskCount, blocks));
+        }
+        if (taskFileFormat == TaskFileFormat.JSONL) {
+            byte[] data = JsonLinesTaskFile.encode(taskList.getTasks());
+            return captureEncodedSnapshot(taskList, () -> jsonLinesTaskFile.write(data));
+        }
+        TaskFileWriter.Update update = changeTracker == null
+            ? TaskFileWriter.Update.ofAll(taskList.getTaskStrings())
+            : changeTracker.captureTaskChanges(taskList);
+        TaskFileReconciler reconciler = taskFileReconciler;
+        return () -> versionedTaskFile.writeVersioned(() -> {
+            long checksum = taskFileWriter.write(update);
+            if (reconciler != null) {
+                reconciler.onWritten(tasksFilePath, update);
+            }
+            return checksum;
+        }, reconciler == null);
+    }
+
+    private PendingSnapshot captureEncodedSnapshot(TaskList taskList, PendingSnapshot write) {
+        TaskFileReconciler reconciler = taskFileReconciler;
+        List<String> taskStrings = reconciler == null ? null : taskList.getTaskStrings();
+        if (changeTracker != null) {
+            changeTracker.markTasksCaptured();
+        }
+        return () -> versionedTaskFile.writeVersioned(() -> {
+            long checksum = write.write();
+            if (reconciler != null) {
+                reconciler.onWritten(taskStrings);
+            }
+            return checksum;
+        }, reconciler == null);
+    }
+
+    /**
+     * Writes the given snapshot to the tasks file and starts a new task journal that builds upon it, while holding
+     * the lock, so that no other process writes to the task journal in between.
+     * The tasks file is replaced atomically, so it still holds the previous snapshot if writing fails.
+     *
+     * @param snapshot The snapshot captured from the task list.
+     * @return True if the snapshot was written successfully, false otherwise.
+     */
+    boolean writeSnapshot(PendingSnapshot snapshot) {
+        try {
+            versionedTaskFile.write(() -> {
+                long checksum = snapshot.write();
+                isSnapshotStale = false;
+                if (isJournalAttached) {
+                    try {
+                        taskJournal.reset(checksum);
+                    } catch (IOException e) {
+                        // The old journal no longer matches the new snapshot, so it will be ignored when loading
+                    }
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            if (changeTracker != null) {
+                changeTracker.markTasksUnwritten();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Marks the loaded snapshot as no longer holding the task list, once the changes made to the saved tasks by others
+     * are merged into it, so that the snapshot is written again as a whole.
+     */
+    private void markSnapshotStale() {
+        isSnapshotStale = true;
+        if (changeTracker != null) {
+            changeTracker.markTasksUnwritten();
+        }
+    }
+
+    /**
+     * Starts keeping the common ancestor of the saved tasks and the given task list, through which the changes made
+     * to the saved tasks are merged into it.
+     */
+    private void startReconciling(TaskList taskList) {
+        taskFileReconciler = TaskFileReconciler.of(taskList.getTaskStrings());
+        taskList.addListener(taskFileReconciler);
+        versionedTaskFile.setReconciler(taskFileReconciler);
+    }
+
+    /**
+     * Starts watching the tasks file for changes made to it by other programs while the session runs, e.g. by
+     * scripts, and applies only the records that changed to the given task list, as found by
+     * {@link TaskFileReconciler}, without loading the tasks file again. The task list is changed while no save is
+     * being written in the background, and the tasks file is then written again as a whole, so a snapshot never
+     * overwrites changes that have not been applied to the task list yet.
+     * Only the tasks file in the text format is watched, as the tasks file is only imported and exported otherwise.
+     *
+     * @param taskList The TaskList object to apply the changes to.
+     * @param sessionLock The lock that is held while commands change the tasks or preferences.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void watchTasksFile(TaskList taskList, Object sessionLock, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert sessionLock != null : "Session lock should not be null.";
+        if (taskFileFormat != TaskFileFormat.TEXT || taskFileWatcher != null) {
+            return;
+        }
+        try {
+            if (taskFileReconciler == null) {
+                startReconciling(taskList);
+            }
+            taskFileReconciler.watch(tasksFilePath);
+            taskFileWatcher = new TaskFileWatcher(tasksFilePath, () -> {
+                if (autoSaver != null) {
+                    autoSaver.runExclusively(() -> reloadTasksFile(taskList));
+                } else {
+                    synchronized (sessionLock) {
+                        reloadTasksFile(taskList);
+                    }
+                }
+            });
+            taskFileWatcher.start();
+        } catch (IOException e) {
+            taskFileWatcher = null;
+            ui.displayError("Failed to watch the tasks file. Changes made to it while Rover runs will be overwritten.");
+        }
+    }
+
+    /**
+     * Applies the changes made to the saved tasks by another process or program to the given task list, if there are
+     * any, and writes the tasks file again as a whole, as its records no longer are where the last snapshot left them,
+     * unless the task list now holds just the saved tasks, so that processes do not keep writing each other's tasks.
+     * If the changes cannot be applied, e.g. because a record is corrupted, they are applied once the tasks file
+     * changes again, and snapshots are not written until then.
+     *
+     * @return True if the saved tasks hold every task in the task list, false otherwise.
+     */
+    private boolean reloadTasksFile(TaskList taskList) {
+        try {
+            if (!versionedTaskFile.mergeSavedChanges(taskList) || taskFileReconciler.isSaved(taskList)) {
+                return true;
+            }
+        } catch (IOException | RoverException | CorruptedTaskException e) {
+            return false;
+        }
+        return writeSnapshot(taskList);
+    }
+
+    /**
+     * Stops watching the tasks file, after applying the changes that have been made to it since it was last read.
+     */
+    private void stopWatchingTasksFile(TaskList taskList) {
+        if (taskFileWatcher == null) {
+            return;
+        }
+        taskFileWatcher.close();
+        taskFileWatcher = null;
+        reloadTasksFile(taskList);
+    }
+
+    /**
+     * Exports the tasks to the tasks file in the text format, which can be read, edited and imported again.
+     * In the text format, this writes a snapshot of the tasks, so the tasks file holds every change without the task
+     * journal. This should not be called while holding the session lock, as it waits for any save that is being
+     * written in the background to finish first.
+     *
+     * @param taskList The TaskList object containing the tasks to be exported.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void exportTasks(TaskList taskList, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert ui != null : "Ui should not be null.";
+        boolean isExported = runExclusively(() -> writeExport(taskList));
+        if (isExported) {
+            ui.showMessage("I've exported your tasks to " + tasksFilePath + ".");
+        } else {
+            ui.displayError("Failed to export tasks.");
+        }
+    }
+
+    /**
+     * Runs the given write while no save is being written in the background, on the thread that saves in the
+     * background if it has been started.
+     */
+    private boolean runExclusively(BooleanSupplier write) {
+        return autoSaver != null ? autoSaver.runExclusively(write) : write.getAsBoolean();
+    }
+
+    private boolean writeExport(TaskList taskList) {
+        if (taskFileFormat == TaskFileFormat.TEXT) {
+            return writeSnapshot(taskList);
+        }
+        try {
+            new TaskFileWriter(tasksFilePath, durabilityPolicy)
+                .write(TaskFileWriter.Update.ofAll(taskList.getTaskStrings()));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the tasks in the given task list that match the given predicate into a new segment of the archive, kept
+     * next to the tasks file with the extension {@code .archive}, and removes them from the task list, which records
+     * their removal in the task journal. The segment is written before the tasks are removed, so tasks are never
+     * lost if archiving fails, and only keeps the tasks that were removed if removing them fails midway.
+     * This should not be called while holding the session lock, as it waits for any save that is being written in
+     * the background to finish first.
+     *
+     * @param taskList The TaskList object containing the tasks to be archived.
+     * @param predicate The predicate that the tasks to be archived match.
+     * @param ui The Ui object to display messages.
+     * @return The number of tasks archived, or -1 if they could not be archived.
+     */
+    @Override
+    public int archiveTasks(TaskList taskList, Predicate<Task> predicate, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert predicate != null : "Predicate should not be null.";
+        List<Task> archivedTasks = new ArrayList<>();
+        boolean isArchived = runExclusively(() -> writeArchive(taskList, predicate, archivedTasks));
+        if (!isArchived) {
+            ui.displayError("Failed to archive tasks.");
+            return -1;
+        }
+        return archivedTasks.size();
+    }
+
+    private boolean writeArchive(TaskList taskList, Predicate<Task> predicate, List<Task> archivedTasks) {
+        try {
+            archivedTasks.addAll(taskList.getTasks().stream().filter(predicate).toList());
+            if (archivedTasks.isEmpty()) {
+                return true;
+            }
+            // The segment is numbered and written under the lock, so no other process archives to the same segment
+            return versionedTaskFile.write(() -> {
+                Path segmentFilePath = taskArchive.append(archivedTasks);
+                try {
+                    taskList.removeTasks(predicate);
+                    return true;
+                } catch (StorageException | CorruptedTaskException e) {
+                    rollBackArchive(taskList, predicate, archivedTasks, segmentFilePath);
+                    return false;
+                }
+            });
+        } catch (IOException | StorageException | CorruptedTaskException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Keeps only the tasks that were removed from the given task list in the given segment, after removing the
+     * archived tasks failed midway, so that no task is both archived and in the task list. The tasks are removed
+     * from the last one, so those that are still in the task list are the first of the archived tasks.
+     * If the tasks that are still in the task list cannot be told, the segment is kept as it is, as a task that is
+     * archived twice is better than one that is lost.
+     */
+    private void rollBackArchive(TaskList taskList, Predicate<Task> predicate, List<Task> archivedTasks,
+            Path segmentFilePath) throws IOException {
+        int remainingCount;
+        try {
+            remainingCount = (int) taskList.getTasks().stream().filter(predicate).count();
+        } catch (StorageException | CorruptedTaskException e) {
+            return;
+        }
+        if (remainingCount >= archivedTasks.size()) {
+            taskArchive.delete(segmentFilePath);
+        } else if (remainingCount > 0) {
+            taskArchive.replace(segmentFilePath, archivedTasks.subList(remainingCount, archivedTasks.size()));
+        }
+    }
+
+    /**
+     * Displays the tasks in the given task list whose description contains the given keyword, and then the archived
+     * tasks whose description contains it, which are only read now, one segment of the archive per thread.
+     * This should not be called while holding the session lock, as the task list is searched while no save is being
+     * written in the background.
+     *
+     * @param taskList The TaskList object containing the tasks that have not been archived.
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @param filterDescription The description of the filter.
+     * @param ui The Ui object to display the tasks.
+     */
+    @Override
+    public void findTasks(TaskList taskList, String keyword, boolean isCaseInsensitive, String filterDescription,
+            Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert keyword != null : "Keyword should not be null.";
+        List<Task> tasks = new ArrayList<>();
+        boolean isFound = runExclusively(() -> {
+            tasks.addAll(taskList.getTasksContaining(keyword, isCaseInsensitive));
+            return true;
+        });
+        if (!isFound) {
+            ui.displayError("Failed to search your tasks.");
+            return;
+        }
+        ui.showMessage(TaskList.getStringOfFilteredTasks(tasks, filterDescription));
+        String lowerCaseKeyword = keyword.toLowerCase(Locale.ROOT);
+        try {
+            List<Task> archivedTasks = taskArchive.search(task -> isCaseInsensitive
+                ? task.getDescription().toLowerCase(Locale.ROOT).contains(lowerCaseKeyword)
+                : task.getDescription().contains(keyword));
+            ui.showMessage(TaskList.getStringOfFilteredTasks(archivedTasks, "in the archive " + filterDescription));
+        } catch (IOException | RoverException e) {
+            ui.displayError("Failed to search archived tasks.");
+        }
+    }
+
+    /**
+     * Syncs the tasks with those of other data directories through the given shared folder, through
+     * {@link TaskSync}, whose state is kept next to the tasks file with the extension {@code .sync}. The first sync
+     * sends every task, and later ones only the changes made since. This should not be called while holding the
+     * session lock, as it waits for any save that is being written in the background to finish first.
+     *
+     * @param taskList The TaskList object containing the tasks to be synced.
+     * @param folderPath The path of the shared folder, relative to the current directory.
+     * @param ui The Ui object to display messages.
+     * @return The number of changes made to the task list, or -1 if the tasks could not be synced.
+     */
+    @Override
+    public int syncTasks(TaskList taskList, String folderPath, Ui ui) {
+        assert taskList != null : "TaskList should not be null.";
+        assert folderPath != null : "Folder path should not be null.";
+        Path sharedFolderPath = Paths.get(System.getProperty("user.dir")).resolve(folderPath);
+        AtomicInteger changeCount = new AtomicInteger();
+        boolean isSynced = runExclusively(() -> writeSync(taskList, sharedFolderPath, changeCount));
+        if (!isSynced) {
+            ui.displayError("Failed to sync tasks with " + sharedFolderPath + ".");
+            return -1;
+        }
+        return changeCount.get();
+    }
+
+    private boolean writeSync(TaskList taskList, Path sharedFolderPath, AtomicInteger changeCount) {
+        try {
+            // Other processes of the data directory append to the same outbox, and sync the same state
+            return versionedTaskFile.write(() -> {
+                changeCount.set(taskSync.sync(sharedFolderPath, taskList));
+                return true;
+            });
+        } catch (IOException | RoverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Saves the preferences to the file system and updates the isSaved field.
+     *
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     */
+    private void savePreferences(UserPreferences userPreferences) {
+        assert userPreferences != null : "UserPreferences should not be null.";
+        if (changeTracker != null) {
+            changeTracker.markPreferencesWritten();
+        }
+        isPreferencesSaved = writePreferences(userPreferences.getJsonNode());
+        if (!isPreferencesSaved && changeTracker != null) {
+            changeTracker.markPreferencesUnwritten();
+        }
+    }
+
+    /**
+     * Writes the given preferences to a temporary file, which is moved into place as the preferences file.
+     *
+     * @param preferences The JSON node representing the preferences.
+     * @return True if the preferences were written successfully, false otherwise.
+     */
+    boolean writePreferences(JsonNode preferences) {
+        Path tempFilePath = AtomicFiles.getTempFilePath(preferencesFilePath);
+        boolean isForced = durabilityPolicy != DurabilityPolicy.NEVER;
+        try {
+            jsonFileManager.write(preferences, tempFilePath.toString());
+            if (isForced) {
+                try (FileChannel channel = FileChannel.open(tempFilePath, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+            AtomicFiles.moveIntoPlace(preferencesFilePath, isForced);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the tasks were saved successfully.
+     *
+     * @return True if the tasks were saved successfully, false otherwise.
+     */
+    @Override
+    public boolean isSavedSuccessfully() {
+        return isTasksSaved && isPreferencesSaved;
+    }
+}
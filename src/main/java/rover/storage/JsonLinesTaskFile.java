@@ -0,0 +1,256 @@
+package rover.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskJsonCodec;
+
+/**
+ * Reads and writes the tasks file in the JSON Lines format, one JSON object per line, through the streaming API of
+ * Jackson, so the file can be read by other tools while loading never builds a tree of the whole file.
+ * The first line is a header holding the version of the format that wrote the file, "version", and the oldest
+ * version that can still read it, "readableFrom". Each line after it is a task, written by {@link TaskJsonCodec}.
+ * Newer versions may add fields to the header and the tasks, which older versions skip, and only raise readableFrom
+ * when a change would be misread by older versions.
+ */
+final class JsonLinesTaskFile {
+
+    static final int VERSION = 1;
+    private static final String FORMAT = "format";
+    private static final String FORMAT_NAME = "rover-tasks";
+    private static final String VERSION_FIELD = "version";
+    private static final String READABLE_FROM = "readableFrom";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Path filePath;
+    private final DurabilityPolicy durabilityPolicy;
+    private long checksum = 0;
+
+    /**
+     * Returns a new JsonLinesTaskFile stored at the given file path.
+     *
+     * @param filePath The file path of the JSON Lines tasks file.
+     * @param durabilityPolicy How far each write is forced to the storage device.
+     */
+    JsonLinesTaskFile(Path filePath, DurabilityPolicy durabilityPolicy) {
+        this.filePath = filePath;
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Encodes the given tasks as the lines of the file, ready to be written.
+     *
+     * @param tasks The tasks to be encoded, in order.
+     * @return The encoded file.
+     */
+    static byte[] encode(List<Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + tasks.size() * 64);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            // Lines are ended explicitly, rather than separated by the default separator of root values
+            generator.setRootValueSeparator(null);
+            generator.writeStartObject();
+            generator.writeStringField(FORMAT, FORMAT_NAME);
+            generator.writeNumberField(VERSION_FIELD, VERSION);
+            generator.writeNumberField(READABLE_FROM, VERSION);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            for (Task task : tasks) {
+                TaskJsonCodec.write(task, generator);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            // Only thrown by streams that write to a file rather than to memory
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the given encoded file to a temporary file, which is moved into place as the tasks file.
+     *
+     * @param data The file encoded by {@link #encode(List)}.
+     * @return The CRC32 checksum of the file.
+     * @throws IOException If the file could not be written.
+     */
+    long write(byte[] data) throws IOException {
+        Files.createDirectories(filePath.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(AtomicFiles.getTempFilePath(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durabilityPolicy != DurabilityPolicy.NEVER) {
+                channel.force(false);
+            }
+        }
+        AtomicFiles.moveIntoPlace(filePath, durabilityPolicy != DurabilityPolicy.NEVER);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        checksum = crc.getValue();
+        return checksum;
+    }
+
+    /**
+     * Loads the tasks in the file. The file is mapped rather than read into an array as large as itself, which would
+     * have to be collected again, and is fed to the parser through its own small buffer. Large files are split into
+     * newline-aligned chunks after the header, which are parsed in parallel on the common fork-join pool,
+     * as newlines can only end lines in JSON Lines.
+     *
+     * @return The tasks in the file, in the order they were saved.
+     * @throws IOException If the file could not be read.
+     * @throws RoverException If the file is corrupted, or can only be read by a newer version.
+     */
+    List<Task> load() throws IOException, RoverException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            crc.update(data.duplicate());
+            checksum = crc.getValue();
+            int headerEnd = getHeaderEnd(data);
+            try (JsonParser parser = createParser(data, 0, headerEnd)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new RoverException("Possible corruption in saved tasks.");
+                }
+                readHeader(parser);
+            } catch (JsonProcessingException e) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            int length = data.limit() - headerEnd;
+            if (length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                return readInParallel(data, headerEnd);
+            }
+            List<Task> tasks = new ArrayList<>();
+            readLines(data, headerEnd, data.limit(), tasks);
+            return tasks;
+        }
+    }
+
+    private static int getHeaderEnd(ByteBuffer data) throws RoverException {
+        for (int i = 0; i < data.limit(); i++) {
+            if (data.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        throw new RoverException("Possible corruption in saved tasks.");
+    }
+
+    private static JsonParser createParser(ByteBuffer data, int start, int end) throws IOException {
+        return JSON_FACTORY.createParser(new ByteBufferBackedInputStream(data.slice(start, end - start)));
+    }
+
+    private static void readLines(ByteBuffer data, int start, int end, List<Task> tasks)
+            throws IOException, RoverException {
+        try (JsonParser parser = createParser(data, start, end)) {
+            while (parser.nextToken() != null) {
+                tasks.add(TaskJsonCodec.read(parser));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    private static List<Task> readInParallel(ByteBuffer data, int start) throws IOException, RoverException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int length = data.limit();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (length - start) / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        List<Callable<List<Task>>> readers = new ArrayList<>();
+        while (start < length) {
+            int end = Math.min(start + chunkSize, length);
+            while (end < length && data.get(end - 1) != '\n') {
+                end++;
+            }
+            int chunkStart = start;
+            int chunkEnd = end;
+            readers.add(() -> {
+                List<Task> chunkTasks = new ArrayList<>();
+                readLines(data, chunkStart, chunkEnd, chunkTasks);
+                return chunkTasks;
+            });
+            start = end;
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (Future<List<Task>> result : pool.invokeAll(readers)) {
+            tasks.addAll(getChunkTasks(result));
+        }
+        return tasks;
+    }
+
+    private static List<Task> getChunkTasks(Future<List<Task>> result) throws IOException, RoverException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading tasks.", e);
+        } catch (ExecutionException e) {
+            // The common pool wraps checked exceptions thrown by a callable in a RuntimeException
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof RoverException roverException) {
+                    throw roverException;
+                } else if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+            }
+            throw new IOException("Failed to decode saved tasks.", e.getCause());
+        }
+    }
+
+    private static void readHeader(JsonParser parser) throws IOException, RoverException {
+        String format = null;
+        int readableFrom = 0;
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals(FORMAT) && token == JsonToken.VALUE_STRING) {
+                format = parser.getText();
+            } else if (fieldName.equals(READABLE_FROM) && token == JsonToken.VALUE_NUMBER_INT) {
+                readableFrom = parser.getIntValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!FORMAT_NAME.equals(format) || readableFrom < 1) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        if (readableFrom > VERSION) {
+            throw new RoverException("Your tasks were saved by a newer version of Rover.");
+        }
+    }
+
+    /**
+     * Returns the CRC32 checksum of the file that was last loaded or written.
+     */
+    long getChecksum() {
+        return checksum;
+    }
+}
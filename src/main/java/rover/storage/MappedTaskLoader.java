@@ -0,0 +1,405 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import rover.exceptions.RoverException;
+import rover.task.Deadline;
+import rover.task.Event;
+import rover.task.Task;
+import rover.task.TaskRecords;
+import rover.task.TaskType;
+import rover.task.Todo;
+import rover.ui.Ui;
+
+/**
+ * Loads saved tasks by memory-mapping the tasks file and scanning it for record and field boundaries by hand.
+ * Unlike splitting every line with regular expressions, the only strings created are the ones each task keeps.
+ * Large files can be split into newline-aligned chunks that are decoded in parallel on the common fork-join pool,
+ * while still keeping the tasks in the order they were saved.
+ * Records can also be read without being parsed at all, for a task list that parses each task when it is first read.
+ */
+public final class MappedTaskLoader {
+
+    private static final int MAX_REGION_SIZE = Integer.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final byte[] FIELD_DELIMITER = " | ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BY_DELIMITER = " /by ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FROM_DELIMITER = " /from ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TO_DELIMITER = " /to ".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path tasksFilePath;
+    private final Ui ui;
+    private final boolean isParallel;
+    private long checksum = 0;
+    private boolean hasLegacyRecords = false;
+
+    /**
+     * Returns a new MappedTaskLoader for the given tasks file, which decodes large files in parallel.
+     *
+     * @param tasksFilePath The file path to load tasks from.
+     * @param ui The Ui object to display messages.
+     */
+    public MappedTaskLoader(Path tasksFilePath, Ui ui) {
+        this(tasksFilePath, ui, true);
+    }
+
+    /**
+     * Returns a new MappedTaskLoader for the given tasks file.
+     *
+     * @param tasksFilePath The file path to load tasks from.
+     * @param ui The Ui object to display messages.
+     * @param isParallel Whether large files should be decoded in parallel.
+     */
+    public MappedTaskLoader(Path tasksFilePath, Ui ui, boolean isParallel) {
+        this.tasksFilePath = tasksFilePath;
+        this.ui = ui;
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * Loads all the tasks in the tasks file, in the order they were saved.
+     * Blank lines are skipped.
+     * If there are several corrupted records, the error of the first one is reported.
+     *
+     * @return The tasks in the tasks file.
+     * @throws IOException If the tasks file could not be read.
+     * @throws RoverException If there is a possible corruption in the saved tasks.
+     * @throws DateTimeParseException If the date and time format of a saved task is incorrect.
+     */
+    public List<Task> load() throws IOException, RoverException, DateTimeParseException {
+        List<Task> tasks = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        hasLegacyRecords = false;
+        try (FileChannel channel = FileChannel.open(tasksFilePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long regionSize = Math.min(size - position, MAX_REGION_SIZE);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                int length = getLengthOfCompleteRecords(region, position + regionSize == size);
+                if (length == 0) {
+                    // A single record does not fit into one region
+                    throw new RoverException("Possible corruption in saved tasks.");
+                }
+                if (isParallel && length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                    decodeInParallel(region, length, tasks);
+                } else {
+                    RecordDecoder decoder = new RecordDecoder(ui == null ? null : ui::showMessage);
+                    decoder.decodeRecords(region, 0, length, tasks);
+                    hasLegacyRecords |= decoder.hasLegacyRecords;
+                }
+                crc.update(region.slice(0, length));
+                position += length;
+            }
+        }
+        checksum = crc.getValue();
+        return tasks;
+    }
+
+    /**
+     * Reads the records in the tasks file into memory without parsing them, in the order they were saved.
+     * Only the type and status of each record are checked, so that the first command does not have to wait for
+     * every task to be parsed; see {@link TaskRecords}. Only the deadlines and events that may be in the past
+     * are parsed, to show their warnings as {@link #load()} would.
+     *
+     * @return The records in the tasks file.
+     * @throws IOException If the tasks file could not be read.
+     * @throws RoverException If the type or status of a saved task is corrupted.
+     */
+    public TaskRecords loadRecords() throws IOException, RoverException {
+        byte[] data = Files.readAllBytes(tasksFilePath);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        checksum = crc.getValue();
+        TaskRecords records = TaskRecords.of(data);
+        hasLegacyRecords = records.hasLegacyRecords();
+        if (ui != null) {
+            records.showPastTaskWarnings(ui);
+        }
+        return records;
+    }
+
+    /**
+     * Returns the CRC32 checksum of the tasks file that was last loaded.
+     *
+     * @return The checksum of the bytes in the tasks file.
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Returns true if any deadline or event in the tasks file that was last loaded was saved by an older version,
+     * without its dates and times in the canonical form, so the file should be saved again to migrate it.
+     */
+    public boolean hasLegacyRecords() {
+        return hasLegacyRecords;
+    }
+
+    /**
+     * Returns the number of bytes in the region up to the end of its last complete record.
+     * The last record of the last region does not need to be terminated by a newline.
+     */
+    private static int getLengthOfCompleteRecords(ByteBuffer region, boolean isLastRegion) {
+        int limit = region.limit();
+        if (isLastRegion) {
+            return limit;
+        }
+        for (int i = limit - 1; i >= 0; i--) {
+            if (region.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void decodeInParallel(ByteBuffer region, int length, List<Task> tasks)
+            throws IOException, RoverException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        List<Integer> boundaries = splitIntoChunks(region, length, pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<Callable<ChunkResult>> decoders = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            int start = boundaries.get(i);
+            int end = boundaries.get(i + 1);
+            decoders.add(() -> decodeChunk(region, start, end, ui != null));
+        }
+        List<Future<ChunkResult>> results = pool.invokeAll(decoders);
+        for (Future<ChunkResult> future : results) {
+            ChunkResult result = getChunkResult(future);
+            if (ui != null) {
+                result.warnings().forEach(ui::showMessage);
+            }
+            if (result.error() instanceof RoverException roverException) {
+                throw roverException;
+            } else if (result.error() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            tasks.addAll(result.tasks());
+            hasLegacyRecords |= result.hasLegacyRecords();
+        }
+    }
+
+    /**
+     * Decodes the records in the given chunk, holding back the warnings about tasks in the past so that they can
+     * be shown in the order of the records once every chunk is done, or rejecting such tasks if nothing is warned.
+     */
+    private static ChunkResult decodeChunk(ByteBuffer region, int start, int end, boolean isWarned) {
+        List<Task> chunkTasks = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        RecordDecoder decoder = new RecordDecoder(isWarned ? warnings::add : null);
+        try {
+            decoder.decodeRecords(region, start, end, chunkTasks);
+            return new ChunkResult(chunkTasks, warnings, decoder.hasLegacyRecords, null);
+        } catch (RoverException | RuntimeException e) {
+            return new ChunkResult(chunkTasks, warnings, decoder.hasLegacyRecords, e);
+        }
+    }
+
+    private static List<Integer> splitIntoChunks(ByteBuffer region, int length, int numberOfChunks) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, length / numberOfChunks);
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(start + chunkSize, length);
+            while (end < length && region.get(end - 1) != '\n') {
+                end++;
+            }
+            boundaries.add(end);
+            start = end;
+        }
+        return boundaries;
+    }
+
+    private static ChunkResult getChunkResult(Future<ChunkResult> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading tasks.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to decode saved tasks.", e.getCause());
+        }
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\f' && b != 0x0B) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int index, byte[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (buffer.get(index + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte[] pattern, int start, int end) {
+        for (int i = start; i <= end - pattern.length; i++) {
+            if (buffer.get(i) == pattern[0] && matches(buffer, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes records into tasks, reusing a single scratch buffer for every string it creates.
+     * Each thread decoding a chunk has its own decoder.
+     */
+    private static final class RecordDecoder {
+
+        private final Consumer<String> warnings;
+        private byte[] scratch = new byte[256];
+        private boolean hasLegacyRecords = false;
+
+        RecordDecoder(Consumer<String> warnings) {
+            this.warnings = warnings;
+        }
+
+        void decodeRecords(ByteBuffer buffer, int start, int end, List<Task> tasks) throws RoverException {
+            int recordStart = start;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) == '\n') {
+                    decodeRecord(buffer, recordStart, i, tasks);
+                    recordStart = i + 1;
+                }
+            }
+            if (recordStart < end) {
+                decodeRecord(buffer, recordStart, end, tasks);
+            }
+        }
+
+        private void decodeRecord(ByteBuffer buffer, int start, int end, List<Task> tasks) throws RoverException {
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (isBlank(buffer, start, end)) {
+                return;
+            }
+            int descriptionStart = start + 8;
+            if (end <= descriptionStart || !matches(buffer, start + 1, FIELD_DELIMITER)
+                    || !matches(buffer, start + 5, FIELD_DELIMITER)) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            // Dates and times in the canonical form follow the body, except in records saved by older versions
+            int fieldsIndex = indexOf(buffer, FIELD_DELIMITER, descriptionStart, end);
+            byte status = buffer.get(start + 4);
+            if (status != '0' && status != '1') {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            TaskType type = TaskType.ofCode(buffer.get(start));
+            if (type == null) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            Task task = switch (type) {
+            case TODO -> decodeTodo(buffer, descriptionStart, end, fieldsIndex);
+            case DEADLINE -> decodeDeadline(buffer, descriptionStart, end, fieldsIndex);
+            case EVENT -> decodeEvent(buffer, descriptionStart, end, fieldsIndex);
+            };
+            if (status == '1') {
+                task.setDone();
+            }
+            tasks.add(task);
+        }
+
+        private Todo decodeTodo(ByteBuffer buffer, int start, int end, int fieldsIndex) throws RoverException {
+            if (fieldsIndex >= 0) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            return new Todo(decodeString(buffer, start, end));
+        }
+
+        private Deadline decodeDeadline(ByteBuffer buffer, int start, int recordEnd, int fieldsIndex)
+                throws RoverException {
+            int end = fieldsIndex < 0 ? recordEnd : fieldsIndex;
+            int byIndex = indexOf(buffer, BY_DELIMITER, start, end);
+            int byStart = byIndex + BY_DELIMITER.length;
+            if (byIndex < 0 || indexOf(buffer, BY_DELIMITER, byStart, end) >= 0) {
+                throw new RoverException("A deadline task must be a task followed with '/by (deadline)'.");
+            }
+            String description = decodeString(buffer, start, byIndex);
+            String by = decodeString(buffer, byStart, end);
+            if (fieldsIndex < 0) {
+                hasLegacyRecords = true;
+                return new Deadline(description, by, warnings);
+            }
+            int byFieldStart = fieldsIndex + FIELD_DELIMITER.length;
+            if (indexOf(buffer, FIELD_DELIMITER, byFieldStart, recordEnd) >= 0) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            return new Deadline(description, by, decodeString(buffer, byFieldStart, recordEnd), warnings);
+        }
+
+        private Event decodeEvent(ByteBuffer buffer, int start, int recordEnd, int fieldsIndex)
+                throws RoverException {
+            int end = fieldsIndex < 0 ? recordEnd : fieldsIndex;
+            int fromIndex = indexOf(buffer, FROM_DELIMITER, start, end);
+            int fromStart = fromIndex + FROM_DELIMITER.length;
+            if (fromIndex < 0 || indexOf(buffer, FROM_DELIMITER, fromStart, end) >= 0) {
+                throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+            }
+            int toIndex = indexOf(buffer, TO_DELIMITER, fromStart, end);
+            int toStart = toIndex + TO_DELIMITER.length;
+            if (toIndex < 0 || indexOf(buffer, TO_DELIMITER, toStart, end) >= 0) {
+                throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+            }
+            String description = decodeString(buffer, start, fromIndex);
+            String startString = decodeString(buffer, fromStart, toIndex);
+            String endString = decodeString(buffer, toStart, end);
+            if (fieldsIndex < 0) {
+                hasLegacyRecords = true;
+                return new Event(description, startString, endString, warnings);
+            }
+            int startFieldStart = fieldsIndex + FIELD_DELIMITER.length;
+            int endFieldIndex = indexOf(buffer, FIELD_DELIMITER, startFieldStart, recordEnd);
+            int endFieldStart = endFieldIndex + FIELD_DELIMITER.length;
+            if (endFieldIndex < 0 || indexOf(buffer, FIELD_DELIMITER, endFieldStart, recordEnd) >= 0) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            return new Event(description, startString, endString, decodeString(buffer, startFieldStart, endFieldIndex),
+                decodeString(buffer, endFieldStart, recordEnd), warnings);
+        }
+
+        private String decodeString(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Represents the tasks decoded from a chunk, along with the warnings held back while decoding them,
+     * whether any of them were saved by an older version and the error that stopped the decoding, if any.
+     */
+    private record ChunkResult(List<Task> tasks, List<String> warnings, boolean hasLegacyRecords, Exception error) {
+    }
+}
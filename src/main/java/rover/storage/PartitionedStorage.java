@@ -0,0 +1,197 @@
+package rover.storage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.ui.Ui;
+
+/**
+ * Handles the storage of the tasks in partitions by the month they are due in, kept in a {@link PartitionedTaskTable}
+ * in a directory next to the tasks file with the extension {@code .partitions}, and of the preferences in the
+ * preferences file. Starting only reads the manifest of the partitions, queries only load the partitions they need,
+ * and every change is written as it is made, to the partition of its task.
+ * The first time, the tasks are imported from the tasks file.
+ */
+public final class PartitionedStorage implements Storage {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private final Path partitionsDirectoryPath;
+    private final FileStorage fileStorage;
+    private final DurabilityPolicy durabilityPolicy;
+    private PartitionedTaskTable table;
+    private boolean isPreferencesChanged = false;
+    private boolean isTasksSaved = false;
+    private boolean isPreferencesSaved = false;
+
+    /**
+     * Returns a new PartitionedStorage object that keeps the partitions next to the given tasks file,
+     * and imports the given tasks file when the partitions are first created.
+     *
+     * @param tasksFilePath The file path of the tasks file to import and export tasks.
+     * @param preferencesFilePath The file path to save and load preferences from.
+     * @param durabilityPolicy How far each change is forced to the storage device.
+     */
+    public PartitionedStorage(String tasksFilePath, String preferencesFilePath, DurabilityPolicy durabilityPolicy) {
+        assert durabilityPolicy != null : "Durability policy should not be null.";
+        this.partitionsDirectoryPath = FileStorage.getSiblingFilePath(FileStorage.resolveFilePath(tasksFilePath),
+            ".partitions");
+        this.fileStorage = new FileStorage(tasksFilePath, preferencesFilePath, durabilityPolicy);
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Loads the tasks from the partitions, which only reads their manifest.
+     * When there are no partitions yet, the tasks are imported from the tasks file, as loaded by {@link FileStorage},
+     * and every partition is written before the manifest.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The TaskList object keeping its tasks in the partitions.
+     * @throws RoverException If there is a possible corruption in the manifest or the imported tasks.
+     * @throws DateTimeParseException If the date and time format of an imported task is incorrect.
+     */
+    @Override
+    public TaskList loadTasks(Ui ui) throws RoverException, DateTimeParseException {
+        try {
+            table = PartitionedTaskTable.exists(partitionsDirectoryPath)
+                ? PartitionedTaskTable.open(partitionsDirectoryPath, durabilityPolicy)
+                : PartitionedTaskTable.create(partitionsDirectoryPath, fileStorage.loadTasks(ui).getTasks(),
+                    durabilityPolicy);
+            return TaskList.ofTable(table);
+        } catch (IOException | StorageException e) {
+            table = null;
+            ui.displayError("Failed to load tasks.");
+            return new TaskList();
+        }
+    }
+
+    /**
+     * Loads the preferences from the preferences file.
+     *
+     * @param ui The Ui object to display messages.
+     * @return The JSON node representing the preferences.
+     */
+    @Override
+    public ObjectNode loadPreferences(Ui ui) {
+        return fileStorage.loadPreferences(ui);
+    }
+
+    /**
+     * Starts keeping track of the changes made to the preferences, so that they are only saved if they have changed.
+     * Changes to the tasks are written to their partitions as they are made, so they are not tracked.
+     *
+     * @param taskList The TaskList object whose changes should be tracked.
+     * @param userPreferences The UserPreferences object whose changes should be tracked.
+     */
+    @Override
+    public void trackChanges(TaskList taskList, UserPreferences userPreferences) {
+        assert userPreferences != null : "UserPreferences should not be null.";
+        userPreferences.addChangeListener(() -> isPreferencesChanged = true);
+    }
+
+    /**
+     * Does nothing, as every change to the tasks is already written to its partition as it is made.
+     */
+    @Override
+    public void attachJournal(TaskList taskList, Ui ui) {}
+
+    /**
+     * Does nothing, as every change to the tasks is already written to its partition as it is made,
+     * and the preferences are saved when the session ends.
+     */
+    @Override
+    public void startAutoSave(TaskList taskList, UserPreferences userPreferences, Object sessionLock,
+            Duration quietPeriod) {}
+
+    /**
+     * Saves the preferences to the preferences file if they have changed.
+     * The tasks have already been saved as they were changed, so nothing is saved if the partitions could not be
+     * opened.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void saveAll(TaskList taskList, UserPreferences userPreferences, Ui ui) {
+        assert userPreferences != null : "UserPreferences should not be null.";
+        assert ui != null : "Ui should not be null.";
+        String response = "Saving your tasks...";
+        isTasksSaved = table != null;
+        response += NEW_LINE + (isTasksSaved ? "Tasks saved successfully!" : "Failed to save tasks.");
+
+        response += NEW_LINE + "Saving your preferences...";
+        isPreferencesSaved = !isPreferencesChanged || fileStorage.writePreferences(userPreferences.getJsonNode());
+        isPreferencesChanged = !isPreferencesSaved;
+        response += NEW_LINE + (isPreferencesSaved ? "Preferences saved successfully!" : "Failed to save preferences.");
+
+        if (isTasksSaved && isPreferencesSaved) {
+            ui.showMessageWithoutLineSeparator(response);
+        } else {
+            ui.displayError(response);
+        }
+    }
+
+    /**
+     * Does nothing, as the tasks are kept in the partitions, and the tasks file is only read to create them.
+     */
+    @Override
+    public void watchTasksFile(TaskList taskList, Object sessionLock, Ui ui) {}
+
+    /**
+     * Exports the tasks to the tasks file in the text format, which loads every partition.
+     *
+     * @param taskList The TaskList object containing the tasks to be exported.
+     * @param ui The Ui object to display messages.
+     */
+    @Override
+    public void exportTasks(TaskList taskList, Ui ui) {
+        fileStorage.exportTasks(taskList, ui);
+    }
+
+    /**
+     * Archives the tasks in the archive next to the tasks file, and removes them from the task list as single rows.
+     *
+     * @param taskList The TaskList object containing the tasks to be archived.
+     * @param predicate The predicate that the tasks to be archived match.
+     * @param ui The Ui object to display messages.
+     * @return The number of tasks archived, or -1 if they could not be archived.
+     */
+    @Override
+    public int archiveTasks(TaskList taskList, Predicate<Task> predicate, Ui ui) {
+        return fileStorage.archiveTasks(taskList, predicate, ui);
+    }
+
+    @Override
+    public void findTasks(TaskList taskList, String keyword, boolean isCaseInsensitive, String filterDescription,
+            Ui ui) {
+        fileStorage.findTasks(taskList, keyword, isCaseInsensitive, filterDescription, ui);
+    }
+
+    /**
+     * Does not sync the tasks, as only tasks kept in a tasks file can be synced.
+     *
+     * @param taskList The TaskList object containing the tasks to be synced.
+     * @param folderPath The path of the shared folder, relative to the current directory.
+     * @param ui The Ui object to display messages.
+     * @return -1, as the tasks are not synced.
+     */
+    @Override
+    public int syncTasks(TaskList taskList, String folderPath, Ui ui) {
+        ui.displayError("Only tasks kept in a tasks file can be synced.");
+        return -1;
+    }
+
+    @Override
+    public boolean isSavedSuccessfully() {
+        return isTasksSaved && isPreferencesSaved;
+    }
+}
@@ -0,0 +1,501 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.task.Task;
+import rover.task.TaskFilter;
+import rover.task.TaskRecords;
+import rover.task.TaskTable;
+import rover.task.TaskType;
+
+/**
+ * Keeps tasks in partitions by the month they are due in, each in a file of its own, with the todos, which are not
+ * due at any time, in a partition of their own. A manifest next to the partitions records the row IDs in each
+ * partition and the earliest and latest due date and time in it, so opening the table only reads the manifest,
+ * and each query only loads the partitions whose time range or type it could match. Loaded partitions are kept in
+ * memory for the rest of the session.
+ * Every change rewrites the partition of its task and the manifest, so a change costs as much as the month of its task
+ * rather than the whole list. The manifest decides which rows each partition has, so it is written after the
+ * partition when a task is inserted and before it when a task is deleted, and rows left in a partition by a change
+ * that was interrupted in between are ignored.
+ */
+final class PartitionedTaskTable implements TaskTable {
+
+    static final String MANIFEST_FILE_NAME = "manifest.txt";
+    private static final String UNDATED = "undated";
+    private static final String PARTITION_EXTENSION = ".txt";
+    private static final String DELIMITER = " | ";
+    private static final String NO_DATE_TIME = "-";
+
+    private final Path directoryPath;
+    private final DurabilityPolicy durabilityPolicy;
+    private final Map<String, Partition> partitions = new TreeMap<>();
+
+    /**
+     * Represents a partition of the table, whose tasks are only read from its file when they are first needed.
+     */
+    private static final class Partition {
+        private final String name;
+        /** The row IDs of the tasks in the partition, in ascending order, up to size. */
+        private int[] rowIds = new int[4];
+        private int size = 0;
+        private LocalDateTime earliest;
+        private LocalDateTime latest;
+        /** The tasks by row ID, or null if the partition has not been loaded yet. */
+        private TreeMap<Integer, Task> tasks;
+
+        private Partition(String name) {
+            this.name = name;
+        }
+
+        private boolean contains(int rowId) {
+            return Arrays.binarySearch(rowIds, 0, size, rowId) >= 0;
+        }
+
+        private void addRowId(int rowId) {
+            if (size == rowIds.length) {
+                rowIds = Arrays.copyOf(rowIds, size * 2);
+            }
+            rowIds[size++] = rowId;
+        }
+
+        private void removeRowId(int rowId) {
+            int index = Arrays.binarySearch(rowIds, 0, size, rowId);
+            System.arraycopy(rowIds, index + 1, rowIds, index, size - index - 1);
+            size--;
+        }
+
+        /**
+         * Recomputes the time range of the partition from its tasks, which must have been loaded.
+         */
+        private void updateTimeRange() {
+            earliest = null;
+            latest = null;
+            for (Task task : tasks.values()) {
+                LocalDateTime dueDateTime = task.getDueDateTime();
+                if (dueDateTime == null) {
+                    continue;
+                }
+                if (earliest == null || dueDateTime.isBefore(earliest)) {
+                    earliest = dueDateTime;
+                }
+                if (latest == null || dueDateTime.isAfter(latest)) {
+                    latest = dueDateTime;
+                }
+            }
+        }
+
+        private boolean mayHaveDueBefore(LocalDateTime dateTime) {
+            return earliest != null && earliest.isBefore(dateTime);
+        }
+
+        private boolean mayHaveDueAfter(LocalDateTime dateTime) {
+            return latest != null && latest.isAfter(dateTime);
+        }
+
+        private boolean mayHaveDueBetween(LocalDateTime from, LocalDateTime to) {
+            return earliest != null && !latest.isBefore(from) && !earliest.isAfter(to);
+        }
+    }
+
+    private PartitionedTaskTable(Path directoryPath, DurabilityPolicy durabilityPolicy) {
+        this.directoryPath = directoryPath;
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Returns whether there is a partitioned table in the given directory.
+     *
+     * @param directoryPath The directory of the partitions.
+     * @return True if the directory has a manifest, false otherwise.
+     */
+    static boolean exists(Path directoryPath) {
+        return Files.exists(directoryPath.resolve(MANIFEST_FILE_NAME));
+    }
+
+    /**
+     * Opens the partitioned table in the given directory, which only reads its manifest.
+     *
+     * @param directoryPath The directory of the partitions, which must have a manifest.
+     * @param durabilityPolicy How far each change is forced to the storage device.
+     * @return The table in the directory.
+     * @throws IOException If the manifest could not be read.
+     * @throws RoverException If the manifest is corrupted.
+     */
+    static PartitionedTaskTable open(Path directoryPath, DurabilityPolicy durabilityPolicy)
+            throws IOException, RoverException {
+        PartitionedTaskTable table = new PartitionedTaskTable(directoryPath, durabilityPolicy);
+        for (String line : Files.readAllLines(directoryPath.resolve(MANIFEST_FILE_NAME), StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                Partition partition = parseManifestLine(line);
+                table.partitions.put(partition.name, partition);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Creates a partitioned table in the given directory holding the given tasks, as the rows with IDs from 1 onwards,
+     * e.g. to import them. Any table already in the directory is replaced.
+     *
+     * @param directoryPath The directory of the partitions.
+     * @param tasks The tasks to be kept in the table, in order.
+     * @param durabilityPolicy How far each change is forced to the storage device.
+     * @return The table holding the tasks, with every partition loaded.
+     * @throws IOException If the table could not be written.
+     */
+    static PartitionedTaskTable create(Path directoryPath, List<Task> tasks, DurabilityPolicy durabilityPolicy)
+            throws IOException {
+        PartitionedTaskTable table = new PartitionedTaskTable(directoryPath, durabilityPolicy);
+        for (int i = 0; i < tasks.size(); i++) {
+            Partition partition = table.partitions.computeIfAbsent(getPartitionName(tasks.get(i)), Partition::new);
+            if (partition.tasks == null) {
+                partition.tasks = new TreeMap<>();
+            }
+            partition.addRowId(i + 1);
+            partition.tasks.put(i + 1, tasks.get(i));
+        }
+        for (Partition partition : table.partitions.values()) {
+            partition.updateTimeRange();
+            table.writePartition(partition);
+        }
+        // The manifest is written last, so the table only exists once all of its partitions do
+        table.writeManifest();
+        return table;
+    }
+
+    private static String getPartitionName(Task task) {
+        LocalDateTime dueDateTime = task.getDueDateTime();
+        if (dueDateTime == null) {
+            return UNDATED;
+        }
+        return String.format("%04d-%02d", dueDateTime.getYear(), dueDateTime.getMonthValue());
+    }
+
+    private Path getPartitionFilePath(String name) {
+        return directoryPath.resolve(name + PARTITION_EXTENSION);
+    }
+
+    /**
+     * Parses a line of the manifest, which holds the name of a partition, its earliest and latest due date and time,
+     * and its row IDs as ascending ranges, e.g. {@code 2030-08 | 2030-08-02T09:00 | 2030-08-30T18:00 | 1-40,45}.
+     */
+    private static Partition parseManifestLine(String line) throws RoverException {
+        String[] parts = line.split(" \\| ");
+        if (parts.length != 4) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        Partition partition = new Partition(parts[0]);
+        try {
+            if (!parts[1].equals(NO_DATE_TIME)) {
+                partition.earliest = LocalDateTime.parse(parts[1]);
+                partition.latest = LocalDateTime.parse(parts[2]);
+            }
+            for (String range : parts[3].split(",")) {
+                int separatorIndex = range.indexOf('-');
+                int first = Integer.parseInt(separatorIndex < 0 ? range : range.substring(0, separatorIndex));
+                int last = separatorIndex < 0 ? first : Integer.parseInt(range.substring(separatorIndex + 1));
+                for (int rowId = first; rowId <= last; rowId++) {
+                    if (partition.size > 0 && rowId <= partition.rowIds[partition.size - 1]) {
+                        throw new RoverException("Possible corruption in saved tasks.");
+                    }
+                    partition.addRowId(rowId);
+                }
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return partition;
+    }
+
+    private static String getManifestLine(Partition partition) {
+        StringBuilder line = new StringBuilder(partition.name).append(DELIMITER)
+            .append(partition.earliest == null ? NO_DATE_TIME : partition.earliest).append(DELIMITER)
+            .append(partition.latest == null ? NO_DATE_TIME : partition.latest).append(DELIMITER);
+        int start = 0;
+        while (start < partition.size) {
+            int end = start;
+            while (end + 1 < partition.size && partition.rowIds[end + 1] == partition.rowIds[end] + 1) {
+                end++;
+            }
+            if (start > 0) {
+                line.append(',');
+            }
+            line.append(partition.rowIds[start]);
+            if (end > start) {
+                line.append('-').append(partition.rowIds[end]);
+            }
+            start = end + 1;
+        }
+        return line.toString();
+    }
+
+    private void writeManifest() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            lines.add(getManifestLine(partition));
+        }
+        writeLines(directoryPath.resolve(MANIFEST_FILE_NAME), lines);
+    }
+
+    private void writePartition(Partition partition) throws IOException {
+        List<String> lines = new ArrayList<>(partition.tasks.size());
+        for (Map.Entry<Integer, Task> entry : partition.tasks.entrySet()) {
+            lines.add(entry.getKey() + DELIMITER + entry.getValue().getTaskString());
+        }
+        writeLines(getPartitionFilePath(partition.name), lines);
+    }
+
+    /**
+     * Writes the given lines to a temporary file, which is moved into place as the given file.
+     * Changes are only forced to the storage device under {@link DurabilityPolicy#ALWAYS}, as each of them is small,
+     * like a record of the task journal.
+     */
+    private void writeLines(Path filePath, List<String> lines) throws IOException {
+        Files.createDirectories(directoryPath);
+        Path tempFilePath = AtomicFiles.getTempFilePath(filePath);
+        Files.write(tempFilePath, lines, StandardCharsets.UTF_8);
+        boolean isForced = durabilityPolicy == DurabilityPolicy.ALWAYS;
+        if (isForced) {
+            try (FileChannel channel = FileChannel.open(tempFilePath, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+        }
+        AtomicFiles.moveIntoPlace(filePath, isForced);
+    }
+
+    /**
+     * Returns the tasks of the given partition by row ID, reading them from its file if they have not been yet.
+     */
+    private TreeMap<Integer, Task> load(Partition partition) {
+        if (partition.tasks != null) {
+            return partition.tasks;
+        }
+        TreeMap<Integer, Task> tasks = new TreeMap<>();
+        try {
+            for (String line : Files.readAllLines(getPartitionFilePath(partition.name), StandardCharsets.UTF_8)) {
+                int delimiterIndex = line.indexOf(DELIMITER);
+                if (delimiterIndex < 0) {
+                    throw new RoverException("Possible corruption in saved tasks.");
+                }
+                int rowId = Integer.parseInt(line.substring(0, delimiterIndex));
+                // Rows that are not in the manifest were left by a change that was interrupted
+                if (partition.contains(rowId)) {
+                    tasks.put(rowId, parseTask(line.substring(delimiterIndex + DELIMITER.length())));
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Failed to read your tasks.", e);
+        } catch (RoverException | CorruptedTaskException | NumberFormatException e) {
+            throw new StorageException("Possible corruption in saved tasks.", e);
+        }
+        if (tasks.size() != partition.size) {
+            throw new StorageException("Possible corruption in saved tasks.", null);
+        }
+        partition.tasks = tasks;
+        return tasks;
+    }
+
+    /**
+     * Returns the task saved as the given task string, read as a record of the tasks file, so that tasks that have
+     * become overdue since they were saved are still read.
+     */
+    private static Task parseTask(String taskString) throws RoverException {
+        TaskRecords records = TaskRecords.of(taskString.getBytes(StandardCharsets.UTF_8));
+        if (records.size() != 1) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return records.get(0);
+    }
+
+    private Partition getPartition(int rowId) {
+        for (Partition partition : partitions.values()) {
+            if (partition.contains(rowId)) {
+                return partition;
+            }
+        }
+        throw new StorageException("Could not find a saved task.", null);
+    }
+
+    /**
+     * Returns the tasks in the given partitions that match the given predicate, in the order of their row IDs.
+     */
+    private List<Task> selectFrom(Collection<Partition> candidates, Predicate<Task> predicate) {
+        TreeMap<Integer, Task> selected = new TreeMap<>();
+        for (Partition partition : candidates) {
+            for (Map.Entry<Integer, Task> entry : load(partition).entrySet()) {
+                if (predicate.test(entry.getValue())) {
+                    selected.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return new ArrayList<>(selected.values());
+    }
+
+    private List<Task> selectFrom(Predicate<Partition> partitionPredicate, Predicate<Task> predicate) {
+        return selectFrom(partitions.values().stream().filter(partitionPredicate).toList(), predicate);
+    }
+
+    /**
+     * Returns the number of partitions that have been loaded, e.g. to check that a query only loaded the partitions
+     * it needed.
+     */
+    int getLoadedPartitionCount() {
+        return (int) partitions.values().stream().filter(partition -> partition.tasks != null).count();
+    }
+
+    @Override
+    public int[] selectRowIds() {
+        int[] rowIds = new int[partitions.values().stream().mapToInt(partition -> partition.size).sum()];
+        int size = 0;
+        for (Partition partition : partitions.values()) {
+            System.arraycopy(partition.rowIds, 0, rowIds, size, partition.size);
+            size += partition.size;
+        }
+        Arrays.sort(rowIds);
+        return rowIds;
+    }
+
+    @Override
+    public void insert(int rowId, Task task) {
+        String name = getPartitionName(task);
+        Partition partition = partitions.get(name);
+        if (partition == null) {
+            partition = new Partition(name);
+            partition.tasks = new TreeMap<>();
+        }
+        load(partition).put(rowId, task);
+        partition.addRowId(rowId);
+        partition.updateTimeRange();
+        partitions.put(name, partition);
+        try {
+            writePartition(partition);
+            writeManifest();
+        } catch (IOException e) {
+            throw new StorageException("Failed to save the task.", e);
+        }
+    }
+
+    @Override
+    public Task select(int rowId) {
+        return load(getPartition(rowId)).get(rowId);
+    }
+
+    @Override
+    public String selectDescription(int rowId) {
+        return select(rowId).getDescription();
+    }
+
+    @Override
+    public void updateDone(int rowId, boolean isDone) {
+        Partition partition = getPartition(rowId);
+        Task task = load(partition).get(rowId);
+        if (isDone) {
+            task.setDone();
+        } else {
+            task.setUndone();
+        }
+        try {
+            writePartition(partition);
+        } catch (IOException e) {
+            throw new StorageException("Failed to save the change to the task.", e);
+        }
+    }
+
+    @Override
+    public void delete(int rowId) {
+        Partition partition = getPartition(rowId);
+        load(partition).remove(rowId);
+        partition.removeRowId(rowId);
+        partition.updateTimeRange();
+        if (partition.size == 0) {
+            partitions.remove(partition.name);
+        }
+        try {
+            writeManifest();
+            if (partition.size == 0) {
+                Files.deleteIfExists(getPartitionFilePath(partition.name));
+            } else {
+                writePartition(partition);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete the task.", e);
+        }
+    }
+
+    @Override
+    public List<Task> selectAll() {
+        return selectFrom(partitions.values(), task -> true);
+    }
+
+    @Override
+    public List<Task> selectMatching(TaskFilter filter) {
+        if (filter.type() == null) {
+            return selectFrom(partitions.values(), filter);
+        }
+        // Todos are the only tasks that are not due at any time, so they are the only tasks in their partition
+        boolean isTodo = filter.type() == TaskType.TODO;
+        return selectFrom(partition -> partition.name.equals(UNDATED) == isTodo, filter);
+    }
+
+    @Override
+    public List<Task> selectDueBefore(LocalDateTime dateTime) {
+        return selectFrom(partition -> partition.mayHaveDueBefore(dateTime),
+            task -> task.getDueDateTime() != null && task.getDueDateTime().isBefore(dateTime));
+    }
+
+    @Override
+    public List<Task> selectDueAfter(LocalDateTime dateTime) {
+        return selectFrom(partition -> partition.mayHaveDueAfter(dateTime),
+            task -> task.getDueDateTime() != null && task.getDueDateTime().isAfter(dateTime));
+    }
+
+    @Override
+    public List<Task> selectDueBetween(LocalDateTime from, LocalDateTime to) {
+        return selectFrom(partition -> partition.mayHaveDueBetween(from, to), task -> task.getDueDateTime() != null
+            && !task.getDueDateTime().isBefore(from) && !task.getDueDateTime().isAfter(to));
+    }
+
+    @Override
+    public List<Task> selectContaining(String keyword, boolean isCaseInsensitive) {
+        if (!isCaseInsensitive) {
+            return selectFrom(partitions.values(), task -> task.getDescription().contains(keyword));
+        }
+        String lowerCaseKeyword = keyword.toLowerCase(Locale.ROOT);
+        return selectFrom(partitions.values(),
+            task -> task.getDescription().toLowerCase(Locale.ROOT).contains(lowerCaseKeyword));
+    }
+
+    @Override
+    public List<Task> selectByDescription(String description) {
+        return selectFrom(partitions.values(), task -> task.getDescription().equals(description));
+    }
+
+    /**
+     * Returns whether the table has a task equal to the given task, which only loads the partition of the task,
+     * as equal tasks are due at the same time.
+     */
+    @Override
+    public boolean contains(Task task) {
+        Partition partition = partitions.get(getPartitionName(task));
+        return partition != null && load(partition).containsValue(task);
+    }
+}
@@ -0,0 +1,19 @@
+package rover.storage;
+
+import java.io.IOException;
+
+/**
+ * Represents a snapshot of the tasks that has been captured from the task list and is ready to be written,
+ * so that it can be written without holding the task list.
+ */
+@FunctionalInterface
+interface PendingSnapshot {
+
+    /**
+     * Writes the snapshot to the tasks file.
+     *
+     * @return The CRC32 checksum of the tasks file after it has been written.
+     * @throws IOException If the snapshot could not be written.
+     */
+    long write() throws IOException;
+}
@@ -1,153 +1,139 @@
 package rover.storage;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import rover.exceptions.RoverException;
 import rover.preferences.UserPreferences;
 import rover.task.Task;
 import rover.task.TaskList;
 import rover.ui.Ui;
 
 /**
- * Handles the storage of the tasks in the file system.
+ * Represents where the tasks and preferences of a session are loaded from and saved to.
+ * A session loads its tasks and preferences, starts tracking and saving the changes made to them,
+ * and saves whatever has not been saved yet when it ends.
  */
-public final class Storage {
-
-    private static final String NEW_LINE = System.lineSeparator();
-    private final Path tasksFilePath;
-    private final Path preferencesFilePath;
-    private boolean isTasksSaved = false;
-    private boolean isPreferencesSaved = false;
-    private final JsonFileManager jsonFileManager = new JsonFileManager();
+public interface Storage {
 
     /**
-     * Returns a new Storage object with the specified file path.
+     * Loads the saved tasks.
      *
-     * @param tasksFilePath The file path to save and load tasks from.
-     * @param preferencesFilePath The file path to save and load preferences from.
+     * @param ui The Ui object to display messages.
+     * @return The TaskList object containing the loaded tasks.
+     * @throws RoverException If there is a possible corruption in the saved tasks.
+     * @throws DateTimeParseException If the date and time format of a saved task is incorrect.
      */
-    public Storage(String tasksFilePath, String preferencesFilePath) {
-        String cwd = System.getProperty("user.dir");
-        this.tasksFilePath = Paths.get(cwd, tasksFilePath.split("/"));
-        this.preferencesFilePath = Paths.get(cwd, preferencesFilePath.split("/"));
-    }
+    TaskList loadTasks(Ui ui) throws RoverException, DateTimeParseException;
 
     /**
-     * Loads the tasks from the file system.
+     * Loads the saved preferences.
      *
      * @param ui The Ui object to display messages.
-     * @return An array of strings representing the tasks.
+     * @return The JSON node representing the preferences.
+     */
+    ObjectNode loadPreferences(Ui ui);
+
+    /**
+     * Starts keeping track of the changes made to the given task list and preferences,
+     * so that saving only writes what has changed.
+     *
+     * @param taskList The TaskList object whose changes should be tracked.
+     * @param userPreferences The UserPreferences object whose changes should be tracked.
      */
-    public String[] loadTasks(Ui ui) {
-        try {
-            boolean fileExists = Files.exists(tasksFilePath);
-            if (!fileExists) {
-                return new String[0];
-            } else {
-                Stream<String> lines = Files.lines(tasksFilePath).filter(line -> !line.isBlank());
-                String[] tasks = lines.toArray(String[]::new);
-                lines.close();
-                return tasks;
-            }
-        } catch (IOException e) {
-            ui.displayError("Failed to load tasks.");
-            return new String[0];
-        }
-    }
+    void trackChanges(TaskList taskList, UserPreferences userPreferences);
 
     /**
-     * Loads the preferences from the file system.
+     * Starts persisting every change made to the given task list as it happens,
+     * instead of only when the session ends.
      *
+     * @param taskList The TaskList object whose changes should be persisted.
      * @param ui The Ui object to display messages.
-     * @return The JSON node representing the preferences.
      */
-    public ObjectNode loadPreferences(Ui ui) {
-        try {
-            boolean fileExists = Files.exists(preferencesFilePath);
-            if (!fileExists) {
-                return (ObjectNode) (new UserPreferences()).getJsonNode();
-            }
-            return (ObjectNode) jsonFileManager.load(preferencesFilePath.toString());
-        } catch (IOException e) {
-            ui.displayError("Failed to load preferences.");
-            return (ObjectNode) (new UserPreferences()).getJsonNode();
-        }
-    }
+    void attachJournal(TaskList taskList, Ui ui);
 
     /**
-     * Saves tasks and preferences to the file system.
+     * Starts saving the tasks and preferences in the background whenever they have stopped changing for the given
+     * quiet period.
      *
      * @param taskList The TaskList object containing the tasks to be saved.
      * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param sessionLock The lock that is held while commands change the tasks or preferences.
+     * @param quietPeriod How long the tasks and preferences must go unchanged before they are saved.
+     */
+    void startAutoSave(TaskList taskList, UserPreferences userPreferences, Object sessionLock, Duration quietPeriod);
+
+    /**
+     * Saves the tasks and preferences that have not been saved yet, and displays whether they were saved.
+     *
+     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param ui The Ui object to display messages.
+     */
+    void saveAll(TaskList taskList, UserPreferences userPreferences, Ui ui);
+
+    /**
+     * Starts watching the tasks file for changes made to it by other programs while the session runs,
+     * and applies only the tasks that changed to the given task list, so that saving does not overwrite them.
+     *
+     * @param taskList The TaskList object to apply the changes to.
+     * @param sessionLock The lock that is held while commands change the tasks or preferences.
      * @param ui The Ui object to display messages.
      */
-    public void saveAll(TaskList taskList, UserPreferences userPreferences, Ui ui) {
-        assert taskList != null : "TaskList should not be null.";
-        assert userPreferences != null : "UserPreferences should not be null.";
-        assert ui != null : "Ui should not be null.";
-        String response = "Saving your tasks...";
-        saveTasks(taskList);
-        response += NEW_LINE + (isTasksSaved ? "Tasks saved successfully!" : "Failed to save tasks.");
+    void watchTasksFile(TaskList taskList, Object sessionLock, Ui ui);
 
-        response += NEW_LINE + "Saving your preferences...";
-        savePreferences(userPreferences);
-        response += NEW_LINE + (isPreferencesSaved ? "Preferences saved successfully!" : "Failed to save preferences.");
+    /**
+     * Exports the tasks to the tasks file in the text format, which can be read, edited and imported again.
+     * This should not be called while holding the session lock.
+     *
+     * @param taskList The TaskList object containing the tasks to be exported.
+     * @param ui The Ui object to display messages.
+     */
+    void exportTasks(TaskList taskList, Ui ui);
 
-        if (isTasksSaved && isPreferencesSaved) {
-            ui.showMessageWithoutLineSeparator(response);
-        } else {
-            ui.displayError(response);
-        }
-    }
+    /**
+     * Moves the tasks in the given task list that match the given predicate into a new segment of the archive,
+     * which is not read when the tasks are loaded, and removes them from the task list.
+     * This should not be called while holding the session lock.
+     *
+     * @param taskList The TaskList object containing the tasks to be archived.
+     * @param predicate The predicate that the tasks to be archived match.
+     * @param ui The Ui object to display messages.
+     * @return The number of tasks archived, or -1 if they could not be archived.
+     */
+    int archiveTasks(TaskList taskList, Predicate<Task> predicate, Ui ui);
 
     /**
-     * Saves the tasks to the file system and updates the isSaved field.
+     * Displays the tasks in the given task list, and then the archived tasks, whose description contains the given
+     * keyword. The archive is only read for this, and its segments are searched in parallel.
+     * This should not be called while holding the session lock.
      *
-     * @param taskList The TaskList object containing the tasks to be saved.
+     * @param taskList The TaskList object containing the tasks that have not been archived.
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @param filterDescription The description of the filter.
+     * @param ui The Ui object to display the tasks.
      */
-    private void saveTasks(TaskList taskList) {
-        assert taskList != null : "TaskList should not be null.";
-        try {
-            Files.createDirectories(tasksFilePath.getParent());
-            Files.deleteIfExists(tasksFilePath);
-            Files.createFile(tasksFilePath);
-            String tasksString = taskList.getTasks().stream()
-                .map(Task::getTaskString)
-                .collect(Collectors.joining("\n"));
-            Files.writeString(tasksFilePath, tasksString, StandardOpenOption.WRITE);
-            isTasksSaved = true;
-        } catch (IOException e) {
-            isTasksSaved = false;
-        }
-    }
+    void findTasks(TaskList taskList, String keyword, boolean isCaseInsensitive, String filterDescription, Ui ui);
 
     /**
-     * Saves the preferences to the file system and updates the isSaved field.
+     * Syncs the tasks with those of other data directories through the given shared folder, sending the changes made
+     * since the last sync and applying those made by the others to the given task list.
+     * This should not be called while holding the session lock.
      *
-     * @param userPreferences The UserPreferences object containing the preferences to be saved.
+     * @param taskList The TaskList object containing the tasks to be synced.
+     * @param folderPath The path of the shared folder, relative to the current directory.
+     * @param ui The Ui object to display messages.
+     * @return The number of changes made to the task list, or -1 if the tasks could not be synced.
      */
-    private void savePreferences(UserPreferences userPreferences) {
-        assert userPreferences != null : "UserPreferences should not be null.";
-        try {
-            jsonFileManager.write(userPreferences.getJsonNode(), preferencesFilePath.toString());
-            isPreferencesSaved = true;
-        } catch (IOException e) {
-            isPreferencesSaved = false;
-        }
-    }
+    int syncTasks(TaskList taskList, String folderPath, Ui ui);
 
     /**
-     * Returns whether the tasks were saved successfully.
+     * Returns whether the tasks and preferences were saved successfully by the last call to saveAll.
      *
-     * @return True if the tasks were saved successfully, false otherwise.
+     * @return True if the tasks and preferences were saved successfully, false otherwise.
      */
-    public boolean isSavedSuccessfully() {
-        return isTasksSaved && isPreferencesSaved;
-    }
+    boolean isSavedSuccessfully();
 }
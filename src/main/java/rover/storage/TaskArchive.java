@@ -0,0 +1,219 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskRecords;
+
+/**
+ * Keeps archived tasks in cold segments in a directory, which are never read when the tasks are loaded.
+ * Each time tasks are archived, they are written to a new segment, as task strings in the format of
+ * {@link Task#getTaskString()}, one per line, compressed with GZIP, so segments only have to be rewritten if
+ * archiving fails midway, and can still be read with other tools. Segments are only read when the archive is
+ * searched, in parallel on the common fork-join pool.
+ */
+final class TaskArchive {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_EXTENSION = ".txt.gz";
+
+    private final Path directoryPath;
+    private final DurabilityPolicy durabilityPolicy;
+
+    /**
+     * Returns the archive kept in the given directory.
+     *
+     * @param directoryPath The directory of the segments, which is created when tasks are first archived.
+     * @param durabilityPolicy How far each new segment is forced to the storage device.
+     */
+    TaskArchive(Path directoryPath, DurabilityPolicy durabilityPolicy) {
+        this.directoryPath = directoryPath;
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Returns the segments of the archive, in the order they were written.
+     */
+    List<Path> getSegmentFilePaths() throws IOException {
+        if (!Files.isDirectory(directoryPath)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directoryPath)) {
+            // Segment numbers have a fixed width, so sorting by name sorts them in the order they were written
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && file.getFileName().toString().endsWith(SEGMENT_EXTENSION))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Writes the given tasks to a new segment, numbered after the last one. The segment is created only if no file
+     * has that name, so a segment written meanwhile is never replaced, and is deleted again if it could not be
+     * written in full. This should only be called while holding the exclusive lock on the tasks file, so that no other
+     * process picks the same number.
+     *
+     * @param tasks The tasks to be archived, in order.
+     * @return The path of the new segment.
+     * @throws IOException If the segment could not be written.
+     */
+    Path append(List<Task> tasks) throws IOException {
+        Files.createDirectories(directoryPath);
+        List<Path> segmentFilePaths = getSegmentFilePaths();
+        int segmentNumber = segmentFilePaths.isEmpty() ? 1 : getSegmentNumber(segmentFilePaths.get(
+            segmentFilePaths.size() - 1)) + 1;
+        Path segmentFilePath = directoryPath.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentNumber,
+            SEGMENT_EXTENSION));
+        // Fails with a FileAlreadyExistsException instead of replacing a segment that is already there
+        FileChannel channel = FileChannel.open(segmentFilePath, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE);
+        try (channel) {
+            writeSegment(channel, tasks);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(segmentFilePath);
+            throw e;
+        }
+        if (durabilityPolicy != DurabilityPolicy.NEVER) {
+            AtomicFiles.forceDirectory(directoryPath);
+        }
+        return segmentFilePath;
+    }
+
+    /**
+     * Replaces the tasks in the given segment with the given ones, which are written to a temporary file and moved
+     * into place, so the segment is never half written. This should only be called while holding the exclusive lock
+     * on the tasks file.
+     *
+     * @param segmentFilePath The path of the segment, as returned by {@link #append(List)}.
+     * @param tasks The tasks to be kept in the segment, in order.
+     * @throws IOException If the segment could not be written.
+     */
+    void replace(Path segmentFilePath, List<Task> tasks) throws IOException {
+        Path tempFilePath = AtomicFiles.getTempFilePath(segmentFilePath);
+        try (FileChannel channel = FileChannel.open(tempFilePath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeSegment(channel, tasks);
+        }
+        AtomicFiles.moveIntoPlace(segmentFilePath, durabilityPolicy != DurabilityPolicy.NEVER);
+    }
+
+    /**
+     * Deletes the given segment, e.g. one whose tasks could not be removed from the task list after all.
+     * This should only be called while holding the exclusive lock on the tasks file.
+     *
+     * @param segmentFilePath The path of the segment, as returned by {@link #append(List)}.
+     * @throws IOException If the segment could not be deleted.
+     */
+    void delete(Path segmentFilePath) throws IOException {
+        Files.deleteIfExists(segmentFilePath);
+    }
+
+    private void writeSegment(FileChannel channel, List<Task> tasks) throws IOException {
+        // The stream is finished rather than closed, so that the channel can still be forced
+        GZIPOutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel));
+        for (Task task : tasks) {
+            out.write((task.getTaskString() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.finish();
+        out.flush();
+        if (durabilityPolicy != DurabilityPolicy.NEVER) {
+            channel.force(false);
+        }
+    }
+
+    private static int getSegmentNumber(Path segmentFilePath) throws IOException {
+        String fileName = segmentFilePath.getFileName().toString();
+        try {
+            return Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(),
+                fileName.length() - SEGMENT_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected segment in the archive: " + fileName, e);
+        }
+    }
+
+    /**
+     * Returns the archived tasks that match the given predicate, reading every segment, in parallel if there is more
+     * than one.
+     *
+     * @param predicate The predicate that the tasks to be returned match.
+     * @return The matching tasks, in the order they were archived.
+     * @throws IOException If a segment could not be read.
+     * @throws RoverException If a segment is corrupted.
+     */
+    List<Task> search(Predicate<Task> predicate) throws IOException, RoverException {
+        List<Path> segmentFilePaths = getSegmentFilePaths();
+        List<Task> tasks = new ArrayList<>();
+        if (segmentFilePaths.size() <= 1 || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            for (Path segmentFilePath : segmentFilePaths) {
+                tasks.addAll(searchSegment(segmentFilePath, predicate));
+            }
+            return tasks;
+        }
+        List<Callable<List<Task>>> searches = new ArrayList<>();
+        for (Path segmentFilePath : segmentFilePaths) {
+            searches.add(() -> searchSegment(segmentFilePath, predicate));
+        }
+        for (Future<List<Task>> result : ForkJoinPool.commonPool().invokeAll(searches)) {
+            tasks.addAll(getSegmentTasks(result));
+        }
+        return tasks;
+    }
+
+    private static List<Task> searchSegment(Path segmentFilePath, Predicate<Task> predicate)
+            throws IOException, RoverException {
+        byte[] data;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segmentFilePath))) {
+            data = in.readAllBytes();
+        }
+        TaskRecords records = TaskRecords.of(data);
+        List<Task> tasks = new ArrayList<>();
+        try {
+            for (Task task : records) {
+                if (predicate.test(task)) {
+                    tasks.add(task);
+                }
+            }
+        } catch (CorruptedTaskException e) {
+            throw new RoverException("Possible corruption in archived tasks.");
+        }
+        return tasks;
+    }
+
+    private static List<Task> getSegmentTasks(Future<List<Task>> result) throws IOException, RoverException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while searching archived tasks.", e);
+        } catch (ExecutionException e) {
+            // The common pool wraps checked exceptions thrown by a callable in a RuntimeException
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof RoverException roverException) {
+                    throw roverException;
+                } else if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+            }
+            throw new IOException("Failed to search archived tasks.", e.getCause());
+        }
+    }
+}
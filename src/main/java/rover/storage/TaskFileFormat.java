@@ -0,0 +1,13 @@
+package rover.storage;
+
+/**
+ * Represents the format that snapshots of the tasks are saved in.
+ */
+public enum TaskFileFormat {
+    /** One task per line, in the format of {@link rover.task.Task#getTaskString()}, which can be read and edited. */
+    TEXT,
+    /** Blocks of tasks in a binary format with a checksum each, which load faster and contain corruption. */
+    BINARY,
+    /** One JSON object per line, with a versioned header, which can be read by other tools. */
+    JSONL
+}
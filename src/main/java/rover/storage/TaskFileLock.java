@@ -0,0 +1,155 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Coordinates the processes that keep their tasks in the same directory, e.g. the command line and the GUI, through a
+ * lock file next to the tasks file. Every write of a snapshot or of records to the task journal holds an exclusive
+ * {@link FileLock} on the lock file, and loading holds a shared one, only for as long as they take, so no process
+ * holds a lock for its whole session.
+ * The lock file holds the version of the saved tasks, which every write increases by one, so a process can tell
+ * whether the tasks have been saved by another process since it last read or wrote them.
+ * The lock is reentrant, and the threads of a process wait for each other, as a FileLock is held by the whole process.
+ * The version is only read and written through the locked channel, as closing any other channel on the lock file
+ * releases every lock the process holds on it on some platforms, and reading it through another one fails on others.
+ */
+final class TaskFileLock {
+
+    private static final int MAX_VERSION_LENGTH = 20;
+
+    private final Path lockFilePath;
+    /** The channel that holds the lock, while it is held. */
+    private FileChannel channel;
+    private boolean isExclusive = false;
+    private int holdCount = 0;
+
+    /**
+     * Represents an action that is run while holding the lock.
+     *
+     * @param <T> The type of the result of the action.
+     * @param <E> The type of the exception the action throws, besides an IOException.
+     */
+    @FunctionalInterface
+    interface LockedAction<T, E extends Exception> {
+
+        /**
+         * Runs the action.
+         *
+         * @return The result of the action.
+         * @throws IOException If the action failed to read or write a file.
+         * @throws E If the action failed otherwise.
+         */
+        T run() throws IOException, E;
+    }
+
+    /**
+     * Returns a new TaskFileLock on the given lock file, which is created when the tasks are first written.
+     *
+     * @param lockFilePath The path of the lock file.
+     */
+    TaskFileLock(Path lockFilePath) {
+        this.lockFilePath = lockFilePath;
+    }
+
+    /**
+     * Runs the given action while holding a shared lock, so that no other process writes meanwhile.
+     * If the lock file does not exist, no process has written the tasks yet, and the action is run without a lock.
+     *
+     * @param action The action that reads the saved tasks.
+     * @return The result of the action.
+     * @throws IOException If the lock could not be taken, or the action failed to read a file.
+     * @throws E If the action failed otherwise.
+     */
+    synchronized <T, E extends Exception> T read(LockedAction<T, E> action) throws IOException, E {
+        if (holdCount > 0 || !Files.exists(lockFilePath)) {
+            return action.run();
+        }
+        return hold(FileChannel.open(lockFilePath, StandardOpenOption.READ), true, action);
+    }
+
+    /**
+     * Runs the given action while holding an exclusive lock, so that no other process reads or writes meanwhile.
+     *
+     * @param action The action that writes the saved tasks.
+     * @return The result of the action.
+     * @throws IOException If the lock could not be taken, or the action failed to read or write a file.
+     * @throws E If the action failed otherwise.
+     */
+    synchronized <T, E extends Exception> T write(LockedAction<T, E> action) throws IOException, E {
+        if (holdCount > 0) {
+            assert isExclusive : "An exclusive lock should not be taken while holding a shared lock.";
+            return action.run();
+        }
+        Files.createDirectories(lockFilePath.toAbsolutePath().getParent());
+        return hold(FileChannel.open(lockFilePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE), false, action);
+    }
+
+    private <T, E extends Exception> T hold(FileChannel lockedChannel, boolean isShared, LockedAction<T, E> action)
+            throws IOException, E {
+        // Closing the channel releases the lock
+        try (FileChannel openChannel = lockedChannel) {
+            openChannel.lock(0, Long.MAX_VALUE, isShared);
+            channel = openChannel;
+            isExclusive = !isShared;
+            holdCount++;
+            try {
+                return action.run();
+            } finally {
+                holdCount--;
+                channel = null;
+                isExclusive = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the saved tasks, which is 0 if they have never been written.
+     * This should only be called while holding the lock, or from an action that is run without it as the lock file
+     * does not exist.
+     *
+     * @return The version of the saved tasks.
+     * @throws IOException If the lock file could not be read.
+     */
+    synchronized long readVersion() throws IOException {
+        if (channel == null) {
+            // The lock file did not exist when the lock was to be taken, so no process has written the tasks yet
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_VERSION_LENGTH + 1);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Reads the whole version, which is shorter than the buffer
+        }
+        String version = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return version.isEmpty() ? 0 : Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new IOException("The version of the saved tasks is corrupted.", e);
+        }
+    }
+
+    /**
+     * Sets the version of the saved tasks. This should only be called while holding the exclusive lock.
+     * The version is not forced to the storage device, as every process reads it again once it restarts.
+     *
+     * @param version The new version of the saved tasks.
+     * @throws IOException If the lock file could not be written.
+     */
+    synchronized void writeVersion(long version) throws IOException {
+        assert isExclusive : "The exclusive lock should be held.";
+        byte[] bytes = (version + "\n").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.truncate(bytes.length);
+    }
+}
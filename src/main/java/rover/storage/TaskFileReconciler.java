@@ -0,0 +1,505 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskListListener;
+import rover.task.TaskRecords;
+
+/**
+ * Applies the changes made to the saved tasks by other programs, e.g. scripts or other Rover processes, to the task
+ * list record by record, instead of loading the tasks again. The hash of every saved task as this process last read or
+ * wrote it is kept, as the common ancestor of the saved tasks and the task list: records that are only in the changed
+ * saved tasks are added to the task list, the tasks of records that are no longer in them are removed, and the tasks
+ * of records whose status alone changed are marked or unmarked. A task is only removed, marked or unmarked if it has
+ * not changed in the task list since, so neither the changes made by others nor those made in the session are lost.
+ * The common ancestor follows the changes made to the task list as they are saved, which it is told of as a listener
+ * of the task list. While the tasks file is watched, the hashes of its records are kept as well, to find the changes
+ * made to it by scripts.
+ * The status of a record is kept in the lowest bit of its hash, so a record whose status changed is found by its
+ * hash alone. This should only be used by one thread at a time.
+ */
+final class TaskFileReconciler implements TaskListListener {
+
+    /** The offset of the status within a record, as in {@code T | 1 | read book}. */
+    private static final int STATUS_OFFSET = 4;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** The hashes of the records in the tasks file as it was last read or written, in order, or null if not watched. */
+    private long[] recordHashes;
+    /** The attributes of the tasks file as it was last read or written, or null if it did not exist. */
+    private FileStamp fileStamp;
+    /** The hashes of the saved tasks as they were last read or written, in order. */
+    private long[] savedHashes;
+    private int savedCount;
+    /** The changes made to the task list since the saved tasks were last read or written, in order. */
+    private final List<Change> pendingChanges = new ArrayList<>();
+
+    /**
+     * Represents what is known about the contents of the tasks file without reading it.
+     * The file key changes when the tasks file is replaced by another file, even if its size and time do not.
+     */
+    private record FileStamp(long size, FileTime lastModifiedTime, Object fileKey) {}
+
+    /**
+     * Represents a change made to the task list, with the index of the changed task, and the hash of the added task.
+     */
+    private record Change(ChangeKind kind, int index, long hash) {}
+
+    private enum ChangeKind { ADDED, MARKED, UNMARKED, DELETED }
+
+    private TaskFileReconciler(long[] savedHashes) {
+        this.savedHashes = savedHashes;
+        this.savedCount = savedHashes.length;
+    }
+
+    /**
+     * Returns a reconciler whose common ancestor is the given saved tasks.
+     *
+     * @param savedTaskStrings The task strings of the saved tasks, in the format of {@link Task#getTaskString()}.
+     * @return The reconciler.
+     */
+    static TaskFileReconciler of(List<String> savedTaskStrings) {
+        long[] hashes = new long[savedTaskStrings.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(savedTaskStrings.get(i));
+        }
+        return new TaskFileReconciler(hashes);
+    }
+
+    /**
+     * Returns a reconciler whose common ancestor is the tasks file as it is now, which is watched.
+     *
+     * @param tasksFilePath The path of the tasks file, which may not exist yet.
+     * @return The reconciler.
+     * @throws IOException If the tasks file could not be read.
+     */
+    static TaskFileReconciler of(Path tasksFilePath) throws IOException {
+        TaskFileReconciler reconciler = new TaskFileReconciler(new long[0]);
+        reconciler.watch(tasksFilePath);
+        reconciler.savedHashes = reconciler.recordHashes.clone();
+        reconciler.savedCount = reconciler.savedHashes.length;
+        return reconciler;
+    }
+
+    /**
+     * Starts finding the changes made to the tasks file, or finds them from the tasks file as it is now once more.
+     *
+     * @param tasksFilePath The path of the tasks file, which may not exist yet.
+     * @throws IOException If the tasks file could not be read.
+     */
+    void watch(Path tasksFilePath) throws IOException {
+        FileStamp newFileStamp = readFileStamp(tasksFilePath);
+        byte[] data = newFileStamp == null ? new byte[0] : readTasksFile(tasksFilePath);
+        recordHashes = new Records(data).hashes;
+        fileStamp = newFileStamp;
+    }
+
+    private static FileStamp readFileStamp(Path tasksFilePath) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(tasksFilePath, BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readTasksFile(Path tasksFilePath) throws IOException {
+        try {
+            return Files.readAllBytes(tasksFilePath);
+        } catch (NoSuchFileException e) {
+            return new byte[0];
+        }
+    }
+
+    boolean isWatching() {
+        return recordHashes != null;
+    }
+
+    /**
+     * Checks whether the tasks file has changed since it was last read or written, from its attributes alone.
+     *
+     * @param tasksFilePath The path of the tasks file.
+     * @return True if the tasks file is watched and has changed, false otherwise.
+     * @throws IOException If the attributes of the tasks file could not be read.
+     */
+    boolean isChanged(Path tasksFilePath) throws IOException {
+        return recordHashes != null && !Objects.equals(fileStamp, readFileStamp(tasksFilePath));
+    }
+
+    /**
+     * Applies the changes made to the tasks file since it was last read or written to the given task list, which
+     * notifies its listeners of each change, and makes the tasks file as it is now the common ancestor.
+     * Every added record is parsed before the task list is changed, so nothing is applied if any of them is corrupted.
+     * A tasks file that has been deleted is treated as unchanged, so that it is written again rather than every task
+     * being removed.
+     *
+     * @param tasksFilePath The path of the tasks file.
+     * @param taskList The task list to apply the changes to.
+     * @return The number of changes applied to the task list.
+     * @throws IOException If the tasks file could not be read.
+     * @throws RoverException If an added record is corrupted.
+     */
+    int apply(Path tasksFilePath, TaskList taskList) throws IOException, RoverException {
+        assert recordHashes != null : "The tasks file should be watched.";
+        FileStamp newFileStamp = readFileStamp(tasksFilePath);
+        if (newFileStamp == null) {
+            fileStamp = null;
+            return 0;
+        }
+        byte[] data = readTasksFile(tasksFilePath);
+        Records records = new Records(data);
+        int changeCount = apply(recordHashes, data, records, taskList);
+        // The task journal builds upon the tasks file as it was, so the tasks file alone is now the saved tasks
+        recordHashes = records.hashes;
+        fileStamp = newFileStamp;
+        setSavedHashes(records.hashes.clone());
+        return changeCount;
+    }
+
+    /**
+     * Applies the changes made to the saved tasks since they were last read or written to the given task list, which
+     * notifies its listeners of each change, and makes the given saved tasks the common ancestor. As with the tasks
+     * file, nothing is applied if any added task is corrupted.
+     *
+     * @param savedTaskStrings The task strings of the saved tasks as they are now.
+     * @param taskList The task list to apply the changes to.
+     * @return The number of changes applied to the task list.
+     * @throws RoverException If an added task is corrupted.
+     */
+    int applySaved(List<String> savedTaskStrings, TaskList taskList) throws RoverException {
+        byte[] data = String.join("\n", savedTaskStrings).getBytes(StandardCharsets.UTF_8);
+        Records records = new Records(data);
+        int changeCount = apply(Arrays.copyOf(savedHashes, savedCount), data, records, taskList);
+        setSavedHashes(records.hashes);
+        return changeCount;
+    }
+
+    private void setSavedHashes(long[] hashes) {
+        // The changes made while applying, and those that were pending, are now part of the common ancestor or lost
+        savedHashes = hashes;
+        savedCount = hashes.length;
+        pendingChanges.clear();
+    }
+
+    private static int apply(long[] baseHashes, byte[] data, Records records, TaskList taskList)
+            throws RoverException {
+        Map<Long, Integer> removedCounts = new HashMap<>();
+        Map<Long, Integer> addedCounts = new HashMap<>();
+        diff(baseHashes, records.hashes, removedCounts, addedCounts);
+        List<Long> statusChanges = new ArrayList<>();
+        List<Task> addedTasks = new ArrayList<>();
+        for (int i = 0; i < records.size && !addedCounts.isEmpty(); i++) {
+            long hash = records.hashes[i];
+            if (!take(addedCounts, hash)) {
+                continue;
+            }
+            if (take(removedCounts, hash ^ 1)) {
+                statusChanges.add(hash);
+            } else {
+                addedTasks.add(parse(data, records.starts[i], records.ends[i]));
+            }
+        }
+
+        int changeCount = 0;
+        if (!statusChanges.isEmpty() || !removedCounts.isEmpty()) {
+            Map<Long, Integer> indexes = getIndexesByHash(taskList);
+            for (long hash : statusChanges) {
+                // The task is only changed if it still has the status it had in the common ancestor
+                Integer index = indexes.get(hash ^ 1);
+                if (index != null) {
+                    taskList.setTaskDone(index, (hash & 1) == 1);
+                    changeCount++;
+                }
+            }
+            List<Integer> removedIndexes = new ArrayList<>();
+            removedCounts.forEach((hash, count) -> {
+                Integer index = indexes.get(hash);
+                if (index != null) {
+                    removedIndexes.add(index);
+                }
+            });
+            // Later tasks are removed first, so the positions of the tasks that are still to be removed do not change
+            removedIndexes.sort((first, second) -> Integer.compare(second, first));
+            for (int index : removedIndexes) {
+                taskList.removeTask(index);
+                changeCount++;
+            }
+        }
+        for (Task task : addedTasks) {
+            if (taskList.addTaskIfAbsent(task)) {
+                changeCount++;
+            }
+        }
+        return changeCount;
+    }
+
+    /**
+     * Checks whether the given task list holds the same tasks as the saved tasks, in any order, so that nothing is
+     * lost if it is not saved again.
+     *
+     * @param taskList The task list to compare with the saved tasks.
+     * @return True if the task list holds the saved tasks, false otherwise.
+     */
+    boolean isSaved(TaskList taskList) {
+        List<String> taskStrings = taskList.getTaskStrings();
+        if (taskStrings.size() != savedCount) {
+            return false;
+        }
+        long[] hashes = new long[taskStrings.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(taskStrings.get(i));
+        }
+        long[] sortedSavedHashes = Arrays.copyOf(savedHashes, savedCount);
+        Arrays.sort(hashes);
+        Arrays.sort(sortedSavedHashes);
+        return Arrays.equals(hashes, sortedSavedHashes);
+    }
+
+    /**
+     * Counts the hashes that are only in the old records, and those that are only in the new records.
+     */
+    private static void diff(long[] oldHashes, long[] newHashes, Map<Long, Integer> removedCounts,
+            Map<Long, Integer> addedCounts) {
+        long[] sortedOldHashes = oldHashes.clone();
+        long[] sortedNewHashes = newHashes.clone();
+        Arrays.sort(sortedOldHashes);
+        Arrays.sort(sortedNewHashes);
+        int i = 0;
+        int j = 0;
+        while (i < sortedOldHashes.length || j < sortedNewHashes.length) {
+            if (j == sortedNewHashes.length
+                    || (i < sortedOldHashes.length && sortedOldHashes[i] < sortedNewHashes[j])) {
+                removedCounts.merge(sortedOldHashes[i++], 1, Integer::sum);
+            } else if (i == sortedOldHashes.length || sortedNewHashes[j] < sortedOldHashes[i]) {
+                addedCounts.merge(sortedNewHashes[j++], 1, Integer::sum);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static boolean take(Map<Long, Integer> counts, long hash) {
+        Integer count = counts.get(hash);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(hash);
+        } else {
+            counts.put(hash, count - 1);
+        }
+        return true;
+    }
+
+    private static Task parse(byte[] data, int start, int end) throws RoverException {
+        try {
+            return TaskRecords.of(Arrays.copyOfRange(data, start, end)).get(0);
+        } catch (CorruptedTaskException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    /**
+     * Returns the position of every task in the given task list by the hash of its task string, which is read without
+     * parsing tasks that are still kept as their saved records.
+     */
+    private static Map<Long, Integer> getIndexesByHash(TaskList taskList) {
+        List<String> taskStrings = taskList.getTaskStrings();
+        Map<Long, Integer> indexes = new HashMap<>(taskStrings.size() * 2);
+        for (int index = 0; index < taskStrings.size(); index++) {
+            indexes.putIfAbsent(hash(taskStrings.get(index)), index);
+        }
+        return indexes;
+    }
+
+    /**
+     * Makes the tasks file as it has just been written with the given update the common ancestor.
+     * The hashes of the records before the first rewritten one are kept, with the status of the patched records
+     * changed, so only the records that were written are hashed.
+     *
+     * @param tasksFilePath The path of the tasks file.
+     * @param update The update that has just been written to the tasks file.
+     */
+    void onWritten(Path tasksFilePath, TaskFileWriter.Update update) {
+        // The saved tasks before the first rewritten record only differ from the tasks file by the patched statuses
+        int firstRewrittenIndex = Math.min(update.firstRewrittenIndex(), savedCount);
+        long[] hashes = Arrays.copyOf(savedHashes, firstRewrittenIndex + update.rewrittenTaskStrings().size());
+        int[] patchedIndexes = update.patchedIndexes();
+        for (int i = 0; i < patchedIndexes.length; i++) {
+            hashes[patchedIndexes[i]] = (hashes[patchedIndexes[i]] & ~1L) | (update.patchedStatuses()[i] ? 1 : 0);
+        }
+        for (int i = 0; i < update.rewrittenTaskStrings().size(); i++) {
+            hashes[firstRewrittenIndex + i] = hash(update.rewrittenTaskStrings().get(i));
+        }
+        setSavedHashes(hashes);
+        if (recordHashes == null) {
+            return;
+        }
+        recordHashes = hashes.clone();
+        try {
+            fileStamp = readFileStamp(tasksFilePath);
+        } catch (IOException e) {
+            // The tasks file is then seen as changed, and read again, which finds that none of its records changed
+            fileStamp = null;
+        }
+    }
+
+    /**
+     * Makes the given tasks, which have just been written as a snapshot in another format, the common ancestor.
+     *
+     * @param taskStrings The task strings of the tasks that were written.
+     */
+    void onWritten(List<String> taskStrings) {
+        setSavedHashes(of(taskStrings).savedHashes);
+    }
+
+    /**
+     * Makes the changes made to the task list since the saved tasks were last read or written part of the common
+     * ancestor, once they have been saved to the task journal.
+     */
+    void onChangesSaved() {
+        for (Change change : pendingChanges) {
+            switch (change.kind()) {
+            case ADDED -> {
+                if (savedCount == savedHashes.length) {
+                    savedHashes = Arrays.copyOf(savedHashes, Math.max(16, savedCount * 2));
+                }
+                savedHashes[savedCount++] = change.hash();
+            }
+            case MARKED -> savedHashes[change.index()] |= 1;
+            case UNMARKED -> savedHashes[change.index()] &= ~1L;
+            case DELETED -> {
+                System.arraycopy(savedHashes, change.index() + 1, savedHashes, change.index(),
+                    savedCount - change.index() - 1);
+                savedCount--;
+            }
+            default -> throw new AssertionError(change.kind());
+            }
+        }
+        pendingChanges.clear();
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        pendingChanges.add(new Change(ChangeKind.ADDED, -1, hash(task.getTaskString())));
+    }
+
+    @Override
+    public void onTaskMarked(int index, Task task) {
+        pendingChanges.add(new Change(ChangeKind.MARKED, index, 0));
+    }
+
+    @Override
+    public void onTaskUnmarked(int index, Task task) {
+        pendingChanges.add(new Change(ChangeKind.UNMARKED, index, 0));
+    }
+
+    @Override
+    public void onTaskDeleted(int index, Task task) {
+        pendingChanges.add(new Change(ChangeKind.DELETED, index, 0));
+    }
+
+    /**
+     * Returns the task strings of the records in the given contents of a tasks file, as they are read by
+     * {@link TaskRecords}.
+     */
+    static List<String> getTaskStrings(byte[] data) {
+        Records records = new Records(data);
+        List<String> taskStrings = new ArrayList<>(records.size);
+        for (int i = 0; i < records.size; i++) {
+            taskStrings.add(new String(data, records.starts[i], records.ends[i] - records.starts[i],
+                StandardCharsets.UTF_8));
+        }
+        return taskStrings;
+    }
+
+    private static long hash(String taskString) {
+        byte[] record = taskString.getBytes(StandardCharsets.UTF_8);
+        return hash(record, 0, record.length);
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the given record, with its lowest bit set to whether the task is done.
+     * The status itself is left out of the rest of the hash, so the hashes of a done and an undone record of the same
+     * task only differ in their lowest bit.
+     */
+    static long hash(byte[] data, int start, int end) {
+        int statusIndex = start + STATUS_OFFSET;
+        boolean hasStatus = statusIndex < end && (data[statusIndex] == '0' || data[statusIndex] == '1');
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            if (i != statusIndex || !hasStatus) {
+                hash = (hash ^ (data[i] & 0xff)) * FNV_PRIME;
+            }
+        }
+        return (hash & ~1L) | (hasStatus && data[statusIndex] == '1' ? 1 : 0);
+    }
+
+    /**
+     * Represents the records in the contents of a tasks file, one per line, as they are read by {@link TaskRecords},
+     * with the hash of each.
+     */
+    private static final class Records {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private long[] hashes = new long[16];
+        private int size = 0;
+
+        Records(byte[] data) {
+            int recordStart = 0;
+            for (int i = 0; i <= data.length; i++) {
+                if (i == data.length || data[i] == '\n') {
+                    addRecord(data, recordStart, i);
+                    recordStart = i + 1;
+                }
+            }
+            hashes = Arrays.copyOf(hashes, size);
+        }
+
+        private void addRecord(byte[] data, int start, int end) {
+            if (end > start && data[end - 1] == '\r') {
+                end--;
+            }
+            if (isBlank(data, start, end)) {
+                return;
+            }
+            if (size == hashes.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            hashes[size] = hash(data, start, end);
+            size++;
+        }
+
+        private static boolean isBlank(byte[] data, int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = data[i];
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\f' && b != 0x0B) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package rover.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directory of the tasks file through a {@link WatchService} on a daemon thread, and runs a handler
+ * whenever the tasks file has changed, once it has stopped changing for a moment, so that a file that is still being
+ * written by another program is not read. Changes made by Rover itself are reported as well, and are told apart by
+ * the handler.
+ */
+final class TaskFileWatcher implements AutoCloseable {
+
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path tasksFileName;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Returns a new TaskFileWatcher for the given tasks file, which starts watching when it is started.
+     *
+     * @param tasksFilePath The path of the tasks file, whose directory is created if it does not exist.
+     * @param changeHandler The handler that is run on the watching thread after the tasks file has changed.
+     * @throws IOException If the directory of the tasks file could not be watched.
+     */
+    TaskFileWatcher(Path tasksFilePath, Runnable changeHandler) throws IOException {
+        Path directoryPath = tasksFilePath.toAbsolutePath().getParent();
+        Files.createDirectories(directoryPath);
+        this.tasksFileName = tasksFilePath.getFileName();
+        this.watchService = directoryPath.getFileSystem().newWatchService();
+        try {
+            // Scripts often replace the tasks file, which is reported as the file being deleted and created
+            directoryPath.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(() -> watch(changeHandler), "rover-file-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the tasks file.
+     */
+    void start() {
+        thread.start();
+    }
+
+    private void watch(Runnable changeHandler) {
+        try {
+            while (true) {
+                if (!isTasksFileChanged(watchService.take())) {
+                    continue;
+                }
+                // Changes that keep coming mean the tasks file is still being written
+                WatchKey key;
+                do {
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null && isTasksFileChanged(key));
+                changeHandler.run();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching stops once this watcher is closed
+        }
+    }
+
+    private boolean isTasksFileChanged(WatchKey key) {
+        boolean isChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // Events that were lost may have been changes to the tasks file
+            isChanged |= event.kind() == OVERFLOW || tasksFileName.equals(event.context());
+        }
+        key.reset();
+        return isChanged;
+    }
+
+    /**
+     * Stops watching the tasks file, and waits for the handler to finish if it is running.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // The watching thread is interrupted below either way
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Writes the tasks file, one record per line.
+ * Every write streams the new contents through buffers, which are encoded in parallel for large lists, to a temporary
+ * file next to the tasks file, which is then forced to the storage device as the durability policy requires and
+ * moved into place atomically, so the tasks file is never missing or half written.
+ * After the whole file has been written once, the offset of every record is kept, so that later writes only
+ * serialize the regions of the file that have changed: the unchanged records are copied over by the file system,
+ * the status of a record is patched, and only the records from the first one that was added or deleted onwards are
+ * written out again.
+ */
+final class TaskFileWriter {
+
+    /** The offset of the status within a record, as in {@code T | 1 | read book}. */
+    private static final int STATUS_OFFSET = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** The number of records from which they are encoded in parallel. */
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int RECORDS_PER_CHUNK = 1 << 12;
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private final Path tasksFilePath;
+    private final DurabilityPolicy durabilityPolicy;
+    /** The offset of each record in the tasks file as last written, or null if it has not been written. */
+    private long[] recordOffsets;
+    private int recordCount;
+    private long fileLength;
+
+    /**
+     * Represents the changes to be written to the tasks file.
+     *
+     * @param firstRewrittenIndex The position of the first record to be rewritten, or Integer.MAX_VALUE if no
+     *     record needs to be rewritten. The whole file is rewritten if this is 0.
+     * @param rewrittenTaskStrings The task strings of the tasks from the first rewritten position onwards.
+     * @param patchedIndexes The positions of the records before the first rewritten one whose status changed.
+     * @param patchedStatuses Whether the task of each patched record is done.
+     */
+    record Update(int firstRewrittenIndex, List<String> rewrittenTaskStrings, int[] patchedIndexes,
+            boolean[] patchedStatuses) {
+
+        /**
+         * Returns an update that rewrites the whole file with the given task strings.
+         *
+         * @param taskStrings The task strings of all the tasks, in order.
+         * @return The update.
+         */
+        static Update ofAll(List<String> taskStrings) {
+            return new Update(0, taskStrings, new int[0], new boolean[0]);
+        }
+    }
+
+    /**
+     * Returns a new TaskFileWriter for the given tasks file.
+     *
+     * @param tasksFilePath The path of the tasks file.
+     * @param durabilityPolicy How far each write is forced to the storage device.
+     */
+    TaskFileWriter(Path tasksFilePath, DurabilityPolicy durabilityPolicy) {
+        this.tasksFilePath = tasksFilePath;
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Writes the given changes to the tasks file. The whole file is rewritten if it has not been written before.
+     *
+     * @param update The changes to be written.
+     * @return The CRC32 checksum of the tasks file after it has been written.
+     * @throws IOException If the tasks file could not be written, after which it must be rewritten as a whole.
+     */
+    long write(Update update) throws IOException {
+        assert recordOffsets != null || update.firstRewrittenIndex() == 0 : "Tasks file should be rewritten.";
+        boolean isWholeFile = recordOffsets == null || update.firstRewrittenIndex() == 0;
+        long[] offsets = recordOffsets;
+        recordOffsets = null;
+        Files.createDirectories(tasksFilePath.toAbsolutePath().getParent());
+        long checksum;
+        try (FileChannel channel = FileChannel.open(AtomicFiles.getTempFilePath(tasksFilePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.READ)) {
+            if (isWholeFile) {
+                List<String> taskStrings = update.rewrittenTaskStrings();
+                offsets = new long[taskStrings.size() + 1];
+                CRC32 crc = new CRC32();
+                fileLength = writeRecords(channel, taskStrings, offsets, 0, 0, crc);
+                recordCount = taskStrings.size();
+                checksum = crc.getValue();
+            } else {
+                offsets = writeChangedRegions(channel, update, offsets);
+                checksum = computeChecksum(channel);
+            }
+            if (durabilityPolicy != DurabilityPolicy.NEVER) {
+                channel.force(false);
+            }
+        }
+        AtomicFiles.moveIntoPlace(tasksFilePath, durabilityPolicy != DurabilityPolicy.NEVER);
+        recordOffsets = offsets;
+        return checksum;
+    }
+
+    /**
+     * Copies the records before the first rewritten one from the tasks file, patches their statuses, and writes
+     * the rewritten records after them.
+     *
+     * @return The offsets of the records in the new tasks file.
+     */
+    private long[] writeChangedRegions(FileChannel channel, Update update, long[] offsets) throws IOException {
+        int first = update.firstRewrittenIndex();
+        // The tail starts at the line break before its first record, which is only written if it is kept
+        long tailStart = first >= recordCount ? fileLength : offsets[first] - 1;
+        try (FileChannel source = FileChannel.open(tasksFilePath, StandardOpenOption.READ)) {
+            long copied = 0;
+            while (copied < tailStart) {
+                long transferred = source.transferTo(copied, tailStart - copied, channel);
+                if (transferred <= 0) {
+                    throw new IOException("The tasks file is shorter than when it was last written.");
+                }
+                copied += transferred;
+            }
+        }
+        int[] patchedIndexes = update.patchedIndexes();
+        for (int i = 0; i < patchedIndexes.length; i++) {
+            byte status = (byte) (update.patchedStatuses()[i] ? '1' : '0');
+            channel.write(ByteBuffer.wrap(new byte[] {status}), offsets[patchedIndexes[i]] + STATUS_OFFSET);
+        }
+        if (first > recordCount) {
+            return offsets;
+        }
+        List<String> taskStrings = update.rewrittenTaskStrings();
+        long[] newOffsets = Arrays.copyOf(offsets, first + taskStrings.size() + 1);
+        channel.position(tailStart);
+        fileLength = writeRecords(channel, taskStrings, newOffsets, first, tailStart, new CRC32());
+        recordCount = first + taskStrings.size();
+        return newOffsets;
+    }
+
+    /**
+     * Writes the given task strings one per line, recording the offset of each record in the file.
+     * A line break is written before the first task string unless it is the first record of the file.
+     * Many task strings are encoded in parallel, see {@link #writeRecordsInParallel}.
+     *
+     * @return The offset just past the last record written.
+     */
+    private static long writeRecords(FileChannel channel, List<String> taskStrings, long[] offsets, int firstIndex,
+            long start, CRC32 crc) throws IOException {
+        if (taskStrings.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return writeRecordsInParallel(channel, taskStrings, offsets, firstIndex, start, crc);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = start;
+        for (int i = 0; i < taskStrings.size(); i++) {
+            byte[] record = taskStrings.get(i).getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < record.length + 1) {
+                drain(channel, buffer, crc);
+            }
+            if (firstIndex + i > 0) {
+                buffer.put((byte) '\n');
+                position++;
+            }
+            offsets[firstIndex + i] = position;
+            if (record.length > buffer.remaining()) {
+                drain(channel, buffer, crc);
+                drain(channel, ByteBuffer.wrap(record).position(record.length), crc);
+            } else {
+                buffer.put(record);
+            }
+            position += record.length;
+        }
+        drain(channel, buffer, crc);
+        return position;
+    }
+
+    /**
+     * Writes the given task strings by encoding chunks of them in parallel on the common fork-join pool, each into
+     * its own buffer, and writing the buffers of each wave of chunks with one gathering write.
+     * Only one wave of buffers is kept at a time, so the memory used does not grow with the number of tasks.
+     *
+     * @return The offset just past the last record written.
+     */
+    private static long writeRecordsInParallel(FileChannel channel, List<String> taskStrings, long[] offsets,
+            int firstIndex, long start, CRC32 crc) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int recordsPerWave = RECORDS_PER_CHUNK * pool.getParallelism() * CHUNKS_PER_THREAD;
+        long position = start;
+        for (int waveStart = 0; waveStart < taskStrings.size(); waveStart += recordsPerWave) {
+            int waveEnd = Math.min(waveStart + recordsPerWave, taskStrings.size());
+            List<Callable<ByteBuffer>> encoders = new ArrayList<>();
+            for (int chunkStart = waveStart; chunkStart < waveEnd; chunkStart += RECORDS_PER_CHUNK) {
+                int from = chunkStart;
+                int to = Math.min(chunkStart + RECORDS_PER_CHUNK, waveEnd);
+                encoders.add(() -> encodeChunk(taskStrings, from, to, offsets, firstIndex));
+            }
+            List<Future<ByteBuffer>> results = pool.invokeAll(encoders);
+            ByteBuffer[] buffers = new ByteBuffer[results.size()];
+            long waveStartPosition = position;
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = getEncodedChunk(results.get(i));
+                crc.update(buffers[i].duplicate());
+                // The offsets of the records in each chunk are relative to the start of the chunk until now
+                int chunkStart = waveStart + i * RECORDS_PER_CHUNK;
+                int chunkEnd = Math.min(chunkStart + RECORDS_PER_CHUNK, waveEnd);
+                for (int j = firstIndex + chunkStart; j < firstIndex + chunkEnd; j++) {
+                    offsets[j] += position;
+                }
+                position += buffers[i].remaining();
+            }
+            long remaining = position - waveStartPosition;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Encodes the task strings between the given positions into a buffer, recording the offset of each record
+     * relative to the start of the buffer.
+     */
+    private static ByteBuffer encodeChunk(List<String> taskStrings, int from, int to, long[] offsets,
+            int firstIndex) {
+        byte[][] records = new byte[to - from][];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            records[i - from] = taskStrings.get(i).getBytes(StandardCharsets.UTF_8);
+            length += records[i - from].length + (firstIndex + i > 0 ? 1 : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (int i = from; i < to; i++) {
+            if (firstIndex + i > 0) {
+                buffer.put((byte) '\n');
+            }
+            offsets[firstIndex + i] = buffer.position();
+            buffer.put(records[i - from]);
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer getEncodedChunk(Future<ByteBuffer> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving tasks.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to encode tasks.", e.getCause());
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.array(), buffer.arrayOffset(), buffer.limit());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Computes the checksum of the whole file by reading it back, which is much cheaper than serializing it.
+     */
+    private long computeChecksum(FileChannel channel) throws IOException {
+        CRC32 crc = new CRC32();
+        long position = 0;
+        while (position < fileLength) {
+            long length = Math.min(Integer.MAX_VALUE, fileLength - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            crc.update(buffer);
+            position += length;
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,467 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskListListener;
+import rover.ui.Ui;
+
+/**
+ * Represents an append-only journal of the changes made to the task list since the last snapshot was saved.
+ * Each change is appended as a single small record, so that it is persisted as soon as it happens and can be
+ * replayed on top of the snapshot when the tasks are loaded again.
+ * Records are kept in memory until they are flushed, and are then written through the write guard, which may refuse
+ * them, e.g. because another process has saved the tasks since.
+ */
+public final class TaskJournal implements TaskListListener {
+
+    private static final String DELIMITER = " | ";
+    private static final String SPLIT_DELIMITER = " \\| ";
+    private static final String SNAPSHOT = "SNAPSHOT";
+    private static final String ADD = "ADD";
+    private static final String MARK = "MARK";
+    private static final String UNMARK = "UNMARK";
+    private static final String DELETE = "DELETE";
+    private static final int STATUS_OFFSET = 4;
+
+    private final Path journalFilePath;
+    private final int compactionThreshold;
+    private Runnable compactionHandler = () -> {};
+    private WriteGuard writeGuard = JournalWrite::run;
+    private FileChannel channel;
+    private final StringBuilder pendingRecords = new StringBuilder();
+    private long snapshotChecksum = 0;
+    private int recordCount = 0;
+    private boolean isInSync = false;
+    /** The number of records in a journal that was started for a different snapshot, which were not replayed. */
+    private int unmatchedRecordCount = 0;
+    private boolean isHealthy = true;
+    private boolean isFlushedOnEveryRecord = true;
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.NEVER;
+
+    /**
+     * Represents a write of records to the journal file.
+     */
+    @FunctionalInterface
+    interface JournalWrite {
+
+        /**
+         * Writes the records.
+         *
+         * @throws IOException If the records could not be written.
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Represents a guard that every write of records to the journal file goes through, which runs the write, or
+     * refuses it by throwing an IOException.
+     */
+    @FunctionalInterface
+    interface WriteGuard {
+
+        /**
+         * Runs the given write if it may go ahead.
+         *
+         * @param write The write of the records that are pending.
+         * @throws IOException If the write was refused, or failed.
+         */
+        void write(JournalWrite write) throws IOException;
+    }
+
+    /**
+     * Returns a new TaskJournal that is stored at the given file path.
+     *
+     * @param journalFilePath The file path to save and load the journal from.
+     * @param compactionThreshold The number of records after which the journal should be compacted.
+     */
+    public TaskJournal(Path journalFilePath, int compactionThreshold) {
+        assert compactionThreshold > 0 : "Compaction threshold should be positive.";
+        this.journalFilePath = journalFilePath;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Sets the handler that is run once the journal has grown past its compaction threshold.
+     * The handler is expected to save a new snapshot and reset the journal.
+     *
+     * @param compactionHandler The handler to run when the journal should be compacted.
+     */
+    public void setCompactionHandler(Runnable compactionHandler) {
+        assert compactionHandler != null : "Compaction handler should not be null.";
+        this.compactionHandler = compactionHandler;
+    }
+
+    /**
+     * Sets the guard that every write of records to the journal file goes through, after the journal has been
+     * started. The journal is no longer healthy once a write has been refused.
+     *
+     * @param writeGuard The guard that runs each write of records.
+     */
+    void setWriteGuard(WriteGuard writeGuard) {
+        assert writeGuard != null : "Write guard should not be null.";
+        this.writeGuard = writeGuard;
+    }
+
+    /**
+     * Sets whether each record is flushed to the journal file as soon as it is appended.
+     * If not, records are only flushed when {@link #flush()} is called,
+     * so that a burst of changes is written together.
+     *
+     * @param isFlushedOnEveryRecord Whether each record should be flushed as soon as it is appended.
+     */
+    public void setFlushedOnEveryRecord(boolean isFlushedOnEveryRecord) {
+        this.isFlushedOnEveryRecord = isFlushedOnEveryRecord;
+    }
+
+    /**
+     * Sets how far the journal is forced to the storage device. Under {@link DurabilityPolicy#ALWAYS}, every record
+     * that is flushed as soon as it is appended is forced as well; otherwise records are only forced together,
+     * when {@link #flush()} is called, unless the policy is {@link DurabilityPolicy#NEVER}.
+     *
+     * @param durabilityPolicy How far the journal is forced to the storage device.
+     */
+    public void setDurabilityPolicy(DurabilityPolicy durabilityPolicy) {
+        assert durabilityPolicy != null : "Durability policy should not be null.";
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Replays the changes recorded in the journal on top of the tasks loaded from the snapshot.
+     * A journal that was started for a different snapshot is not replayed, as its changes may already be part of
+     * a newer snapshot, or may no longer apply to a snapshot that was edited, but its records are kept aside when the
+     * journal is started afresh, rather than discarded.
+     * Each record is applied as a whole or not at all, so if a record cannot be replayed, the tasks are left with
+     * the records before it applied, and the journal is only started afresh by {@link #reset(long)}, once they have
+     * been saved in a new snapshot.
+     *
+     * @param tasks The tasks loaded from the snapshot, which are updated in place.
+     * @param snapshotChecksum The checksum of the snapshot the tasks were loaded from.
+     * @param ui The Ui object to display messages.
+     * @throws IOException If the journal could not be read.
+     * @throws RoverException If the journal contains a corrupted record.
+     * @throws DateTimeParseException If the date and time format of an added task is incorrect.
+     */
+    public void replay(List<Task> tasks, long snapshotChecksum, Ui ui)
+            throws IOException, RoverException, DateTimeParseException {
+        assert tasks != null : "Tasks should not be null.";
+        this.snapshotChecksum = snapshotChecksum;
+        this.recordCount = 0;
+        this.isInSync = false;
+        this.unmatchedRecordCount = 0;
+        if (!Files.exists(journalFilePath)) {
+            return;
+        }
+        List<String> records = Files.readAllLines(journalFilePath);
+        if (records.isEmpty()) {
+            return;
+        }
+        if (!records.get(0).equals(SNAPSHOT + DELIMITER + snapshotChecksum)) {
+            unmatchedRecordCount = (int) records.stream().skip(1).filter(record -> !record.isBlank()).count();
+            return;
+        }
+        for (String record : records.subList(1, records.size())) {
+            if (!record.isBlank()) {
+                applyRecord(tasks, record, ui);
+                recordCount++;
+            }
+        }
+        isInSync = true;
+    }
+
+    /**
+     * Returns the number of records that were not replayed by the last replay, as the journal was started for a
+     * different snapshot, e.g. a tasks file that was edited while the journal was not open.
+     *
+     * @return The number of records that were not replayed.
+     */
+    int getUnmatchedRecordCount() {
+        return unmatchedRecordCount;
+    }
+
+    /**
+     * Returns the path of the file that the records of a journal that was started for a different snapshot are kept
+     * in, once the journal is started afresh.
+     *
+     * @return The path of the file, next to the journal file with the extension {@code .bak} appended.
+     */
+    Path getBackupFilePath() {
+        return journalFilePath.resolveSibling(journalFilePath.getFileName() + ".bak");
+    }
+
+    /**
+     * Replays the changes recorded in the journal file on top of the given task strings, without parsing any task,
+     * e.g. to read the tasks that another process has saved. Unlike {@link #replay(List, long, Ui)}, this does not
+     * change the state of the journal.
+     *
+     * @param taskStrings The task strings of the snapshot, in the format of {@link Task#getTaskString()}.
+     * @param snapshotChecksum The checksum of the snapshot the task strings were read from.
+     * @return The task strings with the changes recorded in the journal applied.
+     * @throws IOException If the journal could not be read.
+     * @throws RoverException If the journal contains a corrupted record.
+     */
+    List<String> replayTaskStrings(List<String> taskStrings, long snapshotChecksum)
+            throws IOException, RoverException {
+        List<String> replayedTaskStrings = new ArrayList<>(taskStrings);
+        if (!Files.exists(journalFilePath)) {
+            return replayedTaskStrings;
+        }
+        List<String> records = Files.readAllLines(journalFilePath);
+        if (records.isEmpty() || !records.get(0).equals(SNAPSHOT + DELIMITER + snapshotChecksum)) {
+            return replayedTaskStrings;
+        }
+        for (String record : records.subList(1, records.size())) {
+            if (!record.isBlank()) {
+                applyRecord(replayedTaskStrings, record);
+            }
+        }
+        return replayedTaskStrings;
+    }
+
+    private void applyRecord(List<String> taskStrings, String record) throws RoverException {
+        String[] parts = record.split(SPLIT_DELIMITER, 2);
+        if (parts.length != 2) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        switch (parts[0]) {
+        case ADD -> taskStrings.add(parts[1]);
+        case MARK -> setStatus(taskStrings, parseIndex(parts[1], taskStrings.size()), '1');
+        case UNMARK -> setStatus(taskStrings, parseIndex(parts[1], taskStrings.size()), '0');
+        case DELETE -> taskStrings.remove(parseIndex(parts[1], taskStrings.size()));
+        default -> throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    private static void setStatus(List<String> taskStrings, int index, char status) throws RoverException {
+        // The status is the second field of a task string, as in "T | 1 | read book"
+        String taskString = taskStrings.get(index);
+        if (taskString.length() <= STATUS_OFFSET) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        taskStrings.set(index, taskString.substring(0, STATUS_OFFSET) + status
+            + taskString.substring(STATUS_OFFSET + 1));
+    }
+
+    private void applyRecord(List<Task> tasks, String record, Ui ui) throws RoverException {
+        String[] parts = record.split(SPLIT_DELIMITER, 2);
+        if (parts.length != 2) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        switch (parts[0]) {
+        case ADD -> tasks.add(TaskList.parseTask(ui, parts[1]));
+        case MARK -> tasks.get(parseIndex(parts[1], tasks.size())).setDone();
+        case UNMARK -> tasks.get(parseIndex(parts[1], tasks.size())).setUndone();
+        case DELETE -> tasks.remove(parseIndex(parts[1], tasks.size()));
+        default -> throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    private int parseIndex(String indexString, int numberOfTasks) throws RoverException {
+        int index;
+        try {
+            index = Integer.parseInt(indexString);
+        } catch (NumberFormatException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        if (index < 0 || index >= numberOfTasks) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return index;
+    }
+
+    /**
+     * Opens the journal for appending.
+     * If the journal on disk does not build upon the snapshot that was last replayed, it is started afresh, after
+     * appending its records to the backup file, if it has any.
+     *
+     * @throws IOException If the journal could not be opened.
+     */
+    public void open() throws IOException {
+        if (!isInSync) {
+            if (unmatchedRecordCount > 0) {
+                keepUnmatchedRecords();
+            }
+            reset(snapshotChecksum);
+            return;
+        }
+        channel = FileChannel.open(journalFilePath, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void keepUnmatchedRecords() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalFilePath));
+        try (FileChannel backupChannel = FileChannel.open(getBackupFilePath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                backupChannel.write(buffer);
+            }
+            if (durabilityPolicy != DurabilityPolicy.NEVER) {
+                backupChannel.force(false);
+            }
+        }
+        unmatchedRecordCount = 0;
+    }
+
+    /**
+     * Discards all the records in the journal and starts a new journal for the given snapshot.
+     * The new journal is written without going through the write guard, as it is written along with the snapshot.
+     *
+     * @param snapshotChecksum The checksum of the snapshot the new journal builds upon.
+     * @throws IOException If the journal could not be written.
+     */
+    public void reset(long snapshotChecksum) throws IOException {
+        // The records that have not been flushed yet are part of the new snapshot
+        suspend();
+        close();
+        Files.createDirectories(journalFilePath.getParent());
+        channel = FileChannel.open(journalFilePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        writeRecord(SNAPSHOT + DELIMITER + snapshotChecksum);
+        writeRecords();
+        if (durabilityPolicy != DurabilityPolicy.NEVER) {
+            channel.force(false);
+        }
+        this.snapshotChecksum = snapshotChecksum;
+        this.recordCount = 0;
+        this.isInSync = true;
+        this.isHealthy = true;
+    }
+
+    /**
+     * Closes the journal if it is open, after flushing the records appended since the last flush.
+     *
+     * @throws IOException If the records could not be flushed, or the journal could not be closed.
+     */
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        FileChannel openChannel = channel;
+        try {
+            if (isHealthy) {
+                writePendingRecords();
+            }
+        } finally {
+            pendingRecords.setLength(0);
+            channel = null;
+            openChannel.close();
+        }
+    }
+
+    /**
+     * Stops appending changes to the journal, and discards the records that have not been flushed yet, until it is
+     * started afresh by {@link #reset(long)}. This is used once the saved tasks have been changed by another process,
+     * as the changes made in the session since then no longer build upon the snapshot the journal was started for.
+     */
+    void suspend() {
+        isHealthy = false;
+        pendingRecords.setLength(0);
+    }
+
+    /**
+     * Returns whether every change so far has been appended to the journal successfully.
+     *
+     * @return True if the journal is open and no write has failed, false otherwise.
+     */
+    public boolean isHealthy() {
+        return channel != null && isHealthy;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes the records appended since the last flush to the journal file, forcing them to the storage device
+     * unless the durability policy is {@link DurabilityPolicy#NEVER}.
+     * If the flush fails or is refused by the write guard, the journal is no longer healthy.
+     */
+    public void flush() {
+        if (!isHealthy()) {
+            return;
+        }
+        try {
+            writePendingRecords(durabilityPolicy != DurabilityPolicy.NEVER);
+        } catch (IOException e) {
+            suspend();
+        }
+    }
+
+    private void writeRecord(String record) {
+        pendingRecords.append(record).append('\n');
+    }
+
+    private void writePendingRecords() throws IOException {
+        writePendingRecords(false);
+    }
+
+    private void writePendingRecords(boolean isForced) throws IOException {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        writeGuard.write(() -> {
+            writeRecords();
+            if (isForced) {
+                channel.force(false);
+            }
+        });
+    }
+
+    private void writeRecords() throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(pendingRecords));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        pendingRecords.setLength(0);
+    }
+
+    private void append(String operation, String argument) {
+        if (!isHealthy()) {
+            return;
+        }
+        writeRecord(operation + DELIMITER + argument);
+        try {
+            if (isFlushedOnEveryRecord) {
+                writePendingRecords(durabilityPolicy == DurabilityPolicy.ALWAYS);
+            }
+            recordCount++;
+        } catch (IOException e) {
+            suspend();
+            return;
+        }
+        if (recordCount >= compactionThreshold) {
+            compactionHandler.run();
+        }
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        append(ADD, task.getTaskString());
+    }
+
+    @Override
+    public void onTaskMarked(int index, Task task) {
+        append(MARK, String.valueOf(index));
+    }
+
+    @Override
+    public void onTaskUnmarked(int index, Task task) {
+        append(UNMARK, String.valueOf(index));
+    }
+
+    @Override
+    public void onTaskDeleted(int index, Task task) {
+        append(DELETE, String.valueOf(index));
+    }
+}
@@ -0,0 +1,566 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskListListener;
+import rover.task.TaskRecords;
+
+/**
+ * Syncs the tasks of a data directory with those of other data directories, e.g. on other machines, through a shared
+ * folder, without comparing whole task lists. Every task is an element of a conflict-free replicated data type: tasks
+ * are added and removed as in an observed-remove set, where a removal only removes the additions it has seen, so a task
+ * that is added again on one machine while it is deleted on another is kept, and whether a task is done is a
+ * last-writer-wins register ordered by Lamport timestamps, so every data directory ends up with the same status.
+ * Each data directory appends its operations to its own log in the shared folder, named after its replica ID, so no
+ * two data directories write the same file, and reads the logs of the others from where it last stopped, so a sync
+ * only reads and writes the changes made since the last one.
+ * The changes made to the task list between syncs are recorded by this listener in an outbox, and turned into
+ * operations when syncing. The operations applied so far are kept in a state log, which is loaded on the first sync
+ * of a session, and rewritten once it holds many more operations than there are tasks.
+ */
+final class TaskSync implements TaskListListener {
+
+    private static final String DELIMITER = " | ";
+    private static final String SPLIT_DELIMITER = " \\| ";
+    private static final String REPLICA = "REPLICA";
+    private static final String CLOCK = "CLOCK";
+    private static final String READ = "READ";
+    private static final String ADD = "ADD";
+    private static final String REMOVE = "REMOVE";
+    private static final String DONE = "DONE";
+    private static final String TAG_DELIMITER = ",";
+    private static final String LOG_EXTENSION = ".log";
+    /** The offset of the status within a task string, as in {@code T | 1 | read book}. */
+    private static final int STATUS_OFFSET = 4;
+    private static final int MIN_COMPACTION_LINE_COUNT = 1000;
+
+    private final Path directoryPath;
+    private final Path stateFilePath;
+    private final Path outboxFilePath;
+    private final DurabilityPolicy durabilityPolicy;
+    private final StringBuilder pendingChanges = new StringBuilder();
+    private boolean isRecording = true;
+    private boolean isAttached = false;
+
+    // The state of the replicated tasks, which is loaded from the state log when it is first needed
+    private boolean isLoaded = false;
+    private long loadedStateFileSize;
+    private int stateLineCount;
+    private String replicaId;
+    private long clock;
+    /** The elements of the replicated tasks by the task strings of their tasks, which are kept as not done. */
+    private final Map<String, Element> elements = new HashMap<>();
+    /** The number of bytes read so far from the log of every other data directory, by its replica ID. */
+    private final Map<String, Long> readOffsets = new HashMap<>();
+
+    /**
+     * Represents the timestamp of an operation, which orders the operations of every data directory.
+     */
+    private record Stamp(long counter, String replicaId) implements Comparable<Stamp> {
+
+        static Stamp parse(String stamp) throws RoverException {
+            int separatorIndex = stamp.indexOf('@');
+            try {
+                return new Stamp(Long.parseLong(stamp.substring(0, Math.max(separatorIndex, 0))),
+                    stamp.substring(separatorIndex + 1));
+            } catch (NumberFormatException e) {
+                throw new RoverException("Possible corruption in synced tasks.");
+            }
+        }
+
+        @Override
+        public int compareTo(Stamp other) {
+            int order = Long.compare(counter, other.counter);
+            return order != 0 ? order : replicaId.compareTo(other.replicaId);
+        }
+
+        @Override
+        public String toString() {
+            return counter + "@" + replicaId;
+        }
+    }
+
+    /**
+     * Represents a task as an element of the replicated tasks. The tags of the additions that have not been removed
+     * are kept, and so are those of removals whose addition has not been read yet, so that it is removed once it is.
+     */
+    private static final class Element {
+        private final Set<String> addedTags = new HashSet<>();
+        private final Set<String> removedTags = new HashSet<>();
+        private Stamp doneStamp;
+        private boolean isDone;
+
+        boolean isPresent() {
+            return !addedTags.isEmpty();
+        }
+    }
+
+    /**
+     * Returns a new TaskSync whose state is kept in the given sync directory, next to the tasks file. Changes made to
+     * the task list are only recorded once it has been attached, and the state is loaded on the first sync.
+     *
+     * @param directoryPath The sync directory of the data directory.
+     * @param durabilityPolicy How far the state log is forced to the storage device when it is rewritten.
+     */
+    TaskSync(Path directoryPath, DurabilityPolicy durabilityPolicy) {
+        this.directoryPath = directoryPath;
+        this.stateFilePath = directoryPath.resolve("state");
+        this.outboxFilePath = directoryPath.resolve("outbox");
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    /**
+     * Starts recording the changes made to the given task list, if its tasks have been synced before, so that they
+     * are sent on the next sync. Tasks that have never been synced are recorded from their first sync instead.
+     *
+     * @param taskList The TaskList object whose changes should be recorded.
+     */
+    void attach(TaskList taskList) {
+        assert taskList != null : "TaskList should not be null.";
+        if (isAttached || !Files.exists(stateFilePath)) {
+            return;
+        }
+        taskList.addListener(this);
+        isAttached = true;
+    }
+
+    /**
+     * Starts syncing the tasks of the data directory, with a new replica ID, and records every given task as added,
+     * so that it is sent on the first sync. This is the only time the sync has to go through every task.
+     */
+    private void start(List<String> taskStrings) throws IOException {
+        Files.createDirectories(directoryPath);
+        // Changes recorded by a start that failed are recorded again below
+        pendingChanges.setLength(0);
+        for (String taskString : taskStrings) {
+            record(ADD, taskString);
+        }
+        Files.deleteIfExists(outboxFilePath);
+        flush();
+        // The state log is written last, as the data directory is only seen as synced once it exists
+        Files.writeString(stateFilePath, REPLICA + DELIMITER + UUID.randomUUID() + "\n");
+    }
+
+    /**
+     * Sets whether the changes made to the task list are recorded, which they should not be while changes that have
+     * already been recorded elsewhere are applied to it, e.g. those saved by another process of the data directory.
+     *
+     * @param isRecording Whether the changes made to the task list are recorded.
+     */
+    void setRecording(boolean isRecording) {
+        this.isRecording = isRecording;
+    }
+
+    private void record(String change, String taskString) {
+        if (isRecording) {
+            pendingChanges.append(change).append(DELIMITER).append(taskString).append('\n');
+        }
+    }
+
+    /**
+     * Appends the changes recorded since the last flush to the outbox. If this fails, they are kept to be appended by
+     * the next flush.
+     *
+     * @throws IOException If the outbox could not be written.
+     */
+    void flush() throws IOException {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        append(outboxFilePath, pendingChanges.toString());
+        pendingChanges.setLength(0);
+    }
+
+    /**
+     * Appends the changes recorded since the last flush to the outbox once they have been saved, so that only saved
+     * changes are synced. If this fails, they are kept in memory to be appended by the next save.
+     */
+    void onTasksSaved() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // The changes are appended by the next save or sync
+        }
+    }
+
+    private static void append(Path filePath, String lines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Syncs the tasks through the given shared folder: the changes recorded since the last sync are sent as
+     * operations appended to the log of this data directory, and the operations appended to the logs of the others
+     * since the last sync are applied to the task list, without recording them as changes.
+     * If this fails, the operations are read again by the next sync, and applying them again changes nothing.
+     * The first sync of tasks that have never been synced starts syncing them, and the changes made to the task list
+     * are recorded from then on.
+     *
+     * @param folderPath The shared folder.
+     * @param taskList The task list to apply the operations of the others to.
+     * @return The number of changes made to the task list.
+     * @throws IOException If the shared folder or the sync directory could not be read or written.
+     * @throws RoverException If an operation or a task in it is corrupted.
+     */
+    int sync(Path folderPath, TaskList taskList) throws IOException, RoverException {
+        if (!isAttached) {
+            if (!Files.exists(stateFilePath)) {
+                start(taskList.getTaskStrings());
+            }
+            taskList.addListener(this);
+            isAttached = true;
+        }
+        if (!Files.isDirectory(folderPath)) {
+            throw new IOException("The shared folder does not exist: " + folderPath);
+        }
+        flush();
+        load();
+        try {
+            StringBuilder appliedLines = new StringBuilder();
+            send(folderPath, appliedLines);
+            int changeCount = receive(folderPath, taskList, appliedLines);
+            append(stateFilePath, appliedLines.toString());
+            stateLineCount += (int) appliedLines.chars().filter(c -> c == '\n').count();
+            Files.deleteIfExists(outboxFilePath);
+            if (stateLineCount >= MIN_COMPACTION_LINE_COUNT && stateLineCount > 2 * elements.size()) {
+                compact();
+            }
+            loadedStateFileSize = Files.size(stateFilePath);
+            return changeCount;
+        } catch (IOException | RoverException | RuntimeException e) {
+            // The state is loaded again from the state log, which holds what was applied before this sync
+            isLoaded = false;
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the state of the replicated tasks from the state log, unless it has been loaded and has not been changed
+     * since, e.g. by another process of the data directory.
+     */
+    private void load() throws IOException, RoverException {
+        if (isLoaded && Files.size(stateFilePath) == loadedStateFileSize) {
+            return;
+        }
+        elements.clear();
+        readOffsets.clear();
+        replicaId = null;
+        clock = 0;
+        stateLineCount = 0;
+        byte[] data = Files.readAllBytes(stateFilePath);
+        for (String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split(SPLIT_DELIMITER, 3);
+            switch (fields[0]) {
+            case REPLICA -> replicaId = fields[1];
+            case CLOCK -> clock = Math.max(clock, parseNumber(fields[1]));
+            case READ -> readOffsets.put(fields[1], parseNumber(fields.length == 3 ? fields[2] : ""));
+            default -> apply(split(line));
+            }
+            stateLineCount++;
+        }
+        if (replicaId == null) {
+            throw new RoverException("Possible corruption in synced tasks.");
+        }
+        loadedStateFileSize = data.length;
+        isLoaded = true;
+    }
+
+    private static long parseNumber(String number) throws RoverException {
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw new RoverException("Possible corruption in synced tasks.");
+        }
+    }
+
+    /**
+     * Turns the changes in the outbox into operations, in the order they were made, and appends them to the log of
+     * this data directory in the shared folder.
+     */
+    private void send(Path folderPath, StringBuilder appliedLines) throws IOException, RoverException {
+        if (!Files.exists(outboxFilePath)) {
+            return;
+        }
+        StringBuilder operations = new StringBuilder();
+        for (String change : Files.readAllLines(outboxFilePath)) {
+            String[] fields = change.split(SPLIT_DELIMITER, 2);
+            if (change.isBlank()) {
+                continue;
+            } else if (fields.length != 2) {
+                throw new RoverException("Possible corruption in synced tasks.");
+            }
+            String operation = toOperation(fields[0], fields[1]);
+            if (operation != null) {
+                apply(split(operation));
+                operations.append(operation).append('\n');
+            }
+        }
+        if (!operations.isEmpty()) {
+            append(folderPath.resolve(replicaId + LOG_EXTENSION), operations.toString());
+            appliedLines.append(operations);
+        }
+    }
+
+    private String toOperation(String change, String taskString) throws RoverException {
+        String key = getKey(taskString);
+        if (change.equals(REMOVE)) {
+            // Only the additions that have been seen are removed, so a task added elsewhere meanwhile is kept
+            Element element = elements.get(key);
+            if (element == null || !element.isPresent()) {
+                return null;
+            }
+            return REMOVE + DELIMITER + new Stamp(++clock, replicaId) + DELIMITER
+                + String.join(TAG_DELIMITER, element.addedTags) + DELIMITER + key;
+        } else if (change.equals(ADD) || change.equals(DONE)) {
+            return change + DELIMITER + new Stamp(++clock, replicaId) + DELIMITER + taskString;
+        }
+        throw new RoverException("Possible corruption in synced tasks.");
+    }
+
+    /**
+     * Applies the operations appended to the logs of the other data directories since they were last read, only
+     * reading whole lines, as a log may still be being copied into the shared folder.
+     */
+    private int receive(Path folderPath, TaskList taskList, StringBuilder appliedLines)
+            throws IOException, RoverException {
+        List<Path> logFilePaths;
+        try (Stream<Path> files = Files.list(folderPath)) {
+            logFilePaths = files.filter(file -> file.getFileName().toString().endsWith(LOG_EXTENSION))
+                .sorted()
+                .toList();
+        }
+        int changeCount = 0;
+        isRecording = false;
+        try {
+            for (Path logFilePath : logFilePaths) {
+                String fileName = logFilePath.getFileName().toString();
+                String peerId = fileName.substring(0, fileName.length() - LOG_EXTENSION.length());
+                if (peerId.equals(replicaId)) {
+                    continue;
+                }
+                long readOffset = readOffsets.getOrDefault(peerId, 0L);
+                String lines = readWholeLines(logFilePath, readOffset);
+                if (lines.isEmpty()) {
+                    continue;
+                }
+                for (String operation : lines.split("\n")) {
+                    if (!operation.isBlank()) {
+                        changeCount += receive(operation, taskList);
+                    }
+                }
+                readOffset += lines.getBytes(StandardCharsets.UTF_8).length;
+                readOffsets.put(peerId, readOffset);
+                appliedLines.append(lines).append(READ + DELIMITER + peerId + DELIMITER + readOffset + "\n");
+            }
+        } finally {
+            isRecording = true;
+        }
+        return changeCount;
+    }
+
+    private static String readWholeLines(Path logFilePath, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFilePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= offset) {
+                return "";
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - offset));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+                // Reads up to the size of the log when it was opened
+            }
+            byte[] data = buffer.array();
+            int end = data.length;
+            while (end > 0 && data[end - 1] != '\n') {
+                end--;
+            }
+            return new String(data, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Applies the given operation of another data directory, and makes the same change to the task list if it
+     * changes whether the task is in the replicated tasks, or whether it is done, so that tasks that have never been
+     * synced are left alone.
+     */
+    private int receive(String operation, TaskList taskList) throws RoverException {
+        String[] fields = split(operation);
+        String key = getKey(fields[fields.length - 1]);
+        Element previousElement = elements.get(key);
+        boolean wasPresent = previousElement != null && previousElement.isPresent();
+        boolean wasDone = previousElement != null && previousElement.isDone;
+        apply(fields);
+        Element element = elements.get(key);
+        if (wasPresent == element.isPresent() && (!wasPresent || wasDone == element.isDone)) {
+            return 0;
+        }
+        Task task = parse(element.isDone ? setStatus(key, '1') : key);
+        int index = taskList.indexOf(task);
+        if (!element.isPresent()) {
+            if (index < 0) {
+                return 0;
+            }
+            taskList.removeTask(index);
+            return 1;
+        } else if (index < 0) {
+            return taskList.addTaskIfAbsent(task) ? 1 : 0;
+        } else if (taskList.isTaskDone(index) != element.isDone) {
+            taskList.setTaskDone(index, element.isDone);
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the fields of the given operation, the last of which is a task string, which holds delimiters too.
+     */
+    private static String[] split(String operation) throws RoverException {
+        int fieldCount = operation.startsWith(REMOVE + DELIMITER) ? 4 : 3;
+        String[] fields = operation.split(SPLIT_DELIMITER, fieldCount);
+        if (fields.length != fieldCount) {
+            throw new RoverException("Possible corruption in synced tasks.");
+        }
+        return fields;
+    }
+
+    /**
+     * Applies the operation with the given fields to the replicated tasks.
+     */
+    private void apply(String[] fields) throws RoverException {
+        Stamp stamp = Stamp.parse(fields[1]);
+        String taskString = fields[fields.length - 1];
+        String key = getKey(taskString);
+        Element element = elements.computeIfAbsent(key, k -> new Element());
+        switch (fields[0]) {
+        case ADD -> {
+            String tag = stamp.toString();
+            if (!element.removedTags.remove(tag)) {
+                element.addedTags.add(tag);
+            }
+            setDone(element, stamp, taskString);
+        }
+        case REMOVE -> {
+            for (String tag : fields[2].split(TAG_DELIMITER)) {
+                if (!element.addedTags.remove(tag)) {
+                    element.removedTags.add(tag);
+                }
+            }
+        }
+        case DONE -> setDone(element, stamp, taskString);
+        default -> throw new RoverException("Possible corruption in synced tasks.");
+        }
+        clock = Math.max(clock, stamp.counter());
+    }
+
+    private static void setDone(Element element, Stamp stamp, String taskString) {
+        // The latest status wins, and the replica ID orders statuses set at the same Lamport time
+        if (element.doneStamp == null || element.doneStamp.compareTo(stamp) < 0) {
+            element.doneStamp = stamp;
+            element.isDone = taskString.charAt(STATUS_OFFSET) == '1';
+        }
+    }
+
+    /**
+     * Returns the task string of the given task string's task as not done, which identifies it whatever its status.
+     */
+    private static String getKey(String taskString) throws RoverException {
+        if (taskString.length() <= STATUS_OFFSET
+                || (taskString.charAt(STATUS_OFFSET) != '0' && taskString.charAt(STATUS_OFFSET) != '1')) {
+            throw new RoverException("Possible corruption in synced tasks.");
+        }
+        return setStatus(taskString, '0');
+    }
+
+    private static String setStatus(String taskString, char status) {
+        return taskString.substring(0, STATUS_OFFSET) + status + taskString.substring(STATUS_OFFSET + 1);
+    }
+
+    private static Task parse(String taskString) throws RoverException {
+        try {
+            return TaskRecords.of(taskString.getBytes(StandardCharsets.UTF_8)).get(0);
+        } catch (CorruptedTaskException | IndexOutOfBoundsException e) {
+            throw new RoverException("Possible corruption in synced tasks.");
+        }
+    }
+
+    /**
+     * Rewrites the state log with one operation per addition that has not been removed, per removal whose addition
+     * has not been read, and per status, leaving out the elements that are no longer in the replicated tasks.
+     */
+    private void compact() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(REPLICA + DELIMITER + replicaId);
+        lines.add(CLOCK + DELIMITER + clock);
+        readOffsets.forEach((peerId, readOffset) -> lines.add(READ + DELIMITER + peerId + DELIMITER + readOffset));
+        Stamp removalStamp = new Stamp(clock, replicaId);
+        elements.entrySet().removeIf(entry -> !entry.getValue().isPresent() && entry.getValue().removedTags.isEmpty());
+        elements.forEach((key, element) -> {
+            String taskString = element.isDone ? setStatus(key, '1') : key;
+            for (String tag : element.addedTags) {
+                lines.add(ADD + DELIMITER + tag + DELIMITER + taskString);
+            }
+            if (!element.removedTags.isEmpty()) {
+                lines.add(REMOVE + DELIMITER + removalStamp + DELIMITER
+                    + String.join(TAG_DELIMITER, element.removedTags) + DELIMITER + key);
+            }
+            if (element.doneStamp != null) {
+                lines.add(DONE + DELIMITER + element.doneStamp + DELIMITER + taskString);
+            }
+        });
+        Path tempFilePath = AtomicFiles.getTempFilePath(stateFilePath);
+        Files.write(tempFilePath, lines, StandardCharsets.UTF_8);
+        boolean isForced = durabilityPolicy != DurabilityPolicy.NEVER;
+        if (isForced) {
+            try (FileChannel channel = FileChannel.open(tempFilePath, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+        }
+        AtomicFiles.moveIntoPlace(stateFilePath, isForced);
+        stateLineCount = lines.size();
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        record(ADD, task.getTaskString());
+    }
+
+    @Override
+    public void onTaskMarked(int index, Task task) {
+        record(DONE, task.getTaskString());
+    }
+
+    @Override
+    public void onTaskUnmarked(int index, Task task) {
+        record(DONE, task.getTaskString());
+    }
+
+    @Override
+    public void onTaskDeleted(int index, Task task) {
+        record(REMOVE, task.getTaskString());
+    }
+}
@@ -0,0 +1,227 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskList;
+
+/**
+ * Keeps track of the version of the saved tasks that a task list builds upon, as kept by {@link TaskFileLock}, so
+ * that the processes that share the same tasks file do not overwrite each other's changes. Every versioned write
+ * stamps the saved tasks with a new version, and is refused if they have been saved by another process since this
+ * one last read or wrote them, until their changes have been merged into the task list record by record, through
+ * {@link TaskFileReconciler}.
+ */
+final class VersionedTaskFile {
+
+    private final TaskFileLock taskFileLock;
+    private final Path tasksFilePath;
+    private final TaskFileFormat taskFileFormat;
+    private final BinaryTaskFile binaryTaskFile;
+    private final JsonLinesTaskFile jsonLinesTaskFile;
+    private final TaskJournal taskJournal;
+    private final TaskSync taskSync;
+    /** The version of the saved tasks that the task list builds upon. */
+    private long savedVersion = 0;
+    /** The common ancestor of the saved tasks and the task list once changes are being tracked, or null. */
+    private TaskFileReconciler taskFileReconciler;
+    private Runnable mergeHandler = () -> { };
+
+    /**
+     * Returns a new VersionedTaskFile for the given tasks file, whose version is kept in a lock file next to it with
+     * the extension {@code .lock}.
+     *
+     * @param tasksFilePath The path of the tasks file.
+     * @param taskFileFormat The format that snapshots of the tasks are saved in.
+     * @param binaryTaskFile The snapshot of the tasks in the binary format.
+     * @param jsonLinesTaskFile The snapshot of the tasks in the JSON Lines format.
+     * @param taskJournal The journal of the changes made since the last snapshot.
+     * @param taskSync The sync that the saved changes are recorded for.
+     */
+    VersionedTaskFile(Path tasksFilePath, TaskFileFormat taskFileFormat, BinaryTaskFile binaryTaskFile,
+            JsonLinesTaskFile jsonLinesTaskFile, TaskJournal taskJournal, TaskSync taskSync) {
+        this.taskFileLock = new TaskFileLock(FileStorage.getSiblingFilePath(tasksFilePath, ".lock"));
+        this.tasksFilePath = tasksFilePath;
+        this.taskFileFormat = taskFileFormat;
+        this.binaryTaskFile = binaryTaskFile;
+        this.jsonLinesTaskFile = jsonLinesTaskFile;
+        this.taskJournal = taskJournal;
+        this.taskSync = taskSync;
+    }
+
+    /**
+     * Sets the common ancestor of the saved tasks and the task list, through which the changes made to the saved
+     * tasks are found and merged.
+     *
+     * @param taskFileReconciler The reconciler that is listening to the task list.
+     */
+    void setReconciler(TaskFileReconciler taskFileReconciler) {
+        assert taskFileReconciler != null : "Task file reconciler should not be null.";
+        this.taskFileReconciler = taskFileReconciler;
+    }
+
+    /**
+     * Sets the handler that is run before the changes made to the saved tasks are merged into the task list, once
+     * the snapshot that was loaded no longer holds the task list.
+     *
+     * @param mergeHandler The handler to run before changes are merged.
+     */
+    void setMergeHandler(Runnable mergeHandler) {
+        assert mergeHandler != null : "Merge handler should not be null.";
+        this.mergeHandler = mergeHandler;
+    }
+
+    /**
+     * Runs the given load of the saved tasks while holding a shared lock, and keeps their version as the one the
+     * task list builds upon.
+     *
+     * @param load The action that loads the saved tasks.
+     * @return The result of the action.
+     * @throws IOException If the lock could not be taken, or the action failed to read a file.
+     * @throws E If the action failed otherwise.
+     */
+    <T, E extends Exception> T load(TaskFileLock.LockedAction<T, E> load) throws IOException, E {
+        return taskFileLock.read(() -> {
+            savedVersion = taskFileLock.readVersion();
+            return load.run();
+        });
+    }
+
+    /**
+     * Runs the given write while holding the exclusive lock, without stamping the saved tasks with a new version.
+     *
+     * @param write The action that writes the saved tasks or the files kept next to them.
+     * @return The result of the action.
+     * @throws IOException If the lock could not be taken, or the action failed to read or write a file.
+     * @throws E If the action failed otherwise.
+     */
+    <T, E extends Exception> T write(TaskFileLock.LockedAction<T, E> write) throws IOException, E {
+        return taskFileLock.write(write);
+    }
+
+    /**
+     * Runs the given write of the saved tasks while holding the lock, and stamps them with a new version. Unless the
+     * write overwrites the saved tasks, e.g. with a task list whose changes are not tracked, it is refused if they have
+     * been changed by another process or program since this one last read or wrote them.
+     * The version is increased before the write, so that a write that fails halfway is still seen by other processes.
+     * The changes recorded for syncing are appended to the outbox of the sync once they have been saved.
+     *
+     * @param write The action that writes the saved tasks.
+     * @param isOverwriting Whether the write overwrites any changes made to the saved tasks by others.
+     * @return The result of the action.
+     * @throws IOException If the write was refused, the lock could not be taken, or the action failed.
+     */
+    <T> T writeVersioned(TaskFileLock.LockedAction<T, RuntimeException> write, boolean isOverwriting)
+            throws IOException {
+        return taskFileLock.write(() -> {
+            if (!isOverwriting && isChanged()) {
+                throw new IOException("The tasks have been saved by another process.");
+            }
+            long version = taskFileLock.readVersion() + 1;
+            taskFileLock.writeVersion(version);
+            T result = write.run();
+            savedVersion = version;
+            taskSync.onTasksSaved();
+            return result;
+        });
+    }
+
+    /**
+     * Checks whether the saved tasks have been changed by another process since this one last read or wrote them,
+     * or by another program while the tasks file is watched. This should only be called while holding the lock.
+     *
+     * @return True if the saved tasks have been changed, false otherwise.
+     * @throws IOException If the version or the tasks file could not be read.
+     */
+    boolean isChanged() throws IOException {
+        return taskFileLock.readVersion() != savedVersion
+            || (taskFileReconciler != null && taskFileReconciler.isChanged(tasksFilePath));
+    }
+
+    /**
+     * Merges the changes made to the saved tasks by other processes, or by other programs while the tasks file is
+     * watched, since this process last read or wrote them, into the given task list, as found by
+     * {@link TaskFileReconciler}. The task journal is suspended, as it builds upon the saved tasks as they were, and
+     * the merge handler is run, so that the snapshot is written again as a whole.
+     *
+     * @param taskList The TaskList object to merge the changes into.
+     * @return True if the saved tasks had changed, false otherwise.
+     * @throws IOException If the saved tasks could not be read.
+     * @throws RoverException If a saved task is corrupted.
+     */
+    boolean mergeSavedChanges(TaskList taskList) throws IOException, RoverException {
+        TaskFileReconciler reconciler = taskFileReconciler;
+        if (reconciler == null) {
+            return false;
+        }
+        return taskFileLock.read(() -> {
+            long version = taskFileLock.readVersion();
+            boolean isSavedByOthers = version != savedVersion;
+            if (!isSavedByOthers && !reconciler.isChanged(tasksFilePath)) {
+                return false;
+            }
+            List<String> savedTaskStrings = isSavedByOthers ? readSavedTaskStrings() : null;
+            mergeHandler.run();
+            taskJournal.suspend();
+            if (!isSavedByOthers) {
+                reconciler.apply(tasksFilePath, taskList);
+                return true;
+            }
+            if (savedTaskStrings != null) {
+                // The other process has recorded its changes for syncing already
+                taskSync.setRecording(false);
+                try {
+                    reconciler.applySaved(savedTaskStrings, taskList);
+                } finally {
+                    taskSync.setRecording(true);
+                }
+            }
+            if (reconciler.isWatching()) {
+                reconciler.watch(tasksFilePath);
+            }
+            savedVersion = version;
+            return true;
+        });
+    }
+
+    /**
+     * Returns the task strings of the saved tasks, as the snapshot with the task journal replayed on top of it, or
+     * null if there is no snapshot or it is corrupted, so that it is written again rather than every task removed.
+     */
+    private List<String> readSavedTaskStrings() throws IOException, RoverException {
+        List<String> taskStrings;
+        long snapshotChecksum;
+        if (taskFileFormat == TaskFileFormat.BINARY) {
+            if (!Files.exists(binaryTaskFile.getFilePath())) {
+                return null;
+            }
+            List<Task> tasks = binaryTaskFile.load();
+            if (binaryTaskFile.isCorrupted()) {
+                return null;
+            }
+            taskStrings = tasks.stream().map(Task::getTaskString).toList();
+            snapshotChecksum = binaryTaskFile.getChecksum();
+        } else if (taskFileFormat == TaskFileFormat.JSONL) {
+            if (!Files.exists(jsonLinesTaskFile.getFilePath())) {
+                return null;
+            }
+            taskStrings = jsonLinesTaskFile.load().stream().map(Task::getTaskString).toList();
+            snapshotChecksum = jsonLinesTaskFile.getChecksum();
+        } else {
+            if (!Files.exists(tasksFilePath)) {
+                return null;
+            }
+            byte[] data = Files.readAllBytes(tasksFilePath);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            taskStrings = TaskFileReconciler.getTaskStrings(data);
+            snapshotChecksum = crc.getValue();
+        }
+        return taskJournal.replayTaskStrings(taskStrings, snapshotChecksum);
+    }
+}
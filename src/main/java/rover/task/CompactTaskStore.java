@@ -0,0 +1,149 @@
+package rover.task;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Stores the tasks of a task list as arrays of their fields by ID rather than as task objects, for very large lists.
+ * Types are kept in a byte array, done flags in a bit set, dates and times as {@link EpochMinutes} in long arrays,
+ * and descriptions and the dates and times as they were given in a pool that stores each distinct string once.
+ * A task object is only created as a view when a task is read, e.g. to be displayed.
+ * The positions of the IDs are kept by {@link IdPositions}, as in {@link TaskSequence}.
+ */
+final class CompactTaskStore implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_STRING = -1;
+
+    // Types of tasks are kept as their binary codes, where 0 is a deleted task
+    /** Marks a deadline given as a date only, which is due at the very end of the day rather than at 11:59 pm. */
+    private static final byte END_OF_DAY_FLAG = 0x10;
+    private static final byte TYPE_MASK = 0x0F;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private final BitSet doneFlags = new BitSet();
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    /** The deadline of a deadline task or the start of an event task as it was given, by its number in the pool. */
+    private int[] firstTimes = new int[INITIAL_CAPACITY];
+    /** The end of an event task as it was given, by its number in the pool. */
+    private int[] secondTimes = new int[INITIAL_CAPACITY];
+    /** The deadline of a deadline task or the start of an event task, in minutes since the epoch. */
+    private long[] firstMinutes = new long[INITIAL_CAPACITY];
+    /** The end of an event task, in minutes since the epoch. */
+    private long[] secondMinutes = new long[INITIAL_CAPACITY];
+    private final StringPool pool = new StringPool();
+    private final IdPositions positions = new IdPositions();
+    private int nextId = 1;
+
+    @Override
+    public int add(Task task) {
+        assert task != null : "Task should not be null.";
+        if (nextId > types.length) {
+            grow();
+        }
+        int id = nextId++;
+        int slot = id - 1;
+        descriptions[slot] = pool.add(task.description);
+        doneFlags.set(slot, task.isDone);
+        firstTimes[slot] = NO_STRING;
+        secondTimes[slot] = NO_STRING;
+        if (task instanceof Deadline deadline) {
+            boolean isEndOfDay = deadline.getByTime().equals(LocalTime.MAX);
+            byte type = TaskType.DEADLINE.getBinaryCode();
+            types[slot] = isEndOfDay ? (byte) (type | END_OF_DAY_FLAG) : type;
+            firstTimes[slot] = pool.add(deadline.getBy());
+            firstMinutes[slot] = EpochMinutes.of(deadline.getDueDateTime());
+        } else if (task instanceof Event event) {
+            types[slot] = TaskType.EVENT.getBinaryCode();
+            firstTimes[slot] = pool.add(event.getStart());
+            secondTimes[slot] = pool.add(event.getEnd());
+            firstMinutes[slot] = EpochMinutes.of(event.getDueDateTime());
+            secondMinutes[slot] = EpochMinutes.of(event.getEndDateTime());
+        } else {
+            types[slot] = TaskType.TODO.getBinaryCode();
+        }
+        positions.add(id);
+        return id;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        firstTimes = Arrays.copyOf(firstTimes, capacity);
+        secondTimes = Arrays.copyOf(secondTimes, capacity);
+        firstMinutes = Arrays.copyOf(firstMinutes, capacity);
+        secondMinutes = Arrays.copyOf(secondMinutes, capacity);
+    }
+
+    @Override
+    public Task getById(int id) {
+        int slot = id - 1;
+        String description = pool.get(descriptions[slot]);
+        boolean isDone = doneFlags.get(slot);
+        TaskType type = TaskType.ofBinaryCode(types[slot] & TYPE_MASK);
+        assert type != null : "There should be a task with the ID " + id;
+        return switch (type) {
+        case TODO -> new Todo(description, isDone);
+        case DEADLINE -> new Deadline(description, pool.get(firstTimes[slot]),
+            EpochMinutes.toDate(firstMinutes[slot]),
+            (types[slot] & END_OF_DAY_FLAG) != 0 ? LocalTime.MAX : EpochMinutes.toTime(firstMinutes[slot]), isDone);
+        case EVENT -> new Event(description, pool.get(firstTimes[slot]), pool.get(secondTimes[slot]),
+            EpochMinutes.toDateTime(firstMinutes[slot]), EpochMinutes.toDateTime(secondMinutes[slot]), isDone);
+        };
+    }
+
+    @Override
+    public String getDescription(int id) {
+        return pool.get(descriptions[id - 1]);
+    }
+
+    @Override
+    public int getId(int index) {
+        return positions.getId(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        if (id < 1 || id >= nextId || types[id - 1] == 0) {
+            return -1;
+        }
+        return positions.indexOf(id);
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        int id = positions.getId(index);
+        doneFlags.set(id - 1, isDone);
+        return getById(id);
+    }
+
+    @Override
+    public Task remove(int index) {
+        int id = positions.getId(index);
+        Task task = getById(id);
+        types[id - 1] = 0;
+        doneFlags.clear(id - 1);
+        positions.remove(id);
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public List<Task> toList() {
+        List<Task> tasks = new ArrayList<>(size());
+        for (int id = 1; id < nextId; id++) {
+            if (types[id - 1] != 0) {
+                tasks.add(getById(id));
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,45 @@
+package rover.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A utility class for displaying the dates and times of tasks, e.g. "Saturday, 24 August, 2030 6:00 pm".
+ * Dates and times are only rendered when a task is displayed, through formatters that are shared by every task,
+ * and the most recently rendered dates and times are cached, as many tasks tend to be due on the same days.
+ */
+final class DateTimeDisplay {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, dd MMMM, yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mm a");
+    private static final int CACHE_CAPACITY = 1024;
+
+    private static final Map<LocalDateTime, String> CACHE = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDateTime, String> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private DateTimeDisplay() {
+    }
+
+    /**
+     * Returns the given date and time as they are displayed.
+     *
+     * @param date The date to display.
+     * @param time The time to display.
+     * @return The date and time as they are displayed.
+     */
+    static String format(LocalDate date, LocalTime time) {
+        LocalDateTime dateTime = date.atTime(time);
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(dateTime, key ->
+                date.format(DATE_FORMATTER) + " " + time.format(TIME_FORMATTER).toLowerCase());
+        }
+    }
+}
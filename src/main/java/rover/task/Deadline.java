@@ -2,11 +2,13 @@ package rover.task;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import rover.exceptions.RoverException;
 import rover.parser.DateTimeParser;
+import rover.parser.DateTimeQuery;
 import rover.ui.Ui;
 
 /**
@@ -18,7 +20,6 @@ public final class Deadline extends Task {
     private LocalDate byDate;
     private LocalTime byTime;
     private String by;
-    private String byFullFormat;
 
     /**
      * Constructs a deadline task with the given description.
@@ -45,8 +46,128 @@ public final class Deadline extends Task {
     public Deadline(String description, Ui ui) throws RoverException, DateTimeParseException {
         super(description);
         setByAndDescription(description);
-        setByDateAndTime(ui);
-        setByFullFormat();
+        setByDateAndTime(warningsTo(ui), true);
+    }
+
+    /**
+     * Constructs a deadline task whose description and deadline have already been separated,
+     * e.g. when loading saved tasks.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task.
+     * @param ui The ui object to display messages.
+     * @throws RoverException If the description or deadline is empty.
+     */
+    public Deadline(String description, String by, Ui ui) throws RoverException, DateTimeParseException {
+        this(description, by, warningsTo(ui));
+    }
+
+    /**
+     * Constructs a deadline task whose description and deadline have already been separated,
+     * passing the warning shown if it is overdue to the given consumer instead of a ui,
+     * e.g. so that loading saved tasks in parallel can show the warnings in the order of the tasks.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task.
+     * @param warnings The consumer of the warning shown if the task is overdue, or null to reject such a task.
+     * @throws RoverException If the description or deadline is empty.
+     */
+    public Deadline(String description, String by, Consumer<String> warnings)
+            throws RoverException, DateTimeParseException {
+        super(description);
+        if (by.isEmpty()) {
+            throw new RoverException("A deadline task must be a task followed with '/by (deadline)'.");
+        }
+        this.by = by;
+        setByDateAndTime(warnings, true);
+    }
+
+    /**
+     * Constructs a deadline task from a saved record that also holds its deadline in the canonical form,
+     * so that the deadline is read without guessing which format it was given in.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task, as it was given.
+     * @param canonicalBy The deadline of the task in the canonical form, see {@link IsoDateTimes}.
+     * @param ui The ui object to display messages.
+     * @throws RoverException If the deadline is empty.
+     * @throws DateTimeParseException If the deadline in the canonical form is incorrect.
+     */
+    public Deadline(String description, String by, String canonicalBy, Ui ui)
+            throws RoverException, DateTimeParseException {
+        this(description, by, canonicalBy, warningsTo(ui));
+    }
+
+    /**
+     * Constructs a deadline task from a saved record that also holds its deadline in the canonical form,
+     * passing the warning shown if it is overdue to the given consumer instead of a ui.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task, as it was given.
+     * @param canonicalBy The deadline of the task in the canonical form, see {@link IsoDateTimes}.
+     * @param warnings The consumer of the warning shown if the task is overdue, or null to reject such a task.
+     * @throws RoverException If the deadline is empty.
+     * @throws DateTimeParseException If the deadline in the canonical form is incorrect.
+     */
+    public Deadline(String description, String by, String canonicalBy, Consumer<String> warnings)
+            throws RoverException, DateTimeParseException {
+        super(description);
+        if (by.isEmpty()) {
+            throw new RoverException("A deadline task must be a task followed with '/by (deadline)'.");
+        }
+        this.by = by;
+        setByDateAndTime(canonicalBy);
+        checkIfOverdue(warnings, true);
+    }
+
+    /**
+     * Constructs a deadline task from fields that have already been parsed and validated, e.g. a view of a task
+     * held in a compact task store.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task, as it was given.
+     * @param byDate The date of the deadline.
+     * @param byTime The time of the deadline.
+     * @param isDone Whether the task is done.
+     */
+    Deadline(String description, String by, LocalDate byDate, LocalTime byTime, boolean isDone) {
+        super(description, isDone);
+        this.by = by;
+        this.byDate = byDate;
+        this.byTime = byTime;
+    }
+
+    /**
+     * Constructs a deadline task from a saved record whose description and deadline have already been separated.
+     * Unlike when a task is added, the deadline is not checked against the current date and time,
+     * as saved tasks may have become overdue since.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task.
+     * @param isDone Whether the task is done.
+     * @throws RoverException If the deadline is not in the correct format.
+     * @throws DateTimeParseException If the date and time format is incorrect.
+     */
+    Deadline(String description, String by, boolean isDone) throws RoverException, DateTimeParseException {
+        super(description, isDone);
+        this.by = by;
+        setByDateAndTime(null, false);
+    }
+
+    /**
+     * Constructs a deadline task from a saved record that also holds its deadline in the canonical form.
+     * As with other saved records, the deadline is not checked against the current date and time.
+     *
+     * @param description The description of the deadline task, without the deadline.
+     * @param by The deadline of the task, as it was given.
+     * @param canonicalBy The deadline of the task in the canonical form, see {@link IsoDateTimes}.
+     * @param isDone Whether the task is done.
+     * @throws DateTimeParseException If the deadline in the canonical form is incorrect.
+     */
+    Deadline(String description, String by, String canonicalBy, boolean isDone) throws DateTimeParseException {
+        super(description, isDone);
+        this.by = by;
+        setByDateAndTime(canonicalBy);
     }
 
     private void setByAndDescription(String description) throws RoverException {
@@ -58,7 +179,8 @@ public final class Deadline extends Task {
         this.by = parts[1];
     }
 
-    private void setByDateAndTime(Ui ui) throws DateTimeParseException, RoverException {
+    private void setByDateAndTime(Consumer<String> warnings, boolean isOverdueChecked)
+            throws DateTimeParseException, RoverException {
         String[] dateAndTime = by.split(" ");
         if (dateAndTime.length == 1) {
             // Deadline is a date only
@@ -66,75 +188,87 @@ public final class Deadline extends Task {
             // to create a deadline task on the same day with only a time
             this.byDate = DateTimeParser.parseDate(dateAndTime[0]);
             this.byTime = LocalTime.MAX; // Set to the end of the day
-            if (byDate.isBefore(LocalDate.now())) {
-                handleOverDue(ui, String.format("The following deadline: %s is overdue.", this.description),
-                        "The deadline cannot be in the past.");
-            }
         } else {
             // Deadline is a date and time
             this.byDate = DateTimeParser.parseDate(dateAndTime[0]);
             this.byTime = DateTimeParser.parseTime(dateAndTime[1]);
-            if (byDate.isBefore(LocalDate.now()) || (byDate.isEqual(LocalDate.now())
-                    && byTime.isBefore(LocalTime.now()))) {
-                handleOverDue(ui, String.format("The following deadline: %s is overdue.", this.description),
-                        "The deadline cannot be in the past.");
-            }
+        }
+        checkIfOverdue(warnings, isOverdueChecked);
+    }
+
+    private void setByDateAndTime(String canonicalBy) throws DateTimeParseException {
+        if (IsoDateTimes.isDateOnly(canonicalBy)) {
+            this.byDate = IsoDateTimes.parseDate(canonicalBy);
+            this.byTime = LocalTime.MAX;
+        } else {
+            LocalDateTime byDateTime = IsoDateTimes.parseDateTime(canonicalBy);
+            this.byDate = byDateTime.toLocalDate();
+            this.byTime = byDateTime.toLocalTime();
+        }
+    }
+
+    private void checkIfOverdue(Consumer<String> warnings, boolean isOverdueChecked) throws RoverException {
+        // A deadline given as a date only is due at the end of the day, so it is only overdue from the next day
+        if (byDate.atTime(byTime).isBefore(LocalDateTime.now())) {
+            handleOverDue(warnings, isOverdueChecked,
+                    String.format("The following deadline: %s is overdue.", this.description),
+                    "The deadline cannot be in the past.");
         }
     }
 
-    private void handleOverDue(Ui ui, String warning, String error) throws RoverException {
-        if (ui != null) {
-            ui.showMessage(warning);
+    private void handleOverDue(Consumer<String> warnings, boolean isOverdueChecked, String warning, String error)
+            throws RoverException {
+        if (!isOverdueChecked) {
+            return;
+        }
+        if (warnings != null) {
+            warnings.accept(warning);
             return;
         }
         throw new RoverException(error);
     }
 
-    private void setByFullFormat() {
-        this.byFullFormat = byDate.format(DateTimeFormatter.ofPattern("EEEE, dd MMMM, yyyy"));
-        this.byFullFormat += " " + byTime.format(DateTimeFormatter.ofPattern("h:mm a")).toLowerCase();
+    String getBy() {
+        return by;
+    }
+
+    LocalDate getByDate() {
+        return byDate;
+    }
+
+    LocalTime getByTime() {
+        return byTime;
+    }
+
+    /**
+     * Returns the deadline in the canonical form, as a date only if the deadline was given as a date only.
+     */
+    String getCanonicalBy() {
+        return byTime.equals(LocalTime.MAX) ? IsoDateTimes.format(byDate) : IsoDateTimes.format(byDate.atTime(byTime));
+    }
+
+    /**
+     * Returns the date and time the task is due by.
+     */
+    @Override
+    public LocalDateTime getDueDateTime() {
+        return byDate.atTime(byTime);
     }
 
     /**
      * Checks if the task is due before the given date and time.
      */
     @Override
-    public boolean isBefore(String dateTime) throws DateTimeParseException {
-        String[] parts = dateTime.split(" ");
-        if (parts.length == 1) {
-            try { // Interpret as a date only
-                LocalDate otherDate = DateTimeParser.parseDate(dateTime);
-                return byDate.isBefore(otherDate);
-            } catch (DateTimeParseException e) {
-                // Interpret as a time only
-                LocalDateTime otherTime = DateTimeParser.parseDateTime(LocalDate.now() + " " + dateTime);
-                return byDate.atTime(byTime).isBefore(otherTime);
-            }
-        } else { // Interpret as a date and time
-            LocalDateTime otherDateTime = DateTimeParser.parseDateTime(dateTime);
-            return byDate.atTime(byTime).isBefore(otherDateTime);
-        }
+    public boolean isBefore(DateTimeQuery query) {
+        return query.isPrecededBy(byDate, byTime);
     }
 
     /**
      * Checks if the task is due after the given date and time.
      */
     @Override
-    public boolean isAfter(String dateTime) {
-        String[] parts = dateTime.split(" ");
-        if (parts.length == 1) {
-            try { // Interpret as a date only
-                LocalDate otherDate = DateTimeParser.parseDate(dateTime);
-                return byDate.isAfter(otherDate);
-            } catch (DateTimeParseException e) {
-                // Interpret as a time only
-                LocalDateTime otherTime = DateTimeParser.parseDateTime(LocalDate.now() + " " + dateTime);
-                return byDate.atTime(byTime).isAfter(otherTime);
-            }
-        } else { // Interpret as a date and time
-            LocalDateTime otherDateTime = DateTimeParser.parseDateTime(dateTime);
-            return byDate.atTime(byTime).isAfter(otherDateTime);
-        }
+    public boolean isAfter(DateTimeQuery query) {
+        return query.isFollowedBy(byDate, byTime);
     }
 
     /**
@@ -150,11 +284,20 @@ public final class Deadline extends Task {
     }
 
     /**
-     * Returns the description of the deadline task for saving to the file.
+     * Returns the hash code of this deadline task, consistent with {@link #equals(Object)}.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(description, byDate, byTime);
+    }
+
+    /**
+     * Returns the description of the deadline task for saving to the file, followed by the deadline in the
+     * canonical form.
      */
     @Override
     public String getTaskString() {
-        return "D | " + (isDone ? "1" : "0") + " | " + description + " /by " + by;
+        return "D | " + (isDone ? "1" : "0") + " | " + description + " /by " + by + " | " + getCanonicalBy();
     }
 
     /**
@@ -162,7 +305,7 @@ public final class Deadline extends Task {
      */
     @Override
     public String toString() {
-        return "[D]" + super.toString() + " (by: " + byFullFormat + ")";
+        return "[D]" + super.toString() + " (by: " + DateTimeDisplay.format(byDate, byTime) + ")";
     }
 
 }
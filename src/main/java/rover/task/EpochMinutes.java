@@ -0,0 +1,35 @@
+package rover.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Converts the dates and times of tasks to and from minutes since the epoch, for storing them compactly.
+ * Dates and times of tasks are parsed to the minute, apart from deadlines given as a date only, which are due at
+ * the very end of the day and have to be flagged separately by whoever stores them.
+ */
+final class EpochMinutes {
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private EpochMinutes() {
+    }
+
+    static long of(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay() * MINUTES_PER_DAY
+            + dateTime.getHour() * 60L + dateTime.getMinute();
+    }
+
+    static LocalDate toDate(long epochMinute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+    }
+
+    static LocalTime toTime(long epochMinute) {
+        return LocalTime.ofSecondOfDay(Math.floorMod(epochMinute, MINUTES_PER_DAY) * 60);
+    }
+
+    static LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.of(toDate(epochMinute), toTime(epochMinute));
+    }
+}
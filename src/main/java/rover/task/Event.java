@@ -2,11 +2,13 @@ package rover.task;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import rover.exceptions.RoverException;
 import rover.parser.DateTimeParser;
+import rover.parser.DateTimeQuery;
 import rover.ui.Ui;
 
 /**
@@ -15,13 +17,15 @@ import rover.ui.Ui;
  */
 public final class Event extends Task {
 
+    static final LocalTime DATE_ONLY_START_TIME = LocalTime.of(0, 0);
+    static final LocalTime DATE_ONLY_END_TIME = LocalTime.of(23, 59);
+
     private LocalDate startDate;
     private LocalTime startTime;
     private LocalDate endDate;
     private LocalTime endTime;
     private String start;
     private String end;
-    private String fromToFullFormat;
 
     /**
      * Constructs an event task with the given description.
@@ -51,18 +55,157 @@ public final class Event extends Task {
     public Event(String description, Ui ui) throws RoverException, DateTimeParseException {
         super(description);
         setStartAndEnd();
-        setStartDateAndTime(ui);
-        setEndDateAndTime(ui);
+        setStartDateAndTime(warningsTo(ui), true);
+        setEndDateAndTime(warningsTo(ui), true);
+        checkIfEndIsAfterStart();
+    }
+
+    /**
+     * Constructs an event task whose description, start and end have already been separated,
+     * e.g. when loading saved tasks.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event.
+     * @param end The end of the event.
+     * @param ui The ui object to display messages.
+     * @throws RoverException If the description, start or end is empty or the start date and time is after
+     *      the end date and time.
+     */
+    public Event(String description, String start, String end, Ui ui) throws RoverException, DateTimeParseException {
+        this(description, start, end, warningsTo(ui));
+    }
+
+    /**
+     * Constructs an event task whose description, start and end have already been separated,
+     * passing the warning shown if it has transpired to the given consumer instead of a ui,
+     * e.g. so that loading saved tasks in parallel can show the warnings in the order of the tasks.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event.
+     * @param end The end of the event.
+     * @param warnings The consumer of the warning shown if the event has transpired, or null to reject such a task.
+     * @throws RoverException If the description, start or end is empty or the start date and time is after
+     *      the end date and time.
+     */
+    public Event(String description, String start, String end, Consumer<String> warnings)
+            throws RoverException, DateTimeParseException {
+        super(description);
+        if (start.isEmpty() || end.isEmpty()) {
+            throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+        }
+        this.start = start;
+        this.end = end;
+        setStartDateAndTime(warnings, true);
+        setEndDateAndTime(warnings, true);
+        checkIfEndIsAfterStart();
+    }
+
+    /**
+     * Constructs an event task from a saved record that also holds its start and end in the canonical form,
+     * so that the start and end are read without guessing which format they were given in.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event, as it was given.
+     * @param end The end of the event, as it was given.
+     * @param canonicalStart The start of the event in the canonical form, see {@link IsoDateTimes}.
+     * @param canonicalEnd The end of the event in the canonical form.
+     * @param ui The ui object to display messages.
+     * @throws RoverException If the start or end is empty or the start date and time is after the end date and time.
+     * @throws DateTimeParseException If the start or end in the canonical form is incorrect.
+     */
+    public Event(String description, String start, String end, String canonicalStart, String canonicalEnd, Ui ui)
+            throws RoverException, DateTimeParseException {
+        this(description, start, end, canonicalStart, canonicalEnd, warningsTo(ui));
+    }
+
+    /**
+     * Constructs an event task from a saved record that also holds its start and end in the canonical form,
+     * passing the warning shown if it has transpired to the given consumer instead of a ui.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event, as it was given.
+     * @param end The end of the event, as it was given.
+     * @param canonicalStart The start of the event in the canonical form, see {@link IsoDateTimes}.
+     * @param canonicalEnd The end of the event in the canonical form.
+     * @param warnings The consumer of the warning shown if the event has transpired, or null to reject such a task.
+     * @throws RoverException If the start or end is empty or the start date and time is after the end date and time.
+     * @throws DateTimeParseException If the start or end in the canonical form is incorrect.
+     */
+    public Event(String description, String start, String end, String canonicalStart, String canonicalEnd,
+            Consumer<String> warnings) throws RoverException, DateTimeParseException {
+        super(description);
+        if (start.isEmpty() || end.isEmpty()) {
+            throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+        }
+        this.start = start;
+        this.end = end;
+        setStartAndEndDateAndTime(canonicalStart, canonicalEnd, warnings, true);
+        checkIfEndIsAfterStart();
+    }
+
+    /**
+     * Constructs an event task from fields that have already been parsed and validated, e.g. a view of a task
+     * held in a compact task store.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event, as it was given.
+     * @param end The end of the event, as it was given.
+     * @param startDateTime The start date and time of the event.
+     * @param endDateTime The end date and time of the event.
+     * @param isDone Whether the task is done.
+     */
+    Event(String description, String start, String end, LocalDateTime startDateTime, LocalDateTime endDateTime,
+            boolean isDone) {
+        super(description, isDone);
+        this.start = start;
+        this.end = end;
+        this.startDate = startDateTime.toLocalDate();
+        this.startTime = startDateTime.toLocalTime();
+        this.endDate = endDateTime.toLocalDate();
+        this.endTime = endDateTime.toLocalTime();
+    }
+
+    /**
+     * Constructs an event task from a saved record whose description, start and end have already been separated.
+     * Unlike when a task is added, the start and end are not checked against the current date and time,
+     * as saved tasks may have transpired since.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event.
+     * @param end The end of the event.
+     * @param isDone Whether the task is done.
+     * @throws RoverException If the start date and time is after the end date and time.
+     * @throws DateTimeParseException If the date and time format is incorrect.
+     */
+    Event(String description, String start, String end, boolean isDone) throws RoverException, DateTimeParseException {
+        super(description, isDone);
+        this.start = start;
+        this.end = end;
+        setStartDateAndTime(null, false);
+        setEndDateAndTime(null, false);
         checkIfEndIsAfterStart();
-        setFromToFullFormat();
     }
 
-    private void setFromToFullFormat() {
-        fromToFullFormat = "from "
-            + startDate.format(DateTimeFormatter.ofPattern("EEEE, dd MMMM, yyyy")) + " "
-            + startTime.format(DateTimeFormatter.ofPattern("h:mm a")).toLowerCase() + " to "
-            + endDate.format(DateTimeFormatter.ofPattern("EEEE, dd MMMM, yyyy")) + " "
-            + endTime.format(DateTimeFormatter.ofPattern("h:mm a")).toLowerCase();
+    /**
+     * Constructs an event task from a saved record that also holds its start and end in the canonical form.
+     * As with other saved records, the start and end are not checked against the current date and time.
+     *
+     * @param description The description of the event task, without the start and end.
+     * @param start The start of the event, as it was given.
+     * @param end The end of the event, as it was given.
+     * @param canonicalStart The start of the event in the canonical form, see {@link IsoDateTimes}.
+     * @param canonicalEnd The end of the event in the canonical form.
+     * @param isDone Whether the task is done.
+     * @throws RoverException If the start date and time is after the end date and time.
+     * @throws DateTimeParseException If the start or end in the canonical form is incorrect.
+     */
+    Event(String description, String start, String end, String canonicalStart, String canonicalEnd, boolean isDone)
+            throws RoverException, DateTimeParseException {
+        super(description, isDone);
+        this.start = start;
+        this.end = end;
+        setStartAndEndDateAndTime(canonicalStart, canonicalEnd, null, false);
+        checkIfEndIsAfterStart();
     }
 
     private void checkIfEndIsAfterStart() throws RoverException {
@@ -85,114 +228,182 @@ public final class Event extends Task {
         this.end = parts2[1];
     }
 
-    private void setStartDateAndTime(Ui ui) throws DateTimeParseException, RoverException {
-        try { // Try to parse the start as a date and time
-            startDate = DateTimeParser.parseDateTime(start).toLocalDate();
-            startTime = DateTimeParser.parseDateTime(start).toLocalTime();
+    private void setStartDateAndTime(Consumer<String> warnings, boolean isOverdueChecked)
+            throws DateTimeParseException, RoverException {
+        LocalDateTime startDateTime = DateTimeParser.tryParseDateTime(start);
+        if (startDateTime != null) { // The start is a date and time
+            startDate = startDateTime.toLocalDate();
+            startTime = startDateTime.toLocalTime();
             if (startDate.isBefore(LocalDate.now()) || (startDate.isEqual(LocalDate.now())
                     && startTime.isBefore(LocalTime.now()))) {
-                handleOverDue(ui, String.format("The following event: %s has already transpired.", this.description),
+                handleOverDue(warnings, isOverdueChecked,
+                    String.format("The following event: %s has already transpired.", this.description),
                     "The start date and time cannot be in the past.");
             }
-        } catch (DateTimeParseException e) {
-            try { // Try to parse the start as a date only
-                this.startDate = DateTimeParser.parseDate(start);
-                this.startTime = LocalTime.of(0, 0);
-                if (startDate.isBefore(LocalDate.now())) {
-                    handleOverDue(ui, String.format("The following event: %s has already transpired.",
-                            this.description), "The start date cannot be in the past.");
-                }
-            } catch (DateTimeParseException e2) {
-                // Try to parse the start as a time only
-                this.startDate = LocalDate.now();
-                this.startTime = DateTimeParser.parseTime(start);
-                if (startTime.isBefore(LocalTime.now())) {
-                    handleOverDue(ui, String.format("The following event: %s has already transpired.",
-                            this.description), "The start time cannot be in the past.");
-                }
+            return;
+        }
+        LocalDate date = DateTimeParser.tryParseDate(start);
+        if (date != null) { // The start is a date only
+            this.startDate = date;
+            this.startTime = DATE_ONLY_START_TIME;
+            if (startDate.isBefore(LocalDate.now())) {
+                handleOverDue(warnings, isOverdueChecked,
+                        String.format("The following event: %s has already transpired.", this.description),
+                        "The start date cannot be in the past.");
             }
+            return;
+        }
+        // The start is a time only
+        this.startDate = LocalDate.now();
+        this.startTime = DateTimeParser.parseTime(start);
+        if (startTime.isBefore(LocalTime.now())) {
+            handleOverDue(warnings, isOverdueChecked, String.format("The following event: %s has already transpired.",
+                    this.description), "The start time cannot be in the past.");
         }
     }
 
-    private void setEndDateAndTime(Ui ui) throws DateTimeParseException, RoverException {
-        try { // Try to parse the end as a date and time
-            endDate = DateTimeParser.parseDateTime(end).toLocalDate();
-            endTime = DateTimeParser.parseDateTime(end).toLocalTime();
+    private void setEndDateAndTime(Consumer<String> warnings, boolean isOverdueChecked)
+            throws DateTimeParseException, RoverException {
+        LocalDateTime endDateTime = DateTimeParser.tryParseDateTime(end);
+        if (endDateTime != null) { // The end is a date and time
+            endDate = endDateTime.toLocalDate();
+            endTime = endDateTime.toLocalTime();
             if (endDate.isBefore(LocalDate.now()) || (endDate.isEqual(LocalDate.now())
                     && endTime.isBefore(LocalTime.now()))) {
-                handleOverDue(ui, String.format("The following event: %s has already transpired.", this.description),
+                handleOverDue(warnings, isOverdueChecked,
+                    String.format("The following event: %s has already transpired.", this.description),
                     "The end date and time cannot be in the past.");
             }
-        } catch (DateTimeParseException e) {
-            try { // Try to parse the end as a time only
-                endDate = startDate;
-                endTime = DateTimeParser.parseTime(end);
-                if (startDate.equals(LocalDate.now()) && endTime.isBefore(LocalTime.now())) {
-                    handleOverDue(ui, String.format("The following event: %s has already transpired.",
-                            this.description), "The end time cannot be in the past.");
-                }
-            } catch (DateTimeParseException e2) {
-                // Try to parse the end as a date only
-                endDate = DateTimeParser.parseDate(end);
-                endTime = LocalTime.of(23, 59);
-                if (endDate.isBefore(LocalDate.now())) {
-                    handleOverDue(ui, String.format("The following event: %s has already transpired.",
-                            this.description), "The end date cannot be in the past.");
-                }
+            return;
+        }
+        LocalTime time = DateTimeParser.tryParseTime(end);
+        if (time != null) { // The end is a time only
+            endDate = startDate;
+            endTime = time;
+            if (startDate.equals(LocalDate.now()) && endTime.isBefore(LocalTime.now())) {
+                handleOverDue(warnings, isOverdueChecked,
+                        String.format("The following event: %s has already transpired.", this.description),
+                        "The end time cannot be in the past.");
             }
+            return;
+        }
+        // The end is a date only
+        endDate = DateTimeParser.parseDate(end);
+        endTime = DATE_ONLY_END_TIME;
+        if (endDate.isBefore(LocalDate.now())) {
+            handleOverDue(warnings, isOverdueChecked, String.format("The following event: %s has already transpired.",
+                    this.description), "The end date cannot be in the past.");
+        }
+    }
+
+    /**
+     * Sets the start and end from their canonical forms, checking them against the current date and time
+     * as they would have been when parsed from the formats they were given in, if they are checked at all.
+     */
+    private void setStartAndEndDateAndTime(String canonicalStart, String canonicalEnd,
+            Consumer<String> warnings, boolean isOverdueChecked) throws DateTimeParseException, RoverException {
+        boolean isStartDateOnly = IsoDateTimes.isDateOnly(canonicalStart);
+        if (isStartDateOnly) {
+            startDate = IsoDateTimes.parseDate(canonicalStart);
+            startTime = DATE_ONLY_START_TIME;
+        } else {
+            LocalDateTime startDateTime = IsoDateTimes.parseDateTime(canonicalStart);
+            startDate = startDateTime.toLocalDate();
+            startTime = startDateTime.toLocalTime();
+        }
+        boolean isEndDateOnly = IsoDateTimes.isDateOnly(canonicalEnd);
+        if (isEndDateOnly) {
+            endDate = IsoDateTimes.parseDate(canonicalEnd);
+            endTime = DATE_ONLY_END_TIME;
+        } else {
+            LocalDateTime endDateTime = IsoDateTimes.parseDateTime(canonicalEnd);
+            endDate = endDateTime.toLocalDate();
+            endTime = endDateTime.toLocalTime();
+        }
+        if (!isOverdueChecked) {
+            return;
+        }
+        // The clock is read once, as reading it costs more than parsing the canonical forms
+        LocalDateTime now = LocalDateTime.now();
+        if (isStartDateOnly ? startDate.isBefore(now.toLocalDate()) : startDate.atTime(startTime).isBefore(now)) {
+            handleOverDue(warnings, true, String.format("The following event: %s has already transpired.",
+                this.description), isStartDateOnly
+                ? "The start date cannot be in the past." : "The start date and time cannot be in the past.");
+        }
+        if (isEndDateOnly ? endDate.isBefore(now.toLocalDate()) : endDate.atTime(endTime).isBefore(now)) {
+            handleOverDue(warnings, true, String.format("The following event: %s has already transpired.",
+                this.description), isEndDateOnly
+                ? "The end date cannot be in the past." : "The end date and time cannot be in the past.");
         }
     }
 
-    private void handleOverDue(Ui ui, String warning, String error) throws RoverException {
-        if (ui != null) {
-            ui.showMessage(warning);
+    /**
+     * Returns the given start or end in the canonical form, as a date only if it was given as a date only.
+     * Dates are always given with a separator, which times never have.
+     */
+    private static String toCanonical(String dateTime, LocalDate date, LocalTime time) {
+        boolean isDateOnly = dateTime.indexOf(' ') < 0 && (dateTime.indexOf('/') >= 0 || dateTime.indexOf('-') >= 0);
+        return isDateOnly ? IsoDateTimes.format(date) : IsoDateTimes.format(date.atTime(time));
+    }
+
+    private void handleOverDue(Consumer<String> warnings, boolean isOverdueChecked, String warning, String error)
+            throws RoverException {
+        if (!isOverdueChecked) {
+            return;
+        }
+        if (warnings != null) {
+            warnings.accept(warning);
             return;
         }
         throw new RoverException(error);
     }
 
+    String getStart() {
+        return start;
+    }
+
+    String getEnd() {
+        return end;
+    }
+
+    String getCanonicalStart() {
+        return toCanonical(start, startDate, startTime);
+    }
+
+    String getCanonicalEnd() {
+        return toCanonical(end, endDate, endTime);
+    }
+
+    LocalDateTime getEndDateTime() {
+        return endDate.atTime(endTime);
+    }
+
+    /**
+     * Returns the date and time the task is due.
+     * Event tasks are due at the start date and time.
+     */
+    @Override
+    public LocalDateTime getDueDateTime() {
+        return startDate.atTime(startTime);
+    }
+
     /**
      * Checks if the task is due before the given date and time.
      * Event tasks are due before the start date and time.
      */
     @Override
-    public boolean isBefore(String dateTime) {
-        String[] parts = dateTime.split(" ");
-        if (parts.length == 1) {
-            try { // Interpret as a date only
-                LocalDate otherDate = DateTimeParser.parseDate(dateTime);
-                return startDate.isBefore(otherDate);
-            } catch (DateTimeParseException e) {
-                // Interpret as a time only
-                LocalDateTime otherDateTime = DateTimeParser.parseDateTime(LocalDate.now() + " " + dateTime);
-                return startDate.atTime(startTime).isBefore(otherDateTime);
-            }
-        } else { // Interpret as a date and time
-            LocalDateTime otherDateTime = DateTimeParser.parseDateTime(dateTime);
-            return startDate.atTime(startTime).isBefore(otherDateTime);
-        }
+    public boolean isBefore(DateTimeQuery query) {
+        return query.isPrecededBy(startDate, startTime);
     }
 
     /**
      * Checks if the task is due after the given date and time.
-     * Event tasks are due before the end date and time.
+     * Event tasks are due at their start, so an event that starts after the given date and time is due after it,
+     * while one that has started by then is not, even if it only ends after it.
      */
     @Override
-    public boolean isAfter(String dateTime) {
-        String[] parts = dateTime.split(" ");
-        if (parts.length == 1) {
-            try { // Interpret as a date only
-                LocalDate otherDate = DateTimeParser.parseDate(dateTime);
-                return startDate.isAfter(otherDate);
-            } catch (DateTimeParseException e) {
-                // Interpret as a time only
-                LocalDateTime otherDateTime = DateTimeParser.parseDateTime(LocalDate.now() + " " + dateTime);
-                return startDate.atTime(startTime).isAfter(otherDateTime);
-            }
-        } else { // Interpret as a date and time
-            LocalDateTime otherDateTime = DateTimeParser.parseDateTime(dateTime);
-            return startDate.atTime(startTime).isAfter(otherDateTime);
-        }
+    public boolean isAfter(DateTimeQuery query) {
+        return query.isFollowedBy(startDate, startTime);
     }
 
     /**
@@ -210,11 +421,21 @@ public final class Event extends Task {
     }
 
     /**
-     * Returns the description of the task for saving to the file.
+     * Returns the hash code of this event task, consistent with {@link #equals(Object)}.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(description, startDate, startTime, endDate, endTime);
+    }
+
+    /**
+     * Returns the description of the task for saving to the file, followed by the start and end in the
+     * canonical form. A start or end given as a time only is saved on the date it was given for.
      */
     @Override
     public String getTaskString() {
-        return "E | " + (isDone ? "1" : "0") + " | " + description + " /from " + start + " /to " + end;
+        return "E | " + (isDone ? "1" : "0") + " | " + description + " /from " + start + " /to " + end
+            + " | " + getCanonicalStart() + " | " + getCanonicalEnd();
     }
 
     /**
@@ -222,6 +443,7 @@ public final class Event extends Task {
      */
     @Override
     public String toString() {
-        return "[E]" + super.toString() + " (" + fromToFullFormat + ")";
+        return "[E]" + super.toString() + " (from " + DateTimeDisplay.format(startDate, startTime) + " to "
+            + DateTimeDisplay.format(endDate, endTime) + ")";
     }
 }
@@ -0,0 +1,116 @@
+package rover.task;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the positions of the IDs in use by a task store, where IDs are given out in increasing order.
+ * A binary indexed (Fenwick) tree counts the IDs in use, so finding the ID at a position and the position of an ID
+ * both take O(log n) time, as do adding and removing an ID.
+ */
+final class IdPositions {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The Fenwick tree, where tree[i] counts the IDs in use in a range of IDs ending at ID i. */
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int size = 0;
+
+    /**
+     * Returns positions with no IDs in use.
+     */
+    IdPositions() {
+    }
+
+    /**
+     * Returns positions with the IDs from 1 to the given size in use, built in O(n) time rather than by adding
+     * each ID in turn.
+     *
+     * @param size The number of IDs in use.
+     */
+    IdPositions(int size) {
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(size, 1) - 1) << 1);
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            // Node i covers the IDs after i - (i & -i) up to i
+            tree[i] = Math.max(0, Math.min(i, size) - (i - (i & -i)));
+        }
+        this.size = size;
+    }
+
+    /**
+     * Marks an ID as in use. The ID must be greater than every ID added before.
+     *
+     * @param id The ID to be added.
+     */
+    void add(int id) {
+        while (id >= tree.length) {
+            grow();
+        }
+        for (int i = id; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Doubles the capacity of the tree.
+     * The range of every new node other than the last lies beyond the IDs added so far, so only the last node,
+     * whose range covers the whole tree, needs a count.
+     */
+    private void grow() {
+        int capacity = tree.length - 1;
+        tree = Arrays.copyOf(tree, capacity * 2 + 1);
+        tree[capacity * 2] = size;
+    }
+
+    /**
+     * Marks an ID as no longer in use.
+     *
+     * @param id The ID to be removed, which must be in use.
+     */
+    void remove(int id) {
+        for (int i = id; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        size--;
+    }
+
+    /**
+     * Returns the ID at the given position, by descending the tree to the ID with index + 1 IDs in use
+     * up to and including it.
+     *
+     * @param index The position of the ID, starting from 0.
+     * @return The ID at the given position.
+     */
+    int getId(int index) {
+        assert index >= 0 && index < size : "Index should be within the IDs in use.";
+        int id = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = id + step;
+            if (next < tree.length && tree[next] < remaining) {
+                id = next;
+                remaining -= tree[next];
+            }
+        }
+        return id + 1;
+    }
+
+    /**
+     * Returns the position of the given ID.
+     *
+     * @param id The ID, which must be in use.
+     * @return The position of the ID, starting from 0.
+     */
+    int indexOf(int id) {
+        int count = 0;
+        for (int i = id; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count - 1;
+    }
+
+    int size() {
+        return size;
+    }
+}
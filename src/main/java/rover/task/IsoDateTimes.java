@@ -0,0 +1,144 @@
+package rover.task;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Formats the dates and times of tasks in a single canonical form for saving them, and parses that form back with
+ * fixed-position arithmetic, so that loading saved tasks does not have to try each of the formats users can type.
+ * A date is saved as {@code yyyy-MM-dd} and a date and time as {@code yyyy-MM-ddTHH:mm}, as by ISO 8601.
+ * Years outside 0000 to 9999 are rare enough to be left to the ISO formatter.
+ */
+final class IsoDateTimes {
+
+    private static final int DATE_LENGTH = 10;
+    private static final int TIME_LENGTH = 5;
+    private static final char TIME_SEPARATOR = 'T';
+
+    private IsoDateTimes() {
+    }
+
+    static String format(LocalDate date) {
+        return date.toString();
+    }
+
+    static String format(LocalDateTime dateTime) {
+        StringBuilder builder = new StringBuilder(DATE_LENGTH + 1 + TIME_LENGTH);
+        builder.append(dateTime.toLocalDate()).append(TIME_SEPARATOR);
+        appendTwoDigits(builder, dateTime.getHour());
+        builder.append(':');
+        appendTwoDigits(builder, dateTime.getMinute());
+        return builder.toString();
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Returns true if the given canonical string is a date only, without a time.
+     */
+    static boolean isDateOnly(String canonical) {
+        return canonical.indexOf(TIME_SEPARATOR) < 0;
+    }
+
+    /**
+     * Parses a date in the canonical form.
+     *
+     * @param canonical The date, formatted by {@link #format(LocalDate)}.
+     * @return The date.
+     * @throws DateTimeParseException If the string is not a date in the canonical form.
+     */
+    static LocalDate parseDate(String canonical) throws DateTimeParseException {
+        if (canonical.length() != DATE_LENGTH || canonical.charAt(4) != '-' || canonical.charAt(7) != '-') {
+            return LocalDate.parse(canonical);
+        }
+        try {
+            return LocalDate.of(parseDigits(canonical, 0, 4), parseDigits(canonical, 5, 7),
+                parseDigits(canonical, 8, 10));
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException("Unable to parse saved date: " + canonical, canonical, 0, e);
+        }
+    }
+
+    /**
+     * Parses a date and time in the canonical form.
+     *
+     * @param canonical The date and time, formatted by {@link #format(LocalDateTime)}.
+     * @return The date and time.
+     * @throws DateTimeParseException If the string is not a date and time in the canonical form.
+     */
+    static LocalDateTime parseDateTime(String canonical) throws DateTimeParseException {
+        int separatorIndex = canonical.indexOf(TIME_SEPARATOR);
+        if (separatorIndex < 0 || canonical.length() - separatorIndex - 1 != TIME_LENGTH
+                || canonical.charAt(separatorIndex + 3) != ':') {
+            throw new DateTimeParseException("Unable to parse saved date and time: " + canonical, canonical, 0);
+        }
+        LocalDate date = parseDate(canonical.substring(0, separatorIndex));
+        try {
+            return date.atTime(parseDigits(canonical, separatorIndex + 1, separatorIndex + 3),
+                parseDigits(canonical, separatorIndex + 4, separatorIndex + 6));
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException("Unable to parse saved date and time: " + canonical, canonical, 0, e);
+        }
+    }
+
+    /**
+     * Parses a date, or a date and time, in the canonical form from the given characters, without creating a string
+     * of them, e.g. straight from the buffer of a parser.
+     *
+     * @param chars The characters holding the canonical form.
+     * @param offset The index of the first character of the canonical form.
+     * @param length The number of characters in the canonical form.
+     * @param dateOnlyTime The time given to a date only, without a time.
+     * @return The date and time.
+     * @throws DateTimeParseException If the characters are not a date, or a date and time, in the canonical form.
+     */
+    static LocalDateTime parse(char[] chars, int offset, int length, LocalTime dateOnlyTime)
+            throws DateTimeParseException {
+        boolean isDateOnly = length == DATE_LENGTH;
+        boolean isDateAndTime = length == DATE_LENGTH + 1 + TIME_LENGTH
+                && chars[offset + DATE_LENGTH] == TIME_SEPARATOR && chars[offset + DATE_LENGTH + 3] == ':';
+        if ((!isDateOnly && !isDateAndTime) || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            String canonical = new String(chars, offset, length);
+            return isDateOnly(canonical) ? parseDate(canonical).atTime(dateOnlyTime) : parseDateTime(canonical);
+        }
+        try {
+            LocalDate date = LocalDate.of(parseDigits(chars, offset, 4), parseDigits(chars, offset + 5, 2),
+                parseDigits(chars, offset + 8, 2));
+            return isDateOnly ? date.atTime(dateOnlyTime) : date.atTime(parseDigits(chars, offset + 11, 2),
+                parseDigits(chars, offset + 14, 2));
+        } catch (DateTimeException e) {
+            String canonical = new String(chars, offset, length);
+            throw new DateTimeParseException("Unable to parse saved date and time: " + canonical, canonical, 0, e);
+        }
+    }
+
+    private static int parseDigits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                String string = new String(chars, offset, count);
+                throw new DateTimeParseException("Unable to parse saved date and time: " + string, string, 0);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int parseDigits(String string, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = string.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Unable to parse saved date and time: " + string, string, i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
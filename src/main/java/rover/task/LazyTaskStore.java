@@ -0,0 +1,155 @@
+package rover.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the tasks of a task list loaded from {@link TaskRecords}, keeping each saved task as its record
+ * until the task is first read, when it is parsed and kept as a task object instead.
+ * Counting, finding positions and saving unchanged tasks only use the records, so a large list can be loaded
+ * without parsing every task, and a session that only touches a few tasks only ever parses those.
+ * The positions of the IDs are kept by {@link IdPositions}, as in {@link TaskSequence}.
+ */
+final class LazyTaskStore implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final byte[] data;
+    /** The start of the record of each task by ID - 1, or NOT_SAVED if the task is kept or deleted. */
+    private int[] recordStarts;
+    private int[] recordEnds;
+    /** The tasks that have been parsed or added by ID - 1, with null for tasks that are not parsed or deleted. */
+    private Task[] tasksById;
+    private final IdPositions positions;
+    private int nextId;
+
+    /**
+     * Returns a store of the given records, where the task at each position is given the ID position + 1.
+     *
+     * @param records The records of the saved tasks, which should not be changed afterwards.
+     */
+    LazyTaskStore(TaskRecords records) {
+        int size = records.size();
+        int capacity = Math.max(INITIAL_CAPACITY, size);
+        this.data = records.getData();
+        this.recordStarts = Arrays.copyOf(records.getRecordStarts(), capacity);
+        this.recordEnds = Arrays.copyOf(records.getRecordEnds(), capacity);
+        this.tasksById = Arrays.copyOf(records.getParsedTasks(), capacity);
+        this.positions = new IdPositions(size);
+        this.nextId = size + 1;
+    }
+
+    @Override
+    public int add(Task task) {
+        assert task != null : "Task should not be null.";
+        if (nextId > tasksById.length) {
+            int capacity = tasksById.length * 2;
+            recordStarts = Arrays.copyOf(recordStarts, capacity);
+            recordEnds = Arrays.copyOf(recordEnds, capacity);
+            tasksById = Arrays.copyOf(tasksById, capacity);
+        }
+        int id = nextId++;
+        tasksById[id - 1] = task;
+        recordStarts[id - 1] = TaskRecords.NOT_SAVED;
+        positions.add(id);
+        return id;
+    }
+
+    @Override
+    public Task getById(int id) {
+        int slot = id - 1;
+        if (tasksById[slot] == null) {
+            tasksById[slot] = TaskRecords.parse(data, recordStarts[slot], recordEnds[slot]);
+            recordStarts[slot] = TaskRecords.NOT_SAVED;
+        }
+        return tasksById[slot];
+    }
+
+    @Override
+    public String getDescription(int id) {
+        int slot = id - 1;
+        if (tasksById[slot] != null) {
+            return tasksById[slot].description;
+        }
+        return TaskRecords.getDescription(data, recordStarts[slot], recordEnds[slot]);
+    }
+
+    /**
+     * Returns the key of a task that has not been parsed from its saved record, without parsing it.
+     */
+    @Override
+    public long getKey(int id) {
+        int slot = id - 1;
+        if (tasksById[slot] != null) {
+            return TaskRecords.hash(tasksById[slot]);
+        }
+        return TaskRecords.hash(data, recordStarts[slot], recordEnds[slot]);
+    }
+
+    /**
+     * Returns the saved record of a task that has not been parsed, or the task string of a task that has.
+     */
+    @Override
+    public String getTaskString(int id) {
+        int slot = id - 1;
+        if (tasksById[slot] != null) {
+            return tasksById[slot].getTaskString();
+        }
+        return new String(data, recordStarts[slot], recordEnds[slot] - recordStarts[slot], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getId(int index) {
+        return positions.getId(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        if (id < 1 || id >= nextId || !isInUse(id)) {
+            return -1;
+        }
+        return positions.indexOf(id);
+    }
+
+    private boolean isInUse(int id) {
+        return tasksById[id - 1] != null || recordStarts[id - 1] != TaskRecords.NOT_SAVED;
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        Task task = get(index);
+        if (isDone) {
+            task.setDone();
+        } else {
+            task.setUndone();
+        }
+        return task;
+    }
+
+    @Override
+    public Task remove(int index) {
+        int id = positions.getId(index);
+        Task task = getById(id);
+        tasksById[id - 1] = null;
+        positions.remove(id);
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public List<Task> toList() {
+        List<Task> tasks = new ArrayList<>(size());
+        for (int id = 1; id < nextId; id++) {
+            if (isInUse(id)) {
+                tasks.add(getById(id));
+            }
+        }
+        return tasks;
+    }
+}
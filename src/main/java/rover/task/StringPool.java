@@ -0,0 +1,82 @@
+package rover.task;
+
+import java.util.Arrays;
+
+/**
+ * Stores each distinct string once and refers to it by a number, e.g. the dates of many tasks due on the same day.
+ * The strings are kept in an array, with an open addressing hash table of their numbers to find existing strings,
+ * which takes far less memory than a map from strings to boxed numbers.
+ * Strings are never removed from the pool.
+ */
+final class StringPool {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_STRING = -1;
+
+    private String[] strings = new String[INITIAL_CAPACITY];
+    /** The numbers of the strings by hash code, with NO_STRING for empty slots. */
+    private int[] table = createTable(INITIAL_CAPACITY * 2);
+    private int size = 0;
+
+    private static int[] createTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, NO_STRING);
+        return table;
+    }
+
+    /**
+     * Returns the number of the given string, adding it to the pool if it is not in the pool yet.
+     *
+     * @param string The string to be added.
+     * @return The number of the string.
+     */
+    int add(String string) {
+        assert string != null : "String should not be null.";
+        int mask = table.length - 1;
+        int slot = spread(string.hashCode()) & mask;
+        while (table[slot] != NO_STRING) {
+            if (strings[table[slot]].equals(string)) {
+                return table[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+            rehash(size * 4);
+            return add(string);
+        }
+        strings[size] = string;
+        table[slot] = size;
+        return size++;
+    }
+
+    private void rehash(int capacity) {
+        table = createTable(capacity);
+        int mask = capacity - 1;
+        for (int number = 0; number < size; number++) {
+            int slot = spread(strings[number].hashCode()) & mask;
+            while (table[slot] != NO_STRING) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = number;
+        }
+    }
+
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * Returns the string with the given number.
+     *
+     * @param number The number of the string.
+     * @return The string with the given number.
+     */
+    String get(int number) {
+        return strings[number];
+    }
+
+    int size() {
+        return size;
+    }
+}
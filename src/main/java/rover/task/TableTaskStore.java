@@ -0,0 +1,107 @@
+package rover.task;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the tasks of a task list in a {@link TaskTable}, keeping only the row ID of each task in memory.
+ * Tasks are read from the table whenever they are needed, and every change is written to the table as a single row,
+ * so a large list is neither loaded nor rewritten as a whole.
+ * The task at each position when the table is opened is given the ID position + 1, as for any other loaded list,
+ * and the positions of the IDs are kept by {@link IdPositions}, as in {@link TaskSequence}.
+ */
+final class TableTaskStore implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DELETED = 0;
+
+    private final TaskTable table;
+    /** The row IDs of the tasks by ID - 1, with DELETED for deleted tasks. */
+    private int[] rowIds;
+    private final IdPositions positions;
+    private int nextId;
+    private int nextRowId;
+
+    /**
+     * Returns a store of the tasks in the given table.
+     *
+     * @param table The table holding the tasks.
+     */
+    TableTaskStore(TaskTable table) {
+        int[] loadedRowIds = table.selectRowIds();
+        this.table = table;
+        this.rowIds = Arrays.copyOf(loadedRowIds, Math.max(INITIAL_CAPACITY, loadedRowIds.length));
+        this.positions = new IdPositions(loadedRowIds.length);
+        this.nextId = loadedRowIds.length + 1;
+        this.nextRowId = loadedRowIds.length > 0 ? loadedRowIds[loadedRowIds.length - 1] + 1 : 1;
+    }
+
+    @Override
+    public int add(Task task) {
+        assert task != null : "Task should not be null.";
+        table.insert(nextRowId, task);
+        if (nextId > rowIds.length) {
+            rowIds = Arrays.copyOf(rowIds, rowIds.length * 2);
+        }
+        int id = nextId++;
+        rowIds[id - 1] = nextRowId++;
+        positions.add(id);
+        return id;
+    }
+
+    @Override
+    public Task getById(int id) {
+        return table.select(rowIds[id - 1]);
+    }
+
+    @Override
+    public String getDescription(int id) {
+        return table.selectDescription(rowIds[id - 1]);
+    }
+
+    @Override
+    public int getId(int index) {
+        return positions.getId(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        if (id < 1 || id >= nextId || rowIds[id - 1] == DELETED) {
+            return -1;
+        }
+        return positions.indexOf(id);
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        int rowId = rowIds[positions.getId(index) - 1];
+        Task task = table.select(rowId);
+        table.updateDone(rowId, isDone);
+        if (isDone) {
+            task.setDone();
+        } else {
+            task.setUndone();
+        }
+        return task;
+    }
+
+    @Override
+    public Task remove(int index) {
+        int id = positions.getId(index);
+        Task task = table.select(rowIds[id - 1]);
+        table.delete(rowIds[id - 1]);
+        rowIds[id - 1] = DELETED;
+        positions.remove(id);
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public List<Task> toList() {
+        return table.selectAll();
+    }
+}
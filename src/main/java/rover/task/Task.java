@@ -1,8 +1,12 @@
 package rover.task;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
 
 import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
+import rover.ui.Ui;
 
 /**
  * Represents a task that can be added to the task list.
@@ -26,6 +30,18 @@ public abstract sealed class Task permits Todo, Deadline, Event {
         this.isDone = false;
     }
 
+    /**
+     * Constructor for a task whose description has already been validated, e.g. a view of a stored task.
+     *
+     * @param description The description of the task.
+     * @param isDone Whether the task is done.
+     */
+    Task(String description, boolean isDone) {
+        assert !description.isEmpty() : "Description should not be empty.";
+        this.description = description;
+        this.isDone = isDone;
+    }
+
     /**
      * Marks the task as done.
      */
@@ -40,6 +56,14 @@ public abstract sealed class Task permits Todo, Deadline, Event {
         this.isDone = false;
     }
 
+    public boolean isDone() {
+        return isDone;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
     private String getStatusIcon() {
         return (isDone ? "X" : " ");
     }
@@ -51,6 +75,13 @@ public abstract sealed class Task permits Todo, Deadline, Event {
      */
     public abstract String getTaskString();
 
+    /**
+     * Returns the date and time the task is due, which orders the task against other tasks in time.
+     *
+     * @return The date and time the task is due, or null if the task does not have a date and time.
+     */
+    public abstract LocalDateTime getDueDateTime();
+
     /**
      * Checks if the task is due before the given date and time.
      *
@@ -58,7 +89,17 @@ public abstract sealed class Task permits Todo, Deadline, Event {
      * @return True if the task is due before the given date and time, false otherwise.
      * @throws DateTimeParseException If the date and time is in the wrong format.
      */
-    public abstract boolean isBefore(String dateTime) throws DateTimeParseException;
+    public boolean isBefore(String dateTime) throws DateTimeParseException {
+        return isBefore(DateTimeQuery.parse(dateTime));
+    }
+
+    /**
+     * Checks if the task is due before the given parsed date and time.
+     *
+     * @param query The date and time to compare with.
+     * @return True if the task is due before the given date and time, false otherwise.
+     */
+    public abstract boolean isBefore(DateTimeQuery query);
 
     /**
      * Checks if the task is due after the given date and time.
@@ -67,7 +108,17 @@ public abstract sealed class Task permits Todo, Deadline, Event {
      * @return True if the task is due after the given date and time, false otherwise.
      * @throws DateTimeParseException If the date and time is in the wrong format.
      */
-    public abstract boolean isAfter(String dateTime) throws DateTimeParseException;
+    public boolean isAfter(String dateTime) throws DateTimeParseException {
+        return isAfter(DateTimeQuery.parse(dateTime));
+    }
+
+    /**
+     * Checks if the task is due after the given parsed date and time.
+     *
+     * @param query The date and time to compare with.
+     * @return True if the task is due after the given date and time, false otherwise.
+     */
+    public abstract boolean isAfter(DateTimeQuery query);
 
     /**
      * Returns the string representation of the task.
@@ -78,4 +129,12 @@ public abstract sealed class Task permits Todo, Deadline, Event {
     public String toString() {
         return "[" + this.getStatusIcon() + "] " + this.description;
     }
+
+    /**
+     * Returns where the warnings about a task being in the past are shown with the given ui,
+     * or null if there is no ui, in which case a task in the past is rejected instead.
+     */
+    static Consumer<String> warningsTo(Ui ui) {
+        return ui == null ? null : ui::showMessage;
+    }
 }
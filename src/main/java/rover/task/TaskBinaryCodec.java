@@ -0,0 +1,116 @@
+package rover.task;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+
+import rover.exceptions.RoverException;
+
+/**
+ * Encodes tasks in a binary format, and decodes them without parsing any dates or times.
+ * Each task is saved as its type and status in a byte each, then its dates and times as {@link EpochMinutes}
+ * in 8 bytes each, then its description and its dates and times as they were given, each as UTF-8 prefixed by its
+ * length in 4 bytes. Types are saved as their {@link TaskType#getBinaryCode() binary codes}. The dates and times
+ * as they were given are kept so that a task string can still be formed.
+ */
+public final class TaskBinaryCodec {
+
+    /** Marks a deadline given as a date only, which is due at the very end of the day rather than at 11:59 pm. */
+    private static final byte END_OF_DAY_FLAG = 0x10;
+    private static final byte TYPE_MASK = 0x0F;
+
+    private TaskBinaryCodec() {
+    }
+
+    /**
+     * Writes the given task to the given output.
+     *
+     * @param task The task to be encoded.
+     * @param out The output to write the task to.
+     * @throws IOException If the task could not be written.
+     */
+    public static void encode(Task task, DataOutputStream out) throws IOException {
+        assert task != null : "Task should not be null.";
+        if (task instanceof Deadline deadline) {
+            boolean isEndOfDay = deadline.getByTime().equals(LocalTime.MAX);
+            byte type = TaskType.DEADLINE.getBinaryCode();
+            out.writeByte(isEndOfDay ? type | END_OF_DAY_FLAG : type);
+            out.writeByte(task.isDone ? 1 : 0);
+            out.writeLong(EpochMinutes.of(deadline.getDueDateTime()));
+            writeString(task.description, out);
+            writeString(deadline.getBy(), out);
+        } else if (task instanceof Event event) {
+            out.writeByte(TaskType.EVENT.getBinaryCode());
+            out.writeByte(task.isDone ? 1 : 0);
+            out.writeLong(EpochMinutes.of(event.getDueDateTime()));
+            out.writeLong(EpochMinutes.of(event.getEndDateTime()));
+            writeString(task.description, out);
+            writeString(event.getStart(), out);
+            writeString(event.getEnd(), out);
+        } else {
+            out.writeByte(TaskType.TODO.getBinaryCode());
+            out.writeByte(task.isDone ? 1 : 0);
+            writeString(task.description, out);
+        }
+    }
+
+    private static void writeString(String string, DataOutputStream out) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the next task from the given buffer, advancing its position past the task.
+     *
+     * @param buffer The buffer holding the encoded task, which must be backed by an array.
+     * @return The decoded task.
+     * @throws RoverException If the task is corrupted.
+     */
+    public static Task decode(ByteBuffer buffer) throws RoverException {
+        try {
+            byte type = buffer.get();
+            byte status = buffer.get();
+            if (status != 0 && status != 1) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            boolean isDone = status == 1;
+            TaskType taskType = TaskType.ofBinaryCode(type & TYPE_MASK);
+            if (taskType == null) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            return switch (taskType) {
+            case TODO -> new Todo(readString(buffer), isDone);
+            case DEADLINE -> {
+                long byMinute = buffer.getLong();
+                LocalTime byTime = (type & END_OF_DAY_FLAG) != 0 ? LocalTime.MAX : EpochMinutes.toTime(byMinute);
+                yield new Deadline(readString(buffer), readString(buffer), EpochMinutes.toDate(byMinute), byTime,
+                    isDone);
+            }
+            case EVENT -> {
+                long startMinute = buffer.getLong();
+                long endMinute = buffer.getLong();
+                yield new Event(readString(buffer), readString(buffer), readString(buffer),
+                    EpochMinutes.toDateTime(startMinute), EpochMinutes.toDateTime(endMinute), isDone);
+            }
+            };
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+}
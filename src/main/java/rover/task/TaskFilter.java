@@ -0,0 +1,20 @@
+package rover.task;
+
+import java.util.function.Predicate;
+
+/**
+ * Represents a filter on the type and status of tasks, where a null type or status matches any.
+ *
+ * @param type The type of the tasks to match, or null to match tasks of any type.
+ * @param isDone Whether the tasks to match are done, or null to match tasks of any status.
+ */
+public record TaskFilter(TaskType type, Boolean isDone) implements Predicate<Task> {
+
+    /** The filter that matches every task. */
+    public static final TaskFilter ALL = new TaskFilter(null, null);
+
+    @Override
+    public boolean test(Task task) {
+        return (type == null || TaskType.of(task) == type) && (isDone == null || task.isDone() == isDone);
+    }
+}
@@ -0,0 +1,120 @@
+package rover.task;
+
+/**
+ * Indexes the tasks of a task list by the keys of their types, descriptions and dates and times in the canonical
+ * form, so that a duplicate of a task is found without comparing the task with every task in the list.
+ * Only the IDs and keys are kept, in an open addressing hash table, and only the tasks with a matching key are read
+ * from the task store to be compared, so tasks that share a description, e.g. a deadline that recurs every week,
+ * are still told apart in O(1) time. The keys are the hashes of {@link TaskRecords#hash(Task)}, which the task
+ * store computes from the saved records of tasks that have not been parsed, so the index can be built without
+ * parsing them.
+ */
+final class TaskHashIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    private final TaskStore store;
+    /** The IDs of the tasks by key, with EMPTY for empty slots and REMOVED for slots of removed tasks. */
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size = 0;
+    private int usedSlots = 0;
+
+    /**
+     * Returns an empty index of the tasks in the given task store.
+     *
+     * @param store The task store holding the indexed tasks.
+     */
+    TaskHashIndex(TaskStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Checks if an equal task is in the index.
+     *
+     * @param task The task to look for.
+     * @return True if a task equal to the given task is in the index, false otherwise.
+     */
+    boolean contains(Task task) {
+        return getId(task) != EMPTY;
+    }
+
+    /**
+     * Returns the ID of the task in the index that is equal to the given task.
+     *
+     * @param task The task to look for.
+     * @return The ID of the equal task, or 0 if there is none, as no task has the ID 0.
+     */
+    int getId(Task task) {
+        long key = TaskRecords.hash(task);
+        int mask = ids.length - 1;
+        for (int slot = spread(key) & mask; ids[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (ids[slot] != REMOVED && keys[slot] == key && store.getById(ids[slot]).equals(task)) {
+                return ids[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param id The ID of the task.
+     * @param key The key of the task, see {@link TaskStore#getKey(int)}.
+     */
+    void add(int id, long key) {
+        if ((usedSlots + 1) * 2 > ids.length) {
+            rehash(size + 1 > ids.length / 4 ? ids.length * 2 : ids.length);
+        }
+        insert(id, key);
+        size++;
+        usedSlots++;
+    }
+
+    private void insert(int id, long key) {
+        int mask = ids.length - 1;
+        int slot = spread(key) & mask;
+        while (ids[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        keys[slot] = key;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldIds = ids;
+        long[] oldKeys = keys;
+        ids = new int[capacity];
+        keys = new long[capacity];
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != EMPTY && oldIds[slot] != REMOVED) {
+                insert(oldIds[slot], oldKeys[slot]);
+            }
+        }
+        usedSlots = size;
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id The ID of the task.
+     * @param key The key of the task, as it was added.
+     */
+    void remove(int id, long key) {
+        int mask = ids.length - 1;
+        for (int slot = spread(key) & mask; ids[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (ids[slot] == id) {
+                ids[slot] = REMOVED;
+                size--;
+                return;
+            }
+        }
+    }
+
+    private static int spread(long key) {
+        int hashCode = (int) (key ^ (key >>> 32));
+        return hashCode ^ (hashCode >>> 16);
+    }
+}
@@ -0,0 +1,214 @@
+package rover.task;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import rover.exceptions.RoverException;
+
+/**
+ * Writes tasks as JSON objects, and reads them back, through the streaming API of Jackson, without building a tree.
+ * Each task has a "type" of "todo", "deadline" or "event", whether it is "done", and its "description".
+ * A deadline also has its deadline as it was given, "by", and in the canonical form of {@link IsoDateTimes}, "due".
+ * An event also has its start and end as they were given, "from" and "to", and in the canonical form, "start" and
+ * "end". Fields that are not known are skipped, so fields added by newer versions do not stop tasks from being read.
+ * Reading expects the fields in the order they are written, matching the name of each field against the bytes of
+ * the next one before looking it up, and reads the canonical forms straight from the buffer of the parser,
+ * so neither the names nor the canonical forms are made into strings.
+ */
+public final class TaskJsonCodec {
+
+    // The fields, indexed in the order they are written
+    private static final int TYPE = 0;
+    private static final int DONE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int BY = 3;
+    private static final int DUE = 4;
+    private static final int FROM = 5;
+    private static final int TO = 6;
+    private static final int START = 7;
+    private static final int END = 8;
+    private static final int UNKNOWN_FIELD = -1;
+    private static final int NO_MORE_FIELDS = -2;
+    private static final SerializableString[] FIELD_NAMES = {new SerializedString("type"),
+        new SerializedString("done"), new SerializedString("description"), new SerializedString("by"),
+        new SerializedString("due"), new SerializedString("from"), new SerializedString("to"),
+        new SerializedString("start"), new SerializedString("end")};
+
+    private TaskJsonCodec() {
+    }
+
+    /**
+     * Writes the given task as a JSON object.
+     *
+     * @param task The task to be written.
+     * @param generator The generator to write the task with.
+     * @throws IOException If the task could not be written.
+     */
+    public static void write(Task task, JsonGenerator generator) throws IOException {
+        assert task != null : "Task should not be null.";
+        generator.writeStartObject();
+        if (task instanceof Deadline deadline) {
+            writeStringField(generator, TYPE, TaskType.DEADLINE.getName());
+            writeStatusAndDescription(task, generator);
+            writeStringField(generator, BY, deadline.getBy());
+            writeStringField(generator, DUE, deadline.getCanonicalBy());
+        } else if (task instanceof Event event) {
+            writeStringField(generator, TYPE, TaskType.EVENT.getName());
+            writeStatusAndDescription(task, generator);
+            writeStringField(generator, FROM, event.getStart());
+            writeStringField(generator, TO, event.getEnd());
+            writeStringField(generator, START, event.getCanonicalStart());
+            writeStringField(generator, END, event.getCanonicalEnd());
+        } else {
+            writeStringField(generator, TYPE, TaskType.TODO.getName());
+            writeStatusAndDescription(task, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStatusAndDescription(Task task, JsonGenerator generator) throws IOException {
+        generator.writeFieldName(FIELD_NAMES[DONE]);
+        generator.writeBoolean(task.isDone);
+        writeStringField(generator, DESCRIPTION, task.description);
+    }
+
+    private static void writeStringField(JsonGenerator generator, int field, String value) throws IOException {
+        generator.writeFieldName(FIELD_NAMES[field]);
+        generator.writeString(value);
+    }
+
+    /**
+     * Reads the task in the JSON object that starts at the current token of the given parser,
+     * leaving the parser at the end of the object.
+     *
+     * @param parser The parser, whose current token is the start of the object.
+     * @return The task that was read.
+     * @throws IOException If the object could not be read, e.g. because it is not valid JSON.
+     * @throws RoverException If the object is not a task, or is missing any of the fields of its type.
+     */
+    public static Task read(JsonParser parser) throws IOException, RoverException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        String type = null;
+        boolean isDone = false;
+        String description = null;
+        String by = null;
+        LocalDateTime due = null;
+        String from = null;
+        String to = null;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        int expectedField = TYPE;
+        int field;
+        while ((field = nextField(parser, expectedField)) != NO_MORE_FIELDS) {
+            switch (field) {
+            case TYPE -> type = readString(parser);
+            case DONE -> isDone = readBoolean(parser);
+            case DESCRIPTION -> description = readString(parser);
+            case BY -> by = readString(parser);
+            case DUE -> due = readDateTime(parser, LocalTime.MAX);
+            case FROM -> from = readString(parser);
+            case TO -> to = readString(parser);
+            case START -> start = readDateTime(parser, Event.DATE_ONLY_START_TIME);
+            case END -> end = readDateTime(parser, Event.DATE_ONLY_END_TIME);
+            default -> {
+                // A field added by a newer version
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            }
+            if (field != UNKNOWN_FIELD) {
+                expectedField = field + 1;
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT || type == null || description == null
+                || description.isEmpty()) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        TaskType taskType = TaskType.ofName(type);
+        if (taskType == null) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return switch (taskType) {
+        case TODO -> new Todo(description, isDone);
+        case DEADLINE -> new Deadline(description, require(by), require(due).toLocalDate(), due.toLocalTime(),
+                isDone);
+        case EVENT -> {
+            if (require(start).isAfter(require(end))) {
+                throw new RoverException("Possible corruption in saved tasks.");
+            }
+            yield new Event(description, require(from), require(to), start, end, isDone);
+        }
+        };
+    }
+
+    /**
+     * Advances the parser to the next field of the object, returning its index, {@link #UNKNOWN_FIELD} if it is not
+     * known, or {@link #NO_MORE_FIELDS} if the object has ended. The expected field is matched against the bytes of
+     * the name first, so that the name is only looked up if the fields are not in the order they are written.
+     */
+    private static int nextField(JsonParser parser, int expectedField) throws IOException {
+        if (expectedField < FIELD_NAMES.length) {
+            if (parser.nextFieldName(FIELD_NAMES[expectedField])) {
+                return expectedField;
+            }
+        } else {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != JsonToken.FIELD_NAME) {
+            return NO_MORE_FIELDS;
+        }
+        String fieldName = parser.currentName();
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].getValue().equals(fieldName)) {
+                return i;
+            }
+        }
+        return UNKNOWN_FIELD;
+    }
+
+    private static String readString(JsonParser parser) throws IOException, RoverException {
+        String value = parser.nextTextValue();
+        if (value == null) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return value;
+    }
+
+    private static LocalDateTime readDateTime(JsonParser parser, LocalTime dateOnlyTime)
+            throws IOException, RoverException {
+        if (parser.nextToken() != JsonToken.VALUE_STRING) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        try {
+            return IsoDateTimes.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(),
+                dateOnlyTime);
+        } catch (DateTimeParseException e) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+    }
+
+    private static boolean readBoolean(JsonParser parser) throws IOException, RoverException {
+        Boolean value = parser.nextBooleanValue();
+        if (value == null) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return value;
+    }
+
+    private static <T> T require(T field) throws RoverException {
+        if (field == null) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return field;
+    }
+}
@@ -2,31 +2,58 @@ package rover.task;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
 import rover.ui.Ui;
 
 /**
  * Represents a list of tasks that can be added to, marked, unmarked, deleted, and displayed.
+ * Each task is given an ID when it is loaded or added, which stays the same when earlier tasks are deleted.
+ * Very large lists are kept in a {@link CompactTaskStore} instead of as task objects,
+ * and lists loaded from {@link TaskRecords} keep each task as its saved record until it is first read.
+ * The indexes used to find duplicates, tasks by time and tasks by keyword are each built the first time they are
+ * needed, so a session that never needs an index never reads every task to build it.
+ * Lists kept in a {@link TaskTable} use the indexes of the table instead, so they never read every task.
  */
 public final class TaskList {
 
     private static final String NEW_LINE = System.lineSeparator();
     private static final String DELIMITER = " \\| ";
-    private final ArrayList<Task> tasks;
+    private static final String BY_DELIMITER = " /by ";
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+    private static final int COMPACT_STORE_THRESHOLD = 100_000;
+    private final TaskStore tasks;
+    /** The table the tasks are kept in, which answers the queries of the list, or null if they are kept in memory. */
+    private final TaskTable table;
+    private final List<TaskListListener> listeners = new ArrayList<>();
+    // Indexes of the tasks, which are null until they are first needed
+    private TaskHashIndex uniqueTasks;
+    private TaskTimeline timeline;
+    private TaskSearchIndex searchIndex;
     private int taskCount = 0;
 
     /**
      * Returns an empty task list.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new TaskSequence());
+    }
+
+    private TaskList(TaskStore tasks) {
+        this(tasks, null);
+    }
+
+    private TaskList(TaskStore tasks, TaskTable table) {
+        this.tasks = tasks;
+        this.table = table;
     }
 
     /**
      * Returns a task list with the tasks from the given array of task strings.
+     * Duplicates of earlier tasks are skipped.
      *
      * @param ui The user interface to display messages.
      * @param taskStrings The array of task strings to be converted to tasks.
@@ -34,34 +61,135 @@ public final class TaskList {
      * @throws DateTimeParseException If the date and time format is incorrect.
      */
     public TaskList(Ui ui, String ...taskStrings) throws RoverException, DateTimeParseException {
+        this();
         assert taskStrings != null : "Task strings should not be null.";
-        this.tasks = new ArrayList<>();
         for (String taskString : taskStrings) {
-            String[] parts = taskString.split(DELIMITER);
-            if (parts.length != 3) {
-                throw new RoverException("Possible corruption in saved tasks.");
+            addLoadedTask(parseTask(ui, taskString), ui);
+        }
+    }
+
+    /**
+     * Returns a task list containing the given tasks, e.g. tasks that have already been loaded from storage.
+     * Duplicates of earlier tasks are skipped.
+     * Lists of at least 100,000 tasks are kept in a compact task store, which only creates task objects
+     * when tasks are read.
+     *
+     * @param tasks The tasks in the task list, in order.
+     * @param ui The user interface to display messages, or null if messages should not be displayed.
+     * @return The task list containing the given tasks.
+     */
+    public static TaskList of(List<Task> tasks, Ui ui) {
+        assert tasks != null : "Tasks should not be null.";
+        boolean isCompact = tasks.size() >= COMPACT_STORE_THRESHOLD;
+        return of(tasks, ui, isCompact ? new CompactTaskStore() : new TaskSequence());
+    }
+
+    /**
+     * Returns a task list containing the given tasks, kept in the given task store.
+     *
+     * @param tasks The tasks in the task list, in order.
+     * @param ui The user interface to display messages, or null if messages should not be displayed.
+     * @param store The empty task store to keep the tasks in.
+     * @return The task list containing the given tasks.
+     */
+    static TaskList of(List<Task> tasks, Ui ui, TaskStore store) {
+        assert store.size() == 0 : "Task store should be empty.";
+        TaskList taskList = new TaskList(store);
+        for (Task task : tasks) {
+            taskList.addLoadedTask(task, ui);
+        }
+        return taskList;
+    }
+
+    /**
+     * Returns a task list that keeps the given saved records, parsing each task only when it is first read.
+     * As when loading tasks, duplicates of earlier tasks are skipped, which only parses the records that may be
+     * duplicates, see {@link TaskRecords}.
+     *
+     * @param records The records of the tasks in the task list, in order, which should not be changed afterwards.
+     * @param ui The user interface to display messages, or null if messages should not be displayed.
+     * @return The task list keeping the given records.
+     */
+    public static TaskList ofRecords(TaskRecords records, Ui ui) {
+        assert records != null : "Records should not be null.";
+        for (Task duplicate : records.removeDuplicates()) {
+            if (ui != null) {
+                ui.showMessage("Skipped a duplicate saved task: " + duplicate);
+            }
+        }
+        TaskList taskList = new TaskList(new LazyTaskStore(records));
+        taskList.taskCount = records.size();
+        return taskList;
+    }
+
+    /**
+     * Returns a task list that keeps its tasks in the given table, with only their row IDs in memory.
+     * Each change to the list is written to the table as a single row, and finding tasks by time, keyword, type,
+     * status or description is left to the queries of the table.
+     *
+     * @param table The table holding the tasks in the task list.
+     * @return The task list keeping its tasks in the given table.
+     */
+    public static TaskList ofTable(TaskTable table) {
+        assert table != null : "Table should not be null.";
+        TaskList taskList = new TaskList(new TableTaskStore(table), table);
+        taskList.taskCount = taskList.tasks.size();
+        return taskList;
+    }
+
+    private void addLoadedTask(Task task, Ui ui) {
+        if (contains(task)) {
+            if (ui != null) {
+                ui.showMessage("Skipped a duplicate saved task: " + task);
             }
-            Task newTask = getTask(ui, parts);
-            tasks.add(newTask);
-            taskCount++;
+            return;
         }
+        addToIndexes(tasks.add(task), task);
+        taskCount++;
+    }
+
+    /**
+     * Returns the task represented by the given task string, in the format saved by {@link Task#getTaskString()}.
+     *
+     * @param ui The user interface to display messages.
+     * @param taskString The task string to be converted to a task.
+     * @return The task represented by the task string.
+     * @throws RoverException If there is a possible corruption in the task string.
+     * @throws DateTimeParseException If the date and time format is incorrect.
+     */
+    public static Task parseTask(Ui ui, String taskString) throws RoverException, DateTimeParseException {
+        String[] parts = taskString.split(DELIMITER);
+        if (parts.length < 3) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return getTask(ui, parts);
     }
 
     /**
      * Returns a task based on the given parts of the task string.
+     * Deadlines and events saved by older versions do not have their dates and times in the canonical form,
+     * so the formats they were given in are guessed instead.
      *
      * @param parts The parts of the task string.
      * @return The task based on the parts.
      * @throws RoverException If there is a possible corruption in the saved tasks.
      */
-    private Task getTask(Ui ui, String ...parts) throws RoverException {
+    private static Task getTask(Ui ui, String ...parts) throws RoverException {
         assert parts != null : "Parts should not be null.";
         Task newTask;
-        switch (parts[0]) {
-        case "T" -> newTask = new Todo(parts[2]);
-        case "D" -> newTask = new Deadline(parts[2], ui);
-        case "E" -> newTask = new Event(parts[2], ui);
-        default -> throw new RoverException("Possible corruption in saved tasks.");
+        if (parts.length == 3) {
+            switch (parts[0]) {
+            case "T" -> newTask = new Todo(parts[2]);
+            case "D" -> newTask = new Deadline(parts[2], ui);
+            case "E" -> newTask = new Event(parts[2], ui);
+            default -> throw new RoverException("Possible corruption in saved tasks.");
+            }
+        } else if (parts.length == 4 && parts[0].equals("D")) {
+            newTask = getDeadline(ui, parts[2], parts[3]);
+        } else if (parts.length == 5 && parts[0].equals("E")) {
+            newTask = getEvent(ui, parts[2], parts[3], parts[4]);
+        } else {
+            throw new RoverException("Possible corruption in saved tasks.");
         }
         if (parts[1].equals("1")) {
             newTask.setDone();
@@ -71,14 +199,197 @@ public final class TaskList {
         return newTask;
     }
 
-    public ArrayList<Task> getTasks() {
-        return this.tasks;
+    private static Deadline getDeadline(Ui ui, String body, String canonicalBy) throws RoverException {
+        String[] parts = body.split(BY_DELIMITER);
+        if (parts.length != 2) {
+            throw new RoverException("A deadline task must be a task followed with '/by (deadline)'.");
+        }
+        return new Deadline(parts[0], parts[1], canonicalBy, ui);
+    }
+
+    private static Event getEvent(Ui ui, String body, String canonicalStart, String canonicalEnd)
+            throws RoverException {
+        String[] parts = body.split(FROM_DELIMITER);
+        String[] startAndEnd = parts.length == 2 ? parts[1].split(TO_DELIMITER) : new String[0];
+        if (startAndEnd.length != 2) {
+            throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+        }
+        return new Event(parts[0], startAndEnd[0], startAndEnd[1], canonicalStart, canonicalEnd, ui);
+    }
+
+    private boolean contains(Task task) {
+        if (table != null) {
+            return table.contains(task);
+        }
+        return getUniqueTasks().contains(task);
+    }
+
+    private TaskHashIndex getUniqueTasks() {
+        if (uniqueTasks == null) {
+            uniqueTasks = new TaskHashIndex(tasks);
+            for (int index = 0; index < tasks.size(); index++) {
+                int id = tasks.getId(index);
+                uniqueTasks.add(id, tasks.getKey(id));
+            }
+        }
+        return uniqueTasks;
+    }
+
+    private TaskTimeline getTimeline() {
+        if (timeline == null) {
+            timeline = new TaskTimeline();
+            for (int index = 0; index < tasks.size(); index++) {
+                int id = tasks.getId(index);
+                timeline.add(id, tasks.getById(id).getDueDateTime());
+            }
+        }
+        return timeline;
+    }
+
+    private TaskSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new TaskSearchIndex(tasks::getDescription);
+            for (int index = 0; index < tasks.size(); index++) {
+                int id = tasks.getId(index);
+                searchIndex.add(id, tasks.getDescription(id));
+            }
+        }
+        return searchIndex;
+    }
+
+    private void addToIndexes(int id, Task task) {
+        if (uniqueTasks != null) {
+            uniqueTasks.add(id, TaskRecords.hash(task));
+        }
+        if (timeline != null) {
+            timeline.add(id, task.getDueDateTime());
+        }
+        if (searchIndex != null) {
+            searchIndex.add(id, task.description);
+        }
+    }
+
+    private void removeFromIndexes(int id, Task task) {
+        if (uniqueTasks != null) {
+            uniqueTasks.remove(id, TaskRecords.hash(task));
+        }
+        if (timeline != null) {
+            timeline.remove(id, task.getDueDateTime());
+        }
+        if (searchIndex != null) {
+            searchIndex.remove(id);
+        }
+    }
+
+    private List<Task> getTasksById(int[] ids) {
+        List<Task> tasksById = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            tasksById.add(tasks.getById(id));
+        }
+        return tasksById;
+    }
+
+    public List<Task> getTasks() {
+        return tasks.toList();
+    }
+
+    /**
+     * Returns the tasks in the format they are saved in, see {@link Task#getTaskString()}, in order.
+     * Tasks that are still kept as their saved records are returned as they are, without being parsed.
+     *
+     * @return The task strings of the tasks.
+     */
+    public List<String> getTaskStrings() {
+        return getTaskStrings(0);
+    }
+
+    /**
+     * Returns the tasks from the given position onwards in the format they are saved in, in order.
+     *
+     * @param fromIndex The position of the first task to be returned, starting from 0.
+     * @return The task strings of the tasks from the given position onwards.
+     */
+    public List<String> getTaskStrings(int fromIndex) {
+        assert fromIndex >= 0 : "Index should be non-negative.";
+        if (table != null && fromIndex == 0) {
+            // One query reads every row, rather than one query for each task
+            return table.selectAll().stream().map(Task::getTaskString).toList();
+        }
+        List<String> taskStrings = new ArrayList<>(Math.max(0, taskCount - fromIndex));
+        for (int index = fromIndex; index < tasks.size(); index++) {
+            taskStrings.add(tasks.getTaskString(tasks.getId(index)));
+        }
+        return taskStrings;
+    }
+
+    /**
+     * Returns whether the task at the given position is done.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return True if the task is done, false otherwise.
+     */
+    public boolean isTaskDone(int index) {
+        assert index >= 0 && index < taskCount : "Index should be within the task list.";
+        return tasks.get(index).isDone();
     }
 
     public int getNumberOfTasks() {
         return this.taskCount;
     }
 
+    /**
+     * Returns the index of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The index of the task, or -1 if there is no task with the ID.
+     */
+    public int getIndexOfTaskId(int id) {
+        return tasks.indexOf(id);
+    }
+
+    /**
+     * Returns the position of the task that is equal to the given task, e.g. one with another status, which is found
+     * through the index of unique tasks rather than by comparing the task with every task in the list.
+     *
+     * @param task The task to look for.
+     * @return The position of the equal task, starting from 0, or -1 if there is none.
+     */
+    public int indexOf(Task task) {
+        assert task != null : "Task should not be null.";
+        if (table != null) {
+            for (int index = 0; index < taskCount; index++) {
+                if (tasks.get(index).equals(task)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        int id = getUniqueTasks().getId(task);
+        return id == 0 ? -1 : tasks.indexOf(id);
+    }
+
+    /**
+     * Returns the ID of the task at the given index.
+     *
+     * @param index The index of the task.
+     * @return The ID of the task.
+     */
+    public int getTaskId(int index) {
+        assert index >= 0 : "Index should be non-negative.";
+        assert index < taskCount : "Index should be less than the number of tasks.";
+        return tasks.getId(index);
+    }
+
+    /**
+     * Registers a listener to be notified whenever this task list is modified.
+     *
+     * @param listener The listener to be registered.
+     */
+    public void addListener(TaskListListener listener) {
+        assert listener != null : "Listener should not be null.";
+        listeners.add(listener);
+    }
+
     /**
      * Displays all the tasks that match the given predicate.
      *
@@ -86,21 +397,118 @@ public final class TaskList {
      * @param predicate The predicate to filter the tasks.
      * @param filterDescription The description of the filter.
      */
-    public void showTasks(Ui ui, BiFunction<Task, AtomicBoolean, Boolean> predicate, String filterDescription) {
+    public void showTasks(Ui ui, Predicate<Task> predicate, String filterDescription) {
         assert predicate != null : "Predicate should not be null.";
         assert filterDescription != null : "Filter description should not be null.";
         assert !filterDescription.isEmpty() : "Filter description should not be empty.";
-        AtomicBoolean wasExceptionThrown = new AtomicBoolean(false);
-        List<Task> filteredTasks = tasks.stream().filter(task -> predicate.apply(task, wasExceptionThrown)).toList();
-        if (wasExceptionThrown.get()) {
+        List<Task> filteredTasks = tasks.toList().stream().filter(predicate).toList();
+        String response = getStringOfFilteredTasks(filteredTasks, filterDescription);
+        ui.showMessage(response);
+    }
+
+    /**
+     * Displays all the tasks of the type and status given by the filter.
+     *
+     * @param ui The user interface to display the tasks.
+     * @param filter The filter on the type and status of the tasks.
+     * @param filterDescription The description of the filter.
+     */
+    public void showTasks(Ui ui, TaskFilter filter, String filterDescription) {
+        assert filter != null : "Filter should not be null.";
+        if (table == null) {
+            showTasks(ui, (Predicate<Task>) filter, filterDescription);
             return;
         }
+        List<Task> filteredTasks = filter.equals(TaskFilter.ALL) ? table.selectAll() : table.selectMatching(filter);
+        ui.showMessage(getStringOfFilteredTasks(filteredTasks, filterDescription));
+    }
 
-        String response = getStringOfFilteredTasks(filteredTasks, filterDescription);
-        ui.showMessage(response);
+    /**
+     * Displays all the tasks whose description contains the given keyword, found through the search index
+     * or a query of the table the tasks are kept in.
+     *
+     * @param ui The user interface to display the tasks.
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @param filterDescription The description of the filter.
+     */
+    public void showTasksContaining(Ui ui, String keyword, boolean isCaseInsensitive, String filterDescription) {
+        ui.showMessage(getStringOfFilteredTasks(getTasksContaining(keyword, isCaseInsensitive), filterDescription));
+    }
+
+    /**
+     * Returns all the tasks whose description contains the given keyword, found through the search index
+     * or a query of the table the tasks are kept in.
+     *
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @return The tasks containing the keyword, in order.
+     */
+    public List<Task> getTasksContaining(String keyword, boolean isCaseInsensitive) {
+        assert keyword != null : "Keyword should not be null.";
+        return table != null
+            ? table.selectContaining(keyword, isCaseInsensitive)
+            : getTasksById(getSearchIndex().search(keyword, isCaseInsensitive));
+    }
+
+    /**
+     * Displays all the tasks due before the given date and time, found through the timeline of tasks
+     * or a query of the table the tasks are kept in.
+     *
+     * @param ui The user interface to display the tasks.
+     * @param query The date and time to compare with.
+     * @param filterDescription The description of the filter.
+     */
+    public void showTasksBefore(Ui ui, DateTimeQuery query, String filterDescription) {
+        assert query != null : "Query should not be null.";
+        List<Task> filteredTasks = table != null
+            ? table.selectDueBefore(query.getStart())
+            : getTasksById(getTimeline().getTasksBefore(query.getStart()));
+        ui.showMessage(getStringOfFilteredTasks(filteredTasks, filterDescription));
+    }
+
+    /**
+     * Displays all the tasks due after the given date and time, found through the timeline of tasks
+     * or a query of the table the tasks are kept in.
+     *
+     * @param ui The user interface to display the tasks.
+     * @param query The date and time to compare with.
+     * @param filterDescription The description of the filter.
+     */
+    public void showTasksAfter(Ui ui, DateTimeQuery query, String filterDescription) {
+        assert query != null : "Query should not be null.";
+        List<Task> filteredTasks = table != null
+            ? table.selectDueAfter(query.getEnd())
+            : getTasksById(getTimeline().getTasksAfter(query.getEnd()));
+        ui.showMessage(getStringOfFilteredTasks(filteredTasks, filterDescription));
+    }
+
+    /**
+     * Displays all the tasks due between the given dates and times inclusive, found through the timeline of tasks
+     * or a query of the table the tasks are kept in.
+     *
+     * @param ui The user interface to display the tasks.
+     * @param from The earliest date and time to include.
+     * @param to The latest date and time to include.
+     * @param filterDescription The description of the filter.
+     */
+    public void showTasksBetween(Ui ui, DateTimeQuery from, DateTimeQuery to, String filterDescription) {
+        assert from != null : "Start of the range should not be null.";
+        assert to != null : "End of the range should not be null.";
+        List<Task> filteredTasks = table != null
+            ? table.selectDueBetween(from.getStart(), to.getEnd())
+            : getTasksById(getTimeline().getTasksBetween(from.getStart(), to.getEnd()));
+        ui.showMessage(getStringOfFilteredTasks(filteredTasks, filterDescription));
     }
 
-    private String getStringOfFilteredTasks(List<Task> filteredTasks, String filterDescription) {
+    /**
+     * Returns the message listing the given tasks, numbered from 1, or saying that there are none.
+     *
+     * @param filteredTasks The tasks to be listed.
+     * @param filterDescription The description of the filter the tasks matched, e.g. "in the list".
+     * @return The message listing the tasks.
+     */
+    public static String getStringOfFilteredTasks(List<Task> filteredTasks, String filterDescription) {
         if (filteredTasks.isEmpty()) {
             return "There are no tasks " + filterDescription + ".";
         }
@@ -124,11 +532,9 @@ public final class TaskList {
     public void addTask(Task newTask, Ui ui) throws RoverException {
         assert newTask != null : "Task should not be null.";
         assert ui != null : "Ui should not be null.";
-        if (tasks.contains(newTask)) {
+        if (!addTaskIfAbsent(newTask)) {
             throw new RoverException("This task already exists in the list.");
         }
-        tasks.add(newTask);
-        taskCount++;
         String response = String.format("Got it%s. I've added this task:", ui.getUsername()) + NEW_LINE
             + "  " + newTask + NEW_LINE
             + "Now you have " + taskCount + " task"
@@ -146,8 +552,7 @@ public final class TaskList {
         assert index >= 0 : "Index should be non-negative.";
         assert index < taskCount : "Index should be less than the number of tasks.";
         assert ui != null : "Ui should not be null.";
-        Task task = tasks.get(index);
-        task.setDone();
+        Task task = setTaskDone(index, true);
         String response = String.format("Nice%s! I've marked this task as done:", ui.getUsername()) + NEW_LINE + task;
         ui.showMessage(response);
     }
@@ -162,13 +567,88 @@ public final class TaskList {
         assert index >= 0 : "Index should be non-negative.";
         assert index < taskCount : "Index should be less than the number of tasks.";
         assert ui != null : "Ui should not be null.";
-        Task task = tasks.get(index);
-        task.setUndone();
+        Task task = setTaskDone(index, false);
         String response = String.format("Alright%s, I've marked this task as not done yet:", ui.getUsername())
             + NEW_LINE + task;
         ui.showMessage(response);
     }
 
+    /**
+     * Removes every task that matches the given predicate from the task list, without displaying them,
+     * e.g. once they have been archived. Listeners are notified of each removal as a deletion.
+     *
+     * @param predicate The predicate that the tasks to be removed match.
+     * @return The number of tasks removed.
+     */
+    public int removeTasks(Predicate<Task> predicate) {
+        assert predicate != null : "Predicate should not be null.";
+        int removedCount = 0;
+        // Later tasks are removed first, so the positions of the tasks that are still to be checked do not change
+        for (int index = taskCount - 1; index >= 0; index--) {
+            if (predicate.test(tasks.get(index))) {
+                removeTask(index);
+                removedCount++;
+            }
+        }
+        return removedCount;
+    }
+
+    /**
+     * Adds a task to the end of the task list without displaying it, e.g. a task added to the tasks file by another
+     * program. Listeners are notified of the addition.
+     *
+     * @param task The task to be added.
+     * @return True if the task was added, false if it already exists in the list.
+     */
+    public boolean addTaskIfAbsent(Task task) {
+        assert task != null : "Task should not be null.";
+        if (contains(task)) {
+            return false;
+        }
+        addToIndexes(tasks.add(task), task);
+        taskCount++;
+        listeners.forEach(listener -> listener.onTaskAdded(task));
+        return true;
+    }
+
+    /**
+     * Sets whether the task at the given position is done, without displaying it.
+     * Listeners are notified of the task being marked or unmarked.
+     *
+     * @param index The position of the task, starting from 0.
+     * @param isDone Whether the task is done.
+     * @return The task, with its new status.
+     */
+    public Task setTaskDone(int index, boolean isDone) {
+        assert index >= 0 : "Index should be non-negative.";
+        assert index < taskCount : "Index should be less than the number of tasks.";
+        Task task = tasks.setDone(index, isDone);
+        if (isDone) {
+            listeners.forEach(listener -> listener.onTaskMarked(index, task));
+        } else {
+            listeners.forEach(listener -> listener.onTaskUnmarked(index, task));
+        }
+        return task;
+    }
+
+    /**
+     * Removes the task at the given position without displaying it. Listeners are notified of the removal as a
+     * deletion.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The task that was removed.
+     */
+    public Task removeTask(int index) {
+        assert index >= 0 : "Index should be non-negative.";
+        assert index < taskCount : "Index should be less than the number of tasks.";
+        int id = tasks.getId(index);
+        Task task = tasks.remove(index);
+        removeFromIndexes(id, task);
+        taskCount--;
+        listeners.forEach(listener -> listener.onTaskDeleted(index, task));
+        return task;
+    }
+
     /**
      * Deletes a task from the task list.
      *
@@ -179,9 +659,7 @@ public final class TaskList {
         assert index >= 0 : "Index should be non-negative.";
         assert index < taskCount : "Index should be less than the number of tasks.";
         assert ui != null : "Ui should not be null.";
-        Task task = tasks.get(index);
-        tasks.remove(index);
-        taskCount--;
+        Task task = removeTask(index);
         String response = String.format("Noted%s. I've removed this task:", ui.getUsername()) + NEW_LINE + task
             + NEW_LINE + "Now you have " + taskCount + " task"
             + (taskCount > 1 ? "s" : "") + " in the list.";
@@ -0,0 +1,38 @@
+package rover.task;
+
+/**
+ * Represents a listener that is notified whenever a task list is modified.
+ */
+public interface TaskListListener {
+
+    /**
+     * Called after a task has been added to the end of the task list.
+     *
+     * @param task The task that was added.
+     */
+    void onTaskAdded(Task task);
+
+    /**
+     * Called after a task in the task list has been marked as done.
+     *
+     * @param index The index of the task that was marked.
+     * @param task The task that was marked.
+     */
+    void onTaskMarked(int index, Task task);
+
+    /**
+     * Called after a task in the task list has been marked as undone.
+     *
+     * @param index The index of the task that was unmarked.
+     * @param task The task that was unmarked.
+     */
+    void onTaskUnmarked(int index, Task task);
+
+    /**
+     * Called after a task has been deleted from the task list.
+     *
+     * @param index The index the task had before it was deleted.
+     * @param task The task that was deleted.
+     */
+    void onTaskDeleted(int index, Task task);
+}
@@ -0,0 +1,567 @@
+package rover.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.ui.Ui;
+
+/**
+ * Represents saved tasks that are kept as the records they were saved as, in the format saved by
+ * {@link Task#getTaskString()}, until they are used. Records saved by older versions, whose dates and times are
+ * not followed by their canonical form, are still read, by guessing the formats they were given in.
+ * A record is only parsed into a task when the task is first read, after which the task is kept instead,
+ * so that loading a large tasks file does not parse every description, date and time before the first command.
+ * The type and status of every record are checked when the records are read in; anything else that is corrupted
+ * in a record is only found when its task is first read, and is reported as a {@link CorruptedTaskException}.
+ * The records can be changed as a list of tasks, e.g. to replay the task journal on top of them, before they are
+ * kept by a task list through {@link TaskList#ofRecords(TaskRecords, Ui)}.
+ * Finding the tasks in the past and the duplicates of earlier tasks, as loading every task would, only parses the
+ * records that may be either, by comparing their dates and times in the canonical form with today and by hashing
+ * their bytes.
+ */
+public final class TaskRecords extends AbstractList<Task> implements RandomAccess {
+
+    static final int NOT_SAVED = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DESCRIPTION_OFFSET = 8;
+    private static final String FIELD_DELIMITER = " | ";
+    private static final String BY_DELIMITER = " /by ";
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+    private static final byte[] FIELD_DELIMITER_BYTES = FIELD_DELIMITER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BY_DELIMITER_BYTES = BY_DELIMITER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FROM_DELIMITER_BYTES = FROM_DELIMITER.getBytes(StandardCharsets.US_ASCII);
+    private static final int CANONICAL_DATE_LENGTH = 10;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /** Marks the start of each date and time in the canonical form that is hashed. */
+    private static final int FIELD_MARKER = '|';
+    private static final byte[] DATE_ONLY_START_TIME_BYTES = getTimeBytes(Event.DATE_ONLY_START_TIME);
+    private static final byte[] DATE_ONLY_END_TIME_BYTES = getTimeBytes(Event.DATE_ONLY_END_TIME);
+
+    private final byte[] data;
+    /** The start of the record of the task at each position, or NOT_SAVED if the task is kept instead. */
+    private int[] recordStarts;
+    private int[] recordEnds;
+    /** The task at each position, or null if it has not been parsed from its record yet. */
+    private Task[] tasks;
+    private int size;
+    private boolean hasLegacyRecords = false;
+
+    private TaskRecords(byte[] data) {
+        this.data = data;
+        this.recordStarts = new int[INITIAL_CAPACITY];
+        this.recordEnds = new int[INITIAL_CAPACITY];
+        this.tasks = new Task[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the time part of a date and time in the canonical form at the given time, e.g. "T00:00".
+     */
+    private static byte[] getTimeBytes(LocalTime time) {
+        String dateTime = IsoDateTimes.format(LocalDate.EPOCH.atTime(time));
+        return dateTime.substring(CANONICAL_DATE_LENGTH).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the records in the given contents of a tasks file, one per line, without parsing them.
+     * Blank lines are skipped.
+     *
+     * @param data The contents of the tasks file, encoded in UTF-8, which must not be changed afterwards.
+     * @return The records in the tasks file.
+     * @throws RoverException If the type or status of a record is corrupted.
+     */
+    public static TaskRecords of(byte[] data) throws RoverException {
+        assert data != null : "Data should not be null.";
+        TaskRecords records = new TaskRecords(data);
+        int recordStart = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                records.addRecord(recordStart, i);
+                recordStart = i + 1;
+            }
+        }
+        return records;
+    }
+
+    private void addRecord(int start, int end) throws RoverException {
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        if (isBlank(start, end)) {
+            return;
+        }
+        if (end <= start + DESCRIPTION_OFFSET || !isDelimiter(start + 1) || !isDelimiter(start + 5)
+                || TaskType.ofCode(data[start]) == null
+                || (data[start + 4] != '0' && data[start + 4] != '1')) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        if (data[start] != 'T' && !hasFields(start + DESCRIPTION_OFFSET, end)) {
+            hasLegacyRecords = true;
+        }
+        ensureCapacity(size + 1);
+        recordStarts[size] = start;
+        recordEnds[size] = end;
+        size++;
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = data[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\f' && b != 0x0B) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasFields(int start, int end) {
+        for (int i = start; i + 2 < end; i++) {
+            if (data[i + 1] == '|' && isDelimiter(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDelimiter(int index) {
+        return data[index] == ' ' && data[index + 1] == '|' && data[index + 2] == ' ';
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > tasks.length) {
+            int newCapacity = Math.max(capacity, tasks.length * 2);
+            recordStarts = Arrays.copyOf(recordStarts, newCapacity);
+            recordEnds = Arrays.copyOf(recordEnds, newCapacity);
+            tasks = Arrays.copyOf(tasks, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the task at the given position, parsing it from its record if it has not been read before.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The task at the given position.
+     * @throws CorruptedTaskException If the record of the task is corrupted.
+     */
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (tasks[index] == null) {
+            tasks[index] = parse(data, recordStarts[index], recordEnds[index]);
+            recordStarts[index] = NOT_SAVED;
+        }
+        return tasks[index];
+    }
+
+    /**
+     * Inserts a task at the given position.
+     *
+     * @param index The position to insert the task at, starting from 0.
+     * @param task The task to be inserted.
+     */
+    @Override
+    public void add(int index, Task task) {
+        assert task != null : "Task should not be null.";
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(recordStarts, index, recordStarts, index + 1, size - index);
+        System.arraycopy(recordEnds, index, recordEnds, index + 1, size - index);
+        System.arraycopy(tasks, index, tasks, index + 1, size - index);
+        recordStarts[index] = NOT_SAVED;
+        tasks[index] = task;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the task at the given position.
+     * The task is parsed from its record if it has not been read before, to be returned.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The removed task.
+     * @throws CorruptedTaskException If the record of the task is corrupted.
+     */
+    @Override
+    public Task remove(int index) {
+        Task task = get(index);
+        System.arraycopy(recordStarts, index + 1, recordStarts, index, size - index - 1);
+        System.arraycopy(recordEnds, index + 1, recordEnds, index, size - index - 1);
+        System.arraycopy(tasks, index + 1, tasks, index, size - index - 1);
+        size--;
+        tasks[size] = null;
+        modCount++;
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Shows the warnings about deadlines and events in the past that loading every task would show, in the order of
+     * the records. Only the records whose first date in the canonical form is not after today are parsed to be
+     * checked, and are kept as their tasks from then on. A corrupted record is left to be reported when it is read.
+     *
+     * @param ui The user interface to display the warnings.
+     */
+    public void showPastTaskWarnings(Ui ui) {
+        assert ui != null : "Ui should not be null.";
+        byte[] today = IsoDateTimes.format(LocalDate.now()).getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < size; i++) {
+            int start = recordStarts[i];
+            if (tasks[i] != null || data[start] == 'T' || !mayBeInPast(start, recordEnds[i], today)) {
+                continue;
+            }
+            try {
+                tasks[i] = parse(data, start, recordEnds[i], Task.warningsTo(ui));
+                recordStarts[i] = NOT_SAVED;
+            } catch (CorruptedTaskException e) {
+                // Reported when the task is read, as for any other corrupted record
+            }
+        }
+    }
+
+    /**
+     * Returns true if the first date in the canonical form in the record is not after the given date,
+     * or if it cannot be compared as it is not four-digit years, months and days as in the given date.
+     */
+    private boolean mayBeInPast(int start, int end, byte[] date) {
+        int fieldsIndex = indexOf(data, FIELD_DELIMITER_BYTES, start + DESCRIPTION_OFFSET, end);
+        int dateStart = fieldsIndex + FIELD_DELIMITER_BYTES.length;
+        if (fieldsIndex < 0 || dateStart + CANONICAL_DATE_LENGTH > end) {
+            return true;
+        }
+        int dateEnd = dateStart + CANONICAL_DATE_LENGTH;
+        if (dateEnd < end && data[dateEnd] != 'T' && data[dateEnd] != ' ') {
+            return true;
+        }
+        return Arrays.compare(data, dateStart, dateEnd, date, 0, date.length) <= 0;
+    }
+
+    /**
+     * Removes the tasks that are duplicates of earlier tasks, as a task list does with the tasks it is given,
+     * and returns them in order. Only the tasks whose type, description and dates and times in the canonical form
+     * hash the same as those of another task are parsed to be compared, so no record is parsed if none of them do.
+     * A corrupted record is kept, to be reported when it is read.
+     *
+     * @return The removed duplicates.
+     */
+    List<Task> removeDuplicates() {
+        long[] hashes = new long[size];
+        for (int i = 0; i < size; i++) {
+            try {
+                hashes[i] = tasks[i] == null ? hash(data, recordStarts[i], recordEnds[i]) : hash(tasks[i]);
+            } catch (CorruptedTaskException e) {
+                // A corrupted record is never a duplicate, and is reported when its task is first read
+                hashes[i] = i;
+            }
+        }
+        long[] sortedHashes = Arrays.copyOf(hashes, size);
+        Arrays.sort(sortedHashes);
+        Set<Long> sharedHashes = new HashSet<>();
+        for (int i = 1; i < size; i++) {
+            if (sortedHashes[i] == sortedHashes[i - 1]) {
+                sharedHashes.add(sortedHashes[i]);
+            }
+        }
+        List<Task> duplicates = new ArrayList<>();
+        if (sharedHashes.isEmpty()) {
+            return duplicates;
+        }
+        Map<Long, List<Task>> tasksByHash = new HashMap<>();
+        boolean[] isDuplicate = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            if (!sharedHashes.contains(hashes[i])) {
+                continue;
+            }
+            Task task;
+            try {
+                task = get(i);
+            } catch (CorruptedTaskException e) {
+                continue;
+            }
+            List<Task> tasksWithHash = tasksByHash.computeIfAbsent(hashes[i], hash -> new ArrayList<>());
+            if (tasksWithHash.contains(task)) {
+                isDuplicate[i] = true;
+                duplicates.add(task);
+            } else {
+                tasksWithHash.add(task);
+            }
+        }
+        int keptCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isDuplicate[i]) {
+                recordStarts[keptCount] = recordStarts[i];
+                recordEnds[keptCount] = recordEnds[i];
+                tasks[keptCount] = tasks[i];
+                keptCount++;
+            }
+        }
+        Arrays.fill(tasks, keptCount, size, null);
+        size = keptCount;
+        modCount++;
+        return duplicates;
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the type, description and dates and times in the canonical form of the
+     * record, which are the same for records of equal tasks, and the same as {@link #hash(Task)} of the task saved in
+     * the record. The status and the dates and times as they were given are left out, as tasks are equal regardless
+     * of them. Records saved by older versions, without the canonical form, are parsed to be hashed.
+     *
+     * @param data The data holding the record.
+     * @param start The offset of the first byte of the record.
+     * @param end The offset just past the last byte of the record.
+     * @return The hash of the record.
+     * @throws CorruptedTaskException If the record has to be parsed and is corrupted.
+     */
+    static long hash(byte[] data, int start, int end) {
+        int descriptionStart = start + DESCRIPTION_OFFSET;
+        int fieldsIndex = indexOf(data, FIELD_DELIMITER_BYTES, descriptionStart, end);
+        if (fieldsIndex < 0 && data[start] != TaskType.TODO.getCode()) {
+            return hash(parse(data, start, end));
+        }
+        int bodyEnd = fieldsIndex < 0 ? end : fieldsIndex;
+        int descriptionEnd = switch (data[start]) {
+        case 'D' -> indexOf(data, BY_DELIMITER_BYTES, descriptionStart, bodyEnd);
+        case 'E' -> indexOf(data, FROM_DELIMITER_BYTES, descriptionStart, bodyEnd);
+        default -> bodyEnd;
+        };
+        boolean isEvent = data[start] == TaskType.EVENT.getCode();
+        long hash = (FNV_OFFSET_BASIS ^ (data[start] & 0xff)) * FNV_PRIME;
+        for (int i = descriptionStart; i < (descriptionEnd < 0 ? bodyEnd : descriptionEnd); i++) {
+            hash = (hash ^ (data[i] & 0xff)) * FNV_PRIME;
+        }
+        // Anything after the body of a todo is not part of its task once parsed, so it is not hashed either
+        int fieldsEnd = data[start] == TaskType.TODO.getCode() ? bodyEnd : end;
+        int fieldNumber = 0;
+        for (int fieldStart = bodyEnd + FIELD_DELIMITER.length(); fieldStart <= fieldsEnd; fieldNumber++) {
+            int fieldEnd = indexOf(data, FIELD_DELIMITER_BYTES, fieldStart, end);
+            fieldEnd = fieldEnd < 0 ? end : fieldEnd;
+            hash = (hash ^ FIELD_MARKER) * FNV_PRIME;
+            for (int i = fieldStart; i < fieldEnd; i++) {
+                hash = (hash ^ (data[i] & 0xff)) * FNV_PRIME;
+            }
+            if (isEvent && fieldEnd - fieldStart == CANONICAL_DATE_LENGTH) {
+                hash = hashDateOnlyTime(hash, fieldNumber);
+            }
+            fieldStart = fieldEnd + FIELD_DELIMITER.length();
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the type, description and dates and times in the canonical form of the given
+     * task, which is the same as {@link #hash(byte[], int, int)} of its record, so that tasks that are kept as
+     * records and tasks that are not can be told apart without parsing the records.
+     *
+     * @param task The task to be hashed.
+     * @return The hash of the task.
+     */
+    static long hash(Task task) {
+        long hash = (FNV_OFFSET_BASIS ^ TaskType.of(task).getCode()) * FNV_PRIME;
+        for (byte b : task.description.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        if (task instanceof Deadline deadline) {
+            hash = hashField(hash, deadline.getCanonicalBy(), false, 0);
+        } else if (task instanceof Event event) {
+            hash = hashField(hash, event.getCanonicalStart(), true, 0);
+            hash = hashField(hash, event.getCanonicalEnd(), true, 1);
+        }
+        return hash;
+    }
+
+    private static long hashField(long hash, String field, boolean isEvent, int fieldNumber) {
+        hash = (hash ^ FIELD_MARKER) * FNV_PRIME;
+        // Dates and times in the canonical form are ASCII
+        for (int i = 0; i < field.length(); i++) {
+            hash = (hash ^ field.charAt(i)) * FNV_PRIME;
+        }
+        return isEvent && field.length() == CANONICAL_DATE_LENGTH ? hashDateOnlyTime(hash, fieldNumber) : hash;
+    }
+
+    /**
+     * Hashes the time that an event given as a date only starts or ends at, so that it hashes the same as an event
+     * given that date and time, as the two are equal.
+     */
+    private static long hashDateOnlyTime(long hash, int fieldNumber) {
+        byte[] time = fieldNumber == 0 ? DATE_ONLY_START_TIME_BYTES : DATE_ONLY_END_TIME_BYTES;
+        for (byte b : time) {
+            hash = (hash ^ b) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int start, int end) {
+        for (int i = start; i <= end - pattern.length; i++) {
+            if (data[i] == pattern[0] && Arrays.equals(data, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if any deadline or event was saved by an older version without its dates and times in the
+     * canonical form, so that its record has to be parsed and saved again to be migrated.
+     */
+    public boolean hasLegacyRecords() {
+        return hasLegacyRecords;
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int[] getRecordStarts() {
+        return recordStarts;
+    }
+
+    int[] getRecordEnds() {
+        return recordEnds;
+    }
+
+    Task[] getParsedTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the task saved in the record between the given offsets of the data.
+     *
+     * @param data The data holding the record.
+     * @param start The offset of the first byte of the record.
+     * @param end The offset just past the last byte of the record.
+     * @return The task saved in the record.
+     * @throws CorruptedTaskException If the record is corrupted.
+     */
+    static Task parse(byte[] data, int start, int end) {
+        return parse(data, start, end, null);
+    }
+
+    /**
+     * Returns the task saved in the record between the given offsets of the data, passing the warning shown if it
+     * is in the past to the given consumer, as when a task is loaded, unless the consumer is null.
+     */
+    private static Task parse(byte[] data, int start, int end, Consumer<String> warnings) {
+        String record = new String(data, start, end - start, StandardCharsets.UTF_8);
+        boolean isDone = record.charAt(4) == '1';
+        String body = record.substring(DESCRIPTION_OFFSET);
+        // The dates and times in the canonical form follow the body, unless the record was saved by an older version
+        int fieldsIndex = body.indexOf(FIELD_DELIMITER);
+        String fields = fieldsIndex < 0 ? null : body.substring(fieldsIndex + FIELD_DELIMITER.length());
+        try {
+            if (fieldsIndex >= 0) {
+                body = body.substring(0, fieldsIndex);
+            }
+            return switch (record.charAt(0)) {
+            case 'T' -> parseTodo(body, fields, isDone);
+            case 'D' -> parseDeadline(body, fields, isDone, warnings);
+            default -> parseEvent(body, fields, isDone, warnings);
+            };
+        } catch (RoverException | DateTimeParseException e) {
+            throw new CorruptedTaskException("Possible corruption in saved task: " + record, e);
+        }
+    }
+
+    private static Todo parseTodo(String body, String fields, boolean isDone) throws RoverException {
+        if (fields != null) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        return new Todo(body, isDone);
+    }
+
+    private static Deadline parseDeadline(String body, String fields, boolean isDone, Consumer<String> warnings)
+            throws RoverException {
+        int byIndex = body.indexOf(BY_DELIMITER);
+        int byStart = byIndex + BY_DELIMITER.length();
+        if (byIndex <= 0 || byStart == body.length() || body.indexOf(BY_DELIMITER, byStart) >= 0) {
+            throw new RoverException("A deadline task must be a task followed with '/by (deadline)'.");
+        }
+        String description = body.substring(0, byIndex);
+        String by = body.substring(byStart);
+        if (fields != null && fields.contains(FIELD_DELIMITER)) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        if (warnings != null) {
+            return withStatus(fields == null ? new Deadline(description, by, warnings)
+                : new Deadline(description, by, fields, warnings), isDone);
+        }
+        return fields == null ? new Deadline(description, by, isDone) : new Deadline(description, by, fields, isDone);
+    }
+
+    private static Event parseEvent(String body, String fields, boolean isDone, Consumer<String> warnings)
+            throws RoverException {
+        int fromIndex = body.indexOf(FROM_DELIMITER);
+        int fromStart = fromIndex + FROM_DELIMITER.length();
+        int toIndex = fromIndex < 0 ? -1 : body.indexOf(TO_DELIMITER, fromStart);
+        int toStart = toIndex + TO_DELIMITER.length();
+        if (fromIndex <= 0 || toIndex <= fromStart || toStart == body.length()
+                || body.indexOf(FROM_DELIMITER, fromStart) >= 0 || body.indexOf(TO_DELIMITER, toStart) >= 0) {
+            throw new RoverException("An event task must be a task followed with '/from (start) /to (end)'.");
+        }
+        String description = body.substring(0, fromIndex);
+        String start = body.substring(fromStart, toIndex);
+        String end = body.substring(toStart);
+        if (fields == null) {
+            return warnings == null ? new Event(description, start, end, isDone)
+                : withStatus(new Event(description, start, end, warnings), isDone);
+        }
+        int endIndex = fields.indexOf(FIELD_DELIMITER);
+        int endStart = endIndex + FIELD_DELIMITER.length();
+        if (endIndex < 0 || fields.indexOf(FIELD_DELIMITER, endStart) >= 0) {
+            throw new RoverException("Possible corruption in saved tasks.");
+        }
+        String canonicalStart = fields.substring(0, endIndex);
+        String canonicalEnd = fields.substring(endStart);
+        return warnings == null ? new Event(description, start, end, canonicalStart, canonicalEnd, isDone)
+            : withStatus(new Event(description, start, end, canonicalStart, canonicalEnd, warnings), isDone);
+    }
+
+    private static <T extends Task> T withStatus(T task, boolean isDone) {
+        if (isDone) {
+            task.setDone();
+        }
+        return task;
+    }
+
+    /**
+     * Returns the description of the task saved in the record between the given offsets of the data,
+     * without parsing its dates and times.
+     *
+     * @param data The data holding the record.
+     * @param start The offset of the first byte of the record.
+     * @param end The offset just past the last byte of the record.
+     * @return The description of the task saved in the record.
+     */
+    static String getDescription(byte[] data, int start, int end) {
+        String body = new String(data, start + DESCRIPTION_OFFSET, end - start - DESCRIPTION_OFFSET,
+            StandardCharsets.UTF_8);
+        int descriptionEnd = switch (data[start]) {
+        case 'D' -> body.indexOf(BY_DELIMITER);
+        case 'E' -> body.indexOf(FROM_DELIMITER);
+        default -> body.length();
+        };
+        return descriptionEnd < 0 ? body : body.substring(0, descriptionEnd);
+    }
+}
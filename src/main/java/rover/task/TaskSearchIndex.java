@@ -0,0 +1,209 @@
+package rover.task;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Indexes the descriptions of the tasks in a task list by their trigrams (every run of three characters),
+ * so that the tasks whose description contains a keyword are found from the posting lists of the keyword's trigrams
+ * instead of by checking every task in the list.
+ * Trigrams are taken from the description with each character in lower case, so the same index answers
+ * case-sensitive and case-insensitive searches: the posting lists give the candidates,
+ * which are then checked against the keyword itself.
+ * Tasks are referred to by their IDs, which are given out in increasing order, so posting lists stay sorted
+ * and also order the results by their position in the list.
+ */
+final class TaskSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final IntFunction<String> descriptions;
+    private final BitSet indexedIds = new BitSet();
+    private final Map<Long, Postings> postingsByGram = new HashMap<>();
+    private int indexedCount = 0;
+    private int removedCount = 0;
+
+    /**
+     * Represents the IDs of the tasks that contain a trigram, in ascending order.
+     * IDs are only ever appended in ascending order, so the list stays sorted without sorting it.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return; // The trigram occurs more than once in the same description
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void retainAll(BitSet idsToRetain) {
+            int retained = 0;
+            for (int i = 0; i < size; i++) {
+                if (idsToRetain.get(ids[i])) {
+                    ids[retained++] = ids[i];
+                }
+            }
+            size = retained;
+        }
+    }
+
+    /**
+     * Returns an empty index, which reads the descriptions of the tasks it finds with the given function.
+     *
+     * @param descriptions The function that returns the description of the task with a given ID.
+     */
+    TaskSearchIndex(IntFunction<String> descriptions) {
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param id The ID of the task that was appended to the list.
+     * @param description The description of the task.
+     */
+    void add(int id, String description) {
+        String lowerCaseDescription = toLowerCase(description);
+        indexedIds.set(id);
+        indexedCount++;
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseDescription.length(); i++) {
+            postingsByGram.computeIfAbsent(getGram(lowerCaseDescription, i), gram -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     * The task's postings are left in place and skipped by searches until more than half of the postings belong to
+     * removed tasks, at which point they are removed from every posting list.
+     *
+     * @param id The ID of the task that was removed from the list.
+     */
+    void remove(int id) {
+        if (!indexedIds.get(id)) {
+            return;
+        }
+        indexedIds.clear(id);
+        indexedCount--;
+        removedCount++;
+        if (removedCount > indexedCount) {
+            Iterator<Postings> iterator = postingsByGram.values().iterator();
+            while (iterator.hasNext()) {
+                Postings postings = iterator.next();
+                postings.retainAll(indexedIds);
+                if (postings.size == 0) {
+                    iterator.remove();
+                }
+            }
+            removedCount = 0;
+        }
+    }
+
+    /**
+     * Returns the IDs of the tasks whose description contains the given keyword, in the order they appear in the list.
+     *
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @return The IDs of the tasks whose description contains the keyword.
+     */
+    int[] search(String keyword, boolean isCaseInsensitive) {
+        assert keyword != null : "Keyword should not be null.";
+        String lowerCaseKeyword = toLowerCase(keyword);
+        Matches matches = new Matches();
+        if (lowerCaseKeyword.length() < GRAM_LENGTH) {
+            for (int id = indexedIds.nextSetBit(0); id >= 0; id = indexedIds.nextSetBit(id + 1)) {
+                matches.addIfMatching(id, keyword, lowerCaseKeyword, isCaseInsensitive);
+            }
+            return matches.toArray();
+        }
+
+        int[][] postingLists = new int[lowerCaseKeyword.length() - GRAM_LENGTH + 1][];
+        int[] sizes = new int[postingLists.length];
+        for (int i = 0; i < postingLists.length; i++) {
+            Postings postings = postingsByGram.get(getGram(lowerCaseKeyword, i));
+            if (postings == null) {
+                return matches.toArray();
+            }
+            postingLists[i] = postings.ids;
+            sizes[i] = postings.size;
+        }
+        int shortest = 0;
+        for (int i = 1; i < postingLists.length; i++) {
+            if (sizes[i] < sizes[shortest]) {
+                shortest = i;
+            }
+        }
+        // Walk the shortest posting list and check the rest with a cursor each, as all of them are sorted
+        int[] cursors = new int[postingLists.length];
+        for (int i = 0; i < sizes[shortest]; i++) {
+            int id = postingLists[shortest][i];
+            if (indexedIds.get(id) && isInAllPostings(id, postingLists, sizes, cursors)) {
+                matches.addIfMatching(id, keyword, lowerCaseKeyword, isCaseInsensitive);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private static boolean isInAllPostings(int id, int[][] postingLists, int[] sizes, int[] cursors) {
+        for (int i = 0; i < postingLists.length; i++) {
+            while (cursors[i] < sizes[i] && postingLists[i][cursors[i]] < id) {
+                cursors[i]++;
+            }
+            if (cursors[i] == sizes[i] || postingLists[i][cursors[i]] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents the IDs of the tasks found by a search, which are checked against the keyword as they are added.
+     */
+    private final class Matches {
+        private int[] ids = new int[8];
+        private int size = 0;
+
+        void addIfMatching(int id, String keyword, String lowerCaseKeyword, boolean isCaseInsensitive) {
+            String description = descriptions.apply(id);
+            boolean isMatching = isCaseInsensitive
+                ? toLowerCase(description).contains(lowerCaseKeyword)
+                : description.contains(keyword);
+            if (!isMatching) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    /**
+     * Converts each character of the given text to lower case on its own.
+     * Unlike {@link String#toLowerCase()}, this never changes the length of the text or depends on the characters
+     * around it, so a description that contains a keyword always contains the keyword in lower case as well.
+     */
+    private static String toLowerCase(String text) {
+        char[] characters = text.toCharArray();
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = Character.toLowerCase(characters[i]);
+        }
+        return new String(characters);
+    }
+
+    private static long getGram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,137 @@
+package rover.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the tasks of a task list as task objects, in an array of slots in the order they were added, along with
+ * their IDs. Deleting a task only leaves a tombstone in its slot, and the slots are compacted once there are more
+ * tombstones than a quarter of the tasks, so reading every task takes O(n) time however many tasks were deleted,
+ * while each deletion still takes O(log n) amortized time. IDs are kept when the slots are compacted, and a task is
+ * found by its ID with a binary search, as the IDs of the slots are in increasing order.
+ * The positions of the slots are kept by {@link IdPositions}, so finding a task by its position, finding the position
+ * of an ID and deleting a task all take O(log n) time instead of shifting every later task along.
+ */
+final class TaskSequence implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    /** The fewest tombstones that are compacted, so that small sequences are not compacted again and again. */
+    private static final int MIN_TOMBSTONES_COMPACTED = 16;
+
+    /** The tasks by slot, with null for deleted tasks. */
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    /** The IDs of the tasks by slot, in increasing order. */
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int slotCount = 0;
+    private int tombstoneCount = 0;
+    /** The positions of the slots in use, where slot i is kept as i + 1. */
+    private IdPositions positions = new IdPositions();
+    private int nextId = 1;
+
+    @Override
+    public int add(Task task) {
+        assert task != null : "Task should not be null.";
+        if (slotCount == tasks.length) {
+            tasks = Arrays.copyOf(tasks, tasks.length * 2);
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        int id = nextId++;
+        tasks[slotCount] = task;
+        ids[slotCount] = id;
+        slotCount++;
+        positions.add(slotCount);
+        return id;
+    }
+
+    private int getSlot(int id) {
+        int slot = Arrays.binarySearch(ids, 0, slotCount, id);
+        return slot < 0 || tasks[slot] == null ? -1 : slot;
+    }
+
+    @Override
+    public Task getById(int id) {
+        int slot = getSlot(id);
+        return slot < 0 ? null : tasks[slot];
+    }
+
+    @Override
+    public String getDescription(int id) {
+        return getById(id).description;
+    }
+
+    @Override
+    public int getId(int index) {
+        return ids[positions.getId(index) - 1];
+    }
+
+    @Override
+    public int indexOf(int id) {
+        int slot = getSlot(id);
+        return slot < 0 ? -1 : positions.indexOf(slot + 1);
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks[positions.getId(index) - 1];
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        Task task = get(index);
+        if (isDone) {
+            task.setDone();
+        } else {
+            task.setUndone();
+        }
+        return task;
+    }
+
+    @Override
+    public Task remove(int index) {
+        int slot = positions.getId(index) - 1;
+        Task task = tasks[slot];
+        tasks[slot] = null;
+        positions.remove(slot + 1);
+        tombstoneCount++;
+        if (tombstoneCount > Math.max(MIN_TOMBSTONES_COMPACTED, size() / 4)) {
+            compact();
+        }
+        return task;
+    }
+
+    /**
+     * Moves the tasks that have not been deleted to the first slots, in order, and rebuilds their positions in
+     * O(n) time. Positions do not change, so this can be done between any two operations.
+     */
+    private void compact() {
+        int size = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (tasks[slot] != null) {
+                tasks[size] = tasks[slot];
+                ids[size] = ids[slot];
+                size++;
+            }
+        }
+        Arrays.fill(tasks, size, slotCount, null);
+        slotCount = size;
+        tombstoneCount = 0;
+        positions = new IdPositions(size);
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public List<Task> toList() {
+        List<Task> taskList = new ArrayList<>(size());
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (tasks[slot] != null) {
+                taskList.add(tasks[slot]);
+            }
+        }
+        return taskList;
+    }
+}
@@ -0,0 +1,109 @@
+package rover.task;
+
+import java.util.List;
+
+/**
+ * Represents the way the tasks of a task list are stored, in order and by their IDs.
+ * Each task is given an ID when it is appended, which stays the same when earlier tasks are removed.
+ * IDs are given out in increasing order, so the order of the IDs is also the order of the list.
+ */
+interface TaskStore {
+
+    /**
+     * Appends a task and gives it the next ID.
+     *
+     * @param task The task to be appended.
+     * @return The ID of the task.
+     */
+    int add(Task task);
+
+    /**
+     * Returns the task with the given ID, which may be a view that is created for the call.
+     * Changes to a view are not stored, so tasks should only be changed through the store.
+     *
+     * @param id The ID of the task, which must be in use.
+     * @return The task with the given ID.
+     */
+    Task getById(int id);
+
+    /**
+     * Returns the description of the task with the given ID, without creating a view of the task.
+     *
+     * @param id The ID of the task, which must be in use.
+     * @return The description of the task.
+     */
+    String getDescription(int id);
+
+    /**
+     * Returns the key of the task with the given ID in the index of unique tasks, which is the same for equal tasks,
+     * see {@link TaskRecords#hash(Task)}.
+     *
+     * @param id The ID of the task, which must be in use.
+     * @return The key of the task.
+     */
+    default long getKey(int id) {
+        return TaskRecords.hash(getById(id));
+    }
+
+    /**
+     * Returns the task with the given ID in the format it is saved in, see {@link Task#getTaskString()}.
+     *
+     * @param id The ID of the task, which must be in use.
+     * @return The task string of the task.
+     */
+    default String getTaskString(int id) {
+        return getById(id).getTaskString();
+    }
+
+    /**
+     * Returns the ID of the task at the given position.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The ID of the task.
+     */
+    int getId(int index);
+
+    /**
+     * Returns the position of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The position of the task starting from 0, or -1 if there is no task with the ID.
+     */
+    int indexOf(int id);
+
+    /**
+     * Marks the task at the given position as done or undone.
+     *
+     * @param index The position of the task, starting from 0.
+     * @param isDone Whether the task is done.
+     * @return The task after the change.
+     */
+    Task setDone(int index, boolean isDone);
+
+    /**
+     * Removes the task at the given position. The IDs of the other tasks do not change.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The removed task.
+     */
+    Task remove(int index);
+
+    int size();
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param index The position of the task, starting from 0.
+     * @return The task at the given position.
+     */
+    default Task get(int index) {
+        return getById(getId(index));
+    }
+
+    /**
+     * Returns the tasks in order.
+     *
+     * @return A new list of the tasks in order.
+     */
+    List<Task> toList();
+}
@@ -0,0 +1,128 @@
+package rover.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents a table of tasks kept outside the memory of the session, e.g. in a database, where each task is a row
+ * with a row ID. Row IDs are chosen by the caller in increasing order, so the order of the row IDs is also the order
+ * of the list, and every query returns its tasks in that order.
+ * A task list kept in a table only keeps the row IDs in memory, and reads tasks from the table as they are needed.
+ * Failures to read or write the table are thrown as {@link rover.exceptions.StorageException}.
+ */
+public interface TaskTable {
+
+    /**
+     * Returns the row IDs of the tasks in the table, in ascending order.
+     *
+     * @return The row IDs of the tasks.
+     */
+    int[] selectRowIds();
+
+    /**
+     * Inserts a task as a new row.
+     *
+     * @param rowId The row ID of the task, which must be greater than every row ID in the table.
+     * @param task The task to be inserted.
+     */
+    void insert(int rowId, Task task);
+
+    /**
+     * Returns the task in the row with the given row ID.
+     *
+     * @param rowId The row ID of the task, which must be in the table.
+     * @return The task in the row.
+     */
+    Task select(int rowId);
+
+    /**
+     * Returns the description of the task in the row with the given row ID.
+     *
+     * @param rowId The row ID of the task, which must be in the table.
+     * @return The description of the task.
+     */
+    String selectDescription(int rowId);
+
+    /**
+     * Updates whether the task in the row with the given row ID is done.
+     *
+     * @param rowId The row ID of the task, which must be in the table.
+     * @param isDone Whether the task is done.
+     */
+    void updateDone(int rowId, boolean isDone);
+
+    /**
+     * Deletes the row with the given row ID.
+     *
+     * @param rowId The row ID of the task, which must be in the table.
+     */
+    void delete(int rowId);
+
+    /**
+     * Returns every task in the table.
+     *
+     * @return The tasks in the table, in order.
+     */
+    List<Task> selectAll();
+
+    /**
+     * Returns the tasks that match the given filter.
+     *
+     * @param filter The filter on the type and status of the tasks.
+     * @return The matching tasks, in order.
+     */
+    List<Task> selectMatching(TaskFilter filter);
+
+    /**
+     * Returns the tasks due strictly before the given date and time.
+     *
+     * @param dateTime The date and time to compare with.
+     * @return The tasks due before the given date and time, in order.
+     */
+    List<Task> selectDueBefore(LocalDateTime dateTime);
+
+    /**
+     * Returns the tasks due strictly after the given date and time.
+     *
+     * @param dateTime The date and time to compare with.
+     * @return The tasks due after the given date and time, in order.
+     */
+    List<Task> selectDueAfter(LocalDateTime dateTime);
+
+    /**
+     * Returns the tasks due between the given dates and times inclusive.
+     *
+     * @param from The earliest date and time to include.
+     * @param to The latest date and time to include.
+     * @return The tasks due between the given dates and times, in order.
+     */
+    List<Task> selectDueBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the tasks whose description contains the given keyword.
+     *
+     * @param keyword The keyword to search for.
+     * @param isCaseInsensitive Whether the case of the keyword and the descriptions should be ignored.
+     * @return The tasks containing the keyword, in order.
+     */
+    List<Task> selectContaining(String keyword, boolean isCaseInsensitive);
+
+    /**
+     * Returns the tasks with the given description.
+     *
+     * @param description The description of the tasks.
+     * @return The tasks with the description, in order.
+     */
+    List<Task> selectByDescription(String description);
+
+    /**
+     * Returns whether the table has a task equal to the given task, see {@link Task#equals(Object)}.
+     * By default, the tasks with the same description are compared with it.
+     *
+     * @param task The task to look for.
+     * @return True if the table has an equal task, false otherwise.
+     */
+    default boolean contains(Task task) {
+        return selectByDescription(task.getDescription()).contains(task);
+    }
+}
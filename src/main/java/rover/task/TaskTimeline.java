@@ -0,0 +1,99 @@
+package rover.task;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Indexes the tasks in a task list that have a date and time by when they are due,
+ * so that the tasks due before, after or between given dates and times are found without scanning the whole list.
+ * Deadline tasks are indexed by their due date and time, and event tasks by their start date and time.
+ * Tasks are referred to by their IDs, which order tasks that are due at the same time and also order the results
+ * by their position in the list.
+ */
+final class TaskTimeline {
+
+    private final NavigableSet<Entry> entries = new TreeSet<>();
+
+    /**
+     * Represents the position of a task in the timeline.
+     */
+    private record Entry(LocalDateTime dueDateTime, int id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int comparison = dueDateTime.compareTo(other.dueDateTime);
+            return comparison != 0 ? comparison : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Adds a task to the timeline if it has a date and time.
+     *
+     * @param id The ID of the task that was appended to the list.
+     * @param dueDateTime The date and time the task is due, or null if it does not have one.
+     */
+    void add(int id, LocalDateTime dueDateTime) {
+        if (dueDateTime != null) {
+            entries.add(new Entry(dueDateTime, id));
+        }
+    }
+
+    /**
+     * Removes a task from the timeline, if it is in the timeline.
+     *
+     * @param id The ID of the task that was removed from the list.
+     * @param dueDateTime The date and time the task is due, or null if it does not have one.
+     */
+    void remove(int id, LocalDateTime dueDateTime) {
+        if (dueDateTime != null) {
+            entries.remove(new Entry(dueDateTime, id));
+        }
+    }
+
+    /**
+     * Returns the IDs of the tasks due strictly before the given date and time, in the order they appear in the list.
+     *
+     * @param dateTime The date and time to compare with.
+     * @return The IDs of the tasks due before the given date and time.
+     */
+    int[] getTasksBefore(LocalDateTime dateTime) {
+        return inListOrder(entries.headSet(new Entry(dateTime, Integer.MIN_VALUE), false));
+    }
+
+    /**
+     * Returns the IDs of the tasks due strictly after the given date and time, in the order they appear in the list.
+     *
+     * @param dateTime The date and time to compare with.
+     * @return The IDs of the tasks due after the given date and time.
+     */
+    int[] getTasksAfter(LocalDateTime dateTime) {
+        return inListOrder(entries.tailSet(new Entry(dateTime, Integer.MAX_VALUE), false));
+    }
+
+    /**
+     * Returns the IDs of the tasks due between the given dates and times inclusive,
+     * in the order they appear in the list.
+     *
+     * @param from The earliest date and time to include.
+     * @param to The latest date and time to include.
+     * @return The IDs of the tasks due between the given dates and times, or no IDs if from is after to.
+     */
+    int[] getTasksBetween(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return new int[0];
+        }
+        return inListOrder(entries.subSet(new Entry(from, Integer.MIN_VALUE), true,
+            new Entry(to, Integer.MAX_VALUE), true));
+    }
+
+    private static int[] inListOrder(NavigableSet<Entry> range) {
+        int[] ids = new int[range.size()];
+        int i = 0;
+        for (Entry entry : range) {
+            ids[i++] = entry.id();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,95 @@
+package rover.task;
+
+/**
+ * Represents the types of tasks, each with the codes that mark it in every format the tasks are saved in:
+ * the character that starts its task string, the byte that starts it in the binary format and in
+ * the compact task store, and its name in the JSON Lines format.
+ */
+public enum TaskType {
+    TODO('T', (byte) 1, "todo"),
+    DEADLINE('D', (byte) 2, "deadline"),
+    EVENT('E', (byte) 3, "event");
+
+    private static final TaskType[] TYPES = values();
+    // Binary codes start from 1, so that 0 can mark a deleted task
+    private static final TaskType[] BY_BINARY_CODE = {null, TODO, DEADLINE, EVENT};
+
+    private final char code;
+    private final byte binaryCode;
+    private final String name;
+
+    TaskType(char code, byte binaryCode, String name) {
+        this.code = code;
+        this.binaryCode = binaryCode;
+        this.name = name;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public byte getBinaryCode() {
+        return binaryCode;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the given task.
+     *
+     * @param task The task.
+     * @return The type of the task.
+     */
+    public static TaskType of(Task task) {
+        assert task != null : "Task should not be null.";
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        } else if (task instanceof Event) {
+            return EVENT;
+        } else {
+            return TODO;
+        }
+    }
+
+    /**
+     * Returns the type whose task strings start with the given character.
+     *
+     * @param code The character that starts a task string.
+     * @return The type of the task, or null if no type has the code.
+     */
+    public static TaskType ofCode(int code) {
+        for (TaskType type : TYPES) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type with the given code in the binary format.
+     *
+     * @param binaryCode The code of the type, without any flags.
+     * @return The type of the task, or null if no type has the code.
+     */
+    public static TaskType ofBinaryCode(int binaryCode) {
+        return binaryCode > 0 && binaryCode < BY_BINARY_CODE.length ? BY_BINARY_CODE[binaryCode] : null;
+    }
+
+    /**
+     * Returns the type with the given name in the JSON Lines format.
+     *
+     * @param name The name of the type.
+     * @return The type of the task, or null if no type has the name.
+     */
+    public static TaskType ofName(String name) {
+        for (TaskType type : TYPES) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
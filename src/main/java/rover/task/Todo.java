@@ -1,6 +1,9 @@
 package rover.task;
 
+import java.time.LocalDateTime;
+
 import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
 
 /**
  * Represents a todo task that can be added to the task list.
@@ -18,6 +21,24 @@ public final class Todo extends Task {
         super(description);
     }
 
+    /**
+     * Constructor for a todo task whose description has already been validated, e.g. a view of a stored task.
+     *
+     * @param description The description of the todo task.
+     * @param isDone Whether the task is done.
+     */
+    Todo(String description, boolean isDone) {
+        super(description, isDone);
+    }
+
+    /**
+     * Returns null, as todo tasks do not have a date and time.
+     */
+    @Override
+    public LocalDateTime getDueDateTime() {
+        return null;
+    }
+
     /**
      * Checks if the task is due before the given date and time.
      * Todo tasks do not have a date and time and will always return false.
@@ -40,6 +61,28 @@ public final class Todo extends Task {
         return false;
     }
 
+    /**
+     * Checks if the task is due before the given parsed date and time.
+     * Todo tasks do not have a date and time and will always return false.
+     *
+     * @param query The date and time to compare with.
+     */
+    @Override
+    public boolean isBefore(DateTimeQuery query) {
+        return false;
+    }
+
+    /**
+     * Checks if the task is due after the given parsed date and time.
+     * Todo tasks do not have a date and time and will always return false.
+     *
+     * @param query The date and time to compare with.
+     */
+    @Override
+    public boolean isAfter(DateTimeQuery query) {
+        return false;
+    }
+
     /**
      * Compares this todo task with the specified object for equality.
      *
@@ -53,6 +96,14 @@ public final class Todo extends Task {
         return false;
     }
 
+    /**
+     * Returns the hash code of this todo task, consistent with {@link #equals(Object)}.
+     */
+    @Override
+    public int hashCode() {
+        return description.hashCode();
+    }
+
     /**
      * Returns the description of the task for saving to the file.
      */
@@ -0,0 +1,58 @@
+package rover.parser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeParserTest {
+
+    @Test
+    public void checkParseDate_allFormats() {
+        LocalDate expected = LocalDate.of(2025, 2, 1);
+        String[] dates = {"2025/02/01", "2025-02-01", "01-02-2025", "01/02/2025", "01/02/25", "01-02-25"};
+        for (String date : dates) {
+            assertEquals(expected, DateTimeParser.parseDate(date));
+        }
+    }
+
+    @Test
+    public void checkParseDate_dayPastEndOfMonth() {
+        assertEquals(LocalDate.of(2021, 2, 28), DateTimeParser.parseDate("2021/02/31"));
+        assertEquals(LocalDate.of(2024, 2, 29), DateTimeParser.parseDate("30/02/24"));
+        assertNull(DateTimeParser.tryParseDate("32/01/24"));
+        assertNull(DateTimeParser.tryParseDate("01/13/24"));
+    }
+
+    @Test
+    public void checkParseTime_allFormats() {
+        LocalTime expected = LocalTime.of(14, 5);
+        for (String time : new String[] {"14:05", "1405", "2:05PM", "02.05PM"}) {
+            assertEquals(expected, DateTimeParser.parseTime(time));
+        }
+        assertEquals(LocalTime.of(14, 0), DateTimeParser.parseTime("02PM"));
+        assertEquals(LocalTime.of(0, 0), DateTimeParser.parseTime("12AM"));
+        assertEquals(LocalTime.of(0, 0), DateTimeParser.parseTime("24:00"));
+    }
+
+    @Test
+    public void checkParseDateTime_endOfDay() {
+        assertEquals(LocalDateTime.of(2021, 8, 25, 0, 0), DateTimeParser.parseDateTime("2021-08-24 2400"));
+        assertEquals(LocalDateTime.of(2021, 8, 24, 18, 0), DateTimeParser.parseDateTime("24/08/21 6PM"));
+    }
+
+    @Test
+    public void checkIfExceptionThrown_improperFormats() {
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeParser.parseDate("240921"));
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeParser.parseDate("10/12/"));
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeParser.parseTime("2pm"));
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeParser.parseTime("24:30"));
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeParser.parseDateTime("2021-08-24  1800"));
+        assertNull(DateTimeParser.tryParseTime("13PM"));
+    }
+}
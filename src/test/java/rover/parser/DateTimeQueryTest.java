@@ -0,0 +1,49 @@
+package rover.parser;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeQueryTest {
+
+    @Test
+    public void checkParse_dateOnlyComparesDates() {
+        DateTimeQuery query = DateTimeQuery.parse("24/08/21");
+        LocalDate date = LocalDate.of(2021, 8, 24);
+        assertFalse(query.isPrecededBy(date, LocalTime.MIN));
+        assertFalse(query.isFollowedBy(date, LocalTime.MAX));
+        assertTrue(query.isPrecededBy(date.minusDays(1), LocalTime.MAX));
+        assertTrue(query.isFollowedBy(date.plusDays(1), LocalTime.MIN));
+    }
+
+    @Test
+    public void checkParse_dateAndTimeComparesDateTimes() {
+        DateTimeQuery query = DateTimeQuery.parse("2021-08-24 1800");
+        LocalDate date = LocalDate.of(2021, 8, 24);
+        assertTrue(query.isPrecededBy(date, LocalTime.of(17, 59)));
+        assertFalse(query.isPrecededBy(date, LocalTime.of(18, 0)));
+        assertFalse(query.isFollowedBy(date, LocalTime.of(18, 0)));
+        assertTrue(query.isFollowedBy(date, LocalTime.of(18, 1)));
+        assertTrue(query.isPrecededBy(date.minusDays(1), LocalTime.MAX));
+    }
+
+    @Test
+    public void checkParse_timeOnlyUsesToday() {
+        DateTimeQuery query = DateTimeQuery.parse("12:00");
+        LocalDate today = LocalDate.now();
+        assertTrue(query.isPrecededBy(today, LocalTime.of(11, 59)));
+        assertTrue(query.isFollowedBy(today, LocalTime.of(12, 1)));
+        assertTrue(query.isFollowedBy(today.plusDays(1), LocalTime.MIN));
+    }
+
+    @Test
+    public void checkParse_invalidQuery() {
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeQuery.parse("garbage"));
+        assertThrowsExactly(DateTimeParseException.class, () -> DateTimeQuery.parse("2021-08-24 garbage"));
+    }
+}
@@ -2,7 +2,9 @@ package rover.parser;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.format.DateTimeParseException;
@@ -10,9 +12,11 @@ import java.time.format.DateTimeParseException;
 import org.junit.jupiter.api.Test;
 
 import rover.command.AddCommand;
+import rover.command.ArchiveCommand;
 import rover.command.DeleteCommand;
 import rover.command.EmptyCommand;
 import rover.command.ExitCommand;
+import rover.command.ExportCommand;
 import rover.command.FindCommand;
 import rover.command.InvalidCommand;
 import rover.command.ListCommand;
@@ -21,13 +25,17 @@ import rover.command.RetrySaveCommand;
 import rover.command.SetCommand;
 import rover.command.ShowAfterCommand;
 import rover.command.ShowBeforeCommand;
+import rover.command.ShowBetweenCommand;
+import rover.command.SyncCommand;
 import rover.command.UnmarkCommand;
 import rover.exceptions.RoverException;
 import rover.preferences.PreferenceOption;
 import rover.task.Deadline;
 import rover.task.Event;
 import rover.task.TaskAction;
+import rover.task.TaskList;
 import rover.task.Todo;
+import rover.ui.TextUi;
 
 public class ParserTest {
 
@@ -42,13 +50,21 @@ public class ParserTest {
         assertEquals(new DeleteCommand("delete 1"), parser.parseCommand("delete 1"));
         assertEquals(new EmptyCommand(""), parser.parseCommand(""));
         assertEquals(new ExitCommand("bye"), parser.parseCommand("bye"));
+        assertEquals(new ExportCommand("export"), parser.parseCommand("export"));
+        assertEquals(new ArchiveCommand("archive"), parser.parseCommand("archive"));
+        assertEquals(new SyncCommand("sync shared/rover"), parser.parseCommand("sync shared/rover"));
+        assertTrue(parser.parseCommand("find --all /i book").isStorageCommand());
+        assertFalse(parser.parseCommand("find /i book").isStorageCommand());
         assertEquals(new FindCommand("find book"), parser.parseCommand("find book"));
         assertEquals(new InvalidCommand("whatever"), parser.parseCommand("whatever"));
         assertEquals(new ListCommand("list"), parser.parseCommand("list"));
+        assertEquals(new ListCommand("list undone deadlines"), parser.parseCommand("list undone deadlines"));
         assertEquals(new MarkCommand("mark 1"), parser.parseCommand("mark 1"));
         assertEquals(new SetCommand("set name John"), parser.parseCommand("set name John"));
         assertEquals(new ShowAfterCommand("show after 21/08/24"), parser.parseCommand("show after 21/08/24"));
         assertEquals(new ShowBeforeCommand("show before 21/08/24"), parser.parseCommand("show before 21/08/24"));
+        assertEquals(new ShowBetweenCommand("show between 21/08/24 28/08/24"),
+            parser.parseCommand("show between 21/08/24 28/08/24"));
         assertEquals(new UnmarkCommand("unmark 1"), parser.parseCommand("unmark 1"));
     }
 
@@ -152,4 +168,27 @@ public class ParserTest {
             fail("Unexpected exception thrown");
         }
     }
+
+    @Test
+    public void checkParseTaskReference() {
+        Parser parser = new Parser();
+        TaskList taskList;
+        try {
+            taskList = new TaskList(null, "T | 0 | task 1", "T | 0 | task 2", "T | 0 | task 3");
+        } catch (RoverException e) {
+            fail("Exception should not be thrown");
+            return;
+        }
+        taskList.deleteTask(0, new TextUi());
+        assertDoesNotThrow(() -> assertEquals(1, parser.parseTaskReference("2", taskList, TaskAction.DELETE)));
+        assertDoesNotThrow(() -> assertEquals(1, parser.parseTaskReference("id:3", taskList, TaskAction.DELETE)));
+        assertDoesNotThrow(() -> assertEquals(0, parser.parseTaskReference("ID: 2", taskList, TaskAction.DELETE)));
+
+        RoverException exception = assertThrowsExactly(RoverException.class, () ->
+            parser.parseTaskReference("id:1", taskList, TaskAction.MARK_DONE));
+        assertEquals("There is no task with the ID 1 to be marked as done.", exception.getMessage());
+        exception = assertThrowsExactly(RoverException.class, () ->
+            parser.parseTaskReference("id:one", taskList, TaskAction.DELETE));
+        assertEquals("Please specify a valid task ID to be deleted.", exception.getMessage());
+    }
 }
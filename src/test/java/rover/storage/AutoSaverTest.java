@@ -0,0 +1,73 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class AutoSaverTest {
+
+    private static final String TASKS_FILE_PATH = "build/autosave-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/autosave-test/Preferences.json";
+
+    private static Path resolve(String filePath) {
+        return Paths.get(System.getProperty("user.dir"), filePath.split("/"));
+    }
+
+    private static void waitUntil(Path filePath, String content) throws IOException, InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (Files.exists(filePath) && Files.readString(filePath).contains(content)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void checkChanges_savedTogetherAfterQuietPeriod() throws IOException, InterruptedException, RoverException {
+        Path tasksFilePath = resolve(TASKS_FILE_PATH);
+        Path preferencesFilePath = resolve(PREFERENCES_FILE_PATH);
+        Files.deleteIfExists(tasksFilePath);
+        Files.deleteIfExists(preferencesFilePath);
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH);
+        TaskList taskList = new TaskList();
+        UserPreferences userPreferences = new UserPreferences();
+        Ui ui = new TextUi();
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        storage.startAutoSave(taskList, userPreferences, new Object(), Duration.ofMillis(200));
+
+        taskList.addTask(new Todo("read book"), ui);
+        taskList.addTask(new Todo("return book"), ui);
+        taskList.markTask(1, ui);
+        assertFalse(Files.exists(tasksFilePath));
+        waitUntil(tasksFilePath, "return book");
+        assertEquals(List.of("T | 0 | read book", "T | 1 | return book"), Files.readAllLines(tasksFilePath));
+
+        userPreferences.setName("Alice");
+        waitUntil(preferencesFilePath, "Alice");
+        assertTrue(Files.readString(preferencesFilePath).contains("\"name\":\"Alice\""));
+
+        // Nothing is pending, so nothing is written when the session ends
+        Files.delete(tasksFilePath);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertFalse(Files.exists(tasksFilePath));
+    }
+}
@@ -0,0 +1,134 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static rover.storage.StorageTestFiles.getPreferencesFilePath;
+import static rover.storage.StorageTestFiles.getTaskStrings;
+import static rover.storage.StorageTestFiles.getTasksFilePath;
+import static rover.storage.StorageTestFiles.loadTasks;
+import static rover.storage.StorageTestFiles.writeTasksFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class BinaryTaskFileTest {
+
+    @Test
+    public void checkLoad_roundTripsTasks(@TempDir Path directoryPath) throws IOException, RoverException {
+        List<String> taskStrings = List.of("T | 0 | read book", "D | 1 | return book /by 2021-08-24 1800",
+            "D | 0 | return book /by 24/08/21", "E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600",
+            "T | 1 | caf\u00e9 \u2615");
+        List<Task> tasks = loadTasks(directoryPath, taskStrings);
+        BinaryTaskFile file = new BinaryTaskFile(directoryPath.resolve("Tasks.bin"), DurabilityPolicy.NEVER);
+        long checksum = file.write(tasks.size(), BinaryTaskFile.encode(tasks));
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(file.getFilePath()));
+        assertEquals(crc.getValue(), checksum);
+
+        List<Task> loadedTasks = file.load();
+        assertFalse(file.isCorrupted());
+        assertEquals(checksum, file.getChecksum());
+        assertEquals(getTaskStrings(tasks), getTaskStrings(loadedTasks));
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getDueDateTime(), loadedTasks.get(i).getDueDateTime());
+        }
+    }
+
+    @Test
+    public void checkLoad_corruptedBlockOnlyLosesItsTasks(@TempDir Path directoryPath)
+            throws IOException, RoverException {
+        List<String> taskStrings = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            taskStrings.add("D | " + (i % 2) + " | return book " + i + " /by 2030-08-24 1800");
+        }
+        List<Task> tasks = loadTasks(directoryPath, taskStrings);
+        List<ByteBuffer> blocks = BinaryTaskFile.encode(tasks);
+        assertTrue(blocks.size() > 2);
+        BinaryTaskFile file = new BinaryTaskFile(directoryPath.resolve("Tasks.bin"), DurabilityPolicy.NEVER);
+        file.write(tasks.size(), blocks);
+
+        // Flip a byte in the middle of the second block
+        byte[] bytes = Files.readAllBytes(file.getFilePath());
+        int corruptedOffset = BinaryTaskFile.HEADER_SIZE + BinaryTaskFile.BLOCK_SIZE + 1000;
+        bytes[corruptedOffset] ^= 0x01;
+        Files.write(file.getFilePath(), bytes);
+
+        List<Task> loadedTasks = file.load();
+        assertTrue(file.isCorrupted());
+        int lostTaskCount = blocks.get(1).getInt(0);
+        assertEquals(lostTaskCount, file.getLostTaskCount());
+        assertEquals(tasks.size() - lostTaskCount, loadedTasks.size());
+        int firstLostIndex = blocks.get(0).getInt(0);
+        List<String> savedTaskStrings = getTaskStrings(tasks);
+        assertEquals(savedTaskStrings.subList(0, firstLostIndex),
+            getTaskStrings(loadedTasks.subList(0, firstLostIndex)));
+        assertEquals(savedTaskStrings.subList(firstLostIndex + lostTaskCount, savedTaskStrings.size()),
+            getTaskStrings(loadedTasks.subList(firstLostIndex, loadedTasks.size())));
+    }
+
+    @Test
+    public void checkIfExceptionThrown_unknownFile(@TempDir Path directoryPath) throws IOException {
+        Path filePath = directoryPath.resolve("Tasks.bin");
+        BinaryTaskFile file = new BinaryTaskFile(filePath, DurabilityPolicy.NEVER);
+        Files.writeString(filePath, "T | 0 | read book\nT | 0 | return book");
+        RoverException e = assertThrowsExactly(RoverException.class, file::load);
+        assertEquals("Possible corruption in saved tasks.", e.getMessage());
+
+        file.write(0, List.of());
+        byte[] bytes = Files.readAllBytes(filePath);
+        ByteBuffer.wrap(bytes).putInt(4, BinaryTaskFile.VERSION + 1);
+        Files.write(filePath, bytes);
+        e = assertThrowsExactly(RoverException.class, file::load);
+        assertEquals("Your tasks were saved by a newer version of Rover.", e.getMessage());
+    }
+
+    @Test
+    public void checkStorage_importsAndExportsTextFile(@TempDir Path directoryPath)
+            throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile(directoryPath,
+            "T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800");
+        Path binaryFilePath = tasksFilePath.resolveSibling("Tasks.bin");
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER, TaskFileFormat.BINARY);
+        TaskList taskList = storage.loadTasks(ui);
+        UserPreferences userPreferences = new UserPreferences();
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        taskList.addTask(new Todo("sell book"), ui);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertTrue(Files.exists(binaryFilePath));
+        assertEquals("T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800", Files.readString(tasksFilePath));
+
+        storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER, TaskFileFormat.BINARY);
+        taskList = storage.loadTasks(ui);
+        assertEquals(3, taskList.getNumberOfTasks());
+        storage.exportTasks(taskList, ui);
+        assertEquals("T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800 | 2021-08-24T18:00\nT | 0 | sell book",
+            Files.readString(tasksFilePath));
+    }
+}
@@ -0,0 +1,68 @@
+package rover.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class DatabaseStorageTest {
+
+    private static final String TASKS_FILE_PATH = "build/database-storage-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/database-storage-test/Preferences.json";
+
+    @Test
+    public void checkStorage_filesImportedOnceAndChangesKept() throws IOException, RoverException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".mv.db"));
+        Files.writeString(tasksFilePath, "T | 0 | read book\nD | 0 | return book /by 2030-08-24 | 2030-08-24\n"
+            + "T | 0 | read book\n");
+        Path preferencesFilePath = tasksFilePath.resolveSibling("Preferences.json");
+        Files.writeString(preferencesFilePath,
+            "{\"name\":\"Ann\",\"userImage\":\"default\",\"roverImage\":\"default\"}");
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+
+        // The tasks are imported without the duplicate, and so are the preferences
+        DatabaseStorage storage = new DatabaseStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        UserPreferences userPreferences = new UserPreferences(storage.loadPreferences(ui));
+        TaskList taskList = storage.loadTasks(ui);
+        storage.trackChanges(taskList, userPreferences);
+        assertEquals(List.of("T | 0 | read book", "D | 0 | return book /by 2030-08-24 | 2030-08-24"),
+            taskList.getTaskStrings());
+        assertEquals("Ann", userPreferences.getJsonNode().get("name").asText());
+        taskList.markTask(1, ui);
+        taskList.deleteTask(0, ui);
+        taskList.addTask(new Todo("sell book"), ui);
+        userPreferences.setName("Bob");
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+
+        // The files are not imported again, as the database has its own tasks and preferences now
+        Files.writeString(tasksFilePath, "T | 0 | buy book\n");
+        Files.delete(preferencesFilePath);
+        DatabaseStorage reopenedStorage = new DatabaseStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH,
+            DurabilityPolicy.NEVER);
+        assertEquals("Bob", reopenedStorage.loadPreferences(ui).get("name").asText());
+        TaskList reopenedTaskList = reopenedStorage.loadTasks(ui);
+        assertEquals(List.of("D | 1 | return book /by 2030-08-24 | 2030-08-24", "T | 0 | sell book"),
+            reopenedTaskList.getTaskStrings());
+        assertEquals(1, reopenedTaskList.getTasksContaining("SELL", true).size());
+        reopenedStorage.saveAll(reopenedTaskList, new UserPreferences(), ui);
+    }
+}
@@ -0,0 +1,141 @@
+package rover.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.task.Task;
+import rover.task.TaskFilter;
+import rover.task.TaskList;
+import rover.task.TaskType;
+import rover.task.Todo;
+
+public class DatabaseTaskTableTest {
+
+    private static final String[] TASK_STRINGS = {
+        "T | 0 | read book",
+        "D | 1 | return book /by 2030-08-24 | 2030-08-24",
+        "D | 0 | submit report /by 24/08/30 6:00PM | 2030-08-24T18:00",
+        "E | 0 | project meeting /from 2030-08-24 1400 /to 1600 | 2030-08-24T14:00 | 2030-08-24T16:00",
+        "E | 1 | camp /from 20/08/30 /to 22/08/30 | 2030-08-20 | 2030-08-22",
+        "T | 1 | Read book again"
+    };
+
+    private Connection connection;
+    private DatabaseTaskTable table;
+
+    @BeforeEach
+    public void openDatabase() throws SQLException, RoverException {
+        // Every test has a database of its own, which only lives as long as its connection
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : DatabaseTaskTable.SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+        DatabaseTaskTable.insertAll(connection, new TaskList(null, TASK_STRINGS).getTasks());
+        table = new DatabaseTaskTable(connection);
+    }
+
+    @AfterEach
+    public void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    private static List<String> getTaskStrings(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskString).toList();
+    }
+
+    @Test
+    public void checkInsertAll_rowsReadBackInOrder() {
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, table.selectRowIds());
+        assertEquals(List.of(TASK_STRINGS), getTaskStrings(table.selectAll()));
+        assertEquals(TASK_STRINGS[3], table.select(4).getTaskString());
+        assertEquals("camp", table.selectDescription(5));
+    }
+
+    @Test
+    public void checkInsertAll_rolledBackIfAnyRowFails() throws SQLException, RoverException {
+        // The first row ID is taken already, so the whole batch is refused
+        assertThrows(SQLException.class, () ->
+            DatabaseTaskTable.insertAll(connection, new TaskList(null, "T | 0 | sell book").getTasks()));
+        assertTrue(connection.getAutoCommit());
+        assertEquals(6, table.selectRowIds().length);
+        assertEquals(0, table.selectByDescription("sell book").size());
+    }
+
+    @Test
+    public void checkWrites_singleRowsChanged() throws RoverException {
+        table.insert(7, new Todo("sell book"));
+        table.updateDone(1, true);
+        table.updateDone(2, false);
+        table.delete(3);
+        assertArrayEquals(new int[] {1, 2, 4, 5, 6, 7}, table.selectRowIds());
+        assertEquals("T | 1 | read book", table.select(1).getTaskString());
+        assertEquals("D | 0 | return book /by 2030-08-24 | 2030-08-24", table.select(2).getTaskString());
+        assertEquals("T | 0 | sell book", table.select(7).getTaskString());
+        assertThrows(StorageException.class, () -> table.select(3));
+        assertThrows(StorageException.class, () -> table.selectDescription(3));
+    }
+
+    @Test
+    public void checkSelectMatching_filteredByStatusAndType() {
+        assertEquals(List.of(TASK_STRINGS[2]),
+            getTaskStrings(table.selectMatching(new TaskFilter(TaskType.DEADLINE, false))));
+        assertEquals(List.of(TASK_STRINGS[1], TASK_STRINGS[4], TASK_STRINGS[5]),
+            getTaskStrings(table.selectMatching(new TaskFilter(null, true))));
+        assertEquals(List.of(TASK_STRINGS[3], TASK_STRINGS[4]),
+            getTaskStrings(table.selectMatching(new TaskFilter(TaskType.EVENT, null))));
+        assertEquals(6, table.selectMatching(TaskFilter.ALL).size());
+    }
+
+    @Test
+    public void checkSelectDue_boundByDateTimes() {
+        LocalDateTime meetingStart = LocalDateTime.of(2030, 8, 24, 14, 0);
+        assertEquals(List.of(TASK_STRINGS[4]),
+            getTaskStrings(table.selectDueBefore(LocalDateTime.of(2030, 8, 24, 0, 0))));
+        // A deadline without a time is due at the end of its day
+        assertEquals(List.of(TASK_STRINGS[1], TASK_STRINGS[2]), getTaskStrings(table.selectDueAfter(meetingStart)));
+        // The bounds are inclusive, down to the nanosecond
+        assertEquals(List.of(TASK_STRINGS[3]),
+            getTaskStrings(table.selectDueBetween(meetingStart, meetingStart)));
+        assertEquals(0, table.selectDueBetween(meetingStart.plusNanos(1), meetingStart.plusHours(1)).size());
+    }
+
+    @Test
+    public void checkSelectContaining_wildcardsMatchedLiterally() throws RoverException {
+        table.insert(7, new Todo("finish 100% of book_2"));
+        table.insert(8, new Todo("finish 1000 books"));
+        assertEquals(List.of("T | 0 | read book"), getTaskStrings(table.selectContaining("read", false)));
+        assertEquals(List.of("T | 0 | read book", "T | 1 | Read book again"),
+            getTaskStrings(table.selectContaining("READ", true)));
+        assertEquals(List.of("T | 0 | finish 100% of book_2"),
+            getTaskStrings(table.selectContaining("100%", false)));
+        assertEquals(List.of("T | 0 | finish 100% of book_2"),
+            getTaskStrings(table.selectContaining("k_", false)));
+        assertEquals(0, table.selectContaining("\\", false).size());
+    }
+
+    @Test
+    public void checkSelectByDescription_equalTasksFound() throws RoverException {
+        assertEquals(List.of(TASK_STRINGS[0]), getTaskStrings(table.selectByDescription("read book")));
+        assertTrue(table.contains(new Todo("read book")));
+        assertFalse(table.contains(new Todo("sell book")));
+    }
+}
@@ -0,0 +1,144 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static rover.storage.StorageTestFiles.getPreferencesFilePath;
+import static rover.storage.StorageTestFiles.getTaskStrings;
+import static rover.storage.StorageTestFiles.getTasksFilePath;
+import static rover.storage.StorageTestFiles.loadTasks;
+import static rover.storage.StorageTestFiles.writeTasksFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class JsonLinesTaskFileTest {
+
+    private static final String HEADER = "{\"format\":\"rover-tasks\",\"version\":1,\"readableFrom\":1}\n";
+
+    private static JsonLinesTaskFile createFile(Path directoryPath, String content) throws IOException {
+        Path filePath = directoryPath.resolve("Tasks.jsonl");
+        Files.writeString(filePath, content);
+        return new JsonLinesTaskFile(filePath, DurabilityPolicy.NEVER);
+    }
+
+    @Test
+    public void checkLoad_roundTripsTasks(@TempDir Path directoryPath) throws IOException, RoverException {
+        List<String> taskStrings = List.of("T | 0 | read \"book\"", "D | 1 | return book /by 2021-08-24 1800",
+            "D | 0 | return book /by 24/08/21", "E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600",
+            "T | 1 | caf\u00e9 \u2615 \\ tab\tend");
+        List<Task> tasks = loadTasks(directoryPath, taskStrings);
+        JsonLinesTaskFile file = new JsonLinesTaskFile(directoryPath.resolve("Tasks.jsonl"), DurabilityPolicy.NEVER);
+        long checksum = file.write(JsonLinesTaskFile.encode(tasks));
+
+        // Each task is on a line of its own, after the header
+        List<String> lines = Files.readAllLines(file.getFilePath(), StandardCharsets.UTF_8);
+        assertEquals(tasks.size() + 1, lines.size());
+        assertEquals(HEADER.trim(), lines.get(0));
+        assertEquals("{\"type\":\"deadline\",\"done\":true,\"description\":\"return book\","
+            + "\"by\":\"2021-08-24 1800\",\"due\":\"2021-08-24T18:00\"}", lines.get(2));
+
+        List<Task> loadedTasks = file.load();
+        assertEquals(checksum, file.getChecksum());
+        assertEquals(getTaskStrings(tasks), getTaskStrings(loadedTasks));
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getDueDateTime(), loadedTasks.get(i).getDueDateTime());
+        }
+    }
+
+    @Test
+    public void checkLoad_unknownFieldsSkipped(@TempDir Path directoryPath) throws IOException, RoverException {
+        JsonLinesTaskFile file = createFile(directoryPath,
+            "{\"format\":\"rover-tasks\",\"version\":2,\"readableFrom\":1,\"compressed\":false}\n"
+            + "{\"type\":\"todo\",\"tags\":[\"home\",{\"colour\":\"red\"}],\"done\":true,"
+            + "\"description\":\"read book\"}\n"
+            + "{\"priority\":3,\"type\":\"deadline\",\"done\":false,\"description\":\"return book\","
+            + "\"by\":\"tomorrow\",\"due\":\"2021-08-24T18:00\"}\n");
+        assertEquals(List.of("T | 1 | read book", "D | 0 | return book /by tomorrow | 2021-08-24T18:00"),
+            getTaskStrings(file.load()));
+    }
+
+    @Test
+    public void checkLoad_fieldsInAnyOrder(@TempDir Path directoryPath) throws IOException, RoverException {
+        JsonLinesTaskFile file = createFile(directoryPath, HEADER
+            + "{\"end\":\"2021-08-26\",\"start\":\"2021-08-25\",\"to\":\"26/08/21\",\"from\":\"25/08/21\","
+            + "\"description\":\"project meeting\",\"done\":false,\"type\":\"event\"}\n"
+            + "{\"type\":\"deadline\",\"due\":\"2021-08-24\",\"by\":\"24/08/21\",\"description\":\"return book\"}\n");
+        List<Task> tasks = file.load();
+        assertEquals(List.of("E | 0 | project meeting /from 25/08/21 /to 26/08/21 | 2021-08-25 | 2021-08-26",
+            "D | 0 | return book /by 24/08/21 | 2021-08-24"), getTaskStrings(tasks));
+        // Dates only are given the same times as when they are typed
+        assertEquals(LocalDateTime.of(2021, 8, 25, 0, 0), tasks.get(0).getDueDateTime());
+        assertEquals(LocalDate.of(2021, 8, 24).atTime(LocalTime.MAX), tasks.get(1).getDueDateTime());
+    }
+
+    @Test
+    public void checkIfExceptionThrown_unreadableFile(@TempDir Path directoryPath) throws IOException {
+        JsonLinesTaskFile file = createFile(directoryPath,
+            "{\"format\":\"rover-tasks\",\"version\":2,\"readableFrom\":2}\n");
+        RoverException e = assertThrowsExactly(RoverException.class, file::load);
+        assertEquals("Your tasks were saved by a newer version of Rover.", e.getMessage());
+
+        for (String content : List.of("T | 0 | read book\n", HEADER + "{\"type\":\"todo\",\"done\":false}\n",
+                HEADER + "{\"type\":\"todo\",\"done\":\"no\",\"description\":\"read book\"}\n",
+                HEADER + "{\"type\":\"deadline\",\"done\":false,\"description\":\"return book\",\"by\":\"today\"}\n",
+                HEADER + "{\"type\":\"event\",\"done\":false,\"description\":\"project meeting\",\"from\":\"later\","
+                    + "\"to\":\"sooner\",\"start\":\"2021-08-26T14:00\",\"end\":\"2021-08-25T16:00\"}\n",
+                HEADER + "{\"type\":\"deadline\",\"done\":false,\"description\":\"return book\",\"by\":\"today\","
+                    + "\"due\":\"2021-02-30\"}\n",
+                HEADER + "{\"type\":\"todo\",\"done\":false,\"description\":\"read book\"\n",
+                HEADER + "[\"todo\",false,\"read book\"]\n")) {
+            e = assertThrowsExactly(RoverException.class, createFile(directoryPath, content)::load);
+            assertEquals("Possible corruption in saved tasks.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void checkStorage_importsAndExportsTextFile(@TempDir Path directoryPath)
+            throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile(directoryPath,
+            "T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800");
+        Path jsonLinesFilePath = tasksFilePath.resolveSibling("Tasks.jsonl");
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER, TaskFileFormat.JSONL);
+        TaskList taskList = storage.loadTasks(ui);
+        UserPreferences userPreferences = new UserPreferences();
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        taskList.addTask(new Todo("sell book"), ui);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertTrue(Files.exists(jsonLinesFilePath));
+        assertEquals("T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800", Files.readString(tasksFilePath));
+
+        storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER, TaskFileFormat.JSONL);
+        taskList = storage.loadTasks(ui);
+        assertEquals(3, taskList.getNumberOfTasks());
+        storage.exportTasks(taskList, ui);
+        assertEquals("T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800 | 2021-08-24T18:00\nT | 0 | sell book",
+            Files.readString(tasksFilePath));
+    }
+}
@@ -0,0 +1,142 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskRecords;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class MappedTaskLoaderTest {
+
+    private static Path writeTasksFile(String content) throws IOException {
+        Path tasksFilePath = Files.createTempDirectory("rover").resolve("Tasks.txt");
+        Files.writeString(tasksFilePath, content);
+        return tasksFilePath;
+    }
+
+    @Test
+    public void checkLoad_forProperRecords() throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile("T | 0 | read book\r\n"
+            + "\n"
+            + "D | 1 | return book /by 2021-08-24 1800\n"
+            + "E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600");
+        MappedTaskLoader loader = new MappedTaskLoader(tasksFilePath, new TextUi());
+        List<Task> tasks = loader.load();
+        assertEquals(3, tasks.size());
+        assertEquals("T | 0 | read book", tasks.get(0).getTaskString());
+        assertEquals("D | 1 | return book /by 2021-08-24 1800 | 2021-08-24T18:00", tasks.get(1).getTaskString());
+        assertEquals("E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600 | 2021-08-25T14:00"
+            + " | 2021-08-25T16:00", tasks.get(2).getTaskString());
+        assertTrue(loader.hasLegacyRecords());
+    }
+
+    @Test
+    public void checkLoad_canonicalDatesUsedWithoutGuessing() throws IOException, RoverException {
+        String records = "D | 1 | return book /by 24/08/21 | 2021-08-24\n"
+            + "D | 0 | return book /by tomorrow evening | 2030-08-25T18:00\n"
+            + "E | 0 | project meeting /from 1400 /to 1600 | 2030-08-25T14:00 | 2030-08-25T16:00";
+        MappedTaskLoader loader = new MappedTaskLoader(writeTasksFile(records), new TextUi());
+        List<Task> tasks = loader.load();
+        assertFalse(loader.hasLegacyRecords());
+        assertEquals(List.of(records.split("\n")), tasks.stream().map(Task::getTaskString).toList());
+        assertEquals(LocalDateTime.of(2021, 8, 24, 23, 59, 59, 999_999_999), tasks.get(0).getDueDateTime());
+        assertEquals(LocalDateTime.of(2030, 8, 25, 18, 0), tasks.get(1).getDueDateTime());
+        assertEquals(LocalDateTime.of(2030, 8, 25, 14, 0), tasks.get(2).getDueDateTime());
+
+        TaskRecords lazyRecords = new MappedTaskLoader(writeTasksFile(records), null).loadRecords();
+        assertFalse(lazyRecords.hasLegacyRecords());
+        assertEquals(records.split("\n")[1], lazyRecords.get(1).getTaskString());
+
+        for (String record : new String[] {"T | 0 | read book | 2030-08-25", "D | 0 | return book /by 2030-08-25 | ",
+            "D | 0 | return book /by 2030-08-25 | 2030-08-25 | 2030-08-25",
+            "D | 0 | return book /by 25/08/30 | 25/08/30",
+            "E | 0 | meeting /from 1400 /to 1600 | 2030-08-25T14:00"}) {
+            assertThrows(Exception.class, () -> new MappedTaskLoader(writeTasksFile(record), null).load());
+        }
+    }
+
+    @Test
+    public void checkLoadRecords_sameMessagesAsLoad() throws IOException, RoverException {
+        String records = "T | 0 | read book\n"
+            + "D | 0 | return book /by 2021-08-24 1800 | 2021-08-24T18:00\n"
+            + "E | 1 | camp /from 20/08/21 /to 22/08/21 | 2021-08-20 | 2021-08-22\n"
+            + "T | 1 | read book\n"
+            + "D | 0 | return book /by 24/08/21 6:00PM | 2021-08-24T18:00\n"
+            + "D | 0 | return book /by 2030-08-24 | 2030-08-24\n"
+            + "E | 0 | project meeting /from 2030-08-25 1400 /to 1600 | 2030-08-25T14:00 | 2030-08-25T16:00\n";
+        String brokenRecord = "D | 0 | broken /by 99/99/99 | 2021-99-99";
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        Ui ui = new TextUi();
+
+        TaskList loadedTaskList = TaskList.of(new MappedTaskLoader(writeTasksFile(records), ui).load(), ui);
+        String loadedOutput = outContent.toString();
+        outContent.reset();
+        TaskRecords lazyRecords = new MappedTaskLoader(writeTasksFile(records + brokenRecord), ui).loadRecords();
+        TaskList lazyTaskList = TaskList.ofRecords(lazyRecords, ui);
+        // Past tasks are reported before duplicates are skipped, in the order of the records, as when loading,
+        // while a corrupted record is only reported when it is read
+        assertEquals(loadedOutput, outContent.toString());
+        assertTrue(loadedOutput.contains("return book is overdue"));
+        assertTrue(loadedOutput.contains("Skipped a duplicate saved task: [T][X] read book"));
+        assertTrue(loadedOutput.contains("Skipped a duplicate saved task: [D][ ] return book"));
+        List<String> lazyTaskStrings = lazyTaskList.getTaskStrings();
+        assertEquals(brokenRecord, lazyTaskStrings.remove(lazyTaskStrings.size() - 1));
+        assertEquals(loadedTaskList.getTaskStrings(), lazyTaskStrings);
+    }
+
+    @Test
+    public void checkIfExceptionThrown_corruptedRecords() throws IOException {
+        for (String record : new String[] {"T | 2 | read book", "X | 0 | read book", "T | 0 |read book",
+            "T | 0 | ", "T | 0 | read | book"}) {
+            Path tasksFilePath = writeTasksFile(record);
+            RoverException e = assertThrowsExactly(RoverException.class, () ->
+                new MappedTaskLoader(tasksFilePath, null).load());
+            assertEquals("Possible corruption in saved tasks.", e.getMessage());
+        }
+        Path deadlineFilePath = writeTasksFile("D | 0 | read book /by 10/12/21 /by 09/08/21");
+        assertThrowsExactly(RoverException.class, () -> new MappedTaskLoader(deadlineFilePath, null).load());
+        Path eventFilePath = writeTasksFile("E | 0 | read book /from 10/12/21 09/08/21");
+        assertThrowsExactly(RoverException.class, () -> new MappedTaskLoader(eventFilePath, null).load());
+    }
+
+    @Test
+    public void checkParallelLoad_keepsOrderAndReportsFirstCorruption() throws IOException, RoverException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 60_000; i++) {
+            content.append(i % 1000 == 0 ? "D | 1 | return book " + i + " /by 2030-08-24" : "T | 0 | read book " + i)
+                .append("\n");
+        }
+        Path tasksFilePath = writeTasksFile(content.toString());
+        List<Task> sequentialTasks = new MappedTaskLoader(tasksFilePath, null, false).load();
+        List<Task> parallelTasks = new MappedTaskLoader(tasksFilePath, null, true).load();
+        assertEquals(60_000, parallelTasks.size());
+        for (int i = 0; i < sequentialTasks.size(); i++) {
+            assertEquals(sequentialTasks.get(i).getTaskString(), parallelTasks.get(i).getTaskString());
+        }
+
+        // The record in the middle should be reported even though later chunks are corrupted differently
+        content.append("D | 0 | read book /by 2030-08-24 /by 2030-08-25\n").append("X | 0 | read book\n");
+        content.insert(content.indexOf("\n", content.length() / 2) + 1, "T | 0 | read | book\n");
+        Path corruptedFilePath = writeTasksFile(content.toString());
+        RoverException e = assertThrowsExactly(RoverException.class, () ->
+            new MappedTaskLoader(corruptedFilePath, null, true).load());
+        assertEquals("Possible corruption in saved tasks.", e.getMessage());
+    }
+}
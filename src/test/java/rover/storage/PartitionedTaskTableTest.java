@@ -0,0 +1,141 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static rover.storage.StorageTestFiles.getPreferencesFilePath;
+import static rover.storage.StorageTestFiles.getTaskStrings;
+import static rover.storage.StorageTestFiles.getTasksFilePath;
+import static rover.storage.StorageTestFiles.writeTasksFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskFilter;
+import rover.task.TaskList;
+import rover.task.TaskType;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class PartitionedTaskTableTest {
+
+    private static List<Task> parseTasks(String... taskStrings) throws RoverException {
+        List<Task> tasks = new ArrayList<>();
+        for (String taskString : taskStrings) {
+            tasks.add(TaskList.parseTask(null, taskString));
+        }
+        return tasks;
+    }
+
+    private static Path createTable(Path parentPath) throws IOException, RoverException {
+        Path directoryPath = parentPath.resolve("Tasks.partitions");
+        PartitionedTaskTable.create(directoryPath, parseTasks("T | 0 | read book",
+            "D | 0 | submit report /by 2030-08-24 1800 | 2030-08-24T18:00",
+            "E | 1 | meeting /from 2030-09-02 1400 /to 2030-09-02 1600 | 2030-09-02T14:00 | 2030-09-02T16:00",
+            "D | 1 | pay bills /by 2030-08-03 | 2030-08-03",
+            "T | 1 | return book"), DurabilityPolicy.NEVER);
+        return directoryPath;
+    }
+
+    @Test
+    public void checkCreate_writesManifestWithTimeRanges(@TempDir Path parentPath) throws IOException, RoverException {
+        Path directoryPath = createTable(parentPath);
+        assertEquals(List.of("2030-08 | 2030-08-03T23:59:59.999999999 | 2030-08-24T18:00 | 2,4",
+            "2030-09 | 2030-09-02T14:00 | 2030-09-02T14:00 | 3", "undated | - | - | 1,5"),
+            Files.readAllLines(directoryPath.resolve(PartitionedTaskTable.MANIFEST_FILE_NAME)));
+        assertEquals(List.of("1 | T | 0 | read book", "5 | T | 1 | return book"),
+            Files.readAllLines(directoryPath.resolve("undated.txt")));
+
+        PartitionedTaskTable table = PartitionedTaskTable.open(directoryPath, DurabilityPolicy.NEVER);
+        assertEquals(List.of(1, 2, 3, 4, 5), Arrays.stream(table.selectRowIds()).boxed().toList());
+        assertEquals(0, table.getLoadedPartitionCount());
+    }
+
+    @Test
+    public void checkQueries_onlyLoadNeededPartitions(@TempDir Path parentPath) throws IOException, RoverException {
+        Path directoryPath = createTable(parentPath);
+        PartitionedTaskTable table = PartitionedTaskTable.open(directoryPath, DurabilityPolicy.NEVER);
+
+        assertEquals(List.of("E | 1 | meeting /from 2030-09-02 1400 /to 2030-09-02 1600 | 2030-09-02T14:00 "
+            + "| 2030-09-02T16:00"), getTaskStrings(table.selectDueAfter(LocalDateTime.of(2030, 8, 31, 0, 0))));
+        assertEquals(1, table.getLoadedPartitionCount());
+        assertEquals(List.of("read book", "return book"),
+            table.selectMatching(new TaskFilter(TaskType.TODO, null)).stream().map(Task::getDescription).toList());
+        assertEquals(2, table.getLoadedPartitionCount());
+        assertTrue(table.contains(parseTasks("T | 0 | return book").get(0)));
+        assertFalse(table.contains(parseTasks("T | 0 | sell book").get(0)));
+        assertEquals(2, table.getLoadedPartitionCount());
+
+        // The August partition is only read by queries that need it
+        Files.delete(directoryPath.resolve("2030-08.txt"));
+        assertEquals(List.of(), table.selectDueBefore(LocalDateTime.of(2030, 8, 1, 0, 0)));
+        assertThrowsExactly(StorageException.class, table::selectAll);
+    }
+
+    @Test
+    public void checkChanges_rewriteOnlyTheirPartition(@TempDir Path parentPath) throws IOException, RoverException {
+        Path directoryPath = createTable(parentPath);
+        PartitionedTaskTable table = PartitionedTaskTable.open(directoryPath, DurabilityPolicy.NEVER);
+        table.insert(6, parseTasks("D | 0 | renew passport /by 2031-01-05 0900 | 2031-01-05T09:00").get(0));
+        table.updateDone(2, true);
+        table.delete(3);
+        assertEquals(2, table.getLoadedPartitionCount());
+        assertFalse(Files.exists(directoryPath.resolve("2030-09.txt")));
+
+        table = PartitionedTaskTable.open(directoryPath, DurabilityPolicy.NEVER);
+        assertEquals(List.of("T | 0 | read book", "D | 1 | submit report /by 2030-08-24 1800 | 2030-08-24T18:00",
+            "D | 1 | pay bills /by 2030-08-03 | 2030-08-03", "T | 1 | return book",
+            "D | 0 | renew passport /by 2031-01-05 0900 | 2031-01-05T09:00"), getTaskStrings(table.selectAll()));
+    }
+
+    @Test
+    public void checkLoad_rowsMissingFromManifestIgnored(@TempDir Path parentPath) throws IOException, RoverException {
+        Path directoryPath = createTable(parentPath);
+        // A row left by an insert that was interrupted before the manifest was written
+        Files.writeString(directoryPath.resolve("undated.txt"), "6 | T | 0 | sell book\n",
+            StandardOpenOption.APPEND);
+        PartitionedTaskTable table = PartitionedTaskTable.open(directoryPath, DurabilityPolicy.NEVER);
+        assertEquals(List.of("read book", "return book"),
+            table.selectMatching(new TaskFilter(TaskType.TODO, null)).stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    public void checkStorage_importsAndExportsTextFile(@TempDir Path parentPath) throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile(parentPath, "T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800");
+        Path directoryPath = tasksFilePath.resolveSibling("Tasks.partitions");
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+
+        PartitionedStorage storage = new PartitionedStorage(getTasksFilePath(parentPath),
+            getPreferencesFilePath(parentPath), DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        taskList.addTask(new Todo("sell book"), ui);
+        storage.saveAll(taskList, new UserPreferences(), ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertTrue(Files.exists(directoryPath.resolve("2021-08.txt")));
+
+        storage = new PartitionedStorage(getTasksFilePath(parentPath), getPreferencesFilePath(parentPath),
+            DurabilityPolicy.NEVER);
+        taskList = storage.loadTasks(ui);
+        assertEquals(3, taskList.getNumberOfTasks());
+        storage.exportTasks(taskList, ui);
+        assertEquals("T | 0 | read book\nD | 1 | return book /by 2021-08-24 1800 | 2021-08-24T18:00\nT | 0 | sell book",
+            Files.readString(tasksFilePath));
+    }
+}
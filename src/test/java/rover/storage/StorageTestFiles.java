@@ -0,0 +1,72 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import rover.exceptions.RoverException;
+import rover.task.Task;
+import rover.ui.TextUi;
+
+/**
+ * Sets up the files that storage tests start from, in a temporary directory given by JUnit, so that every test
+ * starts from a directory of its own that is deleted once it has run.
+ */
+final class StorageTestFiles {
+
+    private static final String TASKS_FILE_NAME = "Tasks.txt";
+    private static final String PREFERENCES_FILE_NAME = "Preferences.json";
+
+    private StorageTestFiles() {
+    }
+
+    /**
+     * Returns the path of the tasks file in the given directory, as storage is given it.
+     */
+    static String getTasksFilePath(Path directoryPath) {
+        return directoryPath.resolve(TASKS_FILE_NAME).toString();
+    }
+
+    /**
+     * Returns the path of the preferences file in the given directory, as storage is given it.
+     */
+    static String getPreferencesFilePath(Path directoryPath) {
+        return directoryPath.resolve(PREFERENCES_FILE_NAME).toString();
+    }
+
+    /**
+     * Writes the given content to the tasks file in the given directory.
+     *
+     * @param directoryPath The directory of the tasks file.
+     * @param content The content of the tasks file.
+     * @return The path of the tasks file.
+     * @throws IOException If the tasks file could not be written.
+     */
+    static Path writeTasksFile(Path directoryPath, String content) throws IOException {
+        Path tasksFilePath = directoryPath.resolve(TASKS_FILE_NAME);
+        Files.writeString(tasksFilePath, content);
+        return tasksFilePath;
+    }
+
+    /**
+     * Returns the tasks with the given task strings, loaded from a tasks file in the given directory.
+     *
+     * @param directoryPath The directory of the tasks file.
+     * @param taskStrings The task strings of the tasks, one per line of the tasks file.
+     * @return The loaded tasks, in order.
+     * @throws IOException If the tasks file could not be written or read.
+     * @throws RoverException If a task string is corrupted.
+     */
+    static List<Task> loadTasks(Path directoryPath, List<String> taskStrings) throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile(directoryPath, String.join("\n", taskStrings));
+        return new MappedTaskLoader(tasksFilePath, new TextUi()).load();
+    }
+
+    /**
+     * Returns the task strings of the given tasks, in order.
+     */
+    static List<String> getTaskStrings(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskString).toList();
+    }
+}
@@ -0,0 +1,166 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static rover.storage.StorageTestFiles.getPreferencesFilePath;
+import static rover.storage.StorageTestFiles.getTaskStrings;
+import static rover.storage.StorageTestFiles.getTasksFilePath;
+import static rover.storage.StorageTestFiles.writeTasksFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import rover.exceptions.RoverException;
+import rover.exceptions.StorageException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.TaskListListener;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskArchiveTest {
+
+    private static List<Task> parseTasks(String... taskStrings) throws RoverException {
+        List<Task> tasks = new ArrayList<>();
+        for (String taskString : taskStrings) {
+            tasks.add(TaskList.parseTask(new TextUi(), taskString));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void checkSearch_readsEverySegmentInOrder(@TempDir Path directoryPath) throws IOException, RoverException {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        TaskArchive archive = new TaskArchive(directoryPath.resolve("Tasks.archive"), DurabilityPolicy.NEVER);
+        assertEquals(List.of(), archive.search(task -> true));
+        for (int segment = 0; segment < 12; segment++) {
+            archive.append(parseTasks("T | 1 | read book " + segment,
+                "D | 1 | return book " + segment + " /by 2021-08-24 1800 | 2021-08-24T18:00"));
+        }
+        List<Path> segmentFilePaths = archive.getSegmentFilePaths();
+        assertEquals(12, segmentFilePaths.size());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segmentFilePaths.get(0)))) {
+            assertEquals("T | 1 | read book 0\nD | 1 | return book 0 /by 2021-08-24 1800 | 2021-08-24T18:00\n",
+                new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        List<String> expectedTaskStrings = new ArrayList<>();
+        for (int segment = 0; segment < 12; segment++) {
+            expectedTaskStrings.add("D | 1 | return book " + segment + " /by 2021-08-24 1800 | 2021-08-24T18:00");
+        }
+        assertEquals(expectedTaskStrings,
+            getTaskStrings(archive.search(task -> task.getDescription().startsWith("return"))));
+    }
+
+    @Test
+    public void checkIfExceptionThrown_corruptedSegment(@TempDir Path directoryPath)
+            throws IOException, RoverException {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        TaskArchive archive = new TaskArchive(directoryPath.resolve("Tasks.archive"), DurabilityPolicy.NEVER);
+        archive.append(parseTasks("T | 1 | read book"));
+        archive.append(parseTasks("T | 1 | return book"));
+        Files.write(archive.getSegmentFilePaths().get(1), new byte[] {1, 2, 3});
+        assertThrowsExactly(ZipException.class, () -> archive.search(task -> true));
+    }
+
+    @Test
+    public void checkStorage_archivedTasksLeaveTheList(@TempDir Path directoryPath)
+            throws IOException, RoverException {
+        writeTasksFile(directoryPath, "T | 1 | read book\nT | 0 | return book\n"
+            + "D | 1 | submit report /by 2021-08-24 1800 | 2021-08-24T18:00");
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        UserPreferences userPreferences = new UserPreferences();
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        assertEquals(2, storage.archiveTasks(taskList, Task::isDone, ui));
+        assertEquals(List.of("T | 0 | return book"), taskList.getTaskStrings());
+        assertEquals(0, storage.archiveTasks(taskList, Task::isDone, ui));
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+
+        storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER);
+        taskList = storage.loadTasks(ui);
+        assertEquals(List.of("T | 0 | return book"), taskList.getTaskStrings());
+        outContent.reset();
+        storage.findTasks(taskList, "BOOK", true, "with the keyword 'BOOK' (ignoring case)", ui);
+        String output = outContent.toString();
+        assertTrue(output.contains("Here are the tasks with the keyword 'BOOK' (ignoring case):"
+            + System.lineSeparator() + "1. [T][ ] return book"));
+        assertTrue(output.contains("Here are the tasks in the archive with the keyword 'BOOK' (ignoring case):"
+            + System.lineSeparator() + "1. [T][X] read book"));
+    }
+
+    @Test
+    public void checkStorage_failedRemovalRolledBack(@TempDir Path directoryPath) throws IOException, RoverException {
+        writeTasksFile(directoryPath, "T | 1 | read book\nT | 1 | return book\nT | 1 | sell book");
+        TaskArchive archive = new TaskArchive(directoryPath.resolve("Tasks.archive"), DurabilityPolicy.NEVER);
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(getTasksFilePath(directoryPath), getPreferencesFilePath(directoryPath),
+            DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        // Fails to remove the second task to be removed, which is "return book", as the last task is removed first
+        taskList.addListener(new TaskListListener() {
+            private int deletedCount = 0;
+
+            @Override
+            public void onTaskAdded(Task task) {
+            }
+
+            @Override
+            public void onTaskMarked(int index, Task task) {
+            }
+
+            @Override
+            public void onTaskUnmarked(int index, Task task) {
+            }
+
+            @Override
+            public void onTaskDeleted(int index, Task task) {
+                if (++deletedCount == 2) {
+                    throw new StorageException("Failed to delete task.", new IOException());
+                }
+            }
+        });
+        assertEquals(-1, storage.archiveTasks(taskList, Task::isDone, ui));
+        assertTrue(outContent.toString().contains("Failed to archive tasks."));
+        // Only the tasks that left the list are kept in the archive
+        assertEquals(List.of("T | 1 | read book"), taskList.getTaskStrings());
+        assertEquals(1, archive.getSegmentFilePaths().size());
+        assertEquals(List.of("T | 1 | return book", "T | 1 | sell book"),
+            getTaskStrings(archive.search(task -> true)));
+
+        // Nothing is archived if no task left the list, here as removing them fails before the first is removed
+        int[] testCount = {0};
+        assertEquals(-1, storage.archiveTasks(taskList, task -> {
+            if (++testCount[0] == 2) {
+                throw new StorageException("Failed to read task.", new IOException());
+            }
+            return task.isDone();
+        }, ui));
+        assertEquals(List.of("T | 1 | read book"), taskList.getTaskStrings());
+        assertEquals(1, archive.getSegmentFilePaths().size());
+    }
+}
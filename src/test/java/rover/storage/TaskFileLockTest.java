@@ -0,0 +1,157 @@
+package rover.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskFileLockTest {
+
+    private static final String TASKS_FILE_PATH = "build/task-file-lock-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/task-file-lock-test/Preferences.json";
+
+    private static Path getTasksFilePath() throws IOException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        return tasksFilePath;
+    }
+
+    @Test
+    public void checkVersion_increasedByEveryWrite() throws IOException {
+        Path lockFilePath = Files.createTempDirectory("rover").resolve("Tasks.lock");
+        TaskFileLock lock = new TaskFileLock(lockFilePath);
+        assertEquals(0L, lock.read(lock::readVersion));
+        lock.write(() -> {
+            // The lock is reentrant
+            lock.write(() -> {
+                lock.writeVersion(lock.readVersion() + 1);
+                return null;
+            });
+            lock.writeVersion(lock.readVersion() + 1);
+            return null;
+        });
+        assertEquals(2L, lock.read(lock::readVersion));
+        assertEquals("2", Files.readString(lockFilePath).trim());
+    }
+
+    /**
+     * Holds the exclusive lock on the lock file given as the first argument, after reading and writing the version
+     * through it, until a line is read from the standard input, as another process sharing the data directory would.
+     *
+     * @param args The path of the lock file.
+     * @throws IOException If the lock could not be taken.
+     */
+    public static void main(String[] args) throws IOException {
+        TaskFileLock lock = new TaskFileLock(Paths.get(args[0]));
+        lock.write(() -> {
+            lock.writeVersion(lock.readVersion() + 1);
+            System.out.println("locked");
+            System.out.flush();
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+            return null;
+        });
+    }
+
+    private static String getClassPath() throws URISyntaxException {
+        return Paths.get(TaskFileLock.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            + File.pathSeparator
+            + Paths.get(TaskFileLockTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    public void checkLock_heldAgainstOtherProcessWhileVersionRead(@TempDir Path directoryPath)
+            throws IOException, InterruptedException, URISyntaxException {
+        Path lockFilePath = directoryPath.resolve("Tasks.lock");
+        Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", getClassPath(), TaskFileLockTest.class.getName(), lockFilePath.toString())
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                OutputStream input = process.getOutputStream()) {
+            assertEquals("locked", reader.readLine());
+            try (FileChannel channel = FileChannel.open(lockFilePath, StandardOpenOption.WRITE)) {
+                // The other process still holds the lock after reading and writing the version
+                assertNull(channel.tryLock());
+                input.write('\n');
+                input.flush();
+                assertEquals(0, process.waitFor());
+                try (FileLock fileLock = channel.tryLock()) {
+                    assertNotNull(fileLock);
+                }
+            }
+        } finally {
+            process.destroy();
+        }
+        TaskFileLock lock = new TaskFileLock(lockFilePath);
+        assertEquals(1L, lock.read(lock::readVersion));
+    }
+
+    @Test
+    public void checkStorage_changesSavedByOtherProcessMerged() throws IOException, RoverException {
+        Path tasksFilePath = getTasksFilePath();
+        Files.writeString(tasksFilePath, "T | 0 | read book\nT | 0 | return book\n");
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".journal"));
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".lock"));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+
+        // Two sessions share the same tasks file, as two processes would
+        FileStorage firstStorage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        UserPreferences firstPreferences = new UserPreferences();
+        TaskList firstTaskList = firstStorage.loadTasks(ui);
+        firstStorage.trackChanges(firstTaskList, firstPreferences);
+        firstStorage.attachJournal(firstTaskList, ui);
+        FileStorage secondStorage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        UserPreferences secondPreferences = new UserPreferences();
+        TaskList secondTaskList = secondStorage.loadTasks(ui);
+        secondStorage.trackChanges(secondTaskList, secondPreferences);
+        secondStorage.attachJournal(secondTaskList, ui);
+
+        // The first session journals its changes, after which the second one may no longer append to the journal
+        firstTaskList.addTask(new Todo("sell book"), ui);
+        secondTaskList.markTask(1, ui);
+        secondTaskList.deleteTask(0, ui);
+        secondStorage.saveAll(secondTaskList, secondPreferences, ui);
+        assertTrue(secondStorage.isSavedSuccessfully());
+        assertEquals(List.of("T | 1 | return book", "T | 0 | sell book"), Files.readAllLines(tasksFilePath));
+
+        // The first session merges the snapshot of the second one before saving its own changes
+        firstTaskList.addTask(new Todo("buy book"), ui);
+        firstStorage.saveAll(firstTaskList, firstPreferences, ui);
+        assertTrue(firstStorage.isSavedSuccessfully());
+        assertEquals(List.of("T | 1 | return book", "T | 0 | sell book", "T | 0 | buy book"),
+            firstTaskList.getTaskStrings());
+
+        TaskList loadedTaskList = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER)
+            .loadTasks(ui);
+        assertEquals(firstTaskList.getTaskStrings(), loadedTaskList.getTaskStrings());
+    }
+}
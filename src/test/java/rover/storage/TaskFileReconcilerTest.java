@@ -0,0 +1,119 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskFileReconcilerTest {
+
+    private static final String TASKS_FILE_PATH = "build/task-file-reconciler-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/task-file-reconciler-test/Preferences.json";
+
+    private static Path writeTasksFile(String content) throws IOException {
+        Path tasksFilePath = Files.createTempDirectory("rover").resolve("Tasks.txt");
+        Files.writeString(tasksFilePath, content);
+        return tasksFilePath;
+    }
+
+    private static TaskList loadTasks(Path tasksFilePath) throws IOException, RoverException {
+        return new TaskList(null, Files.readAllLines(tasksFilePath).toArray(new String[0]));
+    }
+
+    @Test
+    public void checkApply_onlyChangedRecordsApplied() throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile("T | 0 | read book\nT | 0 | return book\nT | 1 | sell book\n");
+        TaskList taskList = loadTasks(tasksFilePath);
+        TaskFileReconciler reconciler = TaskFileReconciler.of(tasksFilePath);
+        assertFalse(reconciler.isChanged(tasksFilePath));
+
+        Files.writeString(tasksFilePath, "T | 1 | return book\r\n\nT | 1 | sell book\nT | 0 | buy book\n");
+        assertTrue(reconciler.isChanged(tasksFilePath));
+        assertEquals(3, reconciler.apply(tasksFilePath, taskList));
+        assertEquals(List.of("T | 1 | return book", "T | 1 | sell book", "T | 0 | buy book"),
+            taskList.getTaskStrings());
+        assertFalse(reconciler.isChanged(tasksFilePath));
+        assertEquals(0, reconciler.apply(tasksFilePath, taskList));
+    }
+
+    @Test
+    public void checkApply_changesMadeInSessionKept() throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile("T | 0 | read book\nT | 0 | return book\n");
+        TaskList taskList = loadTasks(tasksFilePath);
+        TaskFileReconciler reconciler = TaskFileReconciler.of(tasksFilePath);
+        taskList.addTaskIfAbsent(new Todo("sell book"));
+        taskList.setTaskDone(1, true);
+
+        // Another program marks the task that was marked in the session too, and deletes the other one
+        Files.writeString(tasksFilePath, "T | 1 | return book\n");
+        reconciler.apply(tasksFilePath, taskList);
+        assertEquals(List.of("T | 1 | return book", "T | 0 | sell book"), taskList.getTaskStrings());
+
+        // Deleting the tasks file does not delete the tasks
+        Files.delete(tasksFilePath);
+        assertEquals(0, reconciler.apply(tasksFilePath, taskList));
+        assertEquals(2, taskList.getNumberOfTasks());
+    }
+
+    @Test
+    public void checkIfExceptionThrown_corruptedRecordAdded() throws IOException, RoverException {
+        Path tasksFilePath = writeTasksFile("T | 0 | read book\n");
+        TaskList taskList = loadTasks(tasksFilePath);
+        TaskFileReconciler reconciler = TaskFileReconciler.of(tasksFilePath);
+        Files.writeString(tasksFilePath, "T | 1 | read book\nX | 0 | return book\n");
+        assertThrowsExactly(RoverException.class, () -> reconciler.apply(tasksFilePath, taskList));
+        assertEquals(List.of("T | 0 | read book"), taskList.getTaskStrings());
+    }
+
+    @Test
+    public void checkStorage_editsWhileWatchingNotOverwritten() throws IOException, InterruptedException,
+            RoverException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        Files.writeString(tasksFilePath, "T | 0 | read book\n");
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".journal"));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+        UserPreferences userPreferences = new UserPreferences();
+        Object sessionLock = new Object();
+
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        storage.startAutoSave(taskList, userPreferences, sessionLock, Duration.ofMillis(100));
+        storage.watchTasksFile(taskList, sessionLock, ui);
+        synchronized (sessionLock) {
+            taskList.addTask(new Todo("sell book"), ui);
+        }
+
+        Path scriptFilePath = tasksFilePath.resolveSibling("Tasks.script");
+        Files.writeString(scriptFilePath, "T | 1 | read book\nT | 0 | return book\n");
+        Files.move(scriptFilePath, tasksFilePath, StandardCopyOption.REPLACE_EXISTING);
+        for (int i = 0; i < 500 && taskList.getNumberOfTasks() < 3; i++) {
+            Thread.sleep(10);
+        }
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertEquals(List.of("T | 1 | read book", "T | 0 | sell book", "T | 0 | return book"),
+            Files.readAllLines(tasksFilePath));
+    }
+}
@@ -0,0 +1,151 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskFileWriterTest {
+
+    private static final String TASKS_FILE_PATH = "build/task-file-writer-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/task-file-writer-test/Preferences.json";
+
+    private static Path resolve(String filePath) {
+        return Paths.get(System.getProperty("user.dir"), filePath.split("/"));
+    }
+
+    private static void assertWritten(Path tasksFilePath, TaskList taskList, long checksum) throws IOException {
+        byte[] bytes = Files.readAllBytes(tasksFilePath);
+        assertEquals(String.join("\n", taskList.getTaskStrings()), new String(bytes));
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        assertEquals(crc.getValue(), checksum);
+    }
+
+    @Test
+    public void checkWrite_onlyChangedRegionsRewritten() throws IOException, RoverException, DateTimeParseException {
+        Path tasksFilePath = Files.createTempDirectory("rover").resolve("Tasks.txt");
+        TaskList taskList = new TaskList(null, "T | 0 | read book", "T | 0 | return book", "T | 1 | buy book",
+            "T | 0 | sell book");
+        ChangeTracker changeTracker = new ChangeTracker(taskList.getNumberOfTasks());
+        taskList.addListener(changeTracker);
+        TaskFileWriter writer = new TaskFileWriter(tasksFilePath, DurabilityPolicy.ALWAYS);
+        Ui ui = new TextUi();
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        assertWritten(tasksFilePath, taskList, writer.write(changeTracker.captureTaskChanges(taskList)));
+
+        // Statuses are patched in place, and added tasks are appended
+        taskList.markTask(0, ui);
+        taskList.unmarkTask(2, ui);
+        taskList.addTask(new Todo("lend book"), ui);
+        TaskFileWriter.Update update = changeTracker.captureTaskChanges(taskList);
+        assertEquals(4, update.firstRewrittenIndex());
+        assertEquals(2, update.patchedIndexes().length);
+        assertWritten(tasksFilePath, taskList, writer.write(update));
+
+        // Only the records from the first deleted one onwards are rewritten
+        taskList.deleteTask(4, ui);
+        taskList.deleteTask(1, ui);
+        taskList.markTask(2, ui);
+        taskList.unmarkTask(0, ui);
+        update = changeTracker.captureTaskChanges(taskList);
+        assertEquals(1, update.firstRewrittenIndex());
+        assertEquals(2, update.rewrittenTaskStrings().size());
+        assertWritten(tasksFilePath, taskList, writer.write(update));
+
+        taskList.deleteTask(0, ui);
+        taskList.deleteTask(0, ui);
+        taskList.deleteTask(0, ui);
+        assertWritten(tasksFilePath, taskList, writer.write(changeTracker.captureTaskChanges(taskList)));
+        taskList.addTask(new Todo("read book"), ui);
+        assertWritten(tasksFilePath, taskList, writer.write(changeTracker.captureTaskChanges(taskList)));
+    }
+
+    @Test
+    public void checkWrite_largeListWrittenInOrder() throws IOException {
+        Path tasksFilePath = Files.createTempDirectory("rover").resolve("Tasks.txt");
+        List<String> taskStrings = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            taskStrings.add("D | " + (i % 2) + " | task " + i + " /by 2030-08-24 1800");
+        }
+        TaskFileWriter writer = new TaskFileWriter(tasksFilePath, DurabilityPolicy.NEVER);
+        long checksum = writer.write(TaskFileWriter.Update.ofAll(taskStrings));
+        byte[] bytes = Files.readAllBytes(tasksFilePath);
+        assertEquals(String.join("\n", taskStrings), new String(bytes));
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        assertEquals(crc.getValue(), checksum);
+
+        // The offsets recorded while writing in chunks are used to rewrite the tail
+        taskStrings.remove(54_321);
+        writer.write(new TaskFileWriter.Update(54_321, taskStrings.subList(54_321, taskStrings.size()), new int[0],
+            new boolean[0]));
+        assertEquals(String.join("\n", taskStrings), Files.readString(tasksFilePath));
+    }
+
+    @Test
+    public void checkWrite_failedWriteKeepsTasksFile() throws IOException {
+        Path tasksFilePath = Files.createTempDirectory("rover").resolve("Tasks.txt");
+        TaskFileWriter writer = new TaskFileWriter(tasksFilePath, DurabilityPolicy.NEVER);
+        writer.write(TaskFileWriter.Update.ofAll(List.of("T | 0 | read book", "T | 1 | return book")));
+        assertFalse(Files.exists(AtomicFiles.getTempFilePath(tasksFilePath)));
+
+        // The temporary file cannot be created, so nothing is written
+        Files.createDirectory(AtomicFiles.getTempFilePath(tasksFilePath));
+        assertThrows(IOException.class, () -> writer.write(TaskFileWriter.Update.ofAll(List.of("T | 0 | sell book"))));
+        assertEquals("T | 0 | read book\nT | 1 | return book", Files.readString(tasksFilePath));
+    }
+
+    @Test
+    public void checkSaveAll_unchangedFilesNotWritten() throws IOException, RoverException {
+        Path tasksFilePath = resolve(TASKS_FILE_PATH);
+        Path preferencesFilePath = resolve(PREFERENCES_FILE_PATH);
+        Files.deleteIfExists(tasksFilePath);
+        Files.deleteIfExists(preferencesFilePath);
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH);
+        TaskList taskList = new TaskList();
+        UserPreferences userPreferences = new UserPreferences();
+        Ui ui = new TextUi();
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        storage.trackChanges(taskList, userPreferences);
+
+        userPreferences.setName("");
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertFalse(Files.exists(tasksFilePath));
+        assertFalse(Files.exists(preferencesFilePath));
+
+        taskList.addTask(new Todo("read book"), ui);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertEquals("T | 0 | read book", Files.readString(tasksFilePath));
+        assertFalse(Files.exists(preferencesFilePath));
+
+        userPreferences.setName("Alice");
+        Files.delete(tasksFilePath);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertFalse(Files.exists(tasksFilePath));
+        assertTrue(Files.readString(preferencesFilePath).contains("\"name\":\"Alice\""));
+    }
+}
@@ -0,0 +1,158 @@
+package rover.storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.Task;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskJournalTest {
+
+    private static final String TASKS_FILE_PATH = "build/task-journal-test/Tasks.txt";
+    private static final String PREFERENCES_FILE_PATH = "build/task-journal-test/Preferences.json";
+
+    @Test
+    public void checkReplay_appliesRecordsInOrder() throws IOException, RoverException {
+        Path journalFilePath = Files.createTempDirectory("rover").resolve("Tasks.journal");
+        TaskJournal journal = new TaskJournal(journalFilePath, 100);
+        journal.replay(new ArrayList<>(), 42, null);
+        journal.open();
+        journal.onTaskAdded(new Todo("read book"));
+        journal.onTaskAdded(new Todo("return book"));
+        journal.onTaskMarked(1, null);
+        journal.onTaskDeleted(0, null);
+        journal.close();
+
+        List<Task> tasks = new ArrayList<>();
+        new TaskJournal(journalFilePath, 100).replay(tasks, 42, null);
+        assertEquals(1, tasks.size());
+        assertEquals("T | 1 | return book", tasks.get(0).getTaskString());
+    }
+
+    @Test
+    public void checkReplay_ignoresJournalOfOtherSnapshot() throws IOException, RoverException {
+        Path journalFilePath = Files.createTempDirectory("rover").resolve("Tasks.journal");
+        Files.writeString(journalFilePath, "SNAPSHOT | 1\nADD | T | 0 | read book\n");
+        List<Task> tasks = new ArrayList<>();
+        new TaskJournal(journalFilePath, 100).replay(tasks, 2, null);
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    public void checkIfExceptionThrown_corruptedRecord() throws IOException {
+        Path journalFilePath = Files.createTempDirectory("rover").resolve("Tasks.journal");
+        Files.writeString(journalFilePath, "SNAPSHOT | 0\nDELETE | 3\n");
+        assertThrowsExactly(RoverException.class, () ->
+            new TaskJournal(journalFilePath, 100).replay(new ArrayList<>(), 0, null));
+    }
+
+    @Test
+    public void checkCompaction_triggeredAtThreshold() throws IOException, RoverException {
+        Path journalFilePath = Files.createTempDirectory("rover").resolve("Tasks.journal");
+        TaskJournal journal = new TaskJournal(journalFilePath, 2);
+        List<String> compactions = new ArrayList<>();
+        journal.setCompactionHandler(() -> compactions.add("compacted"));
+        journal.replay(new ArrayList<>(), 0, null);
+        journal.open();
+        journal.onTaskAdded(new Todo("read book"));
+        assertEquals(0, compactions.size());
+        journal.onTaskMarked(0, null);
+        assertEquals(1, compactions.size());
+        journal.close();
+    }
+
+    @Test
+    public void checkStorage_partlyReplayedJournalSavedBeforeJournalRestarted() throws IOException, RoverException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        byte[] snapshot = "T | 0 | read book\nT | 0 | return book\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(tasksFilePath, snapshot);
+        CRC32 crc = new CRC32();
+        crc.update(snapshot);
+        // The last record was torn by a crash
+        Files.writeString(FileStorage.getSiblingFilePath(tasksFilePath, ".journal"),
+            "SNAPSHOT | " + crc.getValue() + "\nMARK | 1\nDELETE | 0\nMAR");
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".lock"));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        assertEquals(List.of("T | 1 | return book"), taskList.getTaskStrings());
+        storage.trackChanges(taskList, new UserPreferences());
+        storage.attachJournal(taskList, ui);
+        assertTrue(storage.isJournalAttached());
+        assertEquals(List.of("T | 1 | return book"), Files.readAllLines(tasksFilePath));
+
+        // The new journal builds upon the tasks as replayed, so loading them again after a crash restores them
+        taskList.addTask(new Todo("sell book"), ui);
+        TaskList loadedTaskList = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER)
+            .loadTasks(ui);
+        assertEquals(List.of("T | 1 | return book", "T | 0 | sell book"), loadedTaskList.getTaskStrings());
+    }
+
+    @Test
+    public void checkStorage_journalCompactedWhenSessionEnds() throws IOException, RoverException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        Files.deleteIfExists(tasksFilePath);
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".journal"));
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".lock"));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+        UserPreferences userPreferences = new UserPreferences();
+
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        storage.trackChanges(taskList, userPreferences);
+        storage.attachJournal(taskList, ui);
+        taskList.addTask(new Todo("read book"), ui);
+        taskList.markTask(0, ui);
+        storage.saveAll(taskList, userPreferences, ui);
+        assertTrue(storage.isSavedSuccessfully());
+        assertEquals(List.of("T | 1 | read book"), Files.readAllLines(tasksFilePath));
+        assertEquals(1, Files.readAllLines(FileStorage.getSiblingFilePath(tasksFilePath, ".journal")).size());
+    }
+
+    @Test
+    public void checkStorage_journalOfEditedSnapshotKept() throws IOException, RoverException {
+        Path tasksFilePath = Paths.get(System.getProperty("user.dir"), TASKS_FILE_PATH.split("/"));
+        Files.createDirectories(tasksFilePath.getParent());
+        Files.writeString(tasksFilePath, "T | 0 | read book\n");
+        Path journalFilePath = FileStorage.getSiblingFilePath(tasksFilePath, ".journal");
+        Files.writeString(journalFilePath, "SNAPSHOT | 1\nADD | T | 0 | return book\nMARK | 0\n");
+        Path backupFilePath = journalFilePath.resolveSibling("Tasks.journal.bak");
+        Files.deleteIfExists(backupFilePath);
+        Files.deleteIfExists(FileStorage.getSiblingFilePath(tasksFilePath, ".lock"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        Ui ui = new TextUi();
+
+        FileStorage storage = new FileStorage(TASKS_FILE_PATH, PREFERENCES_FILE_PATH, DurabilityPolicy.NEVER);
+        TaskList taskList = storage.loadTasks(ui);
+        storage.trackChanges(taskList, new UserPreferences());
+        storage.attachJournal(taskList, ui);
+        assertEquals(List.of("T | 0 | read book"), taskList.getTaskStrings());
+        assertTrue(output.toString().contains("2 most recent changes"));
+        assertEquals(List.of("SNAPSHOT | 1", "ADD | T | 0 | return book", "MARK | 0"),
+            Files.readAllLines(backupFilePath));
+    }
+}
@@ -0,0 +1,88 @@
+package rover.storage;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import rover.exceptions.RoverException;
+import rover.task.TaskList;
+
+/**
+ * Compares the time and memory allocated per record when loading a large tasks file
+ * through the line-splitting path and through {@link MappedTaskLoader}, both sequentially and in parallel,
+ * and as records that are only parsed when they are read.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=rover.storage.TaskLoadingBenchmark [-PbenchmarkArgs=records]}.
+ */
+public class TaskLoadingBenchmark {
+
+    private static final int DEFAULT_NUMBER_OF_RECORDS = 200_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Interface for a way of loading the tasks file that is being measured.
+     */
+    private interface Loader {
+        int load(Path tasksFilePath) throws IOException, RoverException;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of records in the generated tasks file.
+     */
+    public static void main(String[] args) throws IOException, RoverException {
+        int numberOfRecords = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_RECORDS;
+        Path tasksFilePath = generateTasksFile(numberOfRecords);
+        System.out.printf("Loading %d records (%d bytes)%n", numberOfRecords, Files.size(tasksFilePath));
+        measure("Files.lines + TaskList(Ui, String...)", tasksFilePath, numberOfRecords, path -> {
+            try (Stream<String> lines = Files.lines(path)) {
+                String[] taskStrings = lines.filter(line -> !line.isBlank()).toArray(String[]::new);
+                return new TaskList(null, taskStrings).getNumberOfTasks();
+            }
+        });
+        measure("MappedTaskLoader (sequential)", tasksFilePath, numberOfRecords, path ->
+            new MappedTaskLoader(path, null, false).load().size());
+        measure("MappedTaskLoader (parallel)", tasksFilePath, numberOfRecords, path ->
+            new MappedTaskLoader(path, null, true).load().size());
+        measure("MappedTaskLoader (records, lazy)", tasksFilePath, numberOfRecords, path ->
+            TaskList.ofRecords(new MappedTaskLoader(path, null).loadRecords(), null).getNumberOfTasks());
+        Files.delete(tasksFilePath);
+    }
+
+    static Path generateTasksFile(int numberOfRecords) throws IOException {
+        List<String> records = new ArrayList<>(numberOfRecords);
+        for (int i = 0; i < numberOfRecords; i++) {
+            int day = i % 28 + 1;
+            records.add(switch (i % 3) {
+            case 0 -> "T | " + (i % 2) + " | read book " + i;
+            case 1 -> String.format("D | %d | return book %d /by 2030-08-%02d 1800", i % 2, i, day);
+            default -> String.format("E | %d | meeting %d /from 2030-08-%02d 1400 /to 2030-08-%02d 1600",
+                i % 2, i, day, day);
+            });
+        }
+        Path tasksFilePath = Files.createTempFile("rover-benchmark", ".txt");
+        Files.write(tasksFilePath, records);
+        return tasksFilePath;
+    }
+
+    private static void measure(String name, Path tasksFilePath, int numberOfRecords, Loader loader)
+            throws IOException, RoverException {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 1; round <= ROUNDS; round++) {
+            long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int loaded = loader.load(tasksFilePath);
+            long elapsedNanos = System.nanoTime() - start;
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            assert loaded == numberOfRecords : "All records should be loaded.";
+            // Only the calling thread's allocations are counted, so parallel loads report less than they allocate
+            System.out.printf("%-40s round %d: %6d ms, %8.1f bytes allocated per record%n", name, round,
+                elapsedNanos / 1_000_000, (double) allocated / numberOfRecords);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package rover.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.preferences.UserPreferences;
+import rover.task.TaskList;
+import rover.task.Todo;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskSyncTest {
+
+    private static final String TEST_DIRECTORY_PATH = "build/task-sync-test";
+
+    private static Path createDataDirectory(String name, String tasks) throws IOException {
+        Path directoryPath = Paths.get(System.getProperty("user.dir"), TEST_DIRECTORY_PATH.split("/")).resolve(name);
+        if (Files.exists(directoryPath)) {
+            try (Stream<Path> files = Files.walk(directoryPath)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(directoryPath);
+        Files.writeString(directoryPath.resolve("Tasks.txt"), tasks);
+        return directoryPath;
+    }
+
+    private static FileStorage getStorage(String name) {
+        return new FileStorage(TEST_DIRECTORY_PATH + "/" + name + "/Tasks.txt",
+            TEST_DIRECTORY_PATH + "/" + name + "/Preferences.json", DurabilityPolicy.NEVER);
+    }
+
+    private static TaskList loadTasks(FileStorage storage, Ui ui) throws RoverException {
+        TaskList taskList = storage.loadTasks(ui);
+        storage.trackChanges(taskList, new UserPreferences());
+        return taskList;
+    }
+
+    @Test
+    public void checkSync_concurrentChangesConverge() throws IOException, RoverException {
+        createDataDirectory("first", "T | 0 | read book\nT | 0 | return book\n");
+        createDataDirectory("second", "");
+        Path folderPath = Files.createTempDirectory("rover");
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        Ui ui = new TextUi();
+        UserPreferences userPreferences = new UserPreferences();
+
+        FileStorage firstStorage = getStorage("first");
+        TaskList firstTaskList = loadTasks(firstStorage, ui);
+        FileStorage secondStorage = getStorage("second");
+        TaskList secondTaskList = loadTasks(secondStorage, ui);
+        assertEquals(0, firstStorage.syncTasks(firstTaskList, folderPath.toString(), ui));
+        assertEquals(2, secondStorage.syncTasks(secondTaskList, folderPath.toString(), ui));
+        assertEquals(List.of("T | 0 | read book", "T | 0 | return book"), secondTaskList.getTaskStrings());
+
+        // Both data directories change the same tasks before they sync again
+        firstTaskList.markTask(1, ui);
+        firstTaskList.deleteTask(0, ui);
+        firstStorage.saveAll(firstTaskList, userPreferences, ui);
+        secondTaskList.deleteTask(1, ui);
+        secondTaskList.addTask(new Todo("return book"), ui);
+        secondTaskList.addTask(new Todo("sell book"), ui);
+        secondStorage.saveAll(secondTaskList, userPreferences, ui);
+        assertTrue(secondStorage.isSavedSuccessfully());
+
+        // The task deleted by the first data directory is removed, the task added again by the second one is kept,
+        // and the status it was added with wins, as it was set after the task was marked
+        assertEquals(0, firstStorage.syncTasks(firstTaskList, folderPath.toString(), ui));
+        assertEquals(1, secondStorage.syncTasks(secondTaskList, folderPath.toString(), ui));
+        assertEquals(List.of("T | 0 | return book", "T | 0 | sell book"), secondTaskList.getTaskStrings());
+        assertEquals(3, firstStorage.syncTasks(firstTaskList, folderPath.toString(), ui));
+        assertEquals(List.of("T | 0 | return book", "T | 0 | sell book"), firstTaskList.getTaskStrings());
+        assertEquals(0, secondStorage.syncTasks(secondTaskList, folderPath.toString(), ui));
+
+        // The state of the sync is kept between sessions, so only new changes are applied
+        firstStorage.saveAll(firstTaskList, userPreferences, ui);
+        FileStorage reopenedStorage = getStorage("first");
+        TaskList reopenedTaskList = loadTasks(reopenedStorage, ui);
+        reopenedTaskList.markTask(1, ui);
+        reopenedStorage.saveAll(reopenedTaskList, userPreferences, ui);
+        assertEquals(0, reopenedStorage.syncTasks(reopenedTaskList, folderPath.toString(), ui));
+        assertEquals(1, secondStorage.syncTasks(secondTaskList, folderPath.toString(), ui));
+        assertEquals(List.of("T | 0 | return book", "T | 1 | sell book"), secondTaskList.getTaskStrings());
+    }
+}
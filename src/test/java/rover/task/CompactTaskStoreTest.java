@@ -0,0 +1,88 @@
+package rover.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class CompactTaskStoreTest {
+
+    private static final String[] TASK_STRINGS = {
+        "T | 0 | read book",
+        "D | 1 | return book /by 2030-08-24 | 2030-08-24",
+        "D | 0 | submit report /by 24/08/30 6:00PM | 2030-08-24T18:00",
+        "E | 0 | project meeting /from 2030-08-24 1400 /to 1600 | 2030-08-24T14:00 | 2030-08-24T16:00",
+        "E | 1 | camp /from 20/08/30 /to 22/08/30 | 2030-08-20 | 2030-08-22",
+        "T | 1 | read book again"
+    };
+
+    private static List<Task> parseTasks() {
+        try {
+            return new TaskList(null, TASK_STRINGS).getTasks();
+        } catch (RoverException | DateTimeParseException e) {
+            fail("Exception should not be thrown");
+            return List.of();
+        }
+    }
+
+    @Test
+    public void checkViews_sameAsStoredTasks() {
+        List<Task> tasks = parseTasks();
+        CompactTaskStore store = new CompactTaskStore();
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i + 1, store.add(tasks.get(i)));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            Task view = store.get(i);
+            assertEquals(tasks.get(i), view);
+            assertEquals(tasks.get(i).toString(), view.toString());
+            assertEquals(TASK_STRINGS[i], view.getTaskString());
+            assertEquals(tasks.get(i).getDueDateTime(), view.getDueDateTime());
+        }
+
+        assertEquals("[D][ ] return book (by: Saturday, 24 August, 2030 11:59 pm)",
+            store.setDone(1, false).toString());
+        assertEquals("read book", store.remove(0).description);
+        assertEquals(-1, store.indexOf(1));
+        assertEquals(0, store.indexOf(2));
+        assertEquals("D | 0 | return book /by 2030-08-24 | 2030-08-24", store.get(0).getTaskString());
+        assertEquals(5, store.toList().size());
+    }
+
+    @Test
+    public void checkTaskList_sameWithEitherStore() {
+        Ui ui = new TextUi();
+        TaskList objectTaskList = TaskList.of(parseTasks(), null, new TaskSequence());
+        TaskList compactTaskList = TaskList.of(parseTasks(), null, new CompactTaskStore());
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        String[] outputs = new String[2];
+        TaskList[] taskLists = {objectTaskList, compactTaskList};
+        for (int i = 0; i < taskLists.length; i++) {
+            outContent.reset();
+            taskLists[i].markTask(0, ui);
+            taskLists[i].deleteTask(2, ui);
+            taskLists[i].showTasks(ui, task -> true, "in your list");
+            taskLists[i].showTasksAfter(ui, DateTimeQuery.parse("2030-08-23"), "after 2030-08-23");
+            taskLists[i].showTasksContaining(ui, "BOOK", true, "with the keyword 'BOOK'");
+            try {
+                taskLists[i].addTask(new Deadline("return book /by 2030-08-24", ui), ui);
+                fail("Exception should be thrown");
+            } catch (RoverException e) {
+                assertEquals("This task already exists in the list.", e.getMessage());
+            }
+            outputs[i] = outContent.toString();
+        }
+        assertEquals(outputs[0], outputs[1]);
+    }
+}
@@ -0,0 +1,190 @@
+package rover.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TableTaskStoreTest {
+
+    /**
+     * Keeps the rows of a task table in memory, and records every write and query made to it.
+     */
+    private static final class MemoryTaskTable implements TaskTable {
+        private final Map<Integer, Task> rows = new TreeMap<>();
+        private final List<String> log = new ArrayList<>();
+
+        private List<Task> select(String query, Predicate<Task> predicate) {
+            log.add(query);
+            List<Task> tasks = new ArrayList<>();
+            for (Task task : rows.values()) {
+                if (predicate.test(task)) {
+                    tasks.add(copy(task));
+                }
+            }
+            return tasks;
+        }
+
+        private static Task copy(Task task) {
+            try {
+                return TaskList.parseTask(null, task.getTaskString());
+            } catch (RoverException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public int[] selectRowIds() {
+            return rows.keySet().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        @Override
+        public void insert(int rowId, Task task) {
+            log.add("insert " + rowId);
+            rows.put(rowId, copy(task));
+        }
+
+        @Override
+        public Task select(int rowId) {
+            return copy(rows.get(rowId));
+        }
+
+        @Override
+        public String selectDescription(int rowId) {
+            return rows.get(rowId).description;
+        }
+
+        @Override
+        public void updateDone(int rowId, boolean isDone) {
+            log.add("update " + rowId);
+            rows.get(rowId).isDone = isDone;
+        }
+
+        @Override
+        public void delete(int rowId) {
+            log.add("delete " + rowId);
+            rows.remove(rowId);
+        }
+
+        @Override
+        public List<Task> selectAll() {
+            return select("all", task -> true);
+        }
+
+        @Override
+        public List<Task> selectMatching(TaskFilter filter) {
+            return select("matching", filter);
+        }
+
+        @Override
+        public List<Task> selectDueBefore(LocalDateTime dateTime) {
+            return select("before", task -> task.getDueDateTime() != null && task.getDueDateTime().isBefore(dateTime));
+        }
+
+        @Override
+        public List<Task> selectDueAfter(LocalDateTime dateTime) {
+            return select("after", task -> task.getDueDateTime() != null && task.getDueDateTime().isAfter(dateTime));
+        }
+
+        @Override
+        public List<Task> selectDueBetween(LocalDateTime from, LocalDateTime to) {
+            return select("between", task -> task.getDueDateTime() != null
+                && !task.getDueDateTime().isBefore(from) && !task.getDueDateTime().isAfter(to));
+        }
+
+        @Override
+        public List<Task> selectContaining(String keyword, boolean isCaseInsensitive) {
+            return select("containing", task -> isCaseInsensitive
+                ? task.description.toLowerCase().contains(keyword.toLowerCase())
+                : task.description.contains(keyword));
+        }
+
+        @Override
+        public List<Task> selectByDescription(String description) {
+            return select("description", task -> task.description.equals(description));
+        }
+    }
+
+    private static MemoryTaskTable createTable(String... taskStrings) throws RoverException {
+        MemoryTaskTable table = new MemoryTaskTable();
+        // Rows deleted in earlier sessions leave gaps in the row IDs
+        int rowId = 3;
+        for (String taskString : taskStrings) {
+            table.rows.put(rowId, TaskList.parseTask(null, taskString));
+            rowId += 2;
+        }
+        return table;
+    }
+
+    @Test
+    public void checkChanges_writtenAsSingleRows() throws RoverException {
+        MemoryTaskTable table = createTable("T | 0 | read book", "T | 0 | return book", "T | 1 | buy book");
+        TaskList taskList = TaskList.ofTable(table);
+        Ui ui = new TextUi();
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+
+        // IDs are given by position, as for any loaded list, whatever the row IDs are
+        assertEquals(3, taskList.getNumberOfTasks());
+        assertEquals(2, taskList.getTaskId(1));
+        assertEquals(2, taskList.getIndexOfTaskId(3));
+
+        taskList.markTask(1, ui);
+        taskList.unmarkTask(2, ui);
+        taskList.deleteTask(0, ui);
+        taskList.addTask(new Todo("sell book"), ui);
+        assertThrows(RoverException.class, () -> taskList.addTask(new Todo("sell book"), ui));
+        assertEquals(List.of("update 5", "update 7", "delete 3", "description", "insert 8", "description"),
+            table.log);
+        assertEquals(List.of("T | 1 | return book", "T | 0 | buy book", "T | 0 | sell book"),
+            taskList.getTaskStrings());
+        assertEquals(-1, taskList.getIndexOfTaskId(1));
+        assertEquals(2, taskList.getIndexOfTaskId(4));
+        assertEquals(3, TaskList.ofTable(table).getNumberOfTasks());
+    }
+
+    @Test
+    public void checkQueries_answeredByTable() throws RoverException {
+        MemoryTaskTable table = createTable("D | 0 | submit report /by 2030-08-24 1800 | 2030-08-24T18:00",
+            "T | 0 | read Report", "E | 0 | meeting /from 2030-08-24 1400 /to 2030-08-24 1600 | 2030-08-24T14:00 "
+                + "| 2030-08-24T16:00", "D | 1 | pay bills /by 2030-08-23 | 2030-08-23");
+        TaskList taskList = TaskList.ofTable(table);
+        Ui ui = new TextUi();
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        DateTimeQuery query = DateTimeQuery.parse("2030-08-24 1600");
+        taskList.showTasks(ui, task -> task.isBefore(query), "before");
+        String expectedBefore = outContent.toString();
+        outContent.reset();
+        taskList.showTasksBefore(ui, query, "before");
+        assertEquals(expectedBefore, outContent.toString());
+
+        outContent.reset();
+        taskList.showTasks(ui, task -> task.getDescription().contains("report"), "found");
+        String expectedFound = outContent.toString();
+        outContent.reset();
+        taskList.showTasksContaining(ui, "report", false, "found");
+        assertEquals(expectedFound, outContent.toString());
+
+        outContent.reset();
+        taskList.showTasks(ui, task -> task instanceof Deadline && !task.isDone(), "listed");
+        String expectedListed = outContent.toString();
+        outContent.reset();
+        taskList.showTasks(ui, new TaskFilter(TaskType.DEADLINE, false), "listed");
+        assertEquals(expectedListed, outContent.toString());
+        assertEquals(List.of("all", "before", "all", "containing", "all", "matching"), table.log);
+    }
+}
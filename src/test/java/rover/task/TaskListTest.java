@@ -1,14 +1,21 @@
 package rover.task;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
 import rover.ui.TextUi;
 import rover.ui.Ui;
 
@@ -108,9 +115,11 @@ public class TaskListTest {
             TaskList taskList = new TaskList(ui, taskStrings);
             assertEquals(3, taskList.getNumberOfTasks());
             assertEquals("T | 0 | read book", taskList.getTasks().get(0).getTaskString());
-            assertEquals("D | 1 | return book /by 2021-08-24 1800", taskList.getTasks().get(1).getTaskString());
-            assertEquals(
-                "E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600",
+            // Tasks saved by older versions gain their dates and times in the canonical form
+            assertEquals("D | 1 | return book /by 2021-08-24 1800 | 2021-08-24T18:00",
+                taskList.getTasks().get(1).getTaskString());
+            assertEquals("E | 0 | project meeting /from 2021-08-25 1400 /to 2021-08-25 1600"
+                + " | 2021-08-25T14:00 | 2021-08-25T16:00",
                 taskList.getTasks().get(2).getTaskString()
             );
         } catch (RoverException e) {
@@ -134,7 +143,7 @@ public class TaskListTest {
         ByteArrayOutputStream outContent = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outContent));
 
-        taskList.showTasks(ui, (task, ignore) -> true, "in your list");
+        taskList.showTasks(ui, task -> true, "in your list");
 
         String expectedOutput = """
             --------------------------------------------
@@ -147,6 +156,83 @@ public class TaskListTest {
         assertEquals(expectedOutput, outContent.toString());
     }
 
+    @Test
+    public void checkShowingOfTasksByTime() {
+        Ui ui = new TextUi();
+        TaskList taskList;
+        try {
+            taskList = new TaskList(null, "D | 0 | submit report /by 2030-08-24 1800", "T | 0 | read book",
+                "E | 0 | meeting /from 2030-08-24 1400 /to 2030-08-24 1600", "D | 1 | pay bills /by 2030-08-23",
+                "D | 0 | return book /by 2030-08-26 0900", "E | 0 | camp /from 2030-08-20 /to 2030-08-22");
+        } catch (RoverException | DateTimeParseException e) {
+            fail("Exception should not be thrown");
+            return;
+        }
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        taskList.deleteTask(4, ui);
+
+        String[] queries = {"2030-08-24", "2030-08-24 1400", "2030-08-24 1800", "2030-08-23", "2030-08-19"};
+        for (String query : queries) {
+            DateTimeQuery dateTimeQuery = DateTimeQuery.parse(query);
+            outContent.reset();
+            taskList.showTasks(ui, task -> task.isBefore(dateTimeQuery), "before " + query);
+            String expectedBefore = outContent.toString();
+            outContent.reset();
+            taskList.showTasksBefore(ui, dateTimeQuery, "before " + query);
+            assertEquals(expectedBefore, outContent.toString());
+
+            outContent.reset();
+            taskList.showTasks(ui, task -> task.isAfter(dateTimeQuery), "after " + query);
+            String expectedAfter = outContent.toString();
+            outContent.reset();
+            taskList.showTasksAfter(ui, dateTimeQuery, "after " + query);
+            assertEquals(expectedAfter, outContent.toString());
+        }
+
+        outContent.reset();
+        taskList.showTasksBetween(ui, DateTimeQuery.parse("2030-08-23"), DateTimeQuery.parse("2030-08-24 1400"),
+            "between 2030-08-23 and 2030-08-24 1400");
+        String expectedOutput = """
+            --------------------------------------------
+            Here are the tasks between 2030-08-23 and 2030-08-24 1400:
+            1. [E][ ] meeting (from Saturday, 24 August, 2030 2:00 pm to Saturday, 24 August, 2030 4:00 pm)
+            2. [D][X] pay bills (by: Friday, 23 August, 2030 11:59 pm)
+            --------------------------------------------
+            """.replace("\n", System.lineSeparator());
+        assertEquals(expectedOutput, outContent.toString());
+    }
+
+    @Test
+    public void checkDuplicatesSkipped_whenLoading() {
+        Ui ui = new TextUi();
+        TaskList taskList;
+        try {
+            taskList = new TaskList(null, "T | 0 | read book", "D | 0 | return book /by 2030-08-24 1800",
+                "T | 1 | read book", "D | 0 | return book /by 24/08/30 6:00PM", "D | 0 | return book /by 2030-08-24");
+        } catch (RoverException | DateTimeParseException e) {
+            fail("Exception should not be thrown");
+            return;
+        }
+        assertEquals(3, taskList.getNumberOfTasks());
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        try {
+            taskList.addTask(new Deadline("return book /by 24-08-2030 1800", ui), ui);
+            fail("Exception should be thrown");
+        } catch (RoverException | DateTimeParseException e) {
+            assertEquals("This task already exists in the list.", e.getMessage());
+        }
+        taskList.deleteTask(0, ui);
+        try {
+            taskList.addTask(new Todo("read book"), ui);
+        } catch (RoverException | DateTimeParseException e) {
+            fail("Exception should not be thrown");
+        }
+        assertEquals(3, taskList.getNumberOfTasks());
+    }
+
     @Test
     public void checkAddingOfTasks() {
         TaskList taskList = new TaskList();
@@ -208,4 +294,46 @@ public class TaskListTest {
             assertEquals("This task already exists in the list.", e.getMessage());
         }
     }
+
+    @Test
+    public void checkIndexOf_taskWithOtherStatusFound() throws RoverException {
+        TaskList taskList = new TaskList(null, "T | 0 | read book", "T | 1 | return book");
+        assertEquals(1, taskList.indexOf(new Todo("return book")));
+        taskList.removeTask(0);
+        assertEquals(0, taskList.indexOf(new Todo("return book")));
+        assertEquals(-1, taskList.indexOf(new Todo("read book")));
+    }
+
+    @Test
+    public void checkDuplicatesSkipped_sameDescriptionsInLinearTime() throws RoverException {
+        // Recurring deadlines share a description, so only their dates tell them apart
+        int taskCount = 20_000;
+        List<String> taskStrings = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        LocalDate date = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < taskCount; i++) {
+            String taskString = "D | 0 | pay rent /by " + date.plusDays(i) + " | " + date.plusDays(i);
+            taskStrings.add(taskString);
+            tasks.add(TaskList.parseTask(null, taskString));
+        }
+        // An event given as dates only is equal to one given the times that dates only stand for
+        taskStrings.add("E | 0 | camp /from 2030-08-20 /to 2030-08-22 | 2030-08-20 | 2030-08-22");
+        taskStrings.add("E | 0 | camp /from 2030-08-20 0000 /to 2030-08-22 2359 | 2030-08-20T00:00 | 2030-08-22T23:59");
+        for (String taskString : taskStrings.subList(taskCount, taskCount + 2)) {
+            tasks.add(TaskList.parseTask(null, taskString));
+        }
+        tasks.add(TaskList.parseTask(null, taskStrings.get(taskCount / 2)));
+
+        // Comparing every task with each task that shares its description took over ten seconds
+        TaskList taskList = assertTimeout(Duration.ofSeconds(2), () -> TaskList.of(tasks, null));
+        assertEquals(taskCount + 1, taskList.getNumberOfTasks());
+        TaskRecords records = TaskRecords.of(String.join("\n", taskStrings).getBytes(StandardCharsets.UTF_8));
+        TaskList lazyTaskList = TaskList.ofRecords(records, null);
+        assertEquals(taskCount + 1, lazyTaskList.getNumberOfTasks());
+        // The index of unique tasks is built from the records when a task is first added
+        assertTimeout(Duration.ofSeconds(2), () -> assertEquals(-1, lazyTaskList.indexOf(new Todo("pay rent"))));
+        assertEquals(taskCount / 2, lazyTaskList.indexOf(tasks.get(taskCount / 2)));
+        lazyTaskList.removeTask(taskCount / 2);
+        assertEquals(-1, lazyTaskList.indexOf(tasks.get(taskCount / 2)));
+    }
 }
@@ -0,0 +1,121 @@
+package rover.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.CorruptedTaskException;
+import rover.exceptions.RoverException;
+import rover.parser.DateTimeQuery;
+import rover.ui.TextUi;
+import rover.ui.Ui;
+
+public class TaskRecordsTest {
+
+    private static final String[] TASK_STRINGS = {
+        "T | 0 | read book",
+        "D | 1 | return book /by 2030-08-24",
+        "D | 0 | submit report /by 24/08/30 6:00PM",
+        "E | 0 | project meeting /from 2030-08-24 1400 /to 1600",
+        "E | 1 | camp /from 20/08/30 /to 22/08/30",
+        "T | 1 | read book again"
+    };
+
+    private static TaskRecords readRecords(String data) {
+        try {
+            return TaskRecords.of(data.getBytes(StandardCharsets.UTF_8));
+        } catch (RoverException e) {
+            fail("Exception should not be thrown");
+            return null;
+        }
+    }
+
+    @Test
+    public void checkRecords_parsedWhenRead() {
+        TaskRecords records = readRecords("T | 0 | read book\r\n\n   \n"
+            + "D | 0 | return book /by 2020-08-24\nE | 0 | broken /from 99/99/99 /to 2030-08-24\n");
+        assertEquals(3, records.size());
+        // Saved tasks are not checked against the current date and time
+        assertEquals("[D][ ] return book (by: Monday, 24 August, 2020 11:59 pm)", records.get(1).toString());
+        try {
+            records.get(2);
+            fail("Exception should be thrown");
+        } catch (CorruptedTaskException e) {
+            assertEquals("Possible corruption in saved task: E | 0 | broken /from 99/99/99 /to 2030-08-24",
+                e.getMessage());
+        }
+        records.add(new Todo("added", false));
+        assertEquals("read book", records.remove(0).description);
+        assertEquals(3, records.size());
+        assertEquals("added", records.get(2).description);
+
+        try {
+            TaskRecords.of("X | 0 | read book".getBytes(StandardCharsets.UTF_8));
+            fail("Exception should be thrown");
+        } catch (RoverException e) {
+            assertEquals("Possible corruption in saved tasks.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void checkTaskList_unreadTasksNotParsed() {
+        Ui ui = new TextUi();
+        TaskList taskList = TaskList.ofRecords(readRecords("T | 0 | read book\n"
+            + "D | 0 | broken /by 99/99/99\nT | 1 | return book"), null);
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        assertEquals(3, taskList.getNumberOfTasks());
+        taskList.markTask(0, ui);
+        taskList.deleteTask(2, ui);
+        taskList.showTasksContaining(ui, "book", false, "with the keyword 'book'");
+        assertEquals(List.of("T | 1 | read book", "D | 0 | broken /by 99/99/99"), taskList.getTaskStrings());
+        try {
+            taskList.showTasks(ui, task -> true, "in your list");
+            fail("Exception should be thrown");
+        } catch (CorruptedTaskException e) {
+            assertEquals("Possible corruption in saved task: D | 0 | broken /by 99/99/99", e.getMessage());
+        }
+    }
+
+    @Test
+    public void checkTaskList_sameAsLoadedTaskList() {
+        Ui ui = new TextUi();
+        TaskList loadedTaskList;
+        try {
+            loadedTaskList = new TaskList(null, TASK_STRINGS);
+        } catch (RoverException | DateTimeParseException e) {
+            fail("Exception should not be thrown");
+            return;
+        }
+        TaskList lazyTaskList = TaskList.ofRecords(readRecords(String.join("\n", TASK_STRINGS)), null);
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        String[] outputs = new String[2];
+        TaskList[] taskLists = {loadedTaskList, lazyTaskList};
+        for (int i = 0; i < taskLists.length; i++) {
+            outContent.reset();
+            taskLists[i].markTask(0, ui);
+            taskLists[i].deleteTask(2, ui);
+            taskLists[i].showTasks(ui, task -> true, "in your list");
+            taskLists[i].showTasksAfter(ui, DateTimeQuery.parse("2030-08-23"), "after 2030-08-23");
+            taskLists[i].showTasksContaining(ui, "BOOK", true, "with the keyword 'BOOK'");
+            try {
+                taskLists[i].addTask(new Deadline("return book /by 2030-08-24", ui), ui);
+                fail("Exception should be thrown");
+            } catch (RoverException e) {
+                assertEquals("This task already exists in the list.", e.getMessage());
+            }
+            outputs[i] = outContent.toString();
+        }
+        assertEquals(outputs[0], outputs[1]);
+        assertEquals(loadedTaskList.getTaskStrings(), lazyTaskList.getTaskStrings());
+    }
+}
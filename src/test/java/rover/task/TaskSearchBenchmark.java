@@ -0,0 +1,71 @@
+package rover.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import rover.exceptions.RoverException;
+
+/**
+ * Compares the time taken by find over a large task list when every task's display string is checked,
+ * and when the search index is used with case-sensitive and case-insensitive matching.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=rover.task.TaskSearchBenchmark [-PbenchmarkArgs=tasks]}.
+ */
+public class TaskSearchBenchmark {
+
+    private static final int DEFAULT_NUMBER_OF_TASKS = 200_000;
+    private static final int ROUNDS = 5;
+    private static final String[] WORDS = {"read", "return", "book", "meeting", "project", "report", "submit",
+        "groceries", "call", "mum", "lecture", "tutorial", "assignment", "laundry", "gym"};
+    private static final String[] KEYWORDS = {"book", "Project", "report 1234", "assignment 9", "xyz"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of tasks in the generated task list.
+     */
+    public static void main(String[] args) throws RoverException {
+        int numberOfTasks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_TASKS;
+        String[] taskStrings = new String[numberOfTasks];
+        for (int i = 0; i < numberOfTasks; i++) {
+            String description = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            taskStrings[i] = i % 2 == 0
+                ? "T | 0 | " + description
+                : String.format("D | 0 | %s /by 2030-08-%02d 1800", description, i % 28 + 1);
+        }
+        TaskList taskList = new TaskList(null, taskStrings);
+        List<Task> tasks = taskList.getTasks();
+        TaskStore store = new TaskSequence();
+        TaskSearchIndex searchIndex = new TaskSearchIndex(store::getDescription);
+        for (Task task : tasks) {
+            searchIndex.add(store.add(task), task.description);
+        }
+        System.out.printf("Searching %d tasks%n", numberOfTasks);
+
+        for (String keyword : KEYWORDS) {
+            measure("toString().contains", keyword, key -> {
+                List<Task> matches = new ArrayList<>();
+                for (Task task : tasks) {
+                    if (task.toString().contains(key)) {
+                        matches.add(task);
+                    }
+                }
+                return matches.size();
+            });
+            measure("index (case-sensitive)", keyword, key -> searchIndex.search(key, false).length);
+            measure("index (case-insensitive)", keyword, key -> searchIndex.search(key, true).length);
+        }
+    }
+
+    private static void measure(String name, String keyword, ToIntFunction<String> search) {
+        long bestNanos = Long.MAX_VALUE;
+        int numberOfMatches = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            numberOfMatches = search.applyAsInt(keyword);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        System.out.printf("%-26s %-14s %7d matches, best of %d: %8.3f ms%n", name, "'" + keyword + "'",
+            numberOfMatches, ROUNDS, bestNanos / 1e6);
+    }
+}
@@ -0,0 +1,45 @@
+package rover.task;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+
+public class TaskSearchIndexTest {
+
+    private static TaskSearchIndex createIndex(TaskStore store, String... descriptions) throws RoverException {
+        TaskSearchIndex searchIndex = new TaskSearchIndex(store::getDescription);
+        for (String description : descriptions) {
+            searchIndex.add(store.add(new Todo(description)), description);
+        }
+        return searchIndex;
+    }
+
+    @Test
+    public void checkSearch_caseSensitiveAndInsensitive() throws RoverException {
+        TaskSearchIndex searchIndex = createIndex(new TaskSequence(), "Read book", "return book", "buy BOOKS",
+            "read", "bo");
+
+        assertArrayEquals(new int[] {1, 2}, searchIndex.search("book", false));
+        assertArrayEquals(new int[] {1, 2, 3}, searchIndex.search("book", true));
+        assertArrayEquals(new int[] {4}, searchIndex.search("read", false));
+        assertArrayEquals(new int[] {1, 2, 5}, searchIndex.search("bo", false));
+        assertArrayEquals(new int[0], searchIndex.search("magazine", true));
+        assertArrayEquals(new int[0], searchIndex.search("ok re", false));
+    }
+
+    @Test
+    public void checkSearch_afterRemovingTasks() throws RoverException {
+        TaskStore store = new TaskSequence();
+        TaskSearchIndex searchIndex = createIndex(store, "task 1", "task 2", "task 3", "task 4", "task 5");
+
+        searchIndex.remove(2);
+        assertArrayEquals(new int[] {1, 3, 4, 5}, searchIndex.search("task", false));
+        // Removing more than half of the tasks removes their postings
+        searchIndex.remove(1);
+        searchIndex.remove(4);
+        assertArrayEquals(new int[] {3, 5}, searchIndex.search("task", false));
+        searchIndex.add(store.add(new Todo("task 6")), "task 6");
+        assertArrayEquals(new int[] {3, 5, 6}, searchIndex.search("TASK", true));
+    }
+}
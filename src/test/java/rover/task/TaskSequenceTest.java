@@ -0,0 +1,80 @@
+package rover.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import rover.exceptions.RoverException;
+
+public class TaskSequenceTest {
+
+    @Test
+    public void checkIdsStable_afterRemovingTasks() throws RoverException {
+        TaskSequence sequence = new TaskSequence();
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, sequence.add(new Todo("task " + i)));
+        }
+        assertEquals("[T][ ] task 2", sequence.remove(1).toString());
+        assertEquals("[T][ ] task 1", sequence.remove(0).toString());
+        assertEquals(3, sequence.size());
+        assertEquals(5, sequence.getId(2));
+        assertEquals(2, sequence.indexOf(5));
+        assertEquals(-1, sequence.indexOf(2));
+        assertEquals(-1, sequence.indexOf(6));
+        assertEquals(6, sequence.add(new Todo("task 6")));
+        assertEquals("[T][ ] task 6", sequence.get(3).toString());
+    }
+
+    @Test
+    public void checkAgainstList_randomOperations() throws RoverException {
+        Random random = new Random(42);
+        TaskSequence sequence = new TaskSequence();
+        List<Task> expectedTasks = new ArrayList<>();
+        List<Integer> expectedIds = new ArrayList<>();
+        for (int operation = 0; operation < 5000; operation++) {
+            if (expectedTasks.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new Todo("task " + operation);
+                expectedIds.add(sequence.add(task));
+                expectedTasks.add(task);
+            } else {
+                int index = random.nextInt(expectedTasks.size());
+                assertEquals(expectedTasks.remove(index), sequence.remove(index));
+                expectedIds.remove(index);
+            }
+        }
+        assertEquals(expectedTasks, sequence.toList());
+        for (int i = 0; i < expectedTasks.size(); i++) {
+            assertEquals(expectedTasks.get(i), sequence.get(i));
+            assertEquals(expectedIds.get(i), sequence.getId(i));
+            assertEquals(i, sequence.indexOf(expectedIds.get(i)));
+        }
+    }
+
+    @Test
+    public void checkIdsStable_afterCompaction() throws RoverException {
+        TaskSequence sequence = new TaskSequence();
+        for (int i = 1; i <= 1000; i++) {
+            sequence.add(new Todo("task " + i));
+        }
+        // Removes every task but the last of each ten, which leaves far more tombstones than tasks
+        for (int index = 999; index >= 0; index--) {
+            if (index % 10 != 9) {
+                sequence.remove(index);
+            }
+        }
+        assertEquals(100, sequence.size());
+        for (int index = 0; index < 100; index++) {
+            int id = index * 10 + 10;
+            assertEquals(id, sequence.getId(index));
+            assertEquals(index, sequence.indexOf(id));
+            assertEquals("[T][ ] task " + id, sequence.getById(id).toString());
+        }
+        assertEquals(-1, sequence.indexOf(1));
+        assertEquals(1001, sequence.add(new Todo("task 1001")));
+        assertEquals(100, sequence.indexOf(1001));
+        assertEquals("task 1001", sequence.toList().get(100).getDescription());
+    }
+}
@@ -0,0 +1,74 @@
+package rover.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import rover.exceptions.RoverException;
+import rover.ui.Ui;
+
+/**
+ * Compares the heap retained by a large task list when its tasks are kept as task objects
+ * and when they are kept in a {@link CompactTaskStore}, both for the task store alone and for the whole task list
+ * with its indexes.
+ * Run with {@code ./gradlew benchmark -Pbenchmark=rover.task.TaskStoreFootprintBenchmark [-PbenchmarkArgs=tasks]}.
+ */
+public class TaskStoreFootprintBenchmark {
+
+    private static final int DEFAULT_NUMBER_OF_TASKS = 1_000_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of tasks to keep.
+     */
+    public static void main(String[] args) throws RoverException {
+        int numberOfTasks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_TASKS;
+        System.out.printf("Keeping %d tasks%n", numberOfTasks);
+        measure("TaskSequence", numberOfTasks, () -> fillStore(new TaskSequence(), numberOfTasks));
+        measure("CompactTaskStore", numberOfTasks, () -> fillStore(new CompactTaskStore(), numberOfTasks));
+        measure("TaskList (task objects)", numberOfTasks, () ->
+            TaskList.of(generateTasks(numberOfTasks), null, new TaskSequence()));
+        measure("TaskList (compact)", numberOfTasks, () ->
+            TaskList.of(generateTasks(numberOfTasks), null, new CompactTaskStore()));
+    }
+
+    private static TaskStore fillStore(TaskStore store, int numberOfTasks) {
+        generateTasks(numberOfTasks).forEach(store::add);
+        return store;
+    }
+
+    private static List<Task> generateTasks(int numberOfTasks) {
+        List<Task> tasks = new ArrayList<>(numberOfTasks);
+        try {
+            for (int i = 0; i < numberOfTasks; i++) {
+                String date = String.format("2030-%02d-%02d", i % 12 + 1, i % 28 + 1);
+                tasks.add(switch (i % 3) {
+                case 0 -> new Todo("read book " + i);
+                case 1 -> new Deadline("return book " + i, date + " 1800", (Ui) null);
+                default -> new Event("meeting " + i, date + " 1400", date + " 1600", (Ui) null);
+                });
+            }
+        } catch (RoverException e) {
+            throw new AssertionError("Generated tasks should be valid.", e);
+        }
+        return tasks;
+    }
+
+    private static void measure(String name, int numberOfTasks, Supplier<Object> supplier) {
+        long before = getUsedHeap();
+        Object retained = supplier.get();
+        long after = getUsedHeap();
+        System.out.printf("%-26s %8.1f MB, %6.1f bytes per task%n", name, (after - before) / 1e6,
+            (double) (after - before) / numberOfTasks);
+        assert retained != null : "The measured object should be retained until it is measured.";
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}